@@ -2,6 +2,7 @@ package com.ducks.synaptra.agent;
 
 import com.ducks.synaptra.client.openai.data.Tool;
 import com.ducks.synaptra.client.openai.data.ToolChoice;
+import com.ducks.synaptra.prompt.CompiledPrompt;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.util.List;
 import java.util.Map;
@@ -205,4 +206,36 @@ public interface Agent {
    */
   @JsonIgnore
   Map<String, Object> getVelocityContext();
+
+  /**
+   * Indicates whether the rendered prompt of this agent never changes.
+   *
+   * <p>When {@code true}, the prompt is rendered once and reused for every subsequent request,
+   * without building the Velocity context again. Only return {@code true} if neither the prompt nor
+   * any value exposed through {@link #getVelocityContext()} changes after the agent is fully
+   * assembled (including its child agents).
+   *
+   * <p>This method is ignored during JSON serialization.
+   *
+   * @return {@code true} if the rendered prompt is static; {@code false} by default
+   */
+  @JsonIgnore
+  default boolean isPromptStatic() {
+    return false;
+  }
+
+  /**
+   * Returns the build-time compiled renderer of this agent prompt, if any.
+   *
+   * <p>When not {@code null}, the system prompt is produced by this renderer instead of rendering
+   * {@link #getPrompt()} with Velocity (see {@link com.ducks.synaptra.prompt.CompiledPrompts}).
+   *
+   * <p>This method is ignored during JSON serialization.
+   *
+   * @return the compiled prompt, or {@code null} (default) to render the prompt with Velocity
+   */
+  @JsonIgnore
+  default CompiledPrompt getCompiledPrompt() {
+    return null;
+  }
 }
@@ -3,13 +3,19 @@ package com.ducks.synaptra.client.openai;
 import com.ducks.synaptra.client.AbstractClient;
 import com.ducks.synaptra.client.openai.data.ChatCompletionRequest;
 import com.ducks.synaptra.client.openai.data.ChatCompletionResponse;
+import com.ducks.synaptra.client.openai.recording.ExchangeRecorder;
+import com.ducks.synaptra.client.openai.recording.RecordedExchange;
+import com.ducks.synaptra.orchestration.cancellation.CancellationToken;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 import reactor.netty.http.client.HttpClient;
 
 /**
@@ -37,6 +43,9 @@ import reactor.netty.http.client.HttpClient;
  *       data during write
  * </ul>
  *
+ * <p>When recording is enabled, every call is handed over to the {@link ExchangeRecorder} with its
+ * timing and outcome.
+ *
  * <h2>Usage Example:</h2>
  *
  * <pre>{@code
@@ -76,12 +85,34 @@ public class OpenAIClient extends AbstractClient {
 
   private final WebClient webClient;
 
+  private final ExchangeRecorder exchangeRecorder;
+
   @Value("${ai.agentics.client.openai.url}")
   private String url;
 
   @Value("${ai.agentics.client.openai.api-key}")
   private String apiKey;
 
+  /**
+   * Constructs a new {@code OpenAIClient} instance that does not record its calls.
+   *
+   * <p>The created client uses a {@link WebClient} configured with a Reactor Netty {@link
+   * HttpClient} that enforces all defined timeout limits.
+   *
+   * @param connectionTimeout maximum time (in ms) to establish the TCP connection
+   * @param responseTimeout maximum time (in ms) to wait for the HTTP response
+   * @param readTimeout maximum time (in ms) without receiving data after connection
+   * @param writeTimeout maximum time (in ms) without sending data during write
+   */
+  protected OpenAIClient(
+      Integer connectionTimeout,
+      Integer responseTimeout,
+      Integer readTimeout,
+      Integer writeTimeout) {
+    this(
+        ExchangeRecorder.disabled(), connectionTimeout, responseTimeout, readTimeout, writeTimeout);
+  }
+
   /**
    * Constructs a new {@code OpenAIClient} instance with timeout configuration values provided via
    * application properties.
@@ -89,18 +120,22 @@ public class OpenAIClient extends AbstractClient {
    * <p>The created client uses a {@link WebClient} configured with a Reactor Netty {@link
    * HttpClient} that enforces all defined timeout limits.
    *
+   * @param exchangeRecorder the recorder of the calls (does nothing unless recording is enabled)
    * @param connectionTimeout maximum time (in ms) to establish the TCP connection
    * @param responseTimeout maximum time (in ms) to wait for the HTTP response
    * @param readTimeout maximum time (in ms) without receiving data after connection
    * @param writeTimeout maximum time (in ms) without sending data during write
    */
+  @Autowired
   protected OpenAIClient(
+      ExchangeRecorder exchangeRecorder,
       @Value("${ai.agentics.client.openai.connect-timeout-ms:5000}") Integer connectionTimeout,
       @Value("${ai.agentics.client.openai.response-timeout-ms:5000}") Integer responseTimeout,
       @Value("${ai.agentics.client.openai.read-timeout-ms:5000}") Integer readTimeout,
       @Value("${ai.agentics.client.openai.write-timeout-ms:5000}") Integer writeTimeout) {
     super(connectionTimeout, responseTimeout, readTimeout, writeTimeout);
     this.webClient = buildWebClient();
+    this.exchangeRecorder = exchangeRecorder;
   }
 
   /**
@@ -131,6 +166,74 @@ public class OpenAIClient extends AbstractClient {
    * @return a {@link ChatCompletionResponse} containing generated messages or tool calls
    */
   public ChatCompletionResponse call(String requestId, ChatCompletionRequest request) {
+    return call(requestId, request, null);
+  }
+
+  /**
+   * Sends a chat-completion request to the OpenAI API, aborting it when a cancellation token is
+   * cancelled.
+   *
+   * <p>Behaves like {@link #call(String, ChatCompletionRequest)}; in addition, cancelling {@code
+   * token} while the request is in flight cancels the HTTP exchange (the connection is released)
+   * and makes this method return {@code null} right away. Nothing is sent if the token is already
+   * cancelled.
+   *
+   * @param requestId a unique identifier used for tracing or log correlation of this request
+   * @param request the {@link ChatCompletionRequest} containing model, messages, and tool
+   *     definitions
+   * @param token the cancellation token of the request, or {@code null} for none
+   * @return a {@link ChatCompletionResponse} containing generated messages or tool calls, or {@code
+   *     null} if the call failed or was cancelled
+   */
+  public ChatCompletionResponse call(
+      String requestId, ChatCompletionRequest request, @Nullable CancellationToken token) {
+    if (!exchangeRecorder.isEnabled()) {
+      return send(requestId, request, token);
+    }
+
+    long startedAtMillis = System.currentTimeMillis();
+    long startedAt = System.nanoTime();
+    ChatCompletionResponse chatCompletionResponse = null;
+    try {
+      chatCompletionResponse = send(requestId, request, token);
+      return chatCompletionResponse;
+    } finally {
+      String outcome =
+          CancellationToken.isCancelled(token)
+              ? RecordedExchange.CANCELLED
+              : chatCompletionResponse != null ? RecordedExchange.SUCCESS : RecordedExchange.ERROR;
+      exchangeRecorder.record(
+          requestId,
+          startedAtMillis,
+          System.nanoTime() - startedAt,
+          outcome,
+          request,
+          chatCompletionResponse);
+    }
+  }
+
+  @SuppressWarnings("try") // the cancellation registration is only closed, never read
+  private ChatCompletionResponse send(
+      String requestId, ChatCompletionRequest request, @Nullable CancellationToken token) {
+    Mono<ChatCompletionResponse> response = exchange(requestId, request);
+    if (token == null) {
+      return response.block();
+    }
+
+    Sinks.One<Boolean> cancelled = Sinks.one();
+    try (CancellationToken.Registration ignored =
+        token.onCancel(() -> cancelled.tryEmitValue(Boolean.TRUE))) {
+      ChatCompletionResponse chatCompletionResponse =
+          response.takeUntilOther(cancelled.asMono()).block();
+      if (token.isCancelled()) {
+        logger.info("message={}, requestId={}", "OpenAI API call cancelled", requestId);
+        return null;
+      }
+      return chatCompletionResponse;
+    }
+  }
+
+  private Mono<ChatCompletionResponse> exchange(String requestId, ChatCompletionRequest request) {
     return this.webClient
         .post()
         .uri(this.url)
@@ -148,7 +251,6 @@ public class OpenAIClient extends AbstractClient {
                   requestId,
                   e.getMessage());
               return Mono.empty();
-            })
-        .block();
+            });
   }
 }
@@ -0,0 +1,249 @@
+package com.ducks.synaptra.client.openai.recording;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+
+/**
+ * Compact append-only file of {@link RecordedExchange}s.
+ *
+ * <h2>File format</h2>
+ *
+ * <pre>
+ * int   magic ('SYNX')
+ * int   version
+ * n x { int byteLength, byte[byteLength] frame }
+ * </pre>
+ *
+ * <p>Each frame is an independently deflate-compressed exchange: {@code UTF requestId}, {@code long
+ * startedAtMillis}, {@code long latencyNanos}, {@code UTF outcome}, {@code int requestLength},
+ * {@code byte[requestLength] request}, {@code int responseLength} ({@code -1} for none) and {@code
+ * byte[responseLength] response}, JSON documents being stored as UTF-8.
+ *
+ * <p>Frames are only ever appended, so a file can be extended across restarts and a reader stops
+ * cleanly at a frame truncated by a crash.
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+public final class ExchangeLog {
+
+  private static final int MAGIC = 0x53594E58;
+  private static final int VERSION = 1;
+  private static final int BUFFER_BYTES = 1 << 16;
+
+  private ExchangeLog() {}
+
+  /**
+   * Opens a file for appending, writing its header if the file is new or empty.
+   *
+   * @param path the file to append to
+   * @return the writer (must be closed)
+   * @throws IOException if the file cannot be opened or is not an exchange log
+   */
+  public static Writer append(Path path) throws IOException {
+    if (Files.exists(path) && Files.size(path) > 0) {
+      try (DataInputStream in = new DataInputStream(Files.newInputStream(path))) {
+        checkHeader(in);
+      }
+      return new Writer(path, false);
+    }
+    Path parent = path.toAbsolutePath().getParent();
+    if (parent != null) {
+      Files.createDirectories(parent);
+    }
+    return new Writer(path, true);
+  }
+
+  /**
+   * Reads every exchange of a file, in recording order.
+   *
+   * @param path the file to read
+   * @param consumer receives each exchange
+   * @return the number of exchanges read
+   * @throws IOException if the file cannot be read or is not an exchange log
+   */
+  public static long read(Path path, Consumer<RecordedExchange> consumer) throws IOException {
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(path), BUFFER_BYTES))) {
+      checkHeader(in);
+      Inflater inflater = new Inflater();
+      try {
+        long count = 0;
+        while (true) {
+          byte[] frame;
+          try {
+            frame = new byte[in.readInt()];
+            in.readFully(frame);
+          } catch (EOFException e) {
+            // End of file, or a frame truncated by a crash while it was appended.
+            return count;
+          }
+          consumer.accept(decode(frame, inflater));
+          count++;
+        }
+      } finally {
+        inflater.end();
+      }
+    }
+  }
+
+  /**
+   * Reads every exchange of a file into a list, in recording order.
+   *
+   * @param path the file to read
+   * @return the exchanges
+   * @throws IOException if the file cannot be read or is not an exchange log
+   */
+  public static List<RecordedExchange> readAll(Path path) throws IOException {
+    List<RecordedExchange> exchanges = new ArrayList<>();
+    read(path, exchanges::add);
+    return exchanges;
+  }
+
+  private static void checkHeader(DataInputStream in) throws IOException {
+    if (in.readInt() != MAGIC) {
+      throw new IOException("Not an exchange log");
+    }
+    int version = in.readInt();
+    if (version != VERSION) {
+      throw new IOException("Unsupported exchange log version: " + version);
+    }
+  }
+
+  private static RecordedExchange decode(byte[] frame, Inflater inflater) throws IOException {
+    inflater.reset();
+    inflater.setInput(frame);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(frame.length * 4);
+    byte[] buffer = new byte[BUFFER_BYTES];
+    try {
+      while (!inflater.finished()) {
+        int inflated = inflater.inflate(buffer);
+        if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          throw new IOException("Truncated exchange log frame");
+        }
+        bytes.write(buffer, 0, inflated);
+      }
+    } catch (DataFormatException e) {
+      throw new IOException("Malformed exchange log frame", e);
+    }
+
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    String requestId = in.readUTF();
+    long startedAtMillis = in.readLong();
+    long latencyNanos = in.readLong();
+    String outcome = in.readUTF();
+    String request = readJson(in);
+    String response = readJson(in);
+    return new RecordedExchange(
+        requestId, startedAtMillis, latencyNanos, outcome, request, response);
+  }
+
+  private static String readJson(DataInputStream in) throws IOException {
+    int length = in.readInt();
+    if (length < 0) {
+      return null;
+    }
+    byte[] json = new byte[length];
+    in.readFully(json);
+    return new String(json, StandardCharsets.UTF_8);
+  }
+
+  private static void writeJson(DataOutputStream out, String json) throws IOException {
+    if (json == null) {
+      out.writeInt(-1);
+      return;
+    }
+    byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  /**
+   * Appends exchanges to a file. Not thread-safe; callers use a single writer thread.
+   *
+   * @author Leandro Marques
+   * @since 1.0.0
+   */
+  public static final class Writer implements Closeable {
+
+    private final DataOutputStream out;
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private final ByteArrayOutputStream frame = new ByteArrayOutputStream(BUFFER_BYTES);
+
+    private Writer(Path path, boolean header) throws IOException {
+      OutputStream file =
+          Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+      this.out = new DataOutputStream(new BufferedOutputStream(file, BUFFER_BYTES));
+      if (header) {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.flush();
+      }
+    }
+
+    /**
+     * Appends an exchange; it reaches the file on the next {@link #flush()} at the latest.
+     *
+     * @param exchange the exchange to append
+     * @throws IOException if the exchange cannot be written
+     */
+    public void append(RecordedExchange exchange) throws IOException {
+      frame.reset();
+      deflater.reset();
+      try (DataOutputStream data =
+          new DataOutputStream(new DeflaterOutputStream(frame, deflater))) {
+        data.writeUTF(exchange.requestId());
+        data.writeLong(exchange.startedAtMillis());
+        data.writeLong(exchange.latencyNanos());
+        data.writeUTF(exchange.outcome());
+        writeJson(data, exchange.request());
+        writeJson(data, exchange.response());
+      }
+      // The whole frame is written at once, so a crash can only truncate the last frame.
+      out.writeInt(frame.size());
+      frame.writeTo(out);
+    }
+
+    /**
+     * Writes the buffered exchanges to the file.
+     *
+     * @throws IOException if the exchanges cannot be written
+     */
+    public void flush() throws IOException {
+      out.flush();
+    }
+
+    /**
+     * Flushes and closes the file.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+      try {
+        out.close();
+      } finally {
+        deflater.end();
+      }
+    }
+  }
+}
@@ -0,0 +1,257 @@
+package com.ducks.synaptra.client.openai.recording;
+
+import com.ducks.synaptra.client.openai.data.ChatCompletionRequest;
+import com.ducks.synaptra.client.openai.data.ChatCompletionResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * Opt-in recorder of the OpenAI calls made by {@link
+ * com.ducks.synaptra.client.openai.OpenAIClient}, for performance regression runs.
+ *
+ * <p>Every call is captured as a {@link RecordedExchange}: request, response, start time, latency
+ * and outcome. Exchanges are appended to an {@link ExchangeLog} file, which a replayer can serve
+ * from a local stub to reproduce production traffic at its original or an accelerated pace.
+ *
+ * <p>Recording stays off the request thread: the client only hands the request and response objects
+ * over; serialization, redaction, compression and file writes run on a dedicated {@code
+ * ai-exchange-recorder} thread. When its queue is full, exchanges are dropped and counted.
+ *
+ * <p>Message contents and tool call arguments go through the {@link ExchangeRedactor}s before they
+ * are written: the built-in {@link ExchangeRedactor#PII} redactor if enabled, then every {@link
+ * ExchangeRedactor} bean, in order.
+ *
+ * <h2>Configuration Properties</h2>
+ *
+ * <ul>
+ *   <li><b>ai.agentics.recording.enabled</b> — Record the OpenAI calls (default {@code false})
+ *   <li><b>ai.agentics.recording.path</b> — Exchange log file, appended to if it exists (default
+ *       {@code synaptra-exchanges.bin})
+ *   <li><b>ai.agentics.recording.queue-capacity</b> — Maximum number of exchanges waiting for the
+ *       recorder thread (default {@code 10000})
+ *   <li><b>ai.agentics.recording.redact-pii</b> — Mask e-mail addresses and long digit sequences
+ *       (default {@code true})
+ * </ul>
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@Component
+public class ExchangeRecorder implements DisposableBean {
+
+  private static final Logger logger = LogManager.getLogger(ExchangeRecorder.class);
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final List<ExchangeRedactor> redactors = new ArrayList<>();
+  private final ThreadPoolExecutor executor;
+  private final ExchangeLog.Writer writer;
+
+  private final LongAdder recorded = new LongAdder();
+  private final LongAdder dropped = new LongAdder();
+
+  /**
+   * Creates the recorder, opening the exchange log if recording is enabled.
+   *
+   * @param redactorBeans the redactors registered by the application
+   * @param enabled whether the OpenAI calls are recorded
+   * @param path the exchange log file
+   * @param queueCapacity maximum number of exchanges waiting for the recorder thread
+   * @param redactPii whether the built-in PII redactor is applied first
+   * @throws IllegalArgumentException if the path is empty or the capacity is not positive
+   * @throws UncheckedIOException if the exchange log cannot be opened
+   */
+  public ExchangeRecorder(
+      ObjectProvider<ExchangeRedactor> redactorBeans,
+      @Value("${ai.agentics.recording.enabled:false}") boolean enabled,
+      @Value("${ai.agentics.recording.path:synaptra-exchanges.bin}") String path,
+      @Value("${ai.agentics.recording.queue-capacity:10000}") int queueCapacity,
+      @Value("${ai.agentics.recording.redact-pii:true}") boolean redactPii) {
+    if (!enabled) {
+      this.executor = null;
+      this.writer = null;
+      return;
+    }
+    Assert.isTrue(StringUtils.hasText(path), "path must not be empty");
+    Assert.isTrue(queueCapacity > 0, "queueCapacity must be positive");
+    if (redactPii) {
+      redactors.add(ExchangeRedactor.PII);
+    }
+    redactorBeans.orderedStream().forEach(redactors::add);
+    try {
+      this.writer = ExchangeLog.append(Path.of(path));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to open exchange log: " + path, e);
+    }
+    this.executor =
+        new ThreadPoolExecutor(
+            1,
+            1,
+            0,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            Thread.ofPlatform().name("ai-exchange-recorder").daemon().factory(),
+            (task, pool) -> dropped.increment());
+    logger.info("[EXCHANGE_RECORDING_STARTED] path={}, redactors={}", path, redactors.size());
+  }
+
+  /**
+   * Returns a recorder that records nothing, for clients created outside the application context.
+   *
+   * @return a disabled recorder
+   */
+  public static ExchangeRecorder disabled() {
+    // A disabled recorder reads none of its other arguments.
+    return new ExchangeRecorder(null, false, null, 0, false);
+  }
+
+  /**
+   * Returns whether the OpenAI calls are recorded.
+   *
+   * @return {@code true} if recording is enabled
+   */
+  public boolean isEnabled() {
+    return executor != null;
+  }
+
+  /**
+   * Records an OpenAI call; does nothing if recording is disabled.
+   *
+   * @param requestId the request identifier passed to the client
+   * @param startedAtMillis the wall-clock time the call started, in epoch milliseconds
+   * @param latencyNanos the duration of the call
+   * @param outcome {@link RecordedExchange#SUCCESS}, {@link RecordedExchange#ERROR} or {@link
+   *     RecordedExchange#CANCELLED}
+   * @param request the request sent
+   * @param response the response received, or {@code null} if none
+   */
+  public void record(
+      String requestId,
+      long startedAtMillis,
+      long latencyNanos,
+      String outcome,
+      ChatCompletionRequest request,
+      ChatCompletionResponse response) {
+    if (executor == null) {
+      return;
+    }
+    executor.execute(
+        () -> write(requestId, startedAtMillis, latencyNanos, outcome, request, response));
+  }
+
+  /**
+   * Returns the number of exchanges recorded since startup.
+   *
+   * @return recorded exchanges
+   */
+  public long getRecordedExchanges() {
+    return recorded.sum();
+  }
+
+  /**
+   * Returns the number of exchanges dropped because the recorder queue was full since startup.
+   *
+   * @return dropped exchanges
+   */
+  public long getDroppedExchanges() {
+    return dropped.sum();
+  }
+
+  /** Stops the recorder thread once the queued exchanges are written, and closes the log. */
+  @Override
+  public void destroy() throws InterruptedException, IOException {
+    if (executor == null) {
+      return;
+    }
+    executor.shutdown();
+    executor.awaitTermination(5, TimeUnit.SECONDS);
+    writer.close();
+    logger.info(
+        "[EXCHANGE_RECORDING_STOPPED] recorded={}, dropped={}", recorded.sum(), dropped.sum());
+  }
+
+  /** Serializes, redacts and appends an exchange; runs on the recorder thread. */
+  private void write(
+      String requestId,
+      long startedAtMillis,
+      long latencyNanos,
+      String outcome,
+      ChatCompletionRequest request,
+      ChatCompletionResponse response) {
+    try {
+      JsonNode requestJson = mapper.valueToTree(request);
+      redactMessages(requestJson.path("messages"));
+      String responseText = null;
+      if (response != null) {
+        JsonNode responseJson = mapper.valueToTree(response);
+        for (JsonNode choice : responseJson.path("choices")) {
+          redactMessage(choice.path("message"));
+        }
+        responseText = mapper.writeValueAsString(responseJson);
+      }
+
+      writer.append(
+          new RecordedExchange(
+              requestId,
+              startedAtMillis,
+              latencyNanos,
+              outcome,
+              mapper.writeValueAsString(requestJson),
+              responseText));
+      recorded.increment();
+      if (executor.getQueue().isEmpty()) {
+        writer.flush();
+      }
+    } catch (IOException | RuntimeException e) {
+      logger.warn("[EXCHANGE_RECORDING_FAILED] requestId={}, reason={}", requestId, e.getMessage());
+    }
+  }
+
+  private void redactMessages(JsonNode messages) {
+    for (JsonNode message : messages) {
+      redactMessage(message);
+    }
+  }
+
+  /** Redacts the content and the tool call arguments of a message node. */
+  private void redactMessage(JsonNode message) {
+    if (redactors.isEmpty() || !(message instanceof ObjectNode node)) {
+      return;
+    }
+    redactField(node, "content");
+    for (JsonNode toolCall : node.path("tool_calls")) {
+      if (toolCall.path("function") instanceof ObjectNode function) {
+        redactField(function, "arguments");
+      }
+    }
+  }
+
+  private void redactField(ObjectNode node, String field) {
+    JsonNode value = node.get(field);
+    if (value == null || !value.isTextual()) {
+      return;
+    }
+    String text = value.asText();
+    for (ExchangeRedactor redactor : redactors) {
+      text = redactor.redact(text);
+    }
+    node.put(field, text);
+  }
+}
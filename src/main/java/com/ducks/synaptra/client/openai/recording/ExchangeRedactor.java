@@ -0,0 +1,50 @@
+package com.ducks.synaptra.client.openai.recording;
+
+import java.util.regex.Pattern;
+
+/**
+ * Redaction hook applied by the {@link ExchangeRecorder} before an exchange is written.
+ *
+ * <p>Every text a user or a model may fill with sensitive content goes through the redactors, in
+ * bean order: message contents and tool call arguments, of both the request and the response.
+ * Models, tool definitions and identifiers are kept as is, so a redacted recording still replays
+ * the same session shapes.
+ *
+ * <p>Register redactors as beans:
+ *
+ * <pre>{@code
+ * @Bean
+ * ExchangeRedactor customerIdRedactor() {
+ *   return text -> text.replaceAll("CUST-\\d+", "CUST-0");
+ * }
+ * }</pre>
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@FunctionalInterface
+public interface ExchangeRedactor {
+
+  /**
+   * Masks e-mail addresses and long digit sequences (card, phone and account numbers), applied
+   * first when {@code ai.agentics.recording.redact-pii} is enabled.
+   */
+  ExchangeRedactor PII =
+      new ExchangeRedactor() {
+        private final Pattern email = Pattern.compile("[\\w.+-]+@[\\w-]+(\\.[\\w-]+)+");
+        private final Pattern digits = Pattern.compile("\\d(?:[ -]?\\d){7,}");
+
+        @Override
+        public String redact(String text) {
+          return digits.matcher(email.matcher(text).replaceAll("[email]")).replaceAll("[number]");
+        }
+      };
+
+  /**
+   * Redacts a text.
+   *
+   * @param text the text to redact (never {@code null})
+   * @return the redacted text
+   */
+  String redact(String text);
+}
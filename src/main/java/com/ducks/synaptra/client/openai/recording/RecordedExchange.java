@@ -0,0 +1,35 @@
+package com.ducks.synaptra.client.openai.recording;
+
+/**
+ * One OpenAI call captured by the {@link ExchangeRecorder}.
+ *
+ * <p>Request and response are kept as (redacted) JSON, so a replayer can serve the response bytes
+ * exactly as recorded.
+ *
+ * @param requestId the request identifier passed to the client (the session identifier for
+ *     orchestration calls)
+ * @param startedAtMillis the wall-clock time the call started, in epoch milliseconds
+ * @param latencyNanos the duration of the call
+ * @param outcome {@link #SUCCESS}, {@link #ERROR} or {@link #CANCELLED}
+ * @param request the request JSON
+ * @param response the response JSON, or {@code null} if the call failed or was cancelled
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+public record RecordedExchange(
+    String requestId,
+    long startedAtMillis,
+    long latencyNanos,
+    String outcome,
+    String request,
+    String response) {
+
+  /** The call returned a response. */
+  public static final String SUCCESS = "success";
+
+  /** The call failed. */
+  public static final String ERROR = "error";
+
+  /** The call was cancelled (superseded turn). */
+  public static final String CANCELLED = "cancelled";
+}
@@ -0,0 +1,35 @@
+package com.ducks.synaptra.config;
+
+/**
+ * Marks the threads on which a {@link RejectionPolicy#CALLER_RUNS} executor must not run a rejected
+ * task.
+ *
+ * <p>Caller-runs slows a producer down by making it run the task itself. That is the point for a
+ * thread serving one session, but not for a thread shared by all of them (e.g. the consumer of the
+ * {@link com.ducks.synaptra.orchestration.bus.OrchestrationEventBus}): every other session would
+ * wait behind the task. On such a thread, the stage executors reject the task as under {@link
+ * RejectionPolicy#ABORT} instead.
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+public final class CallerRuns {
+
+  private static final ThreadLocal<Boolean> FORBIDDEN = new ThreadLocal<>();
+
+  private CallerRuns() {}
+
+  /** Forbids caller-runs on the current thread, for its whole life. */
+  public static void forbidOnCurrentThread() {
+    FORBIDDEN.set(Boolean.TRUE);
+  }
+
+  /**
+   * Tells whether a rejected task may run on the current thread.
+   *
+   * @return {@code false} on a thread that forbade caller-runs
+   */
+  public static boolean isAllowed() {
+    return FORBIDDEN.get() == null;
+  }
+}
@@ -0,0 +1,40 @@
+package com.ducks.synaptra.config;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Task notified when a stage executor drops it under the {@link RejectionPolicy#DISCARD} policy.
+ *
+ * <p>Used by submitters that must learn about dropped tasks, such as the session mailbox, which
+ * otherwise would wait forever for the task to complete. The notification runs on the submitting
+ * thread. {@link TaskDecorator}s applied by the stage executors keep the notification.
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+public interface DiscardableTask extends Runnable {
+
+  /** Called instead of {@link #run()} when the task is discarded. */
+  void onDiscard();
+
+  /**
+   * Wraps a task with the discard notification of another one.
+   *
+   * @param task the task to run
+   * @param onDiscard the notification called when the task is discarded
+   * @return a discardable task
+   */
+  static DiscardableTask of(Runnable task, Runnable onDiscard) {
+    return new DiscardableTask() {
+      @Override
+      public void run() {
+        task.run();
+      }
+
+      @Override
+      public void onDiscard() {
+        onDiscard.run();
+      }
+    };
+  }
+}
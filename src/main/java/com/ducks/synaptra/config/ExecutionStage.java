@@ -0,0 +1,160 @@
+package com.ducks.synaptra.config;
+
+/**
+ * Orchestration stages, each executed on its own bulkheaded executor.
+ *
+ * <p>Isolating the stages keeps a slow stage (e.g. a blocking {@code ToolExecutionListener}) from
+ * filling a shared queue and starving the others, in particular the LLM calls.
+ *
+ * <p>Each stage is configured under {@code ai.agentics.executor.<key>.*}; the defaults below apply
+ * when a property is not set (see {@link ThreadPoolTaskExecutorConfig}).
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+public enum ExecutionStage {
+
+  /** LLM I/O: agent requests and interpretation of their responses. */
+  AGENT(
+      "agent",
+      ThreadPoolTaskExecutorConfig.AGENT_EXECUTOR,
+      "ai-event-exec-",
+      4,
+      8,
+      100,
+      256,
+      RejectionPolicy.ABORT),
+
+  /** Tool dispatch to {@code ToolExecutionListener}s and internal routing tools. */
+  TOOL(
+      "tool",
+      ThreadPoolTaskExecutorConfig.TOOL_EXECUTOR,
+      "ai-tool-exec-",
+      4,
+      8,
+      100,
+      256,
+      RejectionPolicy.ABORT),
+
+  /** Episodic memory records and session state transitions. */
+  RECORD(
+      "record",
+      ThreadPoolTaskExecutorConfig.RECORD_EXECUTOR,
+      "ai-record-exec-",
+      2,
+      4,
+      1000,
+      64,
+      RejectionPolicy.CALLER_RUNS),
+
+  /** Answer delivery to {@code AnswerExecutionListener}s and agent response listeners. */
+  ANSWER(
+      "answer",
+      ThreadPoolTaskExecutorConfig.ANSWER_EXECUTOR,
+      "ai-answer-exec-",
+      2,
+      4,
+      100,
+      128,
+      RejectionPolicy.CALLER_RUNS);
+
+  private final String key;
+  private final String beanName;
+  private final String threadNamePrefix;
+  private final int defaultCorePoolSize;
+  private final int defaultMaxPoolSize;
+  private final int defaultQueueCapacity;
+  private final int defaultMaxConcurrency;
+  private final RejectionPolicy defaultRejectionPolicy;
+
+  ExecutionStage(
+      String key,
+      String beanName,
+      String threadNamePrefix,
+      int defaultCorePoolSize,
+      int defaultMaxPoolSize,
+      int defaultQueueCapacity,
+      int defaultMaxConcurrency,
+      RejectionPolicy defaultRejectionPolicy) {
+    this.key = key;
+    this.beanName = beanName;
+    this.threadNamePrefix = threadNamePrefix;
+    this.defaultCorePoolSize = defaultCorePoolSize;
+    this.defaultMaxPoolSize = defaultMaxPoolSize;
+    this.defaultQueueCapacity = defaultQueueCapacity;
+    this.defaultMaxConcurrency = defaultMaxConcurrency;
+    this.defaultRejectionPolicy = defaultRejectionPolicy;
+  }
+
+  /**
+   * Returns the key used in the stage properties ({@code ai.agentics.executor.<key>.*}).
+   *
+   * @return the property key
+   */
+  public String key() {
+    return key;
+  }
+
+  /**
+   * Returns the name of the executor bean, as referenced by {@code @Async}.
+   *
+   * @return the bean name
+   */
+  public String beanName() {
+    return beanName;
+  }
+
+  /**
+   * Returns the prefix of the executor thread names.
+   *
+   * @return the thread name prefix
+   */
+  public String threadNamePrefix() {
+    return threadNamePrefix;
+  }
+
+  /**
+   * Returns the default core pool size in {@code platform} mode.
+   *
+   * @return the default core pool size
+   */
+  public int defaultCorePoolSize() {
+    return defaultCorePoolSize;
+  }
+
+  /**
+   * Returns the default maximum pool size in {@code platform} mode.
+   *
+   * @return the default maximum pool size
+   */
+  public int defaultMaxPoolSize() {
+    return defaultMaxPoolSize;
+  }
+
+  /**
+   * Returns the default queue capacity in {@code platform} mode.
+   *
+   * @return the default queue capacity
+   */
+  public int defaultQueueCapacity() {
+    return defaultQueueCapacity;
+  }
+
+  /**
+   * Returns the default concurrency cap in {@code virtual} mode.
+   *
+   * @return the default concurrency cap
+   */
+  public int defaultMaxConcurrency() {
+    return defaultMaxConcurrency;
+  }
+
+  /**
+   * Returns the default policy applied when the executor is saturated.
+   *
+   * @return the default rejection policy
+   */
+  public RejectionPolicy defaultRejectionPolicy() {
+    return defaultRejectionPolicy;
+  }
+}
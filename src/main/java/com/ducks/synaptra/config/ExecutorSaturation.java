@@ -0,0 +1,33 @@
+package com.ducks.synaptra.config;
+
+/**
+ * Point-in-time saturation of a stage executor.
+ *
+ * @param executor the executor bean name
+ * @param mode the execution mode ({@code platform} or {@code virtual})
+ * @param active the number of tasks currently running
+ * @param maxConcurrency the maximum number of tasks running at the same time
+ * @param pending the number of accepted tasks waiting to run
+ * @param pendingCapacity the maximum number of waiting tasks, or {@code -1} if unbounded
+ * @param rejected the number of tasks rejected since startup (whatever the rejection policy)
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+public record ExecutorSaturation(
+    String executor,
+    String mode,
+    int active,
+    int maxConcurrency,
+    int pending,
+    int pendingCapacity,
+    long rejected) {
+
+  /**
+   * Returns the fraction of the concurrency in use.
+   *
+   * @return {@code active / maxConcurrency}, between {@code 0} and {@code 1}
+   */
+  public double utilization() {
+    return maxConcurrency <= 0 ? 0 : (double) active / maxConcurrency;
+  }
+}
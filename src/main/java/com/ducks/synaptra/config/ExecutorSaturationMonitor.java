@@ -0,0 +1,99 @@
+package com.ducks.synaptra.config;
+
+import java.util.List;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the saturation of the orchestration stage executors.
+ *
+ * <p>Saturation is sampled on demand from every {@link SaturationAwareExecutor} bean, so this
+ * component adds no cost to task submission. {@link #logSaturated()} can be called periodically
+ * (e.g. from a scheduler of the host application) to log the executors above the warning threshold.
+ *
+ * <h2>Configuration Properties</h2>
+ *
+ * <ul>
+ *   <li><b>ai.agentics.executor.saturation.warn-threshold</b> — Utilization ({@code 0..1}) at or
+ *       above which {@link #logSaturated()} logs an executor (default {@code 0.9})
+ * </ul>
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@Component
+public class ExecutorSaturationMonitor {
+
+  private static final Logger logger = LogManager.getLogger(ExecutorSaturationMonitor.class);
+
+  private final List<SaturationAwareExecutor> executors;
+  private final double warnThreshold;
+
+  /**
+   * Creates the monitor.
+   *
+   * @param executors the stage executors
+   * @param warnThreshold the utilization at or above which an executor is logged as saturated
+   */
+  public ExecutorSaturationMonitor(
+      List<SaturationAwareExecutor> executors,
+      @Value("${ai.agentics.executor.saturation.warn-threshold:0.9}") double warnThreshold) {
+    this.executors = List.copyOf(executors);
+    this.warnThreshold = warnThreshold;
+  }
+
+  /**
+   * Returns the current saturation of every stage executor.
+   *
+   * @return one snapshot per executor
+   */
+  public List<ExecutorSaturation> snapshot() {
+    return executors.stream().map(SaturationAwareExecutor::saturation).toList();
+  }
+
+  /**
+   * Returns the current saturation of one executor.
+   *
+   * @param executorName the executor bean name, e.g. {@code toolExecutionExecutor}
+   * @return the saturation snapshot
+   * @throws IllegalArgumentException if no executor has this name
+   */
+  public ExecutorSaturation saturation(String executorName) {
+    return snapshot().stream()
+        .filter(saturation -> saturation.executor().equals(executorName))
+        .findFirst()
+        .orElseThrow(() -> new IllegalArgumentException("Unknown executor: " + executorName));
+  }
+
+  /**
+   * Logs every executor whose utilization reaches the warning threshold or that has pending tasks
+   * at its pending capacity.
+   *
+   * @return the saturated executors
+   */
+  public List<ExecutorSaturation> logSaturated() {
+    List<ExecutorSaturation> saturated =
+        snapshot().stream()
+            .filter(
+                saturation ->
+                    saturation.utilization() >= warnThreshold
+                        || (saturation.pendingCapacity() >= 0
+                            && saturation.pending() >= saturation.pendingCapacity()))
+            .toList();
+
+    saturated.forEach(
+        saturation ->
+            logger.warn(
+                "[EXECUTOR_SATURATED] executor={} mode={} active={}/{} pending={}/{} rejected={}",
+                saturation.executor(),
+                saturation.mode(),
+                saturation.active(),
+                saturation.maxConcurrency(),
+                saturation.pending(),
+                saturation.pendingCapacity(),
+                saturation.rejected()));
+    return saturated;
+  }
+}
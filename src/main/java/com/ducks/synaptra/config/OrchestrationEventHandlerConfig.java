@@ -0,0 +1,109 @@
+package com.ducks.synaptra.config;
+
+import com.ducks.synaptra.orchestration.OrchestrationExecutionService;
+import com.ducks.synaptra.orchestration.bus.OrchestrationEventBus;
+import com.ducks.synaptra.orchestration.bus.OrchestrationEventHandler;
+import com.ducks.synaptra.orchestration.event.agent.AgentExecutionEvent;
+import com.ducks.synaptra.orchestration.event.agent.contract.AgentRequestEvent;
+import com.ducks.synaptra.orchestration.event.agent.contract.AgentResponseEvent;
+import com.ducks.synaptra.orchestration.event.answer.AnswerExecutionEvent;
+import com.ducks.synaptra.orchestration.event.answer.contract.AnswerResponseEvent;
+import com.ducks.synaptra.orchestration.event.record.RecordExecutionEvent;
+import com.ducks.synaptra.orchestration.event.record.contract.RecordRequestEvent;
+import com.ducks.synaptra.orchestration.event.tool.ToolExecutionEvent;
+import com.ducks.synaptra.orchestration.event.tool.contract.ToolResponseEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the built-in orchestration stages as {@link OrchestrationEventHandler}s of the {@link
+ * OrchestrationEventBus}.
+ *
+ * <p>Each handler binds one event type to the method of the stage handling it; the bus resolves
+ * them once at startup. Host applications add their own handlers by declaring more {@link
+ * OrchestrationEventHandler} beans.
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@Configuration
+public class OrchestrationEventHandlerConfig {
+
+  /**
+   * Calls the agent of an {@link AgentRequestEvent}.
+   *
+   * @param agentExecutionEvent the agent stage
+   * @return the handler
+   */
+  @Bean
+  public OrchestrationEventHandler<AgentRequestEvent> agentRequestEventHandler(
+      AgentExecutionEvent agentExecutionEvent) {
+    return OrchestrationEventHandler.of(
+        AgentRequestEvent.class, agentExecutionEvent::callAgentExecutionEvent);
+  }
+
+  /**
+   * Forwards an {@link AgentResponseEvent} to the agent execution listeners.
+   *
+   * @param agentExecutionEvent the agent stage
+   * @return the handler
+   */
+  @Bean
+  public OrchestrationEventHandler<AgentResponseEvent> agentResponseListenerHandler(
+      AgentExecutionEvent agentExecutionEvent) {
+    return OrchestrationEventHandler.of(
+        AgentResponseEvent.class, agentExecutionEvent::onAgentExecutionEvent);
+  }
+
+  /**
+   * Interprets an {@link AgentResponseEvent} into answer and tool events.
+   *
+   * @param orchestrationExecutionService the interpretation stage
+   * @return the handler
+   */
+  @Bean
+  public OrchestrationEventHandler<AgentResponseEvent> agentResponseInterpreterHandler(
+      OrchestrationExecutionService orchestrationExecutionService) {
+    return OrchestrationEventHandler.of(
+        AgentResponseEvent.class, orchestrationExecutionService::onAgentExecutionEvent);
+  }
+
+  /**
+   * Routes a {@link ToolResponseEvent}.
+   *
+   * @param toolExecutionEvent the tool stage
+   * @return the handler
+   */
+  @Bean
+  public OrchestrationEventHandler<ToolResponseEvent> toolResponseEventHandler(
+      ToolExecutionEvent toolExecutionEvent) {
+    return OrchestrationEventHandler.of(
+        ToolResponseEvent.class, toolExecutionEvent::onToolExecutionEvent);
+  }
+
+  /**
+   * Records a {@link RecordRequestEvent} and drives the state transition.
+   *
+   * @param recordExecutionEvent the record stage
+   * @return the handler
+   */
+  @Bean
+  public OrchestrationEventHandler<RecordRequestEvent> recordRequestEventHandler(
+      RecordExecutionEvent recordExecutionEvent) {
+    return OrchestrationEventHandler.of(
+        RecordRequestEvent.class, recordExecutionEvent::onRecordExecutionEvent);
+  }
+
+  /**
+   * Delivers an {@link AnswerResponseEvent}.
+   *
+   * @param answerExecutionEvent the answer stage
+   * @return the handler
+   */
+  @Bean
+  public OrchestrationEventHandler<AnswerResponseEvent> answerResponseEventHandler(
+      AnswerExecutionEvent answerExecutionEvent) {
+    return OrchestrationEventHandler.of(
+        AnswerResponseEvent.class, answerExecutionEvent::onAnswerExecutionEvent);
+  }
+}
@@ -0,0 +1,45 @@
+package com.ducks.synaptra.config;
+
+import java.util.Locale;
+
+/**
+ * Policy applied when a stage executor cannot accept a task.
+ *
+ * <p>Configured with {@code ai.agentics.executor.<stage>.rejection-policy} using the lower-case,
+ * dash-separated names ({@code abort}, {@code caller-runs}, {@code discard}).
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+public enum RejectionPolicy {
+
+  /** Rejects the task with a {@link org.springframework.core.task.TaskRejectedException}. */
+  ABORT,
+
+  /**
+   * Runs the task on the submitting thread, slowing the producer down; rejects it as {@link #ABORT}
+   * on threads that forbid it (see {@link CallerRuns}).
+   */
+  CALLER_RUNS,
+
+  /** Drops the task, logging a warning. */
+  DISCARD;
+
+  /**
+   * Parses a policy from its property value.
+   *
+   * @param value the property value, e.g. {@code caller-runs}
+   * @return the matching policy
+   * @throws IllegalArgumentException if the value matches no policy
+   */
+  public static RejectionPolicy fromProperty(String value) {
+    String name = value.trim().replace('-', '_').toUpperCase(Locale.ROOT);
+    for (RejectionPolicy policy : values()) {
+      if (policy.name().equals(name)) {
+        return policy;
+      }
+    }
+    throw new IllegalArgumentException(
+        "Unknown rejection policy '" + value + "' (expected abort, caller-runs or discard)");
+  }
+}
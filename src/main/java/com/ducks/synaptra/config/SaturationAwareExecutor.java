@@ -0,0 +1,19 @@
+package com.ducks.synaptra.config;
+
+import org.springframework.core.task.AsyncTaskExecutor;
+
+/**
+ * {@link AsyncTaskExecutor} reporting its own saturation.
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+public interface SaturationAwareExecutor extends AsyncTaskExecutor {
+
+  /**
+   * Returns the current saturation of this executor.
+   *
+   * @return the saturation snapshot
+   */
+  ExecutorSaturation saturation();
+}
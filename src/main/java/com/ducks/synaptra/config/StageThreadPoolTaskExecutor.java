@@ -0,0 +1,89 @@
+package com.ducks.synaptra.config;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * {@link ThreadPoolTaskExecutor} backing a stage in {@code platform} mode.
+ *
+ * <p>It applies the stage {@link RejectionPolicy} and counts rejected tasks so saturation can be
+ * reported per stage. Discarded {@link DiscardableTask}s are notified. Caller-runs falls back to a
+ * rejection on threads that forbid it (see {@link CallerRuns}).
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+public final class StageThreadPoolTaskExecutor extends ThreadPoolTaskExecutor
+    implements SaturationAwareExecutor {
+
+  private static final long serialVersionUID = 1L;
+
+  private static final Logger logger = LogManager.getLogger(StageThreadPoolTaskExecutor.class);
+
+  private final String executorName;
+  private final int queueCapacity;
+  private final LongAdder rejected = new LongAdder();
+
+  /**
+   * Creates a new {@link StageThreadPoolTaskExecutor}; call {@link #initialize()} once configured.
+   *
+   * @param executorName the executor bean name, used in logs and saturation reports
+   * @param queueCapacity the queue capacity
+   * @param rejectionPolicy the policy applied when both the pool and the queue are full
+   */
+  public StageThreadPoolTaskExecutor(
+      String executorName, int queueCapacity, RejectionPolicy rejectionPolicy) {
+    this.executorName = executorName;
+    this.queueCapacity = queueCapacity;
+    setQueueCapacity(queueCapacity);
+    setRejectedExecutionHandler(countingHandler(rejectionPolicy));
+  }
+
+  @Override
+  public ExecutorSaturation saturation() {
+    return new ExecutorSaturation(
+        executorName,
+        ThreadPoolTaskExecutorConfig.PLATFORM_MODE,
+        getActiveCount(),
+        getMaxPoolSize(),
+        getQueueSize(),
+        queueCapacity,
+        rejected.sum());
+  }
+
+  private RejectedExecutionHandler countingHandler(RejectionPolicy rejectionPolicy) {
+    RejectedExecutionHandler delegate =
+        switch (rejectionPolicy) {
+          case ABORT -> new ThreadPoolExecutor.AbortPolicy();
+          case CALLER_RUNS ->
+              (task, executor) -> {
+                if (!CallerRuns.isAllowed()) {
+                  throw new RejectedExecutionException(
+                      "Executor "
+                          + executorName
+                          + " saturated; caller-runs forbidden on this thread");
+                }
+                if (!executor.isShutdown()) {
+                  task.run();
+                }
+              };
+          case DISCARD ->
+              (task, executor) -> {
+                logger.warn("[EXECUTOR_SATURATED] executor={} task discarded", executorName);
+                if (task instanceof DiscardableTask discardable) {
+                  discardable.onDiscard();
+                }
+              };
+        };
+
+    return (task, executor) -> {
+      rejected.increment();
+      delegate.rejectedExecution(task, executor);
+    };
+  }
+}
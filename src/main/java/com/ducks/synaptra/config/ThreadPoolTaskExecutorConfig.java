@@ -3,26 +3,62 @@ package com.ducks.synaptra.config;
 import io.micrometer.tracing.CurrentTraceContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.core.env.Environment;
 
 /**
- * Configuration for the thread pool used to execute agent orchestration tasks.
+ * Configuration for the executors used to execute agent orchestration tasks.
  *
- * <p>This configuration defines the {@code agentExecutionExecutor}, which is responsible for
- * executing asynchronous agent-related workloads such as:
+ * <p>Each {@link ExecutionStage} runs on its own, independently sized executor (bulkhead), so a
+ * slow stage cannot fill a shared queue and starve the others:
  *
  * <ul>
- *   <li>Agent execution events
- *   <li>Tool execution dispatching
- *   <li>Answer delivery
- *   <li>Record and memory handling
+ *   <li>{@code agentExecutionExecutor}: LLM I/O (agent execution events and interpretation of their
+ *       responses)
+ *   <li>{@code toolExecutionExecutor}: tool execution dispatching
+ *   <li>{@code recordExecutionExecutor}: record and memory handling
+ *   <li>{@code answerExecutionExecutor}: answer delivery and agent response listeners
  * </ul>
  *
- * <p>The executor is configured with a bounded queue and a fixed upper limit on concurrency to
- * avoid unbounded resource consumption.
+ * <p>Two execution modes are available:
  *
- * <p>Tracing context propagation is enabled via {@link TraceTaskDecorator}, ensuring that
- * trace/span information is preserved across asynchronous boundaries.
+ * <ul>
+ *   <li>{@code platform} (default): a {@link StageThreadPoolTaskExecutor} with a bounded queue and
+ *       a fixed upper limit on concurrency to avoid unbounded resource consumption
+ *   <li>{@code virtual}: a {@link VirtualThreadTaskExecutor} running one virtual thread per task,
+ *       with a semaphore capping the number of tasks running at the same time instead of a queue.
+ *       This suits the workload, which is dominated by blocking I/O waits (LLM calls and listener
+ *       callbacks)
+ * </ul>
+ *
+ * <p>Every executor applies its {@link RejectionPolicy} when saturated and reports its saturation
+ * (see {@link ExecutorSaturationMonitor}).
+ *
+ * <p>Tracing context propagation is enabled via {@link TraceTaskDecorator} in both modes, ensuring
+ * that trace/span information is preserved across asynchronous boundaries.
+ *
+ * <h2>Configuration Properties</h2>
+ *
+ * <p>{@code <stage>} is one of {@code agent}, {@code tool}, {@code record} or {@code answer}; the
+ * defaults are listed on {@link ExecutionStage}.
+ *
+ * <ul>
+ *   <li><b>ai.agentics.executor.mode</b> — {@code platform} or {@code virtual} for all stages
+ *       (default {@code platform})
+ *   <li><b>ai.agentics.executor.&lt;stage&gt;.mode</b> — Overrides the mode of one stage
+ *   <li><b>ai.agentics.executor.&lt;stage&gt;.core-size</b> — Core pool size in {@code platform}
+ *       mode
+ *   <li><b>ai.agentics.executor.&lt;stage&gt;.max-size</b> — Maximum pool size in {@code platform}
+ *       mode
+ *   <li><b>ai.agentics.executor.&lt;stage&gt;.queue-capacity</b> — Queue capacity in {@code
+ *       platform} mode
+ *   <li><b>ai.agentics.executor.&lt;stage&gt;.max-concurrency</b> — Maximum number of tasks running
+ *       at the same time in {@code virtual} mode ({@code agent} falls back to {@code
+ *       ai.agentics.executor.virtual.max-concurrency})
+ *   <li><b>ai.agentics.executor.&lt;stage&gt;.max-waiting</b> — Maximum number of tasks waiting for
+ *       a permit in {@code virtual} mode; negative for unbounded (default {@code -1})
+ *   <li><b>ai.agentics.executor.&lt;stage&gt;.rejection-policy</b> — {@code abort}, {@code
+ *       caller-runs} or {@code discard}
+ * </ul>
  *
  * @author Leandro Marques
  * @since 1.0.0
@@ -30,10 +66,41 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 @Configuration
 public class ThreadPoolTaskExecutorConfig {
 
+  /** Mode backing an executor with a platform thread pool. */
+  public static final String PLATFORM_MODE = "platform";
+
+  /** Mode backing an executor with one virtual thread per task. */
+  public static final String VIRTUAL_MODE = "virtual";
+
+  /** Bean name of the {@link ExecutionStage#AGENT} executor. */
+  public static final String AGENT_EXECUTOR = "agentExecutionExecutor";
+
+  /** Bean name of the {@link ExecutionStage#TOOL} executor. */
+  public static final String TOOL_EXECUTOR = "toolExecutionExecutor";
+
+  /** Bean name of the {@link ExecutionStage#RECORD} executor. */
+  public static final String RECORD_EXECUTOR = "recordExecutionExecutor";
+
+  /** Bean name of the {@link ExecutionStage#ANSWER} executor. */
+  public static final String ANSWER_EXECUTOR = "answerExecutionExecutor";
+
+  private static final String PREFIX = "ai.agentics.executor.";
+
+  private final Environment environment;
+
+  /**
+   * Creates the configuration.
+   *
+   * @param environment the environment the stage properties are read from
+   */
+  public ThreadPoolTaskExecutorConfig(Environment environment) {
+    this.environment = environment;
+  }
+
   /**
-   * Thread pool executor used for agent orchestration and execution flows.
+   * Executor used for LLM I/O: agent execution events and interpretation of their responses.
    *
-   * <p>Executor characteristics:
+   * <p>In {@code platform} mode, executor characteristics default to:
    *
    * <ul>
    *   <li>Core pool size: 4
@@ -42,24 +109,134 @@ public class ThreadPoolTaskExecutorConfig {
    *   <li>Thread name prefix: {@code ai-event-exec-}
    * </ul>
    *
-   * <p>All tasks executed by this executor will automatically propagate the current tracing
+   * <p>In {@code virtual} mode, each task runs on a virtual thread named {@code ai-event-exec-N}
+   * and at most 256 tasks run at the same time by default.
+   *
+   * @param currentTraceContext the trace context used to propagate spans across threads
+   * @return an initialized executor
+   * @throws IllegalArgumentException if the configured mode or rejection policy is unknown
+   */
+  @Bean(name = AGENT_EXECUTOR)
+  public SaturationAwareExecutor agentExecutionExecutor(CurrentTraceContext currentTraceContext) {
+    return stageExecutor(ExecutionStage.AGENT, currentTraceContext);
+  }
+
+  /**
+   * Executor used for tool execution dispatching.
+   *
+   * @param currentTraceContext the trace context used to propagate spans across threads
+   * @return an initialized executor
+   * @throws IllegalArgumentException if the configured mode or rejection policy is unknown
+   */
+  @Bean(name = TOOL_EXECUTOR)
+  public SaturationAwareExecutor toolExecutionExecutor(CurrentTraceContext currentTraceContext) {
+    return stageExecutor(ExecutionStage.TOOL, currentTraceContext);
+  }
+
+  /**
+   * Executor used for episodic memory records and session state transitions.
+   *
+   * @param currentTraceContext the trace context used to propagate spans across threads
+   * @return an initialized executor
+   * @throws IllegalArgumentException if the configured mode or rejection policy is unknown
+   */
+  @Bean(name = RECORD_EXECUTOR)
+  public SaturationAwareExecutor recordExecutionExecutor(CurrentTraceContext currentTraceContext) {
+    return stageExecutor(ExecutionStage.RECORD, currentTraceContext);
+  }
+
+  /**
+   * Executor used for answer delivery and agent response listeners.
+   *
+   * @param currentTraceContext the trace context used to propagate spans across threads
+   * @return an initialized executor
+   * @throws IllegalArgumentException if the configured mode or rejection policy is unknown
+   */
+  @Bean(name = ANSWER_EXECUTOR)
+  public SaturationAwareExecutor answerExecutionExecutor(CurrentTraceContext currentTraceContext) {
+    return stageExecutor(ExecutionStage.ANSWER, currentTraceContext);
+  }
+
+  /**
+   * Builds the executor of a stage from its properties.
+   *
+   * <p>All tasks executed by the returned executor will automatically propagate the current tracing
    * context.
    *
+   * @param stage the orchestration stage
    * @param currentTraceContext the trace context used to propagate spans across threads
-   * @return an initialized {@link ThreadPoolTaskExecutor}
+   * @return an initialized executor
+   * @throws IllegalArgumentException if the configured mode or rejection policy is unknown
    */
-  @Bean(name = "agentExecutionExecutor")
-  public ThreadPoolTaskExecutor agentExecutionExecutor(CurrentTraceContext currentTraceContext) {
-    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+  public SaturationAwareExecutor stageExecutor(
+      ExecutionStage stage, CurrentTraceContext currentTraceContext) {
+    TraceTaskDecorator taskDecorator = new TraceTaskDecorator(currentTraceContext);
+    String mode =
+        property(
+            stage, "mode", String.class, environment.getProperty(PREFIX + "mode", PLATFORM_MODE));
+    RejectionPolicy rejectionPolicy =
+        RejectionPolicy.fromProperty(
+            property(
+                stage,
+                "rejection-policy",
+                String.class,
+                stage.defaultRejectionPolicy().name().toLowerCase().replace('_', '-')));
+
+    return switch (mode.trim().toLowerCase()) {
+      case PLATFORM_MODE -> platformExecutor(stage, rejectionPolicy, taskDecorator);
+      case VIRTUAL_MODE -> virtualExecutor(stage, rejectionPolicy, taskDecorator);
+      default ->
+          throw new IllegalArgumentException(
+              "Unknown "
+                  + PREFIX
+                  + stage.key()
+                  + ".mode '"
+                  + mode
+                  + "' (expected '"
+                  + PLATFORM_MODE
+                  + "' or '"
+                  + VIRTUAL_MODE
+                  + "')");
+    };
+  }
 
-    executor.setCorePoolSize(4);
-    executor.setMaxPoolSize(8);
-    executor.setQueueCapacity(100);
-    executor.setThreadNamePrefix("ai-event-exec-");
+  private StageThreadPoolTaskExecutor platformExecutor(
+      ExecutionStage stage, RejectionPolicy rejectionPolicy, TraceTaskDecorator taskDecorator) {
+    StageThreadPoolTaskExecutor executor =
+        new StageThreadPoolTaskExecutor(
+            stage.beanName(),
+            property(stage, "queue-capacity", Integer.class, stage.defaultQueueCapacity()),
+            rejectionPolicy);
 
-    executor.setTaskDecorator(new TraceTaskDecorator(currentTraceContext));
+    executor.setCorePoolSize(
+        property(stage, "core-size", Integer.class, stage.defaultCorePoolSize()));
+    executor.setMaxPoolSize(property(stage, "max-size", Integer.class, stage.defaultMaxPoolSize()));
+    executor.setThreadNamePrefix(stage.threadNamePrefix());
+
+    executor.setTaskDecorator(taskDecorator);
     executor.initialize();
 
     return executor;
   }
+
+  private VirtualThreadTaskExecutor virtualExecutor(
+      ExecutionStage stage, RejectionPolicy rejectionPolicy, TraceTaskDecorator taskDecorator) {
+    int defaultMaxConcurrency =
+        stage == ExecutionStage.AGENT
+            ? environment.getProperty(
+                PREFIX + "virtual.max-concurrency", Integer.class, stage.defaultMaxConcurrency())
+            : stage.defaultMaxConcurrency();
+
+    return new VirtualThreadTaskExecutor(
+        stage.beanName(),
+        stage.threadNamePrefix(),
+        property(stage, "max-concurrency", Integer.class, defaultMaxConcurrency),
+        property(stage, "max-waiting", Integer.class, -1),
+        rejectionPolicy,
+        taskDecorator);
+  }
+
+  private <T> T property(ExecutionStage stage, String name, Class<T> type, T defaultValue) {
+    return environment.getProperty(PREFIX + stage.key() + "." + name, type, defaultValue);
+  }
 }
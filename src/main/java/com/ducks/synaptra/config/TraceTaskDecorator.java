@@ -39,11 +39,17 @@ public class TraceTaskDecorator implements TaskDecorator {
    * Wraps the given {@link Runnable} so that the current trace context is propagated to the
    * execution thread.
    *
+   * <p>A {@link DiscardableTask} stays discardable once wrapped.
+   *
    * @param runnable the original task to be executed
    * @return a wrapped {@link Runnable} with trace context propagation
    */
   @Override
   public @NonNull Runnable decorate(@NonNull Runnable runnable) {
-    return currentTraceContext.wrap(runnable);
+    Runnable wrapped = currentTraceContext.wrap(runnable);
+    if (runnable instanceof DiscardableTask discardable) {
+      return DiscardableTask.of(wrapped, discardable::onDiscard);
+    }
+    return wrapped;
   }
 }
@@ -3,6 +3,7 @@ package com.ducks.synaptra.config;
 import java.util.Properties;
 import org.apache.velocity.app.VelocityEngine;
 import org.apache.velocity.runtime.RuntimeConstants;
+import org.apache.velocity.runtime.resource.loader.StringResourceLoader;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -14,12 +15,17 @@ import org.springframework.context.annotation.Configuration;
  * messages dynamically (e.g., agent prompts, episodic memory, handoff contexts).
  *
  * <p>The engine is initialized with UTF-8 input encoding and does not rely on any file-based
- * template loaders, making it suitable for runtime-generated templates.
+ * template loaders, making it suitable for runtime-generated templates. Its only resource loader is
+ * a non-static {@link StringResourceLoader}, whose repository is published as the application
+ * attribute {@link #INLINE_TEMPLATE_REPOSITORY}; it is used to parse in-memory templates into
+ * reusable {@link org.apache.velocity.Template}s. The engine-level resource cache is disabled
+ * because parsed templates are cached by {@link
+ * com.ducks.synaptra.velocity.VelocityTemplateService}.
  *
  * <p><strong>Design notes:</strong>
  *
  * <ul>
- *   <li>Templates are evaluated via {@link VelocityEngine#evaluate}, not loaded from files.
+ *   <li>Templates are parsed from in-memory strings, not loaded from files.
  *   <li>This configuration keeps Velocity isolated from I/O concerns.
  *   <li>The returned engine is thread-safe after initialization.
  * </ul>
@@ -30,11 +36,14 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class VelocityConfiguration {
 
+  /** Application attribute (and repository name) of the in-memory template repository. */
+  public static final String INLINE_TEMPLATE_REPOSITORY = "synaptra-inline-templates";
+
   /**
    * Creates and initializes the {@link VelocityEngine} bean.
    *
-   * <p>The engine is configured with UTF-8 input encoding and immediately initialized so it can be
-   * safely reused across the application.
+   * <p>The engine is configured with UTF-8 input encoding and an in-memory string resource loader,
+   * and immediately initialized so it can be safely reused across the application.
    *
    * @return an initialized {@link VelocityEngine} instance
    */
@@ -42,6 +51,15 @@ public class VelocityConfiguration {
   public VelocityEngine velocityEngine() {
     Properties props = new Properties();
     props.setProperty(RuntimeConstants.INPUT_ENCODING, "UTF-8");
+    props.setProperty(RuntimeConstants.RESOURCE_LOADERS, "string");
+    props.setProperty(
+        "resource.loader.string." + RuntimeConstants.RESOURCE_LOADER_CLASS,
+        StringResourceLoader.class.getName());
+    props.setProperty("resource.loader.string." + RuntimeConstants.RESOURCE_LOADER_CACHE, "false");
+    props.setProperty("resource.loader.string." + StringResourceLoader.REPOSITORY_STATIC, "false");
+    props.setProperty(
+        "resource.loader.string." + StringResourceLoader.REPOSITORY_NAME,
+        INLINE_TEMPLATE_REPOSITORY);
 
     VelocityEngine engine = new VelocityEngine(props);
     engine.init();
@@ -0,0 +1,194 @@
+package com.ducks.synaptra.config;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.util.Assert;
+
+/**
+ * {@link SaturationAwareExecutor} that runs every task on its own virtual thread, with a cap on the
+ * number of tasks running at the same time.
+ *
+ * <p>Agent orchestration tasks spend nearly all their time blocked on I/O (LLM calls, listener
+ * callbacks). A virtual thread parks instead of holding a carrier thread while blocked, so the
+ * executor does not need a small platform pool and a task queue in front of it.
+ *
+ * <p>Concurrency is bounded by a {@link Semaphore} acquired <b>inside</b> the virtual thread, not
+ * by the submitting thread. Submission therefore never blocks: tasks above the cap simply park
+ * until a permit is released. This replaces the queue of the platform pool and keeps tasks that
+ * publish follow-up events from deadlocking on a full executor. The number of parked tasks can be
+ * bounded, in which case the {@link RejectionPolicy} applies to tasks above the bound.
+ *
+ * <p>The {@link TaskDecorator} is applied on the submitting thread, so context captured by the
+ * decorator (e.g. the tracing context of {@link TraceTaskDecorator}) is the caller's.
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+public class VirtualThreadTaskExecutor implements SaturationAwareExecutor, DisposableBean {
+
+  private static final Logger logger = LogManager.getLogger(VirtualThreadTaskExecutor.class);
+
+  private final String executorName;
+  private final ThreadFactory threadFactory;
+  private final Semaphore permits;
+  private final int maxConcurrency;
+  private final int maxWaiting;
+  private final RejectionPolicy rejectionPolicy;
+  private final TaskDecorator taskDecorator;
+
+  private final AtomicInteger activeCount = new AtomicInteger();
+  private final AtomicInteger waitingCount = new AtomicInteger();
+  private final LongAdder rejected = new LongAdder();
+  private volatile boolean shutdown;
+
+  /**
+   * Creates a new {@link VirtualThreadTaskExecutor}.
+   *
+   * @param executorName the executor bean name, used in logs and saturation reports
+   * @param threadNamePrefix prefix of the virtual thread names, followed by a sequence number
+   * @param maxConcurrency maximum number of tasks running at the same time (must be positive)
+   * @param maxWaiting maximum number of tasks waiting for a permit; negative for unbounded
+   * @param rejectionPolicy the policy applied to tasks above {@code maxWaiting}
+   * @param taskDecorator decorator applied to every submitted task (must not be {@code null})
+   */
+  public VirtualThreadTaskExecutor(
+      String executorName,
+      String threadNamePrefix,
+      int maxConcurrency,
+      int maxWaiting,
+      RejectionPolicy rejectionPolicy,
+      TaskDecorator taskDecorator) {
+    Assert.isTrue(maxConcurrency > 0, "maxConcurrency must be positive");
+    Assert.notNull(rejectionPolicy, "rejectionPolicy must not be null");
+    Assert.notNull(taskDecorator, "taskDecorator must not be null");
+    this.executorName = executorName;
+    this.threadFactory = Thread.ofVirtual().name(threadNamePrefix, 0).factory();
+    this.permits = new Semaphore(maxConcurrency);
+    this.maxConcurrency = maxConcurrency;
+    this.maxWaiting = maxWaiting;
+    this.rejectionPolicy = rejectionPolicy;
+    this.taskDecorator = taskDecorator;
+  }
+
+  /**
+   * Starts a virtual thread that waits for a permit and then runs the decorated task.
+   *
+   * <p>When the number of waiting tasks is bounded and reached, the rejection policy applies
+   * instead.
+   *
+   * @param task the task to execute
+   * @throws TaskRejectedException if the executor has been shut down, or if it is saturated and the
+   *     rejection policy is {@link RejectionPolicy#ABORT}
+   */
+  @Override
+  public void execute(Runnable task) {
+    Assert.notNull(task, "task must not be null");
+    if (shutdown) {
+      throw new TaskRejectedException("Executor has been shut down; task rejected: " + task);
+    }
+
+    int waiting = waitingCount.incrementAndGet();
+    if (maxWaiting >= 0 && waiting > maxWaiting) {
+      waitingCount.decrementAndGet();
+      reject(task);
+      return;
+    }
+
+    Runnable decorated = taskDecorator.decorate(task);
+    threadFactory.newThread(() -> runWithPermit(decorated)).start();
+  }
+
+  private void reject(Runnable task) {
+    rejected.increment();
+    switch (rejectionPolicy) {
+      case ABORT ->
+          throw new TaskRejectedException(
+              "Executor " + executorName + " saturated; task rejected: " + task);
+      case CALLER_RUNS -> {
+        if (!CallerRuns.isAllowed()) {
+          throw new TaskRejectedException(
+              "Executor " + executorName + " saturated; caller-runs forbidden on this thread");
+        }
+        task.run();
+      }
+      case DISCARD -> {
+        logger.warn("[EXECUTOR_SATURATED] executor={} task discarded", executorName);
+        if (task instanceof DiscardableTask discardable) {
+          discardable.onDiscard();
+        }
+      }
+    }
+  }
+
+  private void runWithPermit(Runnable task) {
+    try {
+      permits.acquire();
+    } catch (InterruptedException e) {
+      waitingCount.decrementAndGet();
+      Thread.currentThread().interrupt();
+      logger.warn("[VIRTUAL_EXECUTOR] Task interrupted while waiting for a permit");
+      return;
+    }
+
+    waitingCount.decrementAndGet();
+    activeCount.incrementAndGet();
+    try {
+      task.run();
+    } finally {
+      activeCount.decrementAndGet();
+      permits.release();
+    }
+  }
+
+  @Override
+  public ExecutorSaturation saturation() {
+    return new ExecutorSaturation(
+        executorName,
+        ThreadPoolTaskExecutorConfig.VIRTUAL_MODE,
+        activeCount.get(),
+        maxConcurrency,
+        waitingCount.get(),
+        maxWaiting < 0 ? -1 : maxWaiting,
+        rejected.sum());
+  }
+
+  /**
+   * Returns the number of tasks currently running.
+   *
+   * @return running tasks
+   */
+  public int getActiveCount() {
+    return activeCount.get();
+  }
+
+  /**
+   * Returns the number of submitted tasks waiting for a permit.
+   *
+   * @return waiting tasks
+   */
+  public int getWaitingCount() {
+    return waitingCount.get();
+  }
+
+  /**
+   * Returns the maximum number of tasks running at the same time.
+   *
+   * @return the concurrency cap
+   */
+  public int getMaxConcurrency() {
+    return maxConcurrency;
+  }
+
+  /** Stops accepting new tasks; tasks already submitted run to completion. */
+  @Override
+  public void destroy() {
+    shutdown = true;
+  }
+}
@@ -0,0 +1,191 @@
+package com.ducks.synaptra.memory;
+
+import com.ducks.synaptra.publisher.contract.RecordEvent;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * Append-only timeline of records for one agent inside one session, stored as primitive arrays.
+ *
+ * <p>For every record the timeline keeps a status code (see {@link RecordStatusCodec}), the address
+ * of its UTF-8 content in the owning session {@link RecordArena}, and the content length. No {@link
+ * com.ducks.synaptra.publisher.contract.RecordEvent} instance is retained; views materialize them
+ * on access.
+ *
+ * <p>A content length of {@code -1} denotes a {@code null} content. Statuses that are not part of
+ * the well-known set are kept in a sparse side map, which stays {@code null} for the common case.
+ *
+ * <p>The timeline also indexes, per status code, the position of the latest record carrying it, so
+ * "since the last X" lookups for well-known statuses are constant time. Custom statuses fall back
+ * to a backward scan starting at the latest custom record.
+ *
+ * <p>The timeline can also carry the rendered episodic text of its records (see {@link
+ * #renderIncrementally}). Since records are never removed or modified, the cached text stays valid
+ * until the timeline itself is discarded (e.g. by a memory restore), and only records appended
+ * after the last render need to be rendered again. The cached text grows with the timeline, so it
+ * is only kept when incremental rendering is enabled, and it is counted in {@link
+ * #footprintBytes()}.
+ *
+ * <p>This class is not thread-safe; callers must guard it with the owning session lock.
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+final class CompactTimeline {
+
+  private static final int INITIAL_CAPACITY = 4;
+
+  private byte[] statuses = new byte[INITIAL_CAPACITY];
+  private long[] addresses = new long[INITIAL_CAPACITY];
+  private int[] lengths = new int[INITIAL_CAPACITY];
+  private int size;
+
+  /** Raw statuses for records encoded as {@link RecordStatusCodec#CUSTOM}, keyed by index. */
+  private Map<Integer, String> customStatuses;
+
+  /** Per status code, the index of the latest record with that code plus one ({@code 0} = none). */
+  private final int[] lastIndexByCode = new int[RecordStatusCodec.CODE_COUNT];
+
+  /** Rendered episodic text of the first {@link #renderedCount} records, or {@code null}. */
+  private String renderedText;
+
+  /** Number of records already covered by {@link #renderedText}. */
+  private int renderedCount;
+
+  /**
+   * Appends a record to the timeline.
+   *
+   * @param statusCode the encoded status
+   * @param rawStatus the raw status, retained only for {@link RecordStatusCodec#CUSTOM} codes
+   * @param address the arena address of the content (ignored when {@code length} is {@code -1})
+   * @param length the content length in bytes, or {@code -1} for a {@code null} content
+   */
+  void append(byte statusCode, String rawStatus, long address, int length) {
+    if (size == statuses.length) {
+      int capacity = size + (size >> 1) + 1;
+      statuses = Arrays.copyOf(statuses, capacity);
+      addresses = Arrays.copyOf(addresses, capacity);
+      lengths = Arrays.copyOf(lengths, capacity);
+    }
+    if (statusCode == RecordStatusCodec.CUSTOM && rawStatus != null) {
+      if (customStatuses == null) {
+        customStatuses = new HashMap<>();
+      }
+      customStatuses.put(size, rawStatus);
+    }
+    statuses[size] = statusCode;
+    addresses[size] = address;
+    lengths[size] = length;
+    lastIndexByCode[statusCode] = size + 1;
+    size++;
+  }
+
+  int size() {
+    return size;
+  }
+
+  String status(int index) {
+    byte code = statuses[index];
+    if (code != RecordStatusCodec.CUSTOM) {
+      return RecordStatusCodec.decode(code);
+    }
+    return customStatuses == null ? null : customStatuses.get(index);
+  }
+
+  /**
+   * Returns the index of the latest record with the given status.
+   *
+   * @param status the status to look up (may be {@code null})
+   * @return the index of the latest matching record, or {@code -1} if there is none
+   */
+  int lastIndexOf(String status) {
+    byte code = RecordStatusCodec.encode(status);
+    int last = lastIndexByCode[code] - 1;
+    if (code != RecordStatusCodec.CUSTOM) {
+      return last;
+    }
+    for (int index = last; index >= 0; index--) {
+      if (statuses[index] == RecordStatusCodec.CUSTOM && Objects.equals(status(index), status)) {
+        return index;
+      }
+    }
+    return -1;
+  }
+
+  byte statusCode(int index) {
+    return statuses[index];
+  }
+
+  long address(int index) {
+    return addresses[index];
+  }
+
+  int length(int index) {
+    return lengths[index];
+  }
+
+  /**
+   * Returns the rendered text of all records, rendering only those appended since the previous call
+   * and appending them to the cached prefix.
+   *
+   * @param session the owning session, used to materialize new records
+   * @param lineRenderer appends a single record as its episodic line
+   * @param lineOverhead upper bound of the characters a line adds besides the record content
+   * @return the rendered text of the whole timeline
+   */
+  String renderIncrementally(
+      SessionRecords session,
+      BiConsumer<StringBuilder, RecordEvent> lineRenderer,
+      int lineOverhead) {
+    if (renderedText != null && renderedCount == size) {
+      return renderedText;
+    }
+
+    int prefixLength = renderedText == null ? 0 : renderedText.length();
+    StringBuilder text =
+        new StringBuilder(prefixLength + estimateRenderedLength(renderedCount, lineOverhead));
+    if (renderedText != null) {
+      text.append(renderedText);
+    }
+    for (int index = renderedCount; index < size; index++) {
+      lineRenderer.accept(text, session.materialize(this, index));
+    }
+
+    renderedText = text.toString();
+    renderedCount = size;
+    return renderedText;
+  }
+
+  /**
+   * Estimates the rendered length of the records starting at the given index, so builders can be
+   * sized once. UTF-8 byte lengths bound the character counts of the contents from above.
+   *
+   * @param from the first record index
+   * @param lineOverhead upper bound of the characters a line adds besides the record content
+   * @return the estimated length in characters
+   */
+  int estimateRenderedLength(int from, int lineOverhead) {
+    long estimate = 0;
+    for (int index = from; index < size; index++) {
+      estimate += lineOverhead + Math.max(lengths[index], 0);
+    }
+    return (int) Math.min(estimate, Integer.MAX_VALUE - 16);
+  }
+
+  /**
+   * Returns the number of bytes held by the primitive arrays and the rendered text cache of this
+   * timeline. The cache is counted at two bytes per character, an upper bound of its actual size.
+   *
+   * @return the footprint in bytes (excluding object headers)
+   */
+  long footprintBytes() {
+    long renderedBytes = renderedText == null ? 0 : (long) renderedText.length() * Character.BYTES;
+    return statuses.length
+        + (long) addresses.length * Long.BYTES
+        + (long) (lengths.length + lastIndexByCode.length) * Integer.BYTES
+        + renderedBytes;
+  }
+}
@@ -1,12 +1,14 @@
 package com.ducks.synaptra.memory;
 
 import com.ducks.synaptra.agent.Agent;
-import com.ducks.synaptra.log.LogTracer;
 import com.ducks.synaptra.publisher.contract.RecordEvent;
-import java.util.ArrayList;
-import java.util.HashMap;
+import com.ducks.synaptra.tracing.Traced;
+import com.ducks.synaptra.tracing.TracingLevel;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
@@ -23,7 +25,40 @@ import org.springframework.util.Assert;
  * <ul>
  *   <li>Keyed by {@code sessionId}
  *   <li>Inside each session, keyed by {@code agent.getIdentifier()}
- *   <li>Each agent key maps to an append-only {@link List} of {@link RecordEvent}
+ *   <li>Each agent key maps to an append-only timeline of records
+ * </ul>
+ *
+ * <h2>Compact encoding</h2>
+ *
+ * <p>Records are not kept as {@link RecordEvent} objects. Instead:
+ *
+ * <ul>
+ *   <li>The status is stored as a single byte code (well-known statuses from {@link
+ *       com.ducks.synaptra.orchestration.event.record.RecordExecutionEvent}); unknown statuses are
+ *       kept verbatim on the side
+ *   <li>The content is stored as UTF-8 bytes in per-session arena chunks, optionally off-heap
+ *   <li>Each timeline keeps primitive arrays of status codes, content addresses and lengths
+ * </ul>
+ *
+ * <p>{@link RecordEvent} instances are materialized lazily, only when a returned view is read.
+ *
+ * <h2>Queries</h2>
+ *
+ * <p>Besides the full timeline ({@link #getEpisodeMemory(String, Agent)}), callers can ask for
+ * slices: the last events ({@link #tail(String, Agent, int)}), the events since the latest
+ * occurrence of a status ({@link #sinceStatus(String, Agent, String)}) and the current status
+ * ({@link #latestStatus(String, Agent)}). Every timeline indexes the position of the latest record
+ * per status, so these lookups do not walk the timeline, and the returned lists are immutable views
+ * over the requested range: nothing is copied and only the records actually read are decoded.
+ * {@link EpisodicContextRenderer} uses them to render a windowed episodic context.
+ *
+ * <h2>Configuration Properties</h2>
+ *
+ * <ul>
+ *   <li><b>ai.agentics.memory.off-heap</b> — Store record contents in direct buffers (default
+ *       {@code false})
+ *   <li><b>ai.agentics.memory.max-chunk-bytes</b> — Upper bound for the per-session arena chunk
+ *       growth (default {@code 65536})
  * </ul>
  *
  * <h2>Important notes</h2>
@@ -31,9 +66,12 @@ import org.springframework.util.Assert;
  * <ul>
  *   <li>This is an <strong>in-memory</strong> implementation (non-persistent).
  *   <li>It is intended for development or single-node usage unless replaced by a distributed store.
- *   <li>Concurrency: this implementation uses plain {@link HashMap} and {@link ArrayList}. If your
- *       orchestration is truly concurrent across threads, consider using concurrent collections or
- *       a persistent store.
+ *   <li>Concurrency: sessions are held in a concurrent map and every session serializes access to
+ *       its own records, so different sessions never contend with each other. Orchestration events
+ *       of a session run one at a time (see {@link
+ *       com.ducks.synaptra.orchestration.mailbox.SessionMailbox}), so this per-session monitor is
+ *       uncontended in practice; it only guards against readers outside the mailbox, such as
+ *       snapshots and returned views.
  * </ul>
  *
  * @author Leandro Marques
@@ -46,10 +84,29 @@ public class EpisodeMemory {
    * Memory structure:
    *
    * <pre>
-   * sessionId -> ( agentIdentifier -> [RecordEvent, RecordEvent, ...] )
+   * sessionId -> SessionRecords( arena, agentIdentifier -> CompactTimeline )
    * </pre>
    */
-  private static final Map<String, Map<String, List<RecordEvent>>> MEMORY = new HashMap<>();
+  private final Map<String, SessionRecords> memory = new ConcurrentHashMap<>();
+
+  /** Whether record contents are stored in direct (off-heap) buffers. */
+  private final boolean offHeap;
+
+  /** Upper bound for the per-session arena chunk size. */
+  private final int maxChunkBytes;
+
+  /**
+   * Creates the episodic memory store.
+   *
+   * @param offHeap whether record contents are stored in direct buffers
+   * @param maxChunkBytes upper bound for the per-session arena chunk growth
+   */
+  public EpisodeMemory(
+      @Value("${ai.agentics.memory.off-heap:false}") boolean offHeap,
+      @Value("${ai.agentics.memory.max-chunk-bytes:65536}") int maxChunkBytes) {
+    this.offHeap = offHeap;
+    this.maxChunkBytes = maxChunkBytes;
+  }
 
   /**
    * Appends a new {@link RecordEvent} to the episodic memory timeline of the given agent within the
@@ -69,47 +126,176 @@ public class EpisodeMemory {
    * @param agent the agent whose episodic timeline will be updated (must not be {@code null})
    * @param recordEvent the event to append (must not be {@code null})
    */
-  @LogTracer(spanName = "episode_memory_register_event")
+  @Traced(spanName = "episode_memory_register_event", level = TracingLevel.DETAIL)
   public void registerEvent(String sessionId, Agent agent, RecordEvent recordEvent) {
     Assert.hasText(sessionId, "sessionId must not be null or blank");
     Assert.notNull(agent, "agent must not be null");
     Assert.notNull(recordEvent, "recordEvent must not be null");
 
-    Map<String, List<RecordEvent>> events = getOrCreateSessionEvents(sessionId);
-    List<RecordEvent> agentEvents = getOrCreateAgentEvents(agent, events);
-    agentEvents.add(recordEvent);
+    getOrCreateSessionRecords(sessionId).append(agent.getIdentifier(), recordEvent);
   }
 
   /**
    * Retrieves the episodic memory timeline for a given agent within the provided session.
    *
-   * <p>If no events exist yet, an empty list is returned and also initialized in memory.
+   * <p>The returned list is an immutable snapshot of the timeline at the time of the call: records
+   * registered afterwards are not visible through it. Records are decoded lazily on access.
    *
    * @param sessionId the unique identifier of the current execution session (must not be blank)
    * @param agent the agent whose episodic timeline should be loaded (must not be {@code null})
-   * @return the (mutable) list of recorded events for the agent in the given session
+   * @return the recorded events for the agent in the given session (empty if none)
    */
-  @LogTracer(spanName = "episode_memory_get_events")
+  @Traced(spanName = "episode_memory_get_events", level = TracingLevel.DETAIL)
   public List<RecordEvent> getEpisodeMemory(String sessionId, Agent agent) {
     Assert.hasText(sessionId, "sessionId must not be null or blank");
     Assert.notNull(agent, "agent must not be null");
 
-    Map<String, List<RecordEvent>> events = getOrCreateSessionEvents(sessionId);
+    SessionRecords session = memory.get(sessionId);
+    if (session == null) {
+      return List.of();
+    }
+
+    CompactTimeline timeline = session.timeline(agent.getIdentifier());
+    if (timeline == null) {
+      return List.of();
+    }
+
+    return new TimelineView(session, timeline, 0, session.size(timeline));
+  }
+
+  /**
+   * Retrieves the last {@code count} events of an agent timeline within the provided session.
+   *
+   * @param sessionId the unique identifier of the current execution session (must not be blank)
+   * @param agent the agent whose episodic timeline should be queried (must not be {@code null})
+   * @param count the maximum number of events to return (must not be negative)
+   * @return an immutable view of the latest events, oldest first (empty if none)
+   */
+  @Traced(spanName = "episode_memory_tail", level = TracingLevel.DETAIL)
+  public List<RecordEvent> tail(String sessionId, Agent agent, int count) {
+    Assert.hasText(sessionId, "sessionId must not be null or blank");
+    Assert.notNull(agent, "agent must not be null");
+    Assert.isTrue(count >= 0, "count must not be negative");
+
+    SessionRecords session = memory.get(sessionId);
+    return session == null ? List.of() : session.tail(agent.getIdentifier(), count);
+  }
+
+  /**
+   * Retrieves the events of an agent timeline recorded after the latest event with the given
+   * status, e.g. everything since the last {@code FINISHED}.
+   *
+   * @param sessionId the unique identifier of the current execution session (must not be blank)
+   * @param agent the agent whose episodic timeline should be queried (must not be {@code null})
+   * @param status the status delimiting the range
+   * @return an immutable view of the matching events; the whole timeline if no event has the status
+   *     (empty if none)
+   */
+  @Traced(spanName = "episode_memory_since_status", level = TracingLevel.DETAIL)
+  public List<RecordEvent> sinceStatus(String sessionId, Agent agent, String status) {
+    Assert.hasText(sessionId, "sessionId must not be null or blank");
+    Assert.notNull(agent, "agent must not be null");
 
-    return getOrCreateAgentEvents(agent, events);
+    SessionRecords session = memory.get(sessionId);
+    return session == null ? List.of() : session.since(agent.getIdentifier(), status);
   }
 
-  private List<RecordEvent> getOrCreateAgentEvents(
-      Agent agent, Map<String, List<RecordEvent>> events) {
+  /**
+   * Retrieves the status of the latest event of an agent timeline.
+   *
+   * @param sessionId the unique identifier of the current execution session (must not be blank)
+   * @param agent the agent whose episodic timeline should be queried (must not be {@code null})
+   * @return the latest recorded status, or {@code null} if the agent has no events in the session
+   */
+  @Traced(spanName = "episode_memory_latest_status", level = TracingLevel.DETAIL)
+  public String latestStatus(String sessionId, Agent agent) {
+    Assert.hasText(sessionId, "sessionId must not be null or blank");
     Assert.notNull(agent, "agent must not be null");
-    Assert.notNull(events, "events must not be null");
 
-    return events.computeIfAbsent(agent.getIdentifier(), key -> new ArrayList<>());
+    SessionRecords session = memory.get(sessionId);
+    return session == null ? null : session.latestStatus(agent.getIdentifier());
+  }
+
+  /**
+   * Returns the number of sessions held in memory.
+   *
+   * @return held sessions
+   */
+  public int getSessionCount() {
+    return memory.size();
+  }
+
+  /**
+   * Returns the bytes reserved by the records of all sessions: arena chunks, timeline arrays and
+   * the rendered text cached for incremental episodic contexts.
+   *
+   * <p>Walks every session; meant for periodic sampling (e.g. a metrics gauge), not the hot path.
+   *
+   * @return reserved bytes
+   */
+  public long getFootprintBytes() {
+    long total = 0;
+    for (SessionRecords session : memory.values()) {
+      total += session.footprintBytes();
+    }
+    return total;
+  }
+
+  /**
+   * Renders the episodic text of a timeline, one line per record.
+   *
+   * @param sessionId the session identifier
+   * @param agent the agent whose timeline is rendered
+   * @param lineRenderer appends a single record as its episodic line
+   * @param lineOverhead upper bound of the characters a line adds besides the record content, used
+   *     to size the output buffer
+   * @param incremental whether the rendered prefix cached on the timeline may be reused
+   * @return the rendered text, or {@code null} if the agent has no records in the session
+   */
+  String renderTimeline(
+      String sessionId,
+      Agent agent,
+      BiConsumer<StringBuilder, RecordEvent> lineRenderer,
+      int lineOverhead,
+      boolean incremental) {
+    SessionRecords session = memory.get(sessionId);
+    if (session == null) {
+      return null;
+    }
+    return session.render(agent.getIdentifier(), lineRenderer, lineOverhead, incremental);
+  }
+
+  /**
+   * Iterates over all sessions currently held in memory.
+   *
+   * @param consumer receives each session identifier and its records
+   */
+  void forEachSession(BiConsumer<String, SessionRecords> consumer) {
+    memory.forEach(consumer);
+  }
+
+  /**
+   * Creates an empty, detached session container configured like the ones held by this store.
+   *
+   * @return a new session container
+   */
+  SessionRecords newSessionRecords() {
+    return new SessionRecords(maxChunkBytes, offHeap);
+  }
+
+  /**
+   * Installs a restored session, replacing any session with the same identifier.
+   *
+   * @param sessionId the session identifier
+   * @param sessionRecords the restored records
+   */
+  void putSession(String sessionId, SessionRecords sessionRecords) {
+    memory.put(sessionId, sessionRecords);
   }
 
-  private Map<String, List<RecordEvent>> getOrCreateSessionEvents(String sessionId) {
+  private SessionRecords getOrCreateSessionRecords(String sessionId) {
     Assert.hasText(sessionId, "sessionId must not be null or blank");
 
-    return MEMORY.computeIfAbsent(sessionId, key -> new HashMap<>());
+    return memory.computeIfAbsent(sessionId, key -> newSessionRecords());
   }
 }
@@ -0,0 +1,456 @@
+package com.ducks.synaptra.memory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Writes the whole {@link EpisodeMemory} to a compact binary snapshot file and restores it.
+ *
+ * <p>The snapshot lets rolling restarts keep their sessions: the store is written on shutdown (or
+ * on demand through {@link #snapshot(Path)}) and loaded back on startup (or through {@link
+ * #restore(Path)}).
+ *
+ * <h2>File format</h2>
+ *
+ * <pre>
+ * int   magic ('SYNM')
+ * int   version
+ * int   flags (bit 0: shards are deflate-compressed)
+ * int   shardCount
+ * shardCount x { int byteLength, byte[byteLength] shard }
+ * </pre>
+ *
+ * <p>Sessions are distributed across shards by session identifier hash. Each shard is an
+ * independently (optionally) compressed block holding {@code int sessionCount} followed by, per
+ * session, its {@code UTF sessionId} and the timeline layout documented in {@link
+ * SessionRecords#writeTo}. Record contents are copied as the raw UTF-8 bytes already held by the
+ * session arenas, so neither side decodes or re-encodes strings.
+ *
+ * <p>Shards are encoded and decoded in parallel. The file itself is read and written sequentially,
+ * and a snapshot is first written to a temporary file which then atomically replaces the target;
+ * the temporary file is deleted if the snapshot fails.
+ *
+ * <p>A restore never trusts the lengths it reads: shard and record lengths are checked against the
+ * bytes left in the file and against {@link #MAX_SHARD_BYTES} and {@link #MAX_RECORD_BYTES} before
+ * anything is allocated, and restored sessions are only installed once every shard decoded, so a
+ * truncated or corrupt file leaves the memory untouched. On startup, such a file is logged, moved
+ * aside as {@code <path>.corrupt} and the application starts with an empty memory, unless fail-fast
+ * is enabled.
+ *
+ * <h2>Configuration Properties</h2>
+ *
+ * <ul>
+ *   <li><b>ai.agentics.memory.snapshot.path</b> — Snapshot file used by the lifecycle hooks; when
+ *       empty (default) nothing is restored or written automatically
+ *   <li><b>ai.agentics.memory.snapshot.restore-on-startup</b> — Restore the file on startup if it
+ *       exists (default {@code true})
+ *   <li><b>ai.agentics.memory.snapshot.on-shutdown</b> — Write the file on shutdown (default {@code
+ *       true})
+ *   <li><b>ai.agentics.memory.snapshot.compress</b> — Deflate-compress shards (default {@code
+ *       true})
+ *   <li><b>ai.agentics.memory.snapshot.shards</b> — Number of shards and parallel workers (default
+ *       {@code 16})
+ *   <li><b>ai.agentics.memory.snapshot.fail-fast</b> — Abort startup when the snapshot cannot be
+ *       restored instead of moving it aside (default {@code false})
+ * </ul>
+ *
+ * <p>The lifecycle phase is the lowest possible, so the restore runs before any other lifecycle
+ * component starts and the snapshot is taken after all of them (including executors) have stopped.
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@Component
+public class EpisodeMemorySnapshotter implements SmartLifecycle {
+
+  private static final Logger logger = LogManager.getLogger(EpisodeMemorySnapshotter.class);
+
+  private static final int MAGIC = 0x53594E4D;
+  private static final int VERSION = 1;
+  private static final int FLAG_COMPRESSED = 1;
+  private static final int BUFFER_BYTES = 1 << 16;
+  private static final int HEADER_BYTES = 4 * Integer.BYTES;
+
+  /** Largest shard accepted by a restore. */
+  static final int MAX_SHARD_BYTES = 1 << 30;
+
+  /** Largest record content accepted by a restore. */
+  static final int MAX_RECORD_BYTES = 1 << 28;
+
+  private final EpisodeMemory episodeMemory;
+  private final String path;
+  private final boolean restoreOnStartup;
+  private final boolean snapshotOnShutdown;
+  private final boolean compress;
+  private final int shards;
+  private final boolean failFast;
+
+  private volatile boolean running;
+
+  /**
+   * Creates the snapshotter.
+   *
+   * @param episodeMemory the store to snapshot and restore
+   * @param path the snapshot file used by the lifecycle hooks (empty to disable them)
+   * @param restoreOnStartup whether the file is restored on startup
+   * @param snapshotOnShutdown whether the file is written on shutdown
+   * @param compress whether shards are deflate-compressed
+   * @param shards the number of shards and parallel workers
+   * @param failFast whether a snapshot that cannot be restored aborts startup
+   */
+  public EpisodeMemorySnapshotter(
+      EpisodeMemory episodeMemory,
+      @Value("${ai.agentics.memory.snapshot.path:}") String path,
+      @Value("${ai.agentics.memory.snapshot.restore-on-startup:true}") boolean restoreOnStartup,
+      @Value("${ai.agentics.memory.snapshot.on-shutdown:true}") boolean snapshotOnShutdown,
+      @Value("${ai.agentics.memory.snapshot.compress:true}") boolean compress,
+      @Value("${ai.agentics.memory.snapshot.shards:16}") int shards,
+      @Value("${ai.agentics.memory.snapshot.fail-fast:false}") boolean failFast) {
+    this.episodeMemory = episodeMemory;
+    this.path = path;
+    this.restoreOnStartup = restoreOnStartup;
+    this.snapshotOnShutdown = snapshotOnShutdown;
+    this.compress = compress;
+    this.shards = Math.max(1, shards);
+    this.failFast = failFast;
+  }
+
+  /**
+   * Summary of a snapshot or restore run.
+   *
+   * @param sessions the number of sessions processed
+   * @param records the number of records processed
+   * @param bytes the size of the snapshot file in bytes
+   */
+  public record SnapshotStats(long sessions, long records, long bytes) {}
+
+  /**
+   * Writes the current content of the episodic memory to the given file.
+   *
+   * @param target the snapshot file to create or replace
+   * @return the snapshot statistics
+   * @throws UncheckedIOException if the snapshot cannot be written
+   */
+  public SnapshotStats snapshot(Path target) {
+    List<List<Map.Entry<String, SessionRecords>>> partitions = new ArrayList<>(shards);
+    for (int i = 0; i < shards; i++) {
+      partitions.add(new ArrayList<>());
+    }
+    episodeMemory.forEachSession(
+        (sessionId, sessionRecords) ->
+            partitions
+                .get(Math.floorMod(sessionId.hashCode(), shards))
+                .add(Map.entry(sessionId, sessionRecords)));
+
+    Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+    boolean published = false;
+    try {
+      SnapshotStats stats = writeSnapshot(partitions, temporary, target);
+      published = true;
+      return stats;
+    } finally {
+      if (!published) {
+        deleteTemporary(temporary);
+      }
+    }
+  }
+
+  /** Writes the partitions to the temporary file, then moves it over the target file. */
+  private SnapshotStats writeSnapshot(
+      List<List<Map.Entry<String, SessionRecords>>> partitions, Path temporary, Path target) {
+    long sessions = 0;
+    long records = 0;
+
+    try (ExecutorService workers = Executors.newFixedThreadPool(shards);
+        DataOutputStream out =
+            new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temporary), BUFFER_BYTES))) {
+
+      List<Future<EncodedShard>> encoded = new ArrayList<>(shards);
+      for (List<Map.Entry<String, SessionRecords>> partition : partitions) {
+        encoded.add(workers.submit(() -> encodeShard(partition)));
+      }
+
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(compress ? FLAG_COMPRESSED : 0);
+      out.writeInt(shards);
+
+      for (Future<EncodedShard> future : encoded) {
+        EncodedShard shard = await(future);
+        out.writeInt(shard.bytes().size());
+        shard.bytes().writeTo(out);
+        sessions += shard.sessions();
+        records += shard.records();
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to write episodic memory snapshot: " + target, e);
+    }
+
+    try {
+      Files.move(
+          temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      return new SnapshotStats(sessions, records, Files.size(target));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to publish episodic memory snapshot: " + target, e);
+    }
+  }
+
+  /**
+   * Loads a snapshot file into the episodic memory. Restored sessions replace in-memory sessions
+   * with the same identifier; other sessions are left untouched. Nothing is installed unless the
+   * whole file is valid.
+   *
+   * @param source the snapshot file to read
+   * @return the restore statistics
+   * @throws UncheckedIOException if the snapshot cannot be read or is malformed
+   */
+  public SnapshotStats restore(Path source) {
+    try (ExecutorService workers = Executors.newFixedThreadPool(shards);
+        DataInputStream in =
+            new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(source), BUFFER_BYTES))) {
+
+      if (in.readInt() != MAGIC) {
+        throw new IOException("Not an episodic memory snapshot");
+      }
+      int version = in.readInt();
+      if (version != VERSION) {
+        throw new IOException("Unsupported episodic memory snapshot version: " + version);
+      }
+      boolean compressed = (in.readInt() & FLAG_COMPRESSED) != 0;
+      int shardCount = in.readInt();
+
+      long fileBytes = Files.size(source);
+      long remaining = fileBytes - HEADER_BYTES;
+      if (shardCount < 1 || shardCount > remaining / Integer.BYTES) {
+        throw new IOException("Invalid shard count: " + shardCount);
+      }
+
+      List<Future<DecodedShard>> decoded = new ArrayList<>(shardCount);
+      for (int i = 0; i < shardCount; i++) {
+        int length = in.readInt();
+        remaining -= Integer.BYTES;
+        if (length < 0 || length > remaining || length > MAX_SHARD_BYTES) {
+          throw new IOException(
+              "Invalid length of shard " + i + ": " + length + " (" + remaining + " bytes left)");
+        }
+        byte[] shard = new byte[length];
+        in.readFully(shard);
+        remaining -= length;
+        decoded.add(workers.submit(() -> decodeShard(shard, compressed)));
+      }
+
+      List<DecodedShard> restored = new ArrayList<>(shardCount);
+      for (Future<DecodedShard> future : decoded) {
+        restored.add(await(future));
+      }
+
+      long sessions = 0;
+      long records = 0;
+      for (DecodedShard shard : restored) {
+        shard.sessions().forEach(episodeMemory::putSession);
+        sessions += shard.sessions().size();
+        records += shard.records();
+      }
+      return new SnapshotStats(sessions, records, fileBytes);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to restore episodic memory snapshot: " + source, e);
+    }
+  }
+
+  /**
+   * Restores the configured snapshot file, if enabled and present. A file that cannot be restored
+   * is moved aside and the memory starts empty, unless fail-fast is enabled.
+   */
+  @Override
+  public void start() {
+    running = true;
+    if (!StringUtils.hasText(path) || !restoreOnStartup || !Files.exists(Path.of(path))) {
+      return;
+    }
+
+    long started = System.nanoTime();
+    SnapshotStats stats;
+    try {
+      stats = restore(Path.of(path));
+    } catch (UncheckedIOException e) {
+      if (failFast) {
+        throw e;
+      }
+      logger.warn(
+          "[EPISODE_MEMORY_RESTORE_FAILED] path={}, movedTo={}, reason={}",
+          path,
+          quarantine(Path.of(path)),
+          e.getCause().getMessage());
+      return;
+    }
+    logger.info(
+        "[EPISODE_MEMORY_RESTORED] path={}, sessions={}, records={}, bytes={}, tookMs={}",
+        path,
+        stats.sessions(),
+        stats.records(),
+        stats.bytes(),
+        (System.nanoTime() - started) / 1_000_000);
+  }
+
+  /** Writes the configured snapshot file, if enabled. */
+  @Override
+  public void stop() {
+    running = false;
+    if (!StringUtils.hasText(path) || !snapshotOnShutdown) {
+      return;
+    }
+
+    long started = System.nanoTime();
+    SnapshotStats stats = snapshot(Path.of(path));
+    logger.info(
+        "[EPISODE_MEMORY_SNAPSHOT] path={}, sessions={}, records={}, bytes={}, tookMs={}",
+        path,
+        stats.sessions(),
+        stats.records(),
+        stats.bytes(),
+        (System.nanoTime() - started) / 1_000_000);
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  @Override
+  public int getPhase() {
+    return Integer.MIN_VALUE;
+  }
+
+  private EncodedShard encodeShard(List<Map.Entry<String, SessionRecords>> partition)
+      throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(BUFFER_BYTES);
+    long records = 0;
+
+    // Closing the stream does not release a deflater it did not create.
+    Deflater deflater = compress ? new Deflater(Deflater.BEST_SPEED) : null;
+    try {
+      OutputStream sink =
+          deflater != null ? new DeflaterOutputStream(bytes, deflater, BUFFER_BYTES) : bytes;
+      try (DataOutputStream out =
+          new DataOutputStream(new BufferedOutputStream(sink, BUFFER_BYTES))) {
+        out.writeInt(partition.size());
+        for (Map.Entry<String, SessionRecords> session : partition) {
+          out.writeUTF(session.getKey());
+          records += session.getValue().writeTo(out);
+        }
+      }
+    } finally {
+      if (deflater != null) {
+        deflater.end();
+      }
+    }
+
+    return new EncodedShard(bytes, partition.size(), records);
+  }
+
+  private DecodedShard decodeShard(byte[] shard, boolean compressed) throws IOException {
+    // Closing the stream does not release an inflater it did not create.
+    Inflater inflater = compressed ? new Inflater() : null;
+    InputStream source = new ByteArrayInputStream(shard);
+    if (inflater != null) {
+      source = new InflaterInputStream(source, inflater, BUFFER_BYTES);
+    }
+
+    long records = 0;
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(source, BUFFER_BYTES))) {
+      int sessionCount = in.readInt();
+      if (sessionCount < 0) {
+        throw new IOException("Invalid session count: " + sessionCount);
+      }
+      Map<String, SessionRecords> sessions = new HashMap<>();
+      for (int i = 0; i < sessionCount; i++) {
+        String sessionId = in.readUTF();
+        SessionRecords sessionRecords = episodeMemory.newSessionRecords();
+        records += sessionRecords.readFrom(in, MAX_RECORD_BYTES);
+        sessions.put(sessionId, sessionRecords);
+      }
+      return new DecodedShard(sessions, records);
+    } finally {
+      if (inflater != null) {
+        inflater.end();
+      }
+    }
+  }
+
+  /**
+   * Moves a snapshot that cannot be restored to {@code <file>.corrupt}, so the next shutdown does
+   * not overwrite it and the next startup does not fail on it again.
+   *
+   * @return the new location of the file, or {@code null} if it could not be moved
+   */
+  private static Path quarantine(Path source) {
+    Path corrupt = source.resolveSibling(source.getFileName() + ".corrupt");
+    try {
+      return Files.move(source, corrupt, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      logger.warn("[EPISODE_MEMORY_QUARANTINE_FAILED] path={}, reason={}", source, e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Deletes the temporary file of a failed snapshot; the snapshot failure is what gets reported.
+   */
+  private static void deleteTemporary(Path temporary) {
+    try {
+      Files.deleteIfExists(temporary);
+    } catch (IOException e) {
+      logger.warn(
+          "[EPISODE_MEMORY_SNAPSHOT_CLEANUP_FAILED] path={}, reason={}", temporary, e.getMessage());
+    }
+  }
+
+  private static <T> T await(Future<T> future) throws IOException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while processing episodic memory snapshot", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException io) {
+        throw io;
+      }
+      throw new IOException("Failed to process episodic memory snapshot shard", e.getCause());
+    }
+  }
+
+  private record EncodedShard(ByteArrayOutputStream bytes, long sessions, long records) {}
+
+  private record DecodedShard(Map<String, SessionRecords> sessions, long records) {}
+}
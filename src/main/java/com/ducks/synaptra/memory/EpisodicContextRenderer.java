@@ -0,0 +1,180 @@
+package com.ducks.synaptra.memory;
+
+import com.ducks.synaptra.agent.Agent;
+import com.ducks.synaptra.publisher.contract.RecordEvent;
+import com.ducks.synaptra.velocity.BuiltInPrompts;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+/**
+ * Renders the {@code EPISODIC_MEMORY_CONTEXT} system messages from episodic memory.
+ *
+ * <p>The episodic context is made of a static header, one line per recorded event and a footer.
+ * Event lines are appended straight into a builder, without re-evaluating a {@code #foreach}
+ * template over the whole timeline. When incremental rendering is enabled, the rendered event lines
+ * are also cached on each (session, agent) timeline and only the records appended since the
+ * previous turn are rendered, so the per-turn render cost is proportional to the new events, not to
+ * the session length. The cache holds a copy of the rendered timeline for every agent of every
+ * session, so it is opt-in; its size is included in {@link EpisodeMemory#getFootprintBytes()}.
+ *
+ * <p>Event lines and the child completion note are produced by the precompiled {@link
+ * BuiltInPrompts} renderers rather than by Velocity, into a builder sized from the stored content
+ * lengths.
+ *
+ * <p>Because already-rendered lines never change, the beginning of the rendered message is stable
+ * across turns, which also benefits provider-side prompt caching.
+ *
+ * <p>The rendered events can be limited to a window of the timeline: the events since the latest
+ * occurrence of a status ({@link EpisodeMemory#sinceStatus(String, Agent, String)}) and/or the last
+ * {@code n} events ({@link EpisodeMemory#tail(String, Agent, int)}). A windowed context only
+ * decodes the records it renders and is never cached.
+ *
+ * <p>Two variants are produced:
+ *
+ * <ul>
+ *   <li>{@link #renderEpisodicContext(String, Agent)}: used when user input resumes an agent
+ *   <li>{@link #renderParentEpisodicContext(String, Agent, Agent, String)}: used when a child agent
+ *       finishes and its parent is resumed
+ * </ul>
+ *
+ * <h2>Configuration Properties</h2>
+ *
+ * <ul>
+ *   <li><b>ai.agentics.memory.incremental-context</b> — Cache rendered event lines per timeline
+ *       (default {@code false}). Enabling it trades the memory held by the cached text for render
+ *       time.
+ *   <li><b>ai.agentics.memory.context-max-events</b> — Maximum number of events rendered per
+ *       context (default {@code 0}, all events).
+ *   <li><b>ai.agentics.memory.context-since-status</b> — Only render the events recorded after the
+ *       latest event with this status, e.g. {@code FINISHED} (default empty, all events).
+ * </ul>
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@Service
+public class EpisodicContextRenderer {
+
+  private static final String HEADER =
+      """
+      EPISODIC_MEMORY_CONTEXT
+      Purpose:
+      This section summarizes what has already happened in the current session.
+      It exists to ensure continuity and avoid repetition.
+
+      The last events:
+      """;
+
+  private static final String CONSTRAINTS =
+      """
+      Constraints:
+      - Do not repeat previously asked questions.
+      - Do not redo completed steps.
+      - Resume execution from the last known state.
+      """;
+
+  private final EpisodeMemory episodeMemory;
+  private final boolean incremental;
+  private final int maxEvents;
+  private final String sinceStatus;
+
+  /**
+   * Creates the renderer.
+   *
+   * @param episodeMemory the episodic memory store holding the timelines
+   * @param incremental whether rendered event lines are cached per timeline
+   * @param maxEvents maximum number of events rendered per context, {@code 0} for all
+   * @param sinceStatus status after whose latest occurrence events are rendered, blank for all
+   */
+  public EpisodicContextRenderer(
+      EpisodeMemory episodeMemory,
+      @Value("${ai.agentics.memory.incremental-context:false}") boolean incremental,
+      @Value("${ai.agentics.memory.context-max-events:0}") int maxEvents,
+      @Value("${ai.agentics.memory.context-since-status:}") String sinceStatus) {
+    Assert.isTrue(maxEvents >= 0, "ai.agentics.memory.context-max-events must not be negative");
+
+    this.episodeMemory = episodeMemory;
+    this.incremental = incremental;
+    this.maxEvents = maxEvents;
+    this.sinceStatus = sinceStatus == null || sinceStatus.isBlank() ? null : sinceStatus;
+  }
+
+  /**
+   * Renders the episodic context of an agent that is resumed by user input.
+   *
+   * @param sessionId the session identifier (must not be blank)
+   * @param agent the agent whose timeline is rendered (must not be {@code null})
+   * @return the rendered context, or {@code null} if the agent has no records in the session
+   */
+  public String renderEpisodicContext(String sessionId, Agent agent) {
+    String records = renderRecords(sessionId, agent);
+    if (records == null) {
+      return null;
+    }
+    return HEADER + records + "\n" + CONSTRAINTS;
+  }
+
+  /**
+   * Renders the episodic context of a parent agent that is resumed after one of its children has
+   * finished.
+   *
+   * @param sessionId the session identifier (must not be blank)
+   * @param parent the parent agent whose timeline is rendered (must not be {@code null})
+   * @param child the child agent that has just finished
+   * @param childContent the completion summary reported by the child
+   * @return the rendered context, or {@code null} if the parent has no records in the session
+   */
+  public String renderParentEpisodicContext(
+      String sessionId, Agent parent, Agent child, String childContent) {
+    String records = renderRecords(sessionId, parent);
+    if (records == null) {
+      return null;
+    }
+
+    return HEADER
+        + records
+        + "\n"
+        + BuiltInPrompts.childCompletion(child, childContent)
+        + "\n"
+        + CONSTRAINTS;
+  }
+
+  private String renderRecords(String sessionId, Agent agent) {
+    Assert.hasText(sessionId, "sessionId must not be null or blank");
+    Assert.notNull(agent, "agent must not be null");
+
+    if (maxEvents == 0 && sinceStatus == null) {
+      return episodeMemory.renderTimeline(
+          sessionId,
+          agent,
+          BuiltInPrompts::appendRecordLine,
+          BuiltInPrompts.RECORD_LINE_OVERHEAD,
+          incremental);
+    }
+
+    if (sinceStatus != null && sinceStatus.equals(episodeMemory.latestStatus(sessionId, agent))) {
+      // The agent has records, but nothing has happened since the delimiting status.
+      return "";
+    }
+
+    List<RecordEvent> window =
+        sinceStatus == null
+            ? episodeMemory.tail(sessionId, agent, maxEvents)
+            : episodeMemory.sinceStatus(sessionId, agent, sinceStatus);
+    if (window.isEmpty()) {
+      return null;
+    }
+    if (maxEvents > 0 && window.size() > maxEvents) {
+      window = window.subList(window.size() - maxEvents, window.size());
+    }
+
+    StringBuilder text =
+        new StringBuilder(window.size() * (BuiltInPrompts.RECORD_LINE_OVERHEAD + 64));
+    for (RecordEvent recordEvent : window) {
+      BuiltInPrompts.appendRecordLine(text, recordEvent);
+    }
+    return text.toString();
+  }
+}
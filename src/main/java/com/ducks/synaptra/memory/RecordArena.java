@@ -0,0 +1,149 @@
+package com.ducks.synaptra.memory;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Append-only byte arena holding the UTF-8 encoded record contents of a single session.
+ *
+ * <p>Contents are copied into the current chunk, which grows by copying (factor 1.5) from {@link
+ * #INITIAL_CHUNK_BYTES} up to the configured maximum chunk size; only then is a new chunk opened.
+ * Growing in place keeps existing addresses valid and avoids abandoning partially used chunks, so
+ * short-lived sessions with a handful of records stay small while long sessions amortize their
+ * allocations. A content larger than the maximum chunk size gets a dedicated chunk of its own.
+ *
+ * <p>Each stored content is addressed by a {@code long} whose upper 32 bits hold the chunk index
+ * and whose lower 32 bits hold the offset inside that chunk.
+ *
+ * <p>Chunks are either heap {@link ByteBuffer}s or direct (off-heap) buffers. Direct buffers keep
+ * the record bytes outside of the Java heap entirely, which reduces GC pressure for very large
+ * numbers of live sessions.
+ *
+ * <p>This class is not thread-safe; callers must guard it with the owning session lock.
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+final class RecordArena {
+
+  /** Size of the first chunk allocated for a session. */
+  static final int INITIAL_CHUNK_BYTES = 128;
+
+  private final int maxChunkBytes;
+  private final boolean offHeap;
+
+  private ByteBuffer[] chunks = new ByteBuffer[1];
+  private int chunkCount;
+  private int used;
+
+  /**
+   * Creates an empty arena. No chunk is allocated until the first append.
+   *
+   * @param maxChunkBytes upper bound for the geometric chunk growth
+   * @param offHeap whether chunks are allocated as direct buffers
+   */
+  RecordArena(int maxChunkBytes, boolean offHeap) {
+    this.maxChunkBytes = Math.max(INITIAL_CHUNK_BYTES, maxChunkBytes);
+    this.offHeap = offHeap;
+  }
+
+  /**
+   * Appends raw UTF-8 bytes.
+   *
+   * @param bytes the source array
+   * @param offset the offset of the first byte to copy
+   * @param length the number of bytes to copy
+   * @return the address of the stored bytes
+   */
+  long append(byte[] bytes, int offset, int length) {
+    ByteBuffer chunk = chunkWithRoomFor(length);
+    int position = used;
+    chunk.put(position, bytes, offset, length);
+    used += length;
+    return ((long) (chunkCount - 1) << 32) | position;
+  }
+
+  /**
+   * Decodes the content stored at the given address.
+   *
+   * @param address the address returned by {@link #append}
+   * @param length the number of stored bytes
+   * @return the decoded content
+   */
+  String read(long address, int length) {
+    ByteBuffer chunk = chunks[(int) (address >>> 32)];
+    int position = (int) address;
+    if (chunk.hasArray()) {
+      return new String(
+          chunk.array(), chunk.arrayOffset() + position, length, StandardCharsets.UTF_8);
+    }
+    byte[] bytes = new byte[length];
+    chunk.get(position, bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Writes the raw bytes stored at the given address without decoding them.
+   *
+   * @param out the destination
+   * @param address the address returned by {@link #append}
+   * @param length the number of stored bytes
+   * @throws IOException if writing fails
+   */
+  void writeTo(DataOutput out, long address, int length) throws IOException {
+    ByteBuffer chunk = chunks[(int) (address >>> 32)];
+    int position = (int) address;
+    if (chunk.hasArray()) {
+      out.write(chunk.array(), chunk.arrayOffset() + position, length);
+      return;
+    }
+    byte[] bytes = new byte[length];
+    chunk.get(position, bytes);
+    out.write(bytes);
+  }
+
+  /**
+   * Returns the number of bytes reserved by this arena, including unused chunk tails.
+   *
+   * @return the reserved byte count
+   */
+  long reservedBytes() {
+    long total = 0;
+    for (int i = 0; i < chunkCount; i++) {
+      total += chunks[i].capacity();
+    }
+    return total;
+  }
+
+  private ByteBuffer chunkWithRoomFor(int length) {
+    if (chunkCount > 0) {
+      ByteBuffer current = chunks[chunkCount - 1];
+      long required = (long) used + length;
+      if (required <= current.capacity()) {
+        return current;
+      }
+      if (required <= maxChunkBytes) {
+        long grown = Math.max(required, (long) current.capacity() + (current.capacity() >> 1));
+        ByteBuffer replacement = allocate((int) Math.min(grown, maxChunkBytes));
+        replacement.put(0, current, 0, used);
+        chunks[chunkCount - 1] = replacement;
+        return replacement;
+      }
+    }
+
+    if (chunkCount == chunks.length) {
+      chunks = Arrays.copyOf(chunks, chunkCount << 1);
+    }
+    ByteBuffer chunk = allocate(Math.max(INITIAL_CHUNK_BYTES, length));
+    chunks[chunkCount++] = chunk;
+    used = 0;
+    return chunk;
+  }
+
+  private ByteBuffer allocate(int capacity) {
+    return offHeap ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+  }
+}
@@ -0,0 +1,71 @@
+package com.ducks.synaptra.memory;
+
+import com.ducks.synaptra.orchestration.event.record.RecordExecutionEvent;
+
+/**
+ * Maps {@link com.ducks.synaptra.publisher.contract.RecordEvent} status strings to single-byte
+ * codes for compact episodic storage.
+ *
+ * <p>The well-known orchestration statuses declared in {@link RecordExecutionEvent} are encoded as
+ * non-zero codes. Any other value (including {@code null}) is encoded as {@link #CUSTOM}, in which
+ * case the caller is responsible for keeping the raw status string on the side.
+ *
+ * <p>Codes are part of the episodic memory snapshot format and must never be reordered; new
+ * statuses can only be appended.
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+final class RecordStatusCodec {
+
+  /** Code used for statuses that are not part of the well-known set. */
+  static final byte CUSTOM = 0;
+
+  private static final String[] STATUSES = {
+    null,
+    RecordExecutionEvent.WAIT_USER_INPUT,
+    RecordExecutionEvent.FINISHED,
+    RecordExecutionEvent.WAIT_AGENT_EXECUTION,
+    RecordExecutionEvent.WAIT_TOOL_EXECUTION,
+    RecordExecutionEvent.FINISHED_TOOL_EXECUTION,
+    RecordExecutionEvent.FAILED,
+    RecordExecutionEvent.SUPERSEDED
+  };
+
+  /** Number of codes in use, including {@link #CUSTOM}; codes range from {@code 0} to this - 1. */
+  static final int CODE_COUNT = STATUSES.length;
+
+  private RecordStatusCodec() {}
+
+  /**
+   * Encodes a status string into its byte code.
+   *
+   * @param status the status to encode (may be {@code null})
+   * @return the status code, or {@link #CUSTOM} if the status is not well-known
+   */
+  static byte encode(String status) {
+    if (status == null) {
+      return CUSTOM;
+    }
+    for (int code = 1; code < STATUSES.length; code++) {
+      if (STATUSES[code].equals(status)) {
+        return (byte) code;
+      }
+    }
+    return CUSTOM;
+  }
+
+  /**
+   * Decodes a well-known status code back into the shared status constant.
+   *
+   * @param code the status code
+   * @return the status string, or {@code null} for {@link #CUSTOM}
+   * @throws IllegalArgumentException if the code is unknown
+   */
+  static String decode(byte code) {
+    if (code < 0 || code >= STATUSES.length) {
+      throw new IllegalArgumentException("Unknown record status code: " + code);
+    }
+    return STATUSES[code];
+  }
+}
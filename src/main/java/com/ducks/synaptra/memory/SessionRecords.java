@@ -0,0 +1,245 @@
+package com.ducks.synaptra.memory;
+
+import com.ducks.synaptra.publisher.contract.RecordEvent;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Episodic storage for a single session: one shared {@link RecordArena} plus one {@link
+ * CompactTimeline} per agent identifier.
+ *
+ * <p>All access is serialized on this instance, which keeps contention scoped to a single session.
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+final class SessionRecords {
+
+  private final RecordArena arena;
+  private final Map<String, CompactTimeline> timelines = new HashMap<>(4);
+
+  SessionRecords(int maxChunkBytes, boolean offHeap) {
+    this.arena = new RecordArena(maxChunkBytes, offHeap);
+  }
+
+  synchronized void append(String agentIdentifier, RecordEvent recordEvent) {
+    CompactTimeline timeline =
+        timelines.computeIfAbsent(agentIdentifier, key -> new CompactTimeline());
+
+    String status = recordEvent.status();
+    byte statusCode = RecordStatusCodec.encode(status);
+
+    String content = recordEvent.content();
+    if (content == null) {
+      timeline.append(statusCode, status, 0L, -1);
+      return;
+    }
+
+    byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+    long address = arena.append(bytes, 0, bytes.length);
+    timeline.append(statusCode, status, address, bytes.length);
+  }
+
+  synchronized CompactTimeline timeline(String agentIdentifier) {
+    return timelines.get(agentIdentifier);
+  }
+
+  synchronized int size(CompactTimeline timeline) {
+    return timeline.size();
+  }
+
+  /**
+   * Returns a view over the last {@code count} records of an agent timeline.
+   *
+   * @param agentIdentifier the agent whose timeline is queried
+   * @param count the maximum number of records to include
+   * @return an immutable view of the matching records (empty if none)
+   */
+  synchronized List<RecordEvent> tail(String agentIdentifier, int count) {
+    CompactTimeline timeline = timelines.get(agentIdentifier);
+    if (timeline == null) {
+      return List.of();
+    }
+    int to = timeline.size();
+    return new TimelineView(this, timeline, Math.max(0, to - count), to);
+  }
+
+  /**
+   * Returns a view over the records appended after the latest record with the given status.
+   *
+   * @param agentIdentifier the agent whose timeline is queried
+   * @param status the status delimiting the range
+   * @return an immutable view of the matching records; the whole timeline if the status never
+   *     occurred
+   */
+  synchronized List<RecordEvent> since(String agentIdentifier, String status) {
+    CompactTimeline timeline = timelines.get(agentIdentifier);
+    if (timeline == null) {
+      return List.of();
+    }
+    return new TimelineView(this, timeline, timeline.lastIndexOf(status) + 1, timeline.size());
+  }
+
+  /**
+   * Returns the status of the latest record of an agent timeline.
+   *
+   * @param agentIdentifier the agent whose timeline is queried
+   * @return the latest status, or {@code null} if the agent has no records
+   */
+  synchronized String latestStatus(String agentIdentifier) {
+    CompactTimeline timeline = timelines.get(agentIdentifier);
+    if (timeline == null || timeline.size() == 0) {
+      return null;
+    }
+    return timeline.status(timeline.size() - 1);
+  }
+
+  /**
+   * Materializes the record stored at the given index of a timeline.
+   *
+   * @param timeline a timeline owned by this session
+   * @param index the record index
+   * @return a new {@link RecordEvent} view of the stored record
+   */
+  synchronized RecordEvent materialize(CompactTimeline timeline, int index) {
+    int length = timeline.length(index);
+    String content = length < 0 ? null : arena.read(timeline.address(index), length);
+    return new RecordEvent(content, timeline.status(index));
+  }
+
+  /**
+   * Renders the episodic text of an agent timeline.
+   *
+   * @param agentIdentifier the agent whose timeline is rendered
+   * @param lineRenderer appends a single record as its episodic line
+   * @param lineOverhead upper bound of the characters a line adds besides the record content
+   * @param incremental whether the rendered prefix cached on the timeline may be reused
+   * @return the rendered text, or {@code null} if the agent has no records
+   */
+  synchronized String render(
+      String agentIdentifier,
+      BiConsumer<StringBuilder, RecordEvent> lineRenderer,
+      int lineOverhead,
+      boolean incremental) {
+    CompactTimeline timeline = timelines.get(agentIdentifier);
+    if (timeline == null || timeline.size() == 0) {
+      return null;
+    }
+
+    if (incremental) {
+      return timeline.renderIncrementally(this, lineRenderer, lineOverhead);
+    }
+
+    StringBuilder text = new StringBuilder(timeline.estimateRenderedLength(0, lineOverhead));
+    for (int index = 0; index < timeline.size(); index++) {
+      lineRenderer.accept(text, materialize(timeline, index));
+    }
+    return text.toString();
+  }
+
+  /**
+   * Serializes all timelines of this session. Contents are copied as raw UTF-8 bytes.
+   *
+   * <p>Layout: {@code int timelineCount}, then per timeline {@code UTF agentId, int recordCount},
+   * then per record {@code byte statusCode}, {@code UTF rawStatus} when the code is {@link
+   * RecordStatusCodec#CUSTOM} (preceded by a presence flag), and {@code int length} followed by the
+   * content bytes ({@code -1} and no bytes for a {@code null} content).
+   *
+   * @param out the destination
+   * @return the number of records written
+   * @throws IOException if writing fails
+   */
+  synchronized long writeTo(DataOutput out) throws IOException {
+    long records = 0;
+    out.writeInt(timelines.size());
+    for (Map.Entry<String, CompactTimeline> entry : timelines.entrySet()) {
+      CompactTimeline timeline = entry.getValue();
+      out.writeUTF(entry.getKey());
+      out.writeInt(timeline.size());
+      for (int index = 0; index < timeline.size(); index++) {
+        byte statusCode = timeline.statusCode(index);
+        out.writeByte(statusCode);
+        if (statusCode == RecordStatusCodec.CUSTOM) {
+          String status = timeline.status(index);
+          out.writeBoolean(status != null);
+          if (status != null) {
+            out.writeUTF(status);
+          }
+        }
+        int length = timeline.length(index);
+        out.writeInt(length);
+        if (length > 0) {
+          arena.writeTo(out, timeline.address(index), length);
+        }
+      }
+      records += timeline.size();
+    }
+    return records;
+  }
+
+  /**
+   * Reads timelines written by {@link #writeTo(DataOutput)} into this (empty) session.
+   *
+   * <p>Counts and lengths are validated before use, so malformed data fails with an {@link
+   * IOException} instead of a huge allocation.
+   *
+   * @param in the source
+   * @param maxRecordBytes the largest record content accepted
+   * @return the number of records read
+   * @throws IOException if reading fails or the data is malformed
+   */
+  synchronized long readFrom(DataInput in, int maxRecordBytes) throws IOException {
+    long records = 0;
+    byte[] buffer = new byte[256];
+    int timelineCount = in.readInt();
+    if (timelineCount < 0) {
+      throw new IOException("Invalid timeline count: " + timelineCount);
+    }
+    for (int t = 0; t < timelineCount; t++) {
+      CompactTimeline timeline = new CompactTimeline();
+      timelines.put(in.readUTF(), timeline);
+      int recordCount = in.readInt();
+      if (recordCount < 0) {
+        throw new IOException("Invalid record count: " + recordCount);
+      }
+      for (int r = 0; r < recordCount; r++) {
+        byte statusCode = in.readByte();
+        // Rejects codes this version does not know before anything is stored.
+        RecordStatusCodec.decode(statusCode);
+        String rawStatus = null;
+        if (statusCode == RecordStatusCodec.CUSTOM && in.readBoolean()) {
+          rawStatus = in.readUTF();
+        }
+        int length = in.readInt();
+        if (length == -1) {
+          timeline.append(statusCode, rawStatus, 0L, -1);
+          continue;
+        }
+        if (length < 0 || length > maxRecordBytes) {
+          throw new IOException("Invalid record length: " + length);
+        }
+        if (length > buffer.length) {
+          buffer = new byte[Math.min(Math.max(length, buffer.length << 1), maxRecordBytes)];
+        }
+        in.readFully(buffer, 0, length);
+        timeline.append(statusCode, rawStatus, arena.append(buffer, 0, length), length);
+      }
+      records += recordCount;
+    }
+    return records;
+  }
+
+  synchronized long footprintBytes() {
+    long total = arena.reservedBytes();
+    for (CompactTimeline timeline : timelines.values()) {
+      total += timeline.footprintBytes();
+    }
+    return total;
+  }
+}
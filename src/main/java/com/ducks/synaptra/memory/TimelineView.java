@@ -0,0 +1,43 @@
+package com.ducks.synaptra.memory;
+
+import com.ducks.synaptra.publisher.contract.RecordEvent;
+import java.util.AbstractList;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Immutable, zero-copy view over a contiguous range of a {@link CompactTimeline}.
+ *
+ * <p>Because timelines are append-only, a view bound to a fixed {@code [from, to)} range is a
+ * stable snapshot: records appended after the view was created are not visible through it, and no
+ * record inside the range can change. {@link RecordEvent} instances are materialized lazily on
+ * every {@link #get(int)} call and are not retained by the view.
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+final class TimelineView extends AbstractList<RecordEvent> implements RandomAccess {
+
+  private final SessionRecords session;
+  private final CompactTimeline timeline;
+  private final int from;
+  private final int to;
+
+  TimelineView(SessionRecords session, CompactTimeline timeline, int from, int to) {
+    this.session = session;
+    this.timeline = timeline;
+    this.from = from;
+    this.to = to;
+  }
+
+  @Override
+  public RecordEvent get(int index) {
+    Objects.checkIndex(index, to - from);
+    return session.materialize(timeline, from + index);
+  }
+
+  @Override
+  public int size() {
+    return to - from;
+  }
+}
@@ -0,0 +1,182 @@
+package com.ducks.synaptra.metrics;
+
+import com.ducks.synaptra.config.SaturationAwareExecutor;
+import com.ducks.synaptra.memory.EpisodeMemory;
+import com.ducks.synaptra.orchestration.admission.AdmissionController;
+import com.ducks.synaptra.orchestration.bus.OrchestrationEventBus;
+import com.ducks.synaptra.orchestration.cancellation.SessionCancellation;
+import com.ducks.synaptra.orchestration.dedupe.ToolCallDeduplicator;
+import com.ducks.synaptra.orchestration.event.agent.PayloadCapture;
+import com.ducks.synaptra.orchestration.guard.ExecutionGuard;
+import com.ducks.synaptra.orchestration.guard.LimitBreach;
+import com.ducks.synaptra.orchestration.mailbox.SessionMailbox;
+import com.ducks.synaptra.orchestration.state.SessionStateMachine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registers the orchestration health gauges.
+ *
+ * <p>Every meter reads a counter the orchestration components already maintain, when the registry
+ * is scraped, so this component adds no cost to the orchestration itself:
+ *
+ * <ul>
+ *   <li><b>synaptra.executor.active</b>, <b>synaptra.executor.pending</b> (gauges) and
+ *       <b>synaptra.executor.rejected</b> (counter), tag {@code executor} — stage executor
+ *       saturation
+ *   <li><b>synaptra.bus.events</b> (counter, tag {@code result}: {@code published}, {@code handled}
+ *       or {@code cancelled}) and <b>synaptra.bus.backlog</b> (gauge) — event bus throughput
+ *   <li><b>synaptra.mailbox.busy-sessions</b> (gauge) — sessions with a running or pending task
+ *   <li><b>synaptra.memory.sessions</b> and <b>synaptra.memory.bytes</b> (gauges) — episodic memory
+ *       size
+ *   <li><b>synaptra.admission.sessions</b> (gauge, tag {@code state}: {@code active} or {@code
+ *       queued}) and <b>synaptra.admission.shed</b> (counter) — admission control
+ *   <li><b>synaptra.turn.breaches</b> (counter, tag {@code reason}) — turns ended by the execution
+ *       guard
+ *   <li><b>synaptra.turn.superseded</b> (counter) — turns cancelled by a new user message
+ *   <li><b>synaptra.state.rejected-transitions</b> (counter) — agent state transitions refused by
+ *       the session state machine
+ *   <li><b>synaptra.tool-call.duplicates</b> (counter) — duplicate tool calls dropped
+ *   <li><b>synaptra.payload-capture.dropped</b> (counter) — payload captures dropped
+ * </ul>
+ *
+ * <p>Meters are registered in the registry of {@link SynaptraMetrics}.
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@Component
+public class OrchestrationMetrics {
+
+  /**
+   * Registers the gauges.
+   *
+   * @param synaptraMetrics provides the registry
+   * @param executors the stage executors
+   * @param eventBus the orchestration event bus
+   * @param sessionMailbox the session mailbox
+   * @param episodeMemory the episodic memory
+   * @param admissionController the admission controller
+   * @param executionGuard the execution guard
+   * @param sessionCancellation the session cancellation
+   * @param sessionStateMachine the session state machine
+   * @param toolCallDeduplicator the tool call deduplicator
+   * @param payloadCapture the payload capture
+   */
+  public OrchestrationMetrics(
+      SynaptraMetrics synaptraMetrics,
+      List<SaturationAwareExecutor> executors,
+      OrchestrationEventBus eventBus,
+      SessionMailbox sessionMailbox,
+      EpisodeMemory episodeMemory,
+      AdmissionController admissionController,
+      ExecutionGuard executionGuard,
+      SessionCancellation sessionCancellation,
+      SessionStateMachine sessionStateMachine,
+      ToolCallDeduplicator toolCallDeduplicator,
+      PayloadCapture payloadCapture) {
+    MeterRegistry registry = synaptraMetrics.getRegistry();
+
+    for (SaturationAwareExecutor executor : executors) {
+      String name = executor.saturation().executor();
+      Gauge.builder("synaptra.executor.active", executor, e -> e.saturation().active())
+          .description("Tasks running on the stage executor")
+          .tag("executor", name)
+          .register(registry);
+      Gauge.builder("synaptra.executor.pending", executor, e -> e.saturation().pending())
+          .description("Tasks waiting for the stage executor")
+          .tag("executor", name)
+          .register(registry);
+      FunctionCounter.builder(
+              "synaptra.executor.rejected", executor, e -> e.saturation().rejected())
+          .description("Tasks rejected by the saturated stage executor")
+          .tag("executor", name)
+          .register(registry);
+    }
+
+    busEvents(registry, eventBus, "published", OrchestrationEventBus::getPublishedEvents);
+    busEvents(registry, eventBus, "handled", OrchestrationEventBus::getHandledEvents);
+    busEvents(registry, eventBus, "cancelled", OrchestrationEventBus::getCancelledEvents);
+    Gauge.builder("synaptra.bus.backlog", eventBus, OrchestrationEventBus::getBacklog)
+        .description("Events waiting in the event bus ring")
+        .register(registry);
+
+    Gauge.builder("synaptra.mailbox.busy-sessions", sessionMailbox, SessionMailbox::getBusySessions)
+        .description("Sessions with a running or pending orchestration task")
+        .register(registry);
+
+    Gauge.builder("synaptra.memory.sessions", episodeMemory, EpisodeMemory::getSessionCount)
+        .description("Sessions held in episodic memory")
+        .register(registry);
+    Gauge.builder("synaptra.memory.bytes", episodeMemory, EpisodeMemory::getFootprintBytes)
+        .description("Bytes reserved by the episodic memory records")
+        .baseUnit("bytes")
+        .register(registry);
+
+    Gauge.builder(
+            "synaptra.admission.sessions",
+            admissionController,
+            controller -> controller.getStats().activeSessions())
+        .description("Sessions admitted or waiting for admission")
+        .tag("state", "active")
+        .register(registry);
+    Gauge.builder(
+            "synaptra.admission.sessions",
+            admissionController,
+            controller -> controller.getStats().queuedSessions())
+        .description("Sessions admitted or waiting for admission")
+        .tag("state", "queued")
+        .register(registry);
+    FunctionCounter.builder(
+            "synaptra.admission.shed",
+            admissionController,
+            controller -> controller.getStats().shed())
+        .description("Sessions rejected by admission control")
+        .register(registry);
+
+    for (LimitBreach breach : LimitBreach.values()) {
+      FunctionCounter.builder(
+              "synaptra.turn.breaches", executionGuard, guard -> guard.getBreachCount(breach))
+          .description("Turns ended by the execution guard")
+          .tag("reason", breach.name().toLowerCase())
+          .register(registry);
+    }
+    FunctionCounter.builder(
+            "synaptra.turn.superseded",
+            sessionCancellation,
+            SessionCancellation::getSupersededTurns)
+        .description("Turns cancelled by a new user message")
+        .register(registry);
+    FunctionCounter.builder(
+            "synaptra.state.rejected-transitions",
+            sessionStateMachine,
+            SessionStateMachine::getRejectedTransitions)
+        .description("Agent state transitions refused by the session state machine")
+        .register(registry);
+    FunctionCounter.builder(
+            "synaptra.tool-call.duplicates",
+            toolCallDeduplicator,
+            ToolCallDeduplicator::getDuplicateHits)
+        .description("Duplicate tool calls dropped")
+        .register(registry);
+    FunctionCounter.builder(
+            "synaptra.payload-capture.dropped", payloadCapture, PayloadCapture::getDroppedPayloads)
+        .description("Payload captures dropped because the capture queue was full")
+        .register(registry);
+  }
+
+  private static void busEvents(
+      MeterRegistry registry,
+      OrchestrationEventBus eventBus,
+      String result,
+      ToDoubleFunction<OrchestrationEventBus> count) {
+    FunctionCounter.builder("synaptra.bus.events", eventBus, count)
+        .description("Orchestration events by result")
+        .tag("result", result)
+        .register(registry);
+  }
+}
@@ -0,0 +1,215 @@
+package com.ducks.synaptra.metrics;
+
+import com.ducks.synaptra.client.openai.data.Usage;
+import com.ducks.synaptra.orchestration.cancellation.CancellationToken;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * Records the LLM and user turn metrics of the orchestration.
+ *
+ * <p>Meters are registered in the application {@link MeterRegistry}, or in the Micrometer global
+ * registry when the application has none:
+ *
+ * <ul>
+ *   <li><b>synaptra.llm.call</b> (timer, tags {@code agent}, {@code model}, {@code outcome}) —
+ *       OpenAI call latency; {@code outcome} is {@code success}, {@code error} or {@code cancelled}
+ *   <li><b>synaptra.llm.tokens</b> (counter, tags {@code agent}, {@code model}, {@code type}) —
+ *       prompt and completion tokens consumed
+ *   <li><b>synaptra.turn.hops</b> (distribution summary) — handoffs and parent resumptions per user
+ *       turn
+ *   <li><b>synaptra.turn.time-to-first-answer</b> (timer) — time from a user message to the
+ *       delivery of the first answer of its turn
+ * </ul>
+ *
+ * <p>Recording does not add contention on the hot path: meters are resolved once per tag set and
+ * cached in concurrent maps, counters are striped adders and the percentiles of timers and
+ * summaries are computed by HdrHistogram recorders.
+ *
+ * <p>Orchestration health gauges (executors, event bus, episodic memory...) are registered by
+ * {@link OrchestrationMetrics}.
+ *
+ * <h2>Configuration Properties</h2>
+ *
+ * <ul>
+ *   <li><b>ai.agentics.metrics.percentiles</b> — Client-side percentiles published by timers and
+ *       summaries (default {@code 0.5,0.95,0.99})
+ *   <li><b>ai.agentics.metrics.histogram</b> — Publish histogram buckets for server-side percentile
+ *       aggregation (default {@code true})
+ * </ul>
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@Component
+public class SynaptraMetrics {
+
+  /** Outcome of an LLM call that returned a response. */
+  public static final String SUCCESS = "success";
+
+  /** Outcome of an LLM call that failed. */
+  public static final String ERROR = "error";
+
+  /** Outcome of an LLM call aborted because its turn was cancelled. */
+  public static final String CANCELLED = "cancelled";
+
+  private final MeterRegistry registry;
+  private final double[] percentiles;
+  private final boolean histogram;
+
+  private final Map<LlmCallKey, Timer> llmCallTimers = new ConcurrentHashMap<>();
+  private final Map<TokenKey, TokenCounters> tokenCounters = new ConcurrentHashMap<>();
+  private final DistributionSummary turnHops;
+  private final Timer timeToFirstAnswer;
+
+  /**
+   * Creates the metrics.
+   *
+   * @param registry provider of the application registry
+   * @param percentiles comma-separated client-side percentiles published by timers and summaries
+   * @param histogram whether histogram buckets are published
+   * @throws IllegalArgumentException if a percentile is not a number between {@code 0} and {@code
+   *     1}
+   */
+  public SynaptraMetrics(
+      ObjectProvider<MeterRegistry> registry,
+      @Value("${ai.agentics.metrics.percentiles:0.5,0.95,0.99}") String percentiles,
+      @Value("${ai.agentics.metrics.histogram:true}") boolean histogram) {
+    this.registry = registry.getIfAvailable(() -> Metrics.globalRegistry);
+    this.percentiles = parsePercentiles(percentiles);
+    this.histogram = histogram;
+    this.turnHops =
+        DistributionSummary.builder("synaptra.turn.hops")
+            .description("Handoffs and parent resumptions per user turn")
+            .publishPercentiles(this.percentiles)
+            .publishPercentileHistogram(histogram)
+            .register(this.registry);
+    this.timeToFirstAnswer =
+        Timer.builder("synaptra.turn.time-to-first-answer")
+            .description("Time from a user message to the delivery of the first answer of its turn")
+            .publishPercentiles(this.percentiles)
+            .publishPercentileHistogram(histogram)
+            .register(this.registry);
+  }
+
+  /**
+   * Returns the registry the meters are registered in.
+   *
+   * @return the registry
+   */
+  public MeterRegistry getRegistry() {
+    return registry;
+  }
+
+  /**
+   * Records an OpenAI call.
+   *
+   * @param agentIdentifier the identifier of the called agent
+   * @param model the requested model (may be {@code null})
+   * @param outcome {@link #SUCCESS}, {@link #ERROR} or {@link #CANCELLED}
+   * @param durationNanos the call duration, in nanoseconds
+   * @param usage the token usage reported by the LLM (may be {@code null})
+   */
+  public void recordLlmCall(
+      String agentIdentifier, String model, String outcome, long durationNanos, Usage usage) {
+    String modelTag = model != null ? model : "unknown";
+    llmCallTimers
+        .computeIfAbsent(new LlmCallKey(agentIdentifier, modelTag, outcome), this::llmCallTimer)
+        .record(durationNanos, TimeUnit.NANOSECONDS);
+
+    if (usage != null) {
+      TokenCounters counters =
+          tokenCounters.computeIfAbsent(
+              new TokenKey(agentIdentifier, modelTag), this::tokenCounters);
+      if (usage.promptTokens() != null) {
+        counters.prompt().increment(usage.promptTokens());
+      }
+      if (usage.completionTokens() != null) {
+        counters.completion().increment(usage.completionTokens());
+      }
+    }
+  }
+
+  /**
+   * Records the delivery of an answer; the first answer of a turn records its time to first answer.
+   *
+   * <p>The start time and the answered flag live on the turn token, so turns that end, fail, expire
+   * or are superseded without an answer leave nothing behind.
+   *
+   * @param token the token of the turn of the answer (may be {@code null} outside a turn)
+   */
+  public void answerDelivered(@Nullable CancellationToken token) {
+    if (token != null && token.answered()) {
+      timeToFirstAnswer.record(System.nanoTime() - token.getCreatedAt(), TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /**
+   * Records the end of a user turn.
+   *
+   * @param hops the number of handoffs and parent resumptions of the turn
+   */
+  public void turnEnded(int hops) {
+    turnHops.record(hops);
+  }
+
+  private Timer llmCallTimer(LlmCallKey key) {
+    return Timer.builder("synaptra.llm.call")
+        .description("OpenAI chat completion call latency")
+        .tag("agent", key.agent())
+        .tag("model", key.model())
+        .tag("outcome", key.outcome())
+        .publishPercentiles(percentiles)
+        .publishPercentileHistogram(histogram)
+        .register(registry);
+  }
+
+  private TokenCounters tokenCounters(TokenKey key) {
+    return new TokenCounters(tokenCounter(key, "prompt"), tokenCounter(key, "completion"));
+  }
+
+  private Counter tokenCounter(TokenKey key, String type) {
+    return Counter.builder("synaptra.llm.tokens")
+        .description("Tokens consumed by OpenAI calls")
+        .baseUnit("tokens")
+        .tag("agent", key.agent())
+        .tag("model", key.model())
+        .tag("type", type)
+        .register(registry);
+  }
+
+  private static double[] parsePercentiles(String percentiles) {
+    String[] values = StringUtils.commaDelimitedListToStringArray(percentiles.trim());
+    double[] parsed = new double[values.length];
+    for (int i = 0; i < values.length; i++) {
+      try {
+        parsed[i] = Double.parseDouble(values[i].trim());
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException(
+            "Invalid ai.agentics.metrics.percentiles '" + percentiles + "'", e);
+      }
+      Assert.isTrue(
+          parsed[i] >= 0 && parsed[i] <= 1,
+          "ai.agentics.metrics.percentiles must be between 0 and 1");
+    }
+    return parsed;
+  }
+
+  private record LlmCallKey(String agent, String model, String outcome) {}
+
+  private record TokenKey(String agent, String model) {}
+
+  private record TokenCounters(Counter prompt, Counter completion) {}
+}
@@ -1,17 +1,24 @@
 package com.ducks.synaptra.orchestration;
 
 import com.ducks.synaptra.client.openai.data.Choice;
-import com.ducks.synaptra.log.LogTracer;
+import com.ducks.synaptra.config.ExecutionStage;
+import com.ducks.synaptra.metrics.SynaptraMetrics;
+import com.ducks.synaptra.orchestration.admission.AdmissionController;
+import com.ducks.synaptra.orchestration.bus.OrchestrationEventBus;
+import com.ducks.synaptra.orchestration.cancellation.CancellationToken;
+import com.ducks.synaptra.orchestration.cancellation.SessionCancellation;
 import com.ducks.synaptra.orchestration.event.agent.contract.AgentResponseEvent;
 import com.ducks.synaptra.orchestration.event.answer.contract.AnswerResponseEvent;
 import com.ducks.synaptra.orchestration.event.tool.contract.ToolResponseEvent;
+import com.ducks.synaptra.orchestration.guard.ExecutionGuard;
+import com.ducks.synaptra.orchestration.mailbox.SessionMailbox;
+import com.ducks.synaptra.orchestration.state.SessionState;
+import com.ducks.synaptra.publisher.TurnFailurePublisher;
+import com.ducks.synaptra.tracing.Traced;
 import java.util.Objects;
 import lombok.RequiredArgsConstructor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 /**
@@ -24,13 +31,21 @@ import org.springframework.stereotype.Service;
  * <ul>
  *   <li>Emits {@link AnswerResponseEvent} when user-facing content is present
  *   <li>Emits {@link ToolResponseEvent} when the agent requests tool execution
+ *   <li>Fails the turn when the agent returns neither content nor tool calls (see {@link
+ *       TurnFailurePublisher})
  * </ul>
  *
+ * <p>An answer without tool calls is the last step of the turn, since nothing follows it: it is
+ * published as the final answer of the turn ({@link SessionState#WAIT_USER_INPUT}), the turn ends
+ * (see {@link SessionCancellation#endTurn(String)}) and its {@link AdmissionController} slot is
+ * released. If the turn had already ended, the answer is still delivered, as an interim one.
+ *
  * <p>This class does not execute tools and does not deliver answers directly. Its sole
  * responsibility is to interpret the agent output and translate it into domain-specific
  * orchestration events.
  *
- * <p>All processing is asynchronous and executed on the {@code agentExecutionExecutor}.
+ * <p>All processing is asynchronous and executed on the {@code agentExecutionExecutor}, in order
+ * with the other events of the session (see {@link SessionMailbox}).
  *
  * @author Leandro Marques
  * @since 1.0.0
@@ -43,7 +58,13 @@ public class OrchestrationExecutionService {
 
   private static final String FINISH_REASON_TOOL_CALLS = "tool_calls";
 
-  private final ApplicationEventPublisher publisher;
+  private final OrchestrationEventBus eventBus;
+  private final SessionMailbox sessionMailbox;
+  private final TurnFailurePublisher turnFailurePublisher;
+  private final SessionCancellation sessionCancellation;
+  private final AdmissionController admissionController;
+  private final ExecutionGuard executionGuard;
+  private final SynaptraMetrics synaptraMetrics;
 
   /**
    * Handles an {@link AgentResponseEvent} and emits answer and/or tool execution events based on
@@ -59,12 +80,15 @@ public class OrchestrationExecutionService {
    *
    * @param agentResponseEvent the event containing the raw agent execution result
    */
-  @LogTracer(spanName = "interpret_agent_execution_response")
-  @Async("agentExecutionExecutor")
-  @EventListener
+  @Traced(spanName = "interpret_agent_execution_response")
   public void onAgentExecutionEvent(AgentResponseEvent agentResponseEvent) {
     Objects.requireNonNull(agentResponseEvent);
 
+    sessionMailbox.submit(
+        agentResponseEvent.sessionId(), ExecutionStage.AGENT, () -> interpret(agentResponseEvent));
+  }
+
+  private void interpret(AgentResponseEvent agentResponseEvent) {
     agentResponseEvent
         .chatCompletionResponse()
         .choices()
@@ -72,17 +96,46 @@ public class OrchestrationExecutionService {
   }
 
   private void handleChoice(AgentResponseEvent agentResponseEvent, Choice choice) {
-    publishAnswerIfPresent(agentResponseEvent, choice);
+    if (!hasToolCalls(choice)) {
+      publishFinalAnswer(agentResponseEvent, choice);
+      return;
+    }
+    publishAnswerIfPresent(agentResponseEvent, choice, null);
     publishToolCallsIfPresent(agentResponseEvent, choice);
   }
 
-  private void publishToolCallsIfPresent(AgentResponseEvent agentResponseEvent, Choice choice) {
+  private boolean hasToolCalls(Choice choice) {
+    return FINISH_REASON_TOOL_CALLS.equals(choice.finishReason())
+        && choice.message().toolCalls() != null;
+  }
 
-    if (!FINISH_REASON_TOOL_CALLS.equals(choice.finishReason())) {
+  /** Publishes the answer of an agent that called no tool, ending the turn. */
+  private void publishFinalAnswer(AgentResponseEvent agentResponseEvent, Choice choice) {
+    String sessionId = agentResponseEvent.sessionId();
+    String content = choice.message().content();
+    if (content == null || content.isBlank()) {
+      String reason = "empty response, finishReason=" + choice.finishReason();
+      if (agentResponseEvent.agent() == null) {
+        turnFailurePublisher.publishEvent(sessionId, reason, null);
+      } else {
+        turnFailurePublisher.publishEvent(
+            sessionId, agentResponseEvent.agent(), agentResponseEvent.user(), reason);
+      }
       return;
     }
 
-    if (choice.message().toolCalls() == null) {
+    boolean ended = sessionCancellation.endTurn(sessionId);
+    publishAnswerIfPresent(agentResponseEvent, choice, ended ? SessionState.WAIT_USER_INPUT : null);
+    if (ended) {
+      // The turn ended: hand the admission slot over to the next queued session.
+      admissionController.release(CancellationToken.current());
+      synaptraMetrics.turnEnded(executionGuard.finishTurn(sessionId));
+    }
+  }
+
+  private void publishToolCallsIfPresent(AgentResponseEvent agentResponseEvent, Choice choice) {
+
+    if (!hasToolCalls(choice)) {
       return;
     }
 
@@ -99,7 +152,7 @@ public class OrchestrationExecutionService {
                       : "null",
                   toolCall.function().name());
 
-              publisher.publishEvent(
+              eventBus.publish(
                   new ToolResponseEvent(
                       agentResponseEvent.sessionId(),
                       agentResponseEvent.agent(),
@@ -108,7 +161,8 @@ public class OrchestrationExecutionService {
             });
   }
 
-  private void publishAnswerIfPresent(AgentResponseEvent agentResponseEvent, Choice choice) {
+  private void publishAnswerIfPresent(
+      AgentResponseEvent agentResponseEvent, Choice choice, SessionState finalState) {
 
     String content = choice.message().content();
     if (content == null || content.isBlank()) {
@@ -121,11 +175,12 @@ public class OrchestrationExecutionService {
         agentResponseEvent.agent() != null ? agentResponseEvent.agent().getIdentifier() : "null",
         content.length());
 
-    publisher.publishEvent(
+    eventBus.publish(
         new AnswerResponseEvent(
             agentResponseEvent.sessionId(),
             agentResponseEvent.agent(),
             agentResponseEvent.user(),
-            content));
+            content,
+            finalState));
   }
 }
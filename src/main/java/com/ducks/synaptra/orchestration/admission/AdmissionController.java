@@ -0,0 +1,455 @@
+package com.ducks.synaptra.orchestration.admission;
+
+import com.ducks.synaptra.agent.Agent;
+import com.ducks.synaptra.orchestration.cancellation.CancellationToken;
+import com.ducks.synaptra.orchestration.cancellation.SessionCancellation.Turn;
+import com.ducks.synaptra.orchestration.state.SessionStateMachine;
+import com.ducks.synaptra.publisher.TurnFailurePublisher;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+/**
+ * Admission control in front of agent execution.
+ *
+ * <p>Every user turn enters the orchestration through {@link #admit(Turn, Runnable)}. A session
+ * holds an admission slot from the moment its turn is admitted until the turn ends (the session
+ * waits for user input or its root agent finishes, see {@link #release(CancellationToken)}). Work
+ * published <i>within</i> a turn (tool calls, handoffs, records) never goes through admission, so
+ * sessions already running always keep going and are never cut in the middle of a multi-hop flow.
+ *
+ * <p>Slots are tracked per turn token: a new turn of a session that already holds a slot (e.g. the
+ * user answered mid-turn) is admitted right away and shares that slot, and the session keeps it
+ * until every turn holding it has ended, so a turn never releases the slot of another one.
+ *
+ * <p>When all slots are taken, new turns are queued instead of being submitted to the executors:
+ *
+ * <ul>
+ *   <li>Turns of sessions with previous activity (known to the {@link SessionStateMachine}) go to a
+ *       priority lane, served first and never refused, so ongoing conversations finish before new
+ *       ones start
+ *   <li>Turns of new sessions are queued per tenant ({@link AdmissionKeyResolver}) and served with
+ *       deficit round-robin weighted by {@link AdmissionKey#weight()}, so one noisy tenant cannot
+ *       starve the others
+ *   <li>When the tenant queues are full, new sessions are refused with an {@link
+ *       AdmissionRejectedException} before any work starts (load shedding)
+ * </ul>
+ *
+ * <p>Every path ending a turn releases its slot: its final answer, its failure (see {@link
+ * TurnFailurePublisher}) or a limit breach. As a safety net, a slot held longer than the session
+ * timeout is reclaimed by a periodic sweep, and the next time admission runs out of slots; the turn
+ * holding it is failed (see {@link TurnFailurePublisher#publishExpired(Turn)}), so the user
+ * receives the failure answer instead of waiting for an answer that may never come.
+ *
+ * <p>Admission decisions are taken under a single lock; this only happens once per user turn, not
+ * per orchestration event. Dispatching always happens outside the lock.
+ *
+ * <h2>Configuration Properties</h2>
+ *
+ * <ul>
+ *   <li><b>ai.agentics.admission.max-active-sessions</b> — Maximum number of sessions running a
+ *       turn at the same time; {@code 0} disables admission control (default {@code 0})
+ *   <li><b>ai.agentics.admission.max-queued-sessions</b> — Maximum number of new sessions waiting
+ *       for a slot before new sessions are refused (default {@code 1000})
+ *   <li><b>ai.agentics.admission.session-timeout-ms</b> — Time after which an admitted session slot
+ *       may be reclaimed (default {@code 300000})
+ *   <li><b>ai.agentics.admission.reclaim-interval-ms</b> — Interval of the sweep reclaiming expired
+ *       slots; {@code 0} only reclaims them when admission runs out of slots (default {@code
+ *       10000})
+ * </ul>
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@Service
+public final class AdmissionController implements DisposableBean {
+
+  private static final Logger logger = LogManager.getLogger(AdmissionController.class);
+
+  private final SessionStateMachine sessionStateMachine;
+  private final ObjectProvider<TurnFailurePublisher> turnFailurePublisher;
+  private final AdmissionKeyResolver keyResolver;
+  private final int maxActiveSessions;
+  private final int maxQueuedSessions;
+  private final long sessionTimeoutNanos;
+
+  /** Sweep reclaiming expired slots, or {@code null} if disabled. */
+  private final ScheduledExecutorService reclaimer;
+
+  private final ReentrantLock lock = new ReentrantLock();
+
+  /**
+   * Turns holding the slot of each admitted session, with their admission time ({@link
+   * System#nanoTime()}); guarded by lock.
+   */
+  private final Map<String, Map<CancellationToken, Slot>> activeSessions = new HashMap<>();
+
+  /** Turns of sessions with previous activity; guarded by lock. */
+  private final Deque<PendingTurn> priorityLane = new ArrayDeque<>();
+
+  /** Queues of new sessions per tenant; guarded by lock. */
+  private final Map<String, TenantQueue> tenantQueues = new HashMap<>();
+
+  /** Tenants with queued sessions, in round-robin order; guarded by lock. */
+  private final Deque<TenantQueue> round = new ArrayDeque<>();
+
+  private int queuedNewSessions;
+
+  private final LongAdder admitted = new LongAdder();
+  private final LongAdder queued = new LongAdder();
+  private final LongAdder shed = new LongAdder();
+  private final LongAdder expired = new LongAdder();
+  private final Map<String, LongAdder> shedByTenant = new ConcurrentHashMap<>();
+
+  /**
+   * Creates the admission controller.
+   *
+   * @param sessionStateMachine state machine used to recognize sessions with previous activity
+   * @param turnFailurePublisher fails the turns whose slot expires, resolved lazily
+   * @param keyResolver optional tenant key resolver; each session is its own tenant when absent
+   * @param maxActiveSessions maximum number of sessions running a turn ({@code 0} disables)
+   * @param maxQueuedSessions maximum number of queued new sessions
+   * @param sessionTimeoutMs time after which an admitted slot may be reclaimed
+   * @param reclaimIntervalMs interval of the sweep reclaiming expired slots ({@code 0} disables)
+   * @throws IllegalArgumentException if {@code sessionTimeoutMs} is not positive or {@code
+   *     reclaimIntervalMs} is negative
+   */
+  public AdmissionController(
+      SessionStateMachine sessionStateMachine,
+      ObjectProvider<TurnFailurePublisher> turnFailurePublisher,
+      ObjectProvider<AdmissionKeyResolver> keyResolver,
+      @Value("${ai.agentics.admission.max-active-sessions:0}") int maxActiveSessions,
+      @Value("${ai.agentics.admission.max-queued-sessions:1000}") int maxQueuedSessions,
+      @Value("${ai.agentics.admission.session-timeout-ms:300000}") long sessionTimeoutMs,
+      @Value("${ai.agentics.admission.reclaim-interval-ms:10000}") long reclaimIntervalMs) {
+    Assert.isTrue(sessionTimeoutMs > 0, "sessionTimeoutMs must be positive");
+    Assert.isTrue(reclaimIntervalMs >= 0, "reclaimIntervalMs must not be negative");
+    this.sessionStateMachine = sessionStateMachine;
+    this.turnFailurePublisher = turnFailurePublisher;
+    this.keyResolver =
+        keyResolver.getIfAvailable(() -> (sessionId, agent) -> new AdmissionKey(sessionId, 1));
+    this.maxActiveSessions = maxActiveSessions;
+    this.maxQueuedSessions = maxQueuedSessions;
+    this.sessionTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sessionTimeoutMs);
+    if (maxActiveSessions > 0 && reclaimIntervalMs > 0) {
+      this.reclaimer =
+          Executors.newSingleThreadScheduledExecutor(
+              Thread.ofPlatform().name("ai-admission-reclaimer").daemon().factory());
+      this.reclaimer.scheduleWithFixedDelay(
+          this::reclaim, reclaimIntervalMs, reclaimIntervalMs, TimeUnit.MILLISECONDS);
+    } else {
+      this.reclaimer = null;
+    }
+  }
+
+  /**
+   * Admits a user turn, running {@code dispatch} now or once a slot is available.
+   *
+   * <p>{@code dispatch} runs on the calling thread when admitted immediately; when queued, it runs
+   * later on the thread releasing the slot. It should therefore only publish the turn (not execute
+   * it), and build its inputs (e.g. the episodic context) when it runs rather than when queued.
+   *
+   * @param turn the turn to admit, not started yet (must not be {@code null})
+   * @param dispatch starts and publishes the turn (must not be {@code null})
+   * @throws AdmissionRejectedException if the session is new and the tenant queues are full
+   * @throws RuntimeException if {@code dispatch} fails when run immediately; the slot is released
+   */
+  public void admit(Turn turn, Runnable dispatch) {
+    Assert.notNull(turn, "turn must not be null");
+    Assert.notNull(dispatch, "dispatch must not be null");
+    String sessionId = turn.token().getSessionId();
+    Agent agent = turn.agent();
+
+    if (maxActiveSessions <= 0) {
+      admitted.increment();
+      dispatch.run();
+      return;
+    }
+
+    boolean runNow = false;
+    AdmissionKey rejectedKey = null;
+    List<Turn> expiredTurns = List.of();
+
+    lock.lock();
+    try {
+      if (activeSessions.containsKey(sessionId)) {
+        // The session already holds a slot (e.g. the user answered mid-turn).
+        occupy(turn);
+        runNow = true;
+      } else {
+        if (activeSessions.size() >= maxActiveSessions) {
+          expiredTurns = reclaimExpiredSlots();
+        }
+        if (activeSessions.size() < maxActiveSessions && isQueueEmpty()) {
+          occupy(turn);
+          runNow = true;
+        } else if (sessionStateMachine.current(sessionId, agent) != null) {
+          priorityLane.addLast(new PendingTurn(turn, dispatch));
+          queued.increment();
+        } else {
+          AdmissionKey key = keyResolver.resolve(sessionId, agent);
+          if (queuedNewSessions >= maxQueuedSessions) {
+            rejectedKey = key;
+          } else {
+            enqueue(key, new PendingTurn(turn, dispatch));
+            queued.increment();
+          }
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+    expiredTurns.forEach(this::expire);
+
+    if (rejectedKey != null) {
+      shed.increment();
+      shedByTenant.computeIfAbsent(rejectedKey.tenant(), tenant -> new LongAdder()).increment();
+      logger.warn("[ADMISSION_REJECTED] sessionId={}, tenant={}", sessionId, rejectedKey.tenant());
+      throw new AdmissionRejectedException(sessionId, rejectedKey.tenant());
+    }
+
+    if (runNow) {
+      admitted.increment();
+      try {
+        dispatch.run();
+      } catch (RuntimeException e) {
+        release(turn.token());
+        throw e;
+      }
+    }
+  }
+
+  /**
+   * Releases the slot held by a turn that ended, admitting queued turns in its place once no other
+   * turn of the session holds it.
+   *
+   * <p>Releasing a turn that holds no slot (e.g. it already released it, or its slot expired) has
+   * no effect.
+   *
+   * @param token the token of the turn, usually {@link CancellationToken#current()} ({@code null}
+   *     has no effect)
+   */
+  public void release(@Nullable CancellationToken token) {
+    if (maxActiveSessions <= 0 || token == null) {
+      return;
+    }
+
+    lock.lock();
+    try {
+      Map<CancellationToken, Slot> turns = activeSessions.get(token.getSessionId());
+      if (turns == null || turns.remove(token) == null || !turns.isEmpty()) {
+        return;
+      }
+      activeSessions.remove(token.getSessionId());
+    } finally {
+      lock.unlock();
+    }
+
+    dispatchQueued();
+  }
+
+  /**
+   * Returns the current admission counters.
+   *
+   * @return the admission stats
+   */
+  public AdmissionStats getStats() {
+    int active;
+    int waiting;
+    lock.lock();
+    try {
+      active = activeSessions.size();
+      waiting = priorityLane.size() + queuedNewSessions;
+    } finally {
+      lock.unlock();
+    }
+
+    Map<String, Long> shedPerTenant = new HashMap<>();
+    shedByTenant.forEach((tenant, count) -> shedPerTenant.put(tenant, count.sum()));
+    return new AdmissionStats(
+        active,
+        waiting,
+        admitted.sum(),
+        queued.sum(),
+        shed.sum(),
+        expired.sum(),
+        Map.copyOf(shedPerTenant));
+  }
+
+  private void dispatchQueued() {
+    List<PendingTurn> turns = new ArrayList<>();
+    lock.lock();
+    try {
+      while (activeSessions.size() < maxActiveSessions) {
+        PendingTurn turn = pollNext();
+        if (turn == null) {
+          break;
+        }
+        occupy(turn.turn());
+        turns.add(turn);
+      }
+    } finally {
+      lock.unlock();
+    }
+
+    for (PendingTurn turn : turns) {
+      admitted.increment();
+      try {
+        turn.dispatch().run();
+      } catch (RuntimeException e) {
+        CancellationToken token = turn.turn().token();
+        logger.error("[ADMISSION_DISPATCH_FAILED] sessionId={}", token.getSessionId(), e);
+        release(token);
+      }
+    }
+  }
+
+  /** Gives the slot of its session to a turn; must be called under the lock. */
+  private void occupy(Turn turn) {
+    CancellationToken token = turn.token();
+    activeSessions
+        .computeIfAbsent(token.getSessionId(), key -> new HashMap<>())
+        .put(token, new Slot(turn, System.nanoTime()));
+  }
+
+  private void enqueue(AdmissionKey key, PendingTurn turn) {
+    TenantQueue queue = tenantQueues.get(key.tenant());
+    if (queue == null) {
+      queue = new TenantQueue(key.tenant(), key.weight());
+      tenantQueues.put(key.tenant(), queue);
+      round.addLast(queue);
+    }
+    queue.turns.addLast(turn);
+    queuedNewSessions++;
+  }
+
+  /** Returns the next turn to admit: priority lane first, then deficit round-robin by tenant. */
+  private PendingTurn pollNext() {
+    PendingTurn priority = priorityLane.pollFirst();
+    if (priority != null) {
+      return priority;
+    }
+
+    while (!round.isEmpty()) {
+      TenantQueue queue = round.peekFirst();
+      if (!queue.visited) {
+        queue.deficit += queue.weight;
+        queue.visited = true;
+      }
+
+      if (queue.deficit >= 1) {
+        queue.deficit--;
+        queuedNewSessions--;
+        PendingTurn turn = queue.turns.pollFirst();
+        if (queue.turns.isEmpty()) {
+          round.pollFirst();
+          tenantQueues.remove(queue.tenant);
+        }
+        return turn;
+      }
+
+      // Quantum used up: move the tenant to the back of the round.
+      queue.visited = false;
+      round.addLast(round.pollFirst());
+    }
+    return null;
+  }
+
+  private boolean isQueueEmpty() {
+    return priorityLane.isEmpty() && queuedNewSessions == 0;
+  }
+
+  /** Periodic sweep: reclaims expired slots and admits queued turns in their place. */
+  private void reclaim() {
+    try {
+      List<Turn> expiredTurns;
+      lock.lock();
+      try {
+        expiredTurns = reclaimExpiredSlots();
+      } finally {
+        lock.unlock();
+      }
+      if (!expiredTurns.isEmpty()) {
+        expiredTurns.forEach(this::expire);
+        dispatchQueued();
+      }
+    } catch (RuntimeException e) {
+      // An exception would cancel the periodic sweep.
+      logger.error("[ADMISSION_RECLAIM_FAILED]", e);
+    }
+  }
+
+  /**
+   * Removes the slots held longer than the session timeout; must be called under the lock.
+   *
+   * @return the turns whose slot expired, to be failed outside the lock
+   */
+  private List<Turn> reclaimExpiredSlots() {
+    long now = System.nanoTime();
+    List<Turn> expiredTurns = new ArrayList<>();
+    for (Map<CancellationToken, Slot> turns : activeSessions.values()) {
+      Iterator<Slot> slots = turns.values().iterator();
+      while (slots.hasNext()) {
+        Slot slot = slots.next();
+        if (now - slot.admittedAt() > sessionTimeoutNanos) {
+          slots.remove();
+          expired.increment();
+          expiredTurns.add(slot.turn());
+          logger.warn("[ADMISSION_SLOT_EXPIRED] sessionId={}", slot.turn().token().getSessionId());
+        }
+      }
+    }
+    activeSessions.values().removeIf(Map::isEmpty);
+    return expiredTurns;
+  }
+
+  /** Fails a turn whose slot expired, so its user receives the failure answer. */
+  private void expire(Turn turn) {
+    turnFailurePublisher.getObject().publishExpired(turn);
+  }
+
+  /** Stops the sweep reclaiming expired slots. */
+  @Override
+  public void destroy() {
+    if (reclaimer != null) {
+      reclaimer.shutdownNow();
+    }
+  }
+
+  private record PendingTurn(Turn turn, Runnable dispatch) {}
+
+  private record Slot(Turn turn, long admittedAt) {}
+
+  /** Queue of one tenant with its deficit round-robin state. */
+  private static final class TenantQueue {
+
+    private final String tenant;
+    private final int weight;
+    private final Deque<PendingTurn> turns = new ArrayDeque<>();
+    private int deficit;
+    private boolean visited;
+
+    private TenantQueue(String tenant, int weight) {
+      this.tenant = tenant;
+      this.weight = weight;
+    }
+  }
+}
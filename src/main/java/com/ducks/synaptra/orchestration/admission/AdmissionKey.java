@@ -0,0 +1,23 @@
+package com.ducks.synaptra.orchestration.admission;
+
+import org.springframework.util.Assert;
+
+/**
+ * Fair-queuing key of a session waiting for admission.
+ *
+ * <p>Queued sessions sharing a tenant are served in arrival order; tenants are served in weighted
+ * round-robin, so a tenant with weight 2 gets twice as many admissions as a tenant with weight 1
+ * while both have sessions waiting.
+ *
+ * @param tenant the tenant (or any grouping) the session belongs to
+ * @param weight the relative share of admissions of the tenant (at least {@code 1})
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+public record AdmissionKey(String tenant, int weight) {
+
+  public AdmissionKey {
+    Assert.hasText(tenant, "tenant must not be null or blank");
+    Assert.isTrue(weight >= 1, "weight must be at least 1");
+  }
+}
@@ -0,0 +1,25 @@
+package com.ducks.synaptra.orchestration.admission;
+
+import com.ducks.synaptra.agent.Agent;
+
+/**
+ * Resolves the {@link AdmissionKey} of a new session.
+ *
+ * <p>Register a bean implementing this interface to queue sessions fairly per tenant. Without one,
+ * each session is its own tenant with weight {@code 1}, which makes the queue plain FIFO.
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@FunctionalInterface
+public interface AdmissionKeyResolver {
+
+  /**
+   * Resolves the admission key of a session.
+   *
+   * @param sessionId the session identifier
+   * @param agent the agent receiving the user input
+   * @return the admission key (must not be {@code null})
+   */
+  AdmissionKey resolve(String sessionId, Agent agent);
+}
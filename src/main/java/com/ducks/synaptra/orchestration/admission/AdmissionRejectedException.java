@@ -0,0 +1,48 @@
+package com.ducks.synaptra.orchestration.admission;
+
+/**
+ * Thrown when a new session is refused because the admission queue is full.
+ *
+ * <p>It is thrown synchronously by the publisher, before any work of the session starts, so the
+ * caller can answer the user right away (e.g. with a "try again later" message).
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+public class AdmissionRejectedException extends RuntimeException {
+
+  private static final long serialVersionUID = 1L;
+
+  private final String sessionId;
+  private final String tenant;
+
+  /**
+   * Creates a new {@link AdmissionRejectedException}.
+   *
+   * @param sessionId the refused session
+   * @param tenant the tenant of the refused session
+   */
+  public AdmissionRejectedException(String sessionId, String tenant) {
+    super("Session '" + sessionId + "' of tenant '" + tenant + "' refused: admission queue full");
+    this.sessionId = sessionId;
+    this.tenant = tenant;
+  }
+
+  /**
+   * Returns the refused session.
+   *
+   * @return the session identifier
+   */
+  public String getSessionId() {
+    return sessionId;
+  }
+
+  /**
+   * Returns the tenant of the refused session.
+   *
+   * @return the tenant
+   */
+  public String getTenant() {
+    return tenant;
+  }
+}
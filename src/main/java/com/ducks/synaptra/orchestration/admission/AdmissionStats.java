@@ -0,0 +1,25 @@
+package com.ducks.synaptra.orchestration.admission;
+
+import java.util.Map;
+
+/**
+ * Point-in-time counters of the {@link AdmissionController}.
+ *
+ * @param activeSessions sessions currently holding an admission slot
+ * @param queuedSessions sessions waiting for a slot
+ * @param admitted sessions admitted since startup (immediately or after queuing)
+ * @param queued sessions that had to wait for a slot since startup
+ * @param shed sessions refused since startup
+ * @param expired slots reclaimed from sessions exceeding the session timeout since startup
+ * @param shedByTenant sessions refused since startup, per tenant
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+public record AdmissionStats(
+    int activeSessions,
+    int queuedSessions,
+    long admitted,
+    long queued,
+    long shed,
+    long expired,
+    Map<String, Long> shedByTenant) {}
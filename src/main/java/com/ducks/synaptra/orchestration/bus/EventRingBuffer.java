@@ -0,0 +1,165 @@
+package com.ducks.synaptra.orchestration.bus;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded multi-producer, single-consumer ring of events.
+ *
+ * <p>Slots are preallocated and reused; publishing an event allocates nothing. Producers claim a
+ * sequence with a CAS on the claim cursor, write the slot and then mark it published with the lap
+ * number of the sequence, so the consumer can tell a fresh slot from a stale one without locking.
+ * The consumer reads every contiguous published slot in one batch and then advances its cursor,
+ * which frees the slots for producers.
+ *
+ * <p>Each slot also holds an optional attachment travelling with its event (e.g. the cancellation
+ * token of the publisher).
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+final class EventRingBuffer {
+
+  private final Object[] entries;
+  private final Object[] attachments;
+  private final AtomicIntegerArray published;
+  private final int mask;
+  private final int shift;
+
+  /** Last claimed sequence. */
+  private final AtomicLong claimed = new AtomicLong(-1);
+
+  /** Last consumed sequence; written by the consumer only. */
+  private volatile long consumed = -1;
+
+  /**
+   * Creates a ring.
+   *
+   * @param capacity the number of slots, rounded up to a power of two
+   */
+  EventRingBuffer(int capacity) {
+    int size = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+    this.entries = new Object[size];
+    this.attachments = new Object[size];
+    this.published = new AtomicIntegerArray(size);
+    for (int i = 0; i < size; i++) {
+      published.set(i, -1);
+    }
+    this.mask = size - 1;
+    this.shift = Integer.numberOfTrailingZeros(size);
+  }
+
+  /**
+   * Claims the next sequence if a slot is free.
+   *
+   * @return the claimed sequence, or {@code -1} if the ring is full
+   */
+  long tryClaim() {
+    while (true) {
+      long current = claimed.get();
+      long next = current + 1;
+      if (next - entries.length > consumed) {
+        return -1;
+      }
+      if (claimed.compareAndSet(current, next)) {
+        return next;
+      }
+    }
+  }
+
+  /**
+   * Stores an event in a claimed slot and makes it visible to the consumer.
+   *
+   * @param sequence the claimed sequence
+   * @param event the event
+   * @param attachment the attachment of the event (may be {@code null})
+   */
+  void publish(long sequence, Object event, Object attachment) {
+    int index = (int) sequence & mask;
+    entries[index] = event;
+    attachments[index] = attachment;
+    published.set(index, (int) (sequence >>> shift));
+  }
+
+  /**
+   * Returns the highest sequence published contiguously after the last consumed one.
+   *
+   * @return the highest available sequence, or the last consumed one if none is available
+   */
+  long highestPublished() {
+    long sequence = consumed + 1;
+    while (published.get((int) sequence & mask) == (int) (sequence >>> shift)) {
+      sequence++;
+    }
+    return sequence - 1;
+  }
+
+  /**
+   * Returns the attachment of a published sequence; must be read before {@link #take(long)}.
+   *
+   * @param sequence a published, not yet consumed sequence
+   * @return the attachment, or {@code null}
+   */
+  Object attachment(long sequence) {
+    return attachments[(int) sequence & mask];
+  }
+
+  /**
+   * Takes the event of a published sequence, clearing its slot.
+   *
+   * @param sequence a published, not yet consumed sequence
+   * @return the event
+   */
+  Object take(long sequence) {
+    int index = (int) sequence & mask;
+    Object event = entries[index];
+    entries[index] = null;
+    attachments[index] = null;
+    return event;
+  }
+
+  /**
+   * Frees every slot up to a sequence.
+   *
+   * @param sequence the last consumed sequence
+   */
+  void consumedUpTo(long sequence) {
+    consumed = sequence;
+  }
+
+  /**
+   * Returns the last consumed sequence.
+   *
+   * @return the consumer cursor
+   */
+  long consumed() {
+    return consumed;
+  }
+
+  /**
+   * Returns the last claimed sequence.
+   *
+   * @return the claim cursor
+   */
+  long claimed() {
+    return claimed.get();
+  }
+
+  /**
+   * Returns the number of claimed events not consumed yet.
+   *
+   * @return the backlog
+   */
+  long backlog() {
+    return claimed.get() - consumed;
+  }
+
+  /**
+   * Returns the number of slots.
+   *
+   * @return the capacity
+   */
+  int capacity() {
+    return entries.length;
+  }
+}
@@ -0,0 +1,428 @@
+package com.ducks.synaptra.orchestration.bus;
+
+import com.ducks.synaptra.config.CallerRuns;
+import com.ducks.synaptra.orchestration.cancellation.CancellationToken;
+import com.ducks.synaptra.orchestration.cancellation.SessionCancellation;
+import com.ducks.synaptra.orchestration.event.OrchestrationEvent;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+/**
+ * In-process bus carrying the {@link OrchestrationEvent}s between the orchestration stages.
+ *
+ * <p>Two modes are available:
+ *
+ * <ul>
+ *   <li>{@code spring} (default): events are published through the {@link
+ *       ApplicationEventPublisher} and reach the handlers through the {@link
+ *       SpringEventBusAdapter}, on the publishing thread, as before the bus existed; Spring
+ *       {@code @EventListener}s of the host application see every event
+ *   <li>{@code ring}: events go through a preallocated {@link EventRingBuffer} drained by a single
+ *       consumer thread ({@code ai-event-bus}). The {@link OrchestrationEventHandler} beans are
+ *       resolved once at startup into a per-type table, so publishing an event costs a CAS and a
+ *       slot write, and dispatching it a table lookup. The consumer handles every event available
+ *       in one batch before freeing the slots and notifies the handlers at the end of each batch
+ * </ul>
+ *
+ * <p>In both modes, events published by the host application through the {@link
+ * ApplicationEventPublisher} still reach the handlers (see {@link SpringEventBusAdapter}). In
+ * {@code ring} mode, bus events are not visible to Spring {@code @EventListener}s; register an
+ * {@link OrchestrationEventHandler} bean instead. This is why {@code ring} mode must be enabled
+ * explicitly.
+ *
+ * <p>An idle consumer spins, then yields, then parks until a producer publishes (on a single core
+ * it parks right away). When the ring is full, producers wait for free slots (backpressure). The
+ * consumer thread itself never waits: an event a handler publishes into a full ring goes to an
+ * overflow queue of the consumer instead, and is handled right after the events already in the ring
+ * when it was published, so the events of a session keep their order. Tasks submitted from the
+ * consumer thread are never run on it by a {@code caller-runs} executor (see {@link CallerRuns}):
+ * they are rejected instead, which fails their turn, rather than stalling every session behind
+ * them.
+ *
+ * <p>Handlers run on the consumer thread and must not block. A failing handler is logged and does
+ * not affect the other handlers.
+ *
+ * <p>Every event carries the {@link CancellationToken} of the turn it was published for (see {@link
+ * SessionCancellation#tokenOf(String)}), which is the {@linkplain CancellationToken#current()
+ * current token} while its handlers run. Events of a cancelled turn are dropped, whether they are
+ * published after the cancellation or were still waiting in the ring.
+ *
+ * <h2>Configuration Properties</h2>
+ *
+ * <ul>
+ *   <li><b>ai.agentics.event-bus.mode</b> — {@code spring} or {@code ring} (default {@code spring})
+ *   <li><b>ai.agentics.event-bus.ring-size</b> — Number of ring slots, rounded up to a power of two
+ *       (default {@code 4096})
+ * </ul>
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@Service
+public class OrchestrationEventBus implements SmartInitializingSingleton, DisposableBean {
+
+  /** Mode dispatching events through the ring buffer. */
+  public static final String RING_MODE = "ring";
+
+  /** Mode dispatching events through Spring application events. */
+  public static final String SPRING_MODE = "spring";
+
+  private static final Logger logger = LogManager.getLogger(OrchestrationEventBus.class);
+
+  private static final int SPIN_TRIES = 100;
+  private static final int YIELD_TRIES = 200;
+
+  /** Busy-waiting only pays off when producers and the consumer run on different cores. */
+  private static final boolean MULTI_CORE = Runtime.getRuntime().availableProcessors() > 1;
+
+  private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final ObjectProvider<OrchestrationEventHandler<?>> handlerProvider;
+  private final ApplicationEventPublisher applicationEventPublisher;
+  private final SessionCancellation sessionCancellation;
+  private final boolean ringMode;
+  private final EventRingBuffer ring;
+
+  /** Events the consumer published into a full ring, in order; consumer thread only. */
+  private final Deque<Overflow> overflow = new ArrayDeque<>();
+
+  private final LongAdder publishedEvents = new LongAdder();
+  private final LongAdder handledEvents = new LongAdder();
+  private final LongAdder cancelledEvents = new LongAdder();
+
+  private Map<Class<?>, OrchestrationEventHandler<OrchestrationEvent>[]> handlersByType = Map.of();
+  private List<OrchestrationEventHandler<OrchestrationEvent>> handlers = List.of();
+
+  private volatile Thread consumer;
+  private volatile boolean consumerParked;
+  private volatile boolean running;
+
+  /**
+   * Creates the bus.
+   *
+   * @param handlerProvider the event handlers, resolved once at startup
+   * @param applicationEventPublisher the publisher used in {@code spring} mode
+   * @param sessionCancellation the source of the cancellation token of each event
+   * @param mode {@code ring} or {@code spring}
+   * @param ringSize the number of ring slots
+   * @throws IllegalArgumentException if the mode is unknown or the ring size is not positive
+   */
+  public OrchestrationEventBus(
+      ObjectProvider<OrchestrationEventHandler<?>> handlerProvider,
+      ApplicationEventPublisher applicationEventPublisher,
+      SessionCancellation sessionCancellation,
+      @Value("${ai.agentics.event-bus.mode:spring}") String mode,
+      @Value("${ai.agentics.event-bus.ring-size:4096}") int ringSize) {
+    Assert.isTrue(ringSize > 0, "ringSize must be positive");
+    String normalizedMode = mode.trim().toLowerCase();
+    Assert.isTrue(
+        RING_MODE.equals(normalizedMode) || SPRING_MODE.equals(normalizedMode),
+        "Unknown ai.agentics.event-bus.mode '"
+            + mode
+            + "' (expected '"
+            + RING_MODE
+            + "' or '"
+            + SPRING_MODE
+            + "')");
+    this.handlerProvider = handlerProvider;
+    this.applicationEventPublisher = applicationEventPublisher;
+    this.sessionCancellation = sessionCancellation;
+    this.ringMode = RING_MODE.equals(normalizedMode);
+    this.ring = ringMode ? new EventRingBuffer(ringSize) : null;
+  }
+
+  /** Resolves the handlers and, in {@code ring} mode, starts the consumer thread. */
+  @Override
+  @SuppressWarnings("unchecked")
+  public void afterSingletonsInstantiated() {
+    Map<Class<?>, List<OrchestrationEventHandler<OrchestrationEvent>>> byType = new HashMap<>();
+    Set<OrchestrationEventHandler<OrchestrationEvent>> all = new LinkedHashSet<>();
+    handlerProvider
+        .orderedStream()
+        .forEach(
+            handler -> {
+              OrchestrationEventHandler<OrchestrationEvent> typed =
+                  (OrchestrationEventHandler<OrchestrationEvent>) handler;
+              byType.computeIfAbsent(handler.eventType(), type -> new ArrayList<>()).add(typed);
+              all.add(typed);
+            });
+
+    Map<Class<?>, OrchestrationEventHandler<OrchestrationEvent>[]> table = new HashMap<>();
+    byType.forEach((type, list) -> table.put(type, list.toArray(OrchestrationEventHandler[]::new)));
+    this.handlersByType = table;
+    this.handlers = List.copyOf(all);
+
+    logger.info(
+        "[EVENT_BUS_STARTED] mode={}, eventTypes={}, handlers={}",
+        ringMode ? RING_MODE : SPRING_MODE,
+        table.size(),
+        all.size());
+
+    if (ringMode) {
+      running = true;
+      Thread thread = Thread.ofPlatform().name("ai-event-bus").daemon().unstarted(this::consume);
+      consumer = thread;
+      thread.start();
+    }
+  }
+
+  /**
+   * Publishes an event to its handlers.
+   *
+   * <p>In {@code ring} mode this method returns once the event is in the ring, waiting for a free
+   * slot if the ring is full; in {@code spring} mode it returns once the handlers have run.
+   *
+   * @param event the event (must not be {@code null})
+   */
+  public void publish(OrchestrationEvent event) {
+    Assert.notNull(event, "event must not be null");
+    publishedEvents.increment();
+
+    CancellationToken token = sessionCancellation.tokenOf(event.sessionId());
+    if (isCancelled(event, token)) {
+      return;
+    }
+
+    if (!ringMode) {
+      applicationEventPublisher.publishEvent(event);
+      return;
+    }
+
+    enqueue(event, token);
+  }
+
+  /**
+   * Entry point of events coming from Spring application events (see {@link
+   * SpringEventBusAdapter}).
+   *
+   * <p>In {@code spring} mode the event is dispatched to the handlers on the calling thread; in
+   * {@code ring} mode it is enqueued like a bus event.
+   *
+   * @param event the event
+   */
+  void onApplicationEvent(OrchestrationEvent event) {
+    CancellationToken token = sessionCancellation.tokenOf(event.sessionId());
+    if (ringMode) {
+      enqueue(event, token);
+    } else {
+      dispatch(event, token);
+      endOfBatch();
+    }
+  }
+
+  /**
+   * Returns the number of events published through {@link #publish(OrchestrationEvent)} since
+   * startup.
+   *
+   * @return published events
+   */
+  public long getPublishedEvents() {
+    return publishedEvents.sum();
+  }
+
+  /**
+   * Returns the number of events dispatched to their handlers since startup.
+   *
+   * @return handled events
+   */
+  public long getHandledEvents() {
+    return handledEvents.sum();
+  }
+
+  /**
+   * Returns the number of events dropped because their turn was cancelled since startup.
+   *
+   * @return cancelled events
+   */
+  public long getCancelledEvents() {
+    return cancelledEvents.sum();
+  }
+
+  /**
+   * Returns the number of events waiting in the ring ({@code 0} in {@code spring} mode).
+   *
+   * @return the backlog
+   */
+  public long getBacklog() {
+    return ringMode ? ring.backlog() : 0;
+  }
+
+  /**
+   * Returns the number of ring slots ({@code 0} in {@code spring} mode).
+   *
+   * @return the ring capacity
+   */
+  public int getCapacity() {
+    return ringMode ? ring.capacity() : 0;
+  }
+
+  /** Stops the consumer thread once the events already in the ring are handled. */
+  @Override
+  public void destroy() throws InterruptedException {
+    running = false;
+    Thread thread = consumer;
+    if (thread != null) {
+      LockSupport.unpark(thread);
+      thread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+  }
+
+  private void enqueue(OrchestrationEvent event, CancellationToken token) {
+    int tries = 0;
+    long sequence;
+    while ((sequence = ring.tryClaim()) < 0) {
+      if (Thread.currentThread() == consumer) {
+        // The consumer cannot wait for itself to free a slot: handle the event after the events
+        // claimed so far.
+        overflow.addLast(new Overflow(ring.claimed(), event, token));
+        return;
+      }
+      if (MULTI_CORE && ++tries < SPIN_TRIES) {
+        Thread.onSpinWait();
+      } else {
+        LockSupport.parkNanos(PARK_NANOS);
+      }
+    }
+
+    ring.publish(sequence, event, token);
+    if (consumerParked) {
+      LockSupport.unpark(consumer);
+    }
+  }
+
+  private void consume() {
+    CallerRuns.forbidOnCurrentThread();
+    int idle = 0;
+    while (true) {
+      long consumed = ring.consumed();
+      long available = ring.highestPublished();
+
+      if (available > consumed) {
+        idle = 0;
+        for (long sequence = consumed + 1; sequence <= available; sequence++) {
+          CancellationToken token = (CancellationToken) ring.attachment(sequence);
+          dispatch((OrchestrationEvent) ring.take(sequence), token);
+          dispatchOverflow(sequence);
+        }
+        ring.consumedUpTo(available);
+        endOfBatch();
+        continue;
+      }
+
+      if (!running) {
+        return;
+      }
+
+      // Idle: spin, then yield, then park until a producer publishes.
+      if (MULTI_CORE && ++idle < SPIN_TRIES + YIELD_TRIES) {
+        if (idle < SPIN_TRIES) {
+          Thread.onSpinWait();
+        } else {
+          Thread.yield();
+        }
+        continue;
+      }
+
+      consumerParked = true;
+      if (ring.highestPublished() == consumed && running) {
+        // Producers unpark the consumer after publishing into the ring.
+        LockSupport.park(this);
+      }
+      consumerParked = false;
+    }
+  }
+
+  /** Handles the overflow events published once a sequence was claimed, now that it is handled. */
+  private void dispatchOverflow(long sequence) {
+    Overflow next;
+    while ((next = overflow.peekFirst()) != null && next.after() <= sequence) {
+      overflow.pollFirst();
+      dispatch(next.event(), next.token());
+    }
+  }
+
+  private void dispatch(OrchestrationEvent event, CancellationToken token) {
+    if (isCancelled(event, token)) {
+      return;
+    }
+    if (token == null) {
+      dispatch(event);
+    } else {
+      CancellationToken.runWith(token, () -> dispatch(event));
+    }
+  }
+
+  private void dispatch(OrchestrationEvent event) {
+    OrchestrationEventHandler<OrchestrationEvent>[] eventHandlers =
+        handlersByType.get(event.getClass());
+    if (eventHandlers == null) {
+      logger.debug(
+          "[EVENT_BUS_UNHANDLED] sessionId={}, event={}",
+          event.sessionId(),
+          event.getClass().getSimpleName());
+      return;
+    }
+
+    for (OrchestrationEventHandler<OrchestrationEvent> handler : eventHandlers) {
+      try {
+        handler.onEvent(event);
+      } catch (RuntimeException e) {
+        logger.error(
+            "[EVENT_BUS_HANDLER_FAILED] sessionId={}, event={}",
+            event.sessionId(),
+            event.getClass().getSimpleName(),
+            e);
+      }
+    }
+    handledEvents.increment();
+  }
+
+  private boolean isCancelled(OrchestrationEvent event, CancellationToken token) {
+    if (!CancellationToken.isCancelled(token)) {
+      return false;
+    }
+    cancelledEvents.increment();
+    logger.debug(
+        "[EVENT_BUS_CANCELLED] sessionId={}, event={}",
+        event.sessionId(),
+        event.getClass().getSimpleName());
+    return true;
+  }
+
+  private void endOfBatch() {
+    for (OrchestrationEventHandler<OrchestrationEvent> handler : handlers) {
+      try {
+        handler.onEndOfBatch();
+      } catch (RuntimeException e) {
+        logger.error("[EVENT_BUS_HANDLER_FAILED] endOfBatch", e);
+      }
+    }
+  }
+
+  /**
+   * Event the consumer could not put into the full ring.
+   *
+   * @param after the last sequence claimed when it was published, handled before it
+   * @param event the event
+   * @param token the cancellation token of the event
+   */
+  private record Overflow(long after, OrchestrationEvent event, CancellationToken token) {}
+}
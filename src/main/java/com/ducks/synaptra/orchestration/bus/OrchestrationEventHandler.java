@@ -0,0 +1,65 @@
+package com.ducks.synaptra.orchestration.bus;
+
+import com.ducks.synaptra.orchestration.event.OrchestrationEvent;
+import java.util.function.Consumer;
+import org.springframework.util.Assert;
+
+/**
+ * Typed handler of one kind of {@link OrchestrationEvent}.
+ *
+ * <p>Handlers are Spring beans; the {@link OrchestrationEventBus} resolves them once at startup and
+ * indexes them by {@link #eventType()}, so publishing an event never looks handlers up again.
+ * Handlers run on the bus consumer thread and must not block: the built-in handlers only submit the
+ * event to the session mailbox.
+ *
+ * @param <E> the handled event type
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+public interface OrchestrationEventHandler<E extends OrchestrationEvent> {
+
+  /**
+   * Returns the exact type of the handled events.
+   *
+   * @return the event type
+   */
+  Class<E> eventType();
+
+  /**
+   * Handles an event.
+   *
+   * @param event the event
+   */
+  void onEvent(E event);
+
+  /**
+   * Called after the bus consumer has handled a batch of events, e.g. to flush buffered work once
+   * per batch instead of once per event.
+   */
+  default void onEndOfBatch() {}
+
+  /**
+   * Creates a handler from a consumer.
+   *
+   * @param eventType the exact type of the handled events (must not be {@code null})
+   * @param consumer the consumer handling each event (must not be {@code null})
+   * @param <E> the handled event type
+   * @return the handler
+   */
+  static <E extends OrchestrationEvent> OrchestrationEventHandler<E> of(
+      Class<E> eventType, Consumer<? super E> consumer) {
+    Assert.notNull(eventType, "eventType must not be null");
+    Assert.notNull(consumer, "consumer must not be null");
+    return new OrchestrationEventHandler<>() {
+      @Override
+      public Class<E> eventType() {
+        return eventType;
+      }
+
+      @Override
+      public void onEvent(E event) {
+        consumer.accept(event);
+      }
+    };
+  }
+}
@@ -0,0 +1,36 @@
+package com.ducks.synaptra.orchestration.bus;
+
+import com.ducks.synaptra.orchestration.event.OrchestrationEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compatibility adapter between Spring application events and the {@link OrchestrationEventBus}.
+ *
+ * <p>Receives every {@link OrchestrationEvent} published through Spring's {@link
+ * org.springframework.context.ApplicationEventPublisher}: the bus events themselves in {@code
+ * spring} mode, and in any mode the events published directly by the host application. The events
+ * are then handed to the bus handlers.
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@Component
+public class SpringEventBusAdapter {
+
+  private final OrchestrationEventBus orchestrationEventBus;
+
+  public SpringEventBusAdapter(OrchestrationEventBus orchestrationEventBus) {
+    this.orchestrationEventBus = orchestrationEventBus;
+  }
+
+  /**
+   * Hands a Spring application event over to the bus.
+   *
+   * @param event the orchestration event
+   */
+  @EventListener
+  public void onOrchestrationEvent(OrchestrationEvent event) {
+    orchestrationEventBus.onApplicationEvent(event);
+  }
+}
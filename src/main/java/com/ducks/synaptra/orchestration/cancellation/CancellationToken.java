@@ -0,0 +1,239 @@
+package com.ducks.synaptra.orchestration.cancellation;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.lang.Nullable;
+
+/**
+ * Cancellation token of one user turn of a session.
+ *
+ * <p>A token is created by {@link SessionCancellation} when a turn starts and travels with every
+ * piece of work of that turn: the {@link
+ * com.ducks.synaptra.orchestration.bus.OrchestrationEventBus} keeps the token of the publisher with
+ * each event, and the {@link com.ducks.synaptra.orchestration.mailbox.SessionMailbox} runs each
+ * task with the token in effect when the task was submitted (see {@link #current()}). Once the
+ * token is cancelled, queued events and tasks of the turn are dropped and in-flight calls
+ * registered through {@link #onCancel(Runnable)} are aborted.
+ *
+ * <p>Cancellation is one-way and idempotent. So is the end of the turn (see {@link
+ * SessionCancellation#endTurn(String)}): a turn ends once, whichever of its answer, its failure or
+ * its expiry comes first, and ending it again has no effect.
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+public final class CancellationToken {
+
+  private static final Logger logger = LogManager.getLogger(CancellationToken.class);
+
+  /** Token of the turn whose work runs on the current thread. */
+  private static final ThreadLocal<CancellationToken> CURRENT = new ThreadLocal<>();
+
+  private final String sessionId;
+
+  /** Creation time ({@link System#nanoTime()}), i.e. when the user message of the turn arrived. */
+  private final long createdAt = System.nanoTime();
+
+  /** Callbacks to run on cancellation; guarded by this, {@code null} once cancelled. */
+  private List<Runnable> callbacks = new ArrayList<>();
+
+  private volatile boolean cancelled;
+
+  /** Whether the turn ended; guarded by this. */
+  private boolean ended;
+
+  /** Whether a failure of the turn was reported; guarded by this. */
+  private boolean failed;
+
+  /** Whether an answer of the turn was delivered; guarded by this. */
+  private boolean answered;
+
+  /**
+   * Creates a token.
+   *
+   * @param sessionId the session of the turn
+   */
+  CancellationToken(String sessionId) {
+    this.sessionId = sessionId;
+  }
+
+  /**
+   * Returns the token of the turn whose work runs on the current thread.
+   *
+   * @return the current token, or {@code null} outside of the work of a turn
+   */
+  public static @Nullable CancellationToken current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Runs a task with a token as the {@linkplain #current() current token}, restoring the previous
+   * one afterwards.
+   *
+   * @param token the token ({@code null} runs the task without token)
+   * @param task the task
+   */
+  public static void runWith(@Nullable CancellationToken token, Runnable task) {
+    CancellationToken previous = CURRENT.get();
+    CURRENT.set(token);
+    try {
+      task.run();
+    } finally {
+      if (previous == null) {
+        CURRENT.remove();
+      } else {
+        CURRENT.set(previous);
+      }
+    }
+  }
+
+  /**
+   * Tells whether a token is cancelled.
+   *
+   * @param token the token (may be {@code null})
+   * @return {@code true} if the token is not {@code null} and cancelled
+   */
+  public static boolean isCancelled(@Nullable CancellationToken token) {
+    return token != null && token.cancelled;
+  }
+
+  /**
+   * Returns the session of the turn.
+   *
+   * @return the session identifier
+   */
+  public String getSessionId() {
+    return sessionId;
+  }
+
+  /**
+   * Returns when the token was created, that is when the user message of the turn arrived.
+   *
+   * @return the creation time, in {@link System#nanoTime()} units
+   */
+  public long getCreatedAt() {
+    return createdAt;
+  }
+
+  /**
+   * Records that an answer of the turn was delivered.
+   *
+   * @return {@code true} for the first answer of the turn, {@code false} otherwise
+   */
+  public synchronized boolean answered() {
+    if (answered) {
+      return false;
+    }
+    answered = true;
+    return true;
+  }
+
+  /**
+   * Tells whether the turn was cancelled.
+   *
+   * @return {@code true} once cancelled
+   */
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  /**
+   * Tells whether the turn ended.
+   *
+   * @return {@code true} once ended
+   */
+  public synchronized boolean isEnded() {
+    return ended;
+  }
+
+  /**
+   * Registers a callback aborting an in-flight operation of the turn.
+   *
+   * <p>The callback runs on the cancelling thread, or right away on the calling thread if the token
+   * is already cancelled. It must be quick and must not throw; a failing callback is logged.
+   *
+   * @param callback the callback
+   * @return a registration to close once the operation is over
+   */
+  public Registration onCancel(Runnable callback) {
+    synchronized (this) {
+      if (callbacks != null) {
+        callbacks.add(callback);
+        return () -> {
+          synchronized (this) {
+            if (callbacks != null) {
+              callbacks.remove(callback);
+            }
+          }
+        };
+      }
+    }
+    runCallback(callback);
+    return () -> {};
+  }
+
+  /**
+   * Cancels the turn, running the registered callbacks.
+   *
+   * @return {@code true} if this call cancelled the token, {@code false} if it was already
+   *     cancelled
+   */
+  boolean cancel() {
+    List<Runnable> toRun;
+    synchronized (this) {
+      if (callbacks == null) {
+        return false;
+      }
+      cancelled = true;
+      toRun = callbacks;
+      callbacks = null;
+    }
+    toRun.forEach(this::runCallback);
+    return true;
+  }
+
+  /**
+   * Ends the turn.
+   *
+   * @return {@code true} if this call ended the turn, {@code false} if it had already ended
+   */
+  synchronized boolean end() {
+    if (ended) {
+      return false;
+    }
+    ended = true;
+    return true;
+  }
+
+  /**
+   * Records that a failure of the turn was reported.
+   *
+   * @return {@code true} for the first failure of a turn still running, {@code false} otherwise
+   */
+  synchronized boolean fail() {
+    if (ended || failed) {
+      return false;
+    }
+    failed = true;
+    return true;
+  }
+
+  private void runCallback(Runnable callback) {
+    try {
+      callback.run();
+    } catch (RuntimeException e) {
+      logger.error("[CANCELLATION_CALLBACK_FAILED] sessionId={}", sessionId, e);
+    }
+  }
+
+  /** Registration of a cancellation callback. */
+  @FunctionalInterface
+  public interface Registration extends AutoCloseable {
+
+    /** Unregisters the callback; it will not run anymore. */
+    @Override
+    void close();
+  }
+}
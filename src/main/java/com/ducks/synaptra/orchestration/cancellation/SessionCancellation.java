@@ -0,0 +1,219 @@
+package com.ducks.synaptra.orchestration.cancellation;
+
+import com.ducks.synaptra.agent.Agent;
+import com.ducks.synaptra.orchestration.event.record.RecordExecutionEvent;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+/**
+ * Session-level cancellation of superseded user turns.
+ *
+ * <p>Users often re-send or correct a message while the previous one is still running through
+ * several agent hops. Every user turn gets a {@link CancellationToken}, and when supersede is
+ * enabled, starting a new turn for a session cancels the token of the turn still running:
+ *
+ * <ul>
+ *   <li>Events of the previous turn still in the event bus and tasks still queued in the session
+ *       mailbox are dropped
+ *   <li>An in-flight OpenAI call of the previous turn is aborted and its response discarded
+ *   <li>Events the previous turn would still publish are dropped at the source
+ * </ul>
+ *
+ * <p>The starter of the new turn is told which turn it superseded (see {@link TurnStart}), and
+ * records it from the session mailbox: a {@link RecordExecutionEvent#SUPERSEDED} record is appended
+ * to the episodic memory of the agent that received the previous input, so the next turn knows it
+ * was abandoned, and the agents of the session are reset.
+ *
+ * <p>A turn ends when its final answer is published ({@link #endTurn(String)}); a new turn started
+ * after that cancels nothing.
+ *
+ * <p>When supersede is disabled (the default), turns are still tracked, but every turn runs to
+ * completion, as before.
+ *
+ * <h2>Configuration Properties</h2>
+ *
+ * <ul>
+ *   <li><b>ai.agentics.session.supersede</b> — Cancel the running turn of a session when a new user
+ *       message arrives for it (default {@code false})
+ * </ul>
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@Service
+public class SessionCancellation {
+
+  private static final Logger logger = LogManager.getLogger(SessionCancellation.class);
+
+  private final boolean supersede;
+
+  /** Running turn by session identifier. */
+  private final Map<String, Turn> turns = new ConcurrentHashMap<>();
+
+  private final LongAdder supersededTurns = new LongAdder();
+
+  /**
+   * Creates the session cancellation.
+   *
+   * @param supersede whether a new user message cancels the running turn of its session
+   */
+  public SessionCancellation(@Value("${ai.agentics.session.supersede:false}") boolean supersede) {
+    this.supersede = supersede;
+  }
+
+  /**
+   * Creates a new user turn, not running yet; its token identifies the turn until it starts (e.g.
+   * while it waits for admission).
+   *
+   * @param sessionId the session identifier (must not be blank)
+   * @param agent the agent receiving the user input (must not be {@code null})
+   * @param userInput the user input of the new turn
+   * @return the new turn
+   */
+  public Turn newTurn(String sessionId, Agent agent, String userInput) {
+    Assert.hasText(sessionId, "sessionId must not be null or blank");
+    Assert.notNull(agent, "agent must not be null");
+
+    return new Turn(agent, userInput, new CancellationToken(sessionId));
+  }
+
+  /**
+   * Starts a user turn, cancelling the running turn of the session if supersede is enabled.
+   *
+   * @param turn the turn, created by {@link #newTurn(String, Agent, String)}
+   * @return the new turn, and the turn it superseded or runs alongside, if any
+   */
+  public TurnStart startTurn(Turn turn) {
+    Assert.notNull(turn, "turn must not be null");
+
+    String sessionId = turn.token().getSessionId();
+    Turn previous = turns.put(sessionId, turn);
+    if (previous == null) {
+      return new TurnStart(turn, null, false);
+    }
+    if (supersede && previous.token().cancel()) {
+      supersededTurns.increment();
+      logger.info(
+          "[TURN_SUPERSEDED] sessionId={}, agent={}", sessionId, previous.agent().getIdentifier());
+      return new TurnStart(turn, previous, true);
+    }
+    return new TurnStart(turn, previous, false);
+  }
+
+  /**
+   * Ends the running turn of a session.
+   *
+   * <p>Called from the work of the turn itself, once its final answer is published or it was
+   * abandoned; a turn that was already superseded leaves the newer turn untouched. A turn ends only
+   * once: the caller must only release what the turn holds (e.g. its admission slot) when this
+   * method returns {@code true}.
+   *
+   * @param sessionId the session identifier
+   * @return {@code true} if this call ended the turn, or if it runs outside the work of any turn;
+   *     {@code false} if the turn had already ended
+   */
+  public boolean endTurn(String sessionId) {
+    CancellationToken current = CancellationToken.current();
+    if (current == null) {
+      return true;
+    }
+    if (!current.end()) {
+      return false;
+    }
+    turns.computeIfPresent(sessionId, (key, turn) -> turn.token() == current ? null : turn);
+    return true;
+  }
+
+  /**
+   * Records that the turn the current work belongs to failed.
+   *
+   * @param turn the failed turn
+   * @return {@code true} for the first failure of a turn still running; {@code false} if the turn
+   *     already failed or ended, in which case its failure cannot be reported again
+   */
+  public boolean failTurn(Turn turn) {
+    return turn.token().fail();
+  }
+
+  /**
+   * Returns the turn new work of a session belongs to (see {@link #tokenOf(String)}).
+   *
+   * @param sessionId the session identifier
+   * @return the running turn, or {@code null} if the session has no running turn or the current
+   *     work belongs to a turn that is no longer running
+   */
+  public @Nullable Turn turnOf(String sessionId) {
+    Turn turn = turns.get(sessionId);
+    if (turn == null) {
+      return null;
+    }
+    CancellationToken current = CancellationToken.current();
+    if (current != null && current.getSessionId().equals(sessionId) && current != turn.token()) {
+      return null;
+    }
+    return turn;
+  }
+
+  /**
+   * Returns the token new work of a session belongs to.
+   *
+   * <p>Work started from the work of a turn belongs to that turn, even if it was superseded in the
+   * meantime; other work (e.g. an event published by the host application) belongs to the running
+   * turn of the session.
+   *
+   * @param sessionId the session identifier
+   * @return the token, or {@code null} if the session has no running turn
+   */
+  public @Nullable CancellationToken tokenOf(String sessionId) {
+    CancellationToken current = CancellationToken.current();
+    if (current != null && current.getSessionId().equals(sessionId)) {
+      return current;
+    }
+    Turn turn = turns.get(sessionId);
+    return turn == null ? null : turn.token();
+  }
+
+  /**
+   * Tells whether a new user message supersedes the running turn of its session.
+   *
+   * @return {@code true} if supersede is enabled
+   */
+  public boolean isSupersedeEnabled() {
+    return supersede;
+  }
+
+  /**
+   * Returns the number of turns cancelled by a newer user message since startup.
+   *
+   * @return superseded turns
+   */
+  public long getSupersededTurns() {
+    return supersededTurns.sum();
+  }
+
+  /**
+   * A user turn of a session.
+   *
+   * @param agent the agent that received the user input
+   * @param userInput the user input
+   * @param token the token of the turn
+   */
+  public record Turn(Agent agent, String userInput, CancellationToken token) {}
+
+  /**
+   * Outcome of {@link #startTurn(String, Agent, String)}.
+   *
+   * @param turn the new turn
+   * @param previous the turn of the session still running when the new one started, or {@code null}
+   * @param superseded {@code true} if {@code previous} was cancelled by the new turn; when {@code
+   *     false}, a non-null {@code previous} keeps running alongside the new turn
+   */
+  public record TurnStart(Turn turn, @Nullable Turn previous, boolean superseded) {}
+}
@@ -0,0 +1,34 @@
+package com.ducks.synaptra.orchestration.cancellation;
+
+/**
+ * Signals that a user turn was cancelled before it completed, because a new user message superseded
+ * it.
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+public class TurnCancelledException extends RuntimeException {
+
+  private static final long serialVersionUID = 1L;
+
+  private final String sessionId;
+
+  /**
+   * Creates a new {@link TurnCancelledException}.
+   *
+   * @param sessionId the session of the cancelled turn
+   */
+  public TurnCancelledException(String sessionId) {
+    super("Turn of session '" + sessionId + "' superseded by a new user message");
+    this.sessionId = sessionId;
+  }
+
+  /**
+   * Returns the session of the cancelled turn.
+   *
+   * @return the session identifier
+   */
+  public String getSessionId() {
+    return sessionId;
+  }
+}
@@ -0,0 +1,162 @@
+package com.ducks.synaptra.orchestration.dedupe;
+
+import com.ducks.synaptra.orchestration.cancellation.CancellationToken;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+/**
+ * Idempotency guard for tool calls, keyed by tool call id, session and turn.
+ *
+ * <p>When an LLM call is retried or a response is redelivered, the same {@code ToolCall} can reach
+ * the orchestration twice, which would execute an external tool or hand off to an agent twice.
+ * Consumers of tool calls ask {@link #firstSeen(String, CancellationToken, String, String)} before
+ * acting and drop the call when it returns {@code false}.
+ *
+ * <p>Providers number tool call ids per response (e.g. {@code call_0}), so the same id comes back
+ * in later turns of a session. The key therefore includes the turn's {@link CancellationToken}: a
+ * redelivery within the turn is a duplicate, the same id in a new turn is not.
+ *
+ * <p>Seen keys are kept in a bounded, time-expiring set:
+ *
+ * <ul>
+ *   <li>Lookups and insertions are a single {@link ConcurrentHashMap} operation, so a duplicate is
+ *       detected in O(1) without any lock
+ *   <li>Keys expire after the configured time to live; a tool call seen again after that is
+ *       processed again
+ *   <li>Keys are evicted oldest first, on insertion, once expired or when the set exceeds its
+ *       maximum size, so memory stays bounded
+ * </ul>
+ *
+ * <p>Each consumer uses its own {@code scope}, so a tool call handed over from one consumer to
+ * another (e.g. a {@code route_to_agent} call from the tool dispatcher to the handoff publisher) is
+ * not mistaken for a duplicate. Tool calls without an id are never deduplicated.
+ *
+ * <h2>Configuration Properties</h2>
+ *
+ * <ul>
+ *   <li><b>ai.agentics.dedupe.max-entries</b> — Maximum number of remembered tool calls; {@code 0}
+ *       disables deduplication (default {@code 10000})
+ *   <li><b>ai.agentics.dedupe.ttl-ms</b> — Time after which a remembered tool call is forgotten
+ *       (default {@code 600000})
+ * </ul>
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@Service
+public class ToolCallDeduplicator {
+
+  private static final Logger logger = LogManager.getLogger(ToolCallDeduplicator.class);
+
+  private final int maxEntries;
+  private final long ttlNanos;
+
+  /** Seen keys to their expiry time ({@link System#nanoTime()}). */
+  private final Map<Key, Long> seen = new ConcurrentHashMap<>();
+
+  /** Seen keys in insertion order, for eviction. */
+  private final Queue<Expiry> expiries = new ConcurrentLinkedQueue<>();
+
+  private final LongAdder duplicateHits = new LongAdder();
+
+  /**
+   * Creates the deduplicator.
+   *
+   * @param maxEntries maximum number of remembered tool calls ({@code 0} disables)
+   * @param ttlMs time after which a remembered tool call is forgotten
+   * @throws IllegalArgumentException if {@code maxEntries} is negative or {@code ttlMs} is not
+   *     positive
+   */
+  public ToolCallDeduplicator(
+      @Value("${ai.agentics.dedupe.max-entries:10000}") int maxEntries,
+      @Value("${ai.agentics.dedupe.ttl-ms:600000}") long ttlMs) {
+    Assert.isTrue(maxEntries >= 0, "maxEntries must not be negative");
+    Assert.isTrue(ttlMs > 0, "ttlMs must be positive");
+    this.maxEntries = maxEntries;
+    this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+  }
+
+  /**
+   * Records a tool call and tells whether it is seen for the first time in a scope.
+   *
+   * <p>A duplicate is counted and logged once, at {@code WARN}; callers just drop it.
+   *
+   * @param scope the consumer of the tool call (e.g. {@code "tool"} or {@code "handoff"})
+   * @param turn the token of the turn of the tool call, usually {@link CancellationToken#current()}
+   *     ({@code null} outside a turn)
+   * @param sessionId the session of the tool call
+   * @param toolCallId the tool call id (may be {@code null})
+   * @return {@code true} if the tool call must be processed, {@code false} if it is a duplicate
+   */
+  public boolean firstSeen(
+      String scope, @Nullable CancellationToken turn, String sessionId, String toolCallId) {
+    if (maxEntries == 0 || toolCallId == null) {
+      return true;
+    }
+
+    long now = System.nanoTime();
+    Key key = new Key(scope, turn, sessionId, toolCallId);
+    Long expiresAt = now + ttlNanos;
+
+    Long previous = seen.putIfAbsent(key, expiresAt);
+    if (previous != null && (previous - now > 0 || !seen.replace(key, previous, expiresAt))) {
+      duplicateHits.increment();
+      logger.warn(
+          "[TOOL_CALL_DUPLICATE] scope={}, sessionId={}, toolCallId={}, reason=duplicate dropped",
+          scope,
+          sessionId,
+          toolCallId);
+      return false;
+    }
+
+    expiries.add(new Expiry(key, expiresAt));
+    evict(now);
+    return true;
+  }
+
+  /**
+   * Returns the number of duplicate tool calls dropped since startup.
+   *
+   * @return duplicate hits
+   */
+  public long getDuplicateHits() {
+    return duplicateHits.sum();
+  }
+
+  /**
+   * Returns the number of remembered tool calls.
+   *
+   * @return remembered tool calls
+   */
+  public int getSize() {
+    return seen.size();
+  }
+
+  /** Forgets the oldest keys while they are expired or the set is over its maximum size. */
+  private void evict(long now) {
+    Expiry oldest;
+    while ((oldest = expiries.peek()) != null
+        && (oldest.expiresAt() - now <= 0 || seen.size() > maxEntries)) {
+      if (expiries.remove(oldest)) {
+        // A key refreshed after expiring has a newer entry queued behind.
+        seen.remove(oldest.key(), oldest.expiresAt());
+      }
+    }
+  }
+
+  /** The turn token compares by identity, so each turn has its own keys. */
+  private record Key(
+      String scope, @Nullable CancellationToken turn, String sessionId, String toolCallId) {}
+
+  private record Expiry(Key key, Long expiresAt) {}
+}
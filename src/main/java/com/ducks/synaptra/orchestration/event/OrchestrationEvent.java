@@ -0,0 +1,20 @@
+package com.ducks.synaptra.orchestration.event;
+
+/**
+ * Event exchanged between the orchestration stages of a session.
+ *
+ * <p>Implemented by the agent request/response, tool, record and answer events, which are published
+ * through the {@link com.ducks.synaptra.orchestration.bus.OrchestrationEventBus}.
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+public interface OrchestrationEvent {
+
+  /**
+   * Returns the session the event belongs to.
+   *
+   * @return the session identifier
+   */
+  String sessionId();
+}
@@ -3,21 +3,24 @@ package com.ducks.synaptra.orchestration.event.agent;
 import com.ducks.synaptra.client.openai.OpenAIClient;
 import com.ducks.synaptra.client.openai.data.ChatCompletionRequest;
 import com.ducks.synaptra.client.openai.data.ChatCompletionResponse;
-import com.ducks.synaptra.log.LogTracer;
-import com.ducks.synaptra.log.tracing.SpanManager;
+import com.ducks.synaptra.config.ExecutionStage;
+import com.ducks.synaptra.metrics.SynaptraMetrics;
+import com.ducks.synaptra.orchestration.bus.OrchestrationEventBus;
+import com.ducks.synaptra.orchestration.cancellation.CancellationToken;
 import com.ducks.synaptra.orchestration.event.agent.contract.AgentRequestEvent;
 import com.ducks.synaptra.orchestration.event.agent.contract.AgentResponseEvent;
-import com.ducks.synaptra.velocity.VelocityTemplateService;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ducks.synaptra.orchestration.guard.ExecutionGuard;
+import com.ducks.synaptra.orchestration.mailbox.SessionMailbox;
+import com.ducks.synaptra.publisher.TurnFailurePublisher;
+import com.ducks.synaptra.tracing.TieredTracer;
+import com.ducks.synaptra.tracing.Traced;
+import com.ducks.synaptra.tracing.TracingLevel;
+import com.ducks.synaptra.velocity.AgentPromptRenderer;
 import io.micrometer.tracing.Span;
 import io.micrometer.tracing.Tracer;
 import java.util.List;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 /**
@@ -32,11 +35,18 @@ import org.springframework.stereotype.Service;
  * <p>Tracing and structured logs are emitted for observability:
  *
  * <ul>
- *   <li>OpenTelemetry/Micrometer spans are created for the OpenAI call boundary
- *   <li>Span events are added with session/agent identifiers and request/response payloads
+ *   <li>OpenTelemetry/Micrometer spans are created for the OpenAI call boundary, at the {@link
+ *       TracingLevel#HOP} tracing level
+ *   <li>Span events are added with session/agent identifiers and, when the span is sampled,
+ *       request/response payloads
  *   <li>Debug logs include request/response JSON for inspection (use with care in production)
+ *   <li>OpenAI call latency and token usage are recorded per agent and model (see {@link
+ *       SynaptraMetrics})
  * </ul>
  *
+ * <p>Payloads are only serialized when debug logging is enabled or the span is sampled, size-capped
+ * and off the request thread (see {@link PayloadCapture}).
+ *
  * <p><strong>Responsibility boundary:</strong> This class only orchestrates the OpenAI call and
  * event publication. It does not interpret responses or apply business rules; such processing is
  * delegated to {@link AgentExecutionListener} implementations, triggered by {@link
@@ -50,115 +60,215 @@ public class AgentExecutionEvent {
 
   private static final Logger logger = LogManager.getLogger(AgentExecutionEvent.class);
 
-  /** Service for creating/ending spans and adding span events for observability. */
-  private final SpanManager spanManager;
-
-  /** Tracer for managing span scope. */
-  private final Tracer tracer;
+  /** Tracer creating/ending spans (by tracing level) and adding span events for observability. */
+  private final TieredTracer tieredTracer;
 
   /** Client responsible for performing OpenAI chat completion calls. */
   private final OpenAIClient openAIClient;
 
-  /** JSON mapper used to serialize request/response payloads for logs and span events. */
-  private final ObjectMapper mapper;
+  /** Capture of the request/response payloads for logs and span events. */
+  private final PayloadCapture payloadCapture;
 
-  /** Publisher used to emit downstream orchestration events. */
-  private final ApplicationEventPublisher publisher;
+  /** Bus used to emit downstream orchestration events. */
+  private final OrchestrationEventBus eventBus;
 
   /** Subscribers that will process the agent response event. */
   private final List<AgentExecutionListener> agentExecutionListenerList;
 
-  /** Service used to render templates that can compose the final prompt/context. */
-  private final VelocityTemplateService velocityTemplateService;
+  /** Renderer providing the (cached) agent system prompt. */
+  private final AgentPromptRenderer agentPromptRenderer;
+
+  /** Mailbox running the events of a session in order. */
+  private final SessionMailbox sessionMailbox;
+
+  /** Guard enforcing the LLM call and token limits of the turn. */
+  private final ExecutionGuard executionGuard;
+
+  /** Metrics recording the OpenAI call latency and token usage. */
+  private final SynaptraMetrics synaptraMetrics;
+
+  /** Publisher failing the turn when OpenAI returns no response. */
+  private final TurnFailurePublisher turnFailurePublisher;
 
   public AgentExecutionEvent(
-      SpanManager spanManager,
-      Tracer tracer,
+      TieredTracer tieredTracer,
       OpenAIClient openAIClient,
-      ApplicationEventPublisher publisher,
+      OrchestrationEventBus eventBus,
       List<AgentExecutionListener> agentExecutionListenerList,
-      VelocityTemplateService velocityTemplateService) {
-    this.spanManager = spanManager;
-    this.tracer = tracer;
+      AgentPromptRenderer agentPromptRenderer,
+      SessionMailbox sessionMailbox,
+      ExecutionGuard executionGuard,
+      PayloadCapture payloadCapture,
+      SynaptraMetrics synaptraMetrics,
+      TurnFailurePublisher turnFailurePublisher) {
+    this.tieredTracer = tieredTracer;
     this.openAIClient = openAIClient;
-    this.publisher = publisher;
+    this.eventBus = eventBus;
     this.agentExecutionListenerList = agentExecutionListenerList;
-    this.velocityTemplateService = velocityTemplateService;
-    this.mapper = new ObjectMapper();
+    this.agentPromptRenderer = agentPromptRenderer;
+    this.sessionMailbox = sessionMailbox;
+    this.executionGuard = executionGuard;
+    this.payloadCapture = payloadCapture;
+    this.synaptraMetrics = synaptraMetrics;
+    this.turnFailurePublisher = turnFailurePublisher;
   }
 
   /**
    * Consumes an {@link AgentRequestEvent}, calls OpenAI, and publishes an {@link
    * AgentResponseEvent}.
    *
-   * <p>This listener is asynchronous and runs on the {@code agentExecutionExecutor} thread pool. A
-   * dedicated span is created around the OpenAI call to capture timing and important attributes.
+   * <p>This listener is asynchronous and runs on the {@code agentExecutionExecutor} thread pool, in
+   * order with the other events of the session (see {@link SessionMailbox}). A dedicated span is
+   * created around the OpenAI call to capture timing and important attributes; it ends once the
+   * request/response payloads are captured. A failure to capture a payload is logged and does not
+   * fail the call.
+   *
+   * <p>The OpenAI call is aborted when the turn of the request is superseded by a new user message
+   * (see {@link com.ducks.synaptra.orchestration.cancellation.SessionCancellation}); no response
+   * event is published then. Likewise, the call is skipped or its response dropped when the turn
+   * exceeds its LLM call or token limit (see {@link ExecutionGuard}). A call without response fails
+   * the turn (see {@link TurnFailurePublisher}).
    *
    * @param agentRequestEvent the agent request event containing session id, agent configuration and
    *     context messages
-   * @throws JsonProcessingException if request/response payload serialization fails for
-   *     logging/tracing
    */
-  @LogTracer(spanName = "agent_request_received")
-  @Async("agentExecutionExecutor")
-  @EventListener
-  public void callAgentExecutionEvent(AgentRequestEvent agentRequestEvent)
-      throws JsonProcessingException {
+  @Traced(spanName = "agent_request_received")
+  public void callAgentExecutionEvent(AgentRequestEvent agentRequestEvent) {
+    sessionMailbox.submit(
+        agentRequestEvent.sessionId(), ExecutionStage.AGENT, () -> callAgent(agentRequestEvent));
+  }
+
+  @SuppressWarnings("try") // the span scope is only closed, never read
+  private void callAgent(AgentRequestEvent agentRequestEvent) {
+
+    if (!executionGuard.onLlmCall(
+        agentRequestEvent.sessionId(), agentRequestEvent.agent(), agentRequestEvent.user())) {
+      return;
+    }
 
     // Span name suggestion: "openai_chat_completion" (more specific than "call_openai")
-    Span span = spanManager.createSpan("openai_chat_completion");
+    Span span = tieredTracer.startSpan(TracingLevel.HOP, "openai_chat_completion");
+    PayloadCapture.Captures captures =
+        payloadCapture.open(
+            span, logger, agentRequestEvent.sessionId(), agentRequestEvent.agent().getIdentifier());
 
-    try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+    try (Tracer.SpanInScope ignored = tieredTracer.withSpan(span)) {
       logAgentExecutionRequest(agentRequestEvent, span);
 
       ChatCompletionRequest chatCompletionRequest =
-          agentRequestEvent.toChatCompletionRequest(velocityTemplateService);
+          agentRequestEvent.toChatCompletionRequest(agentPromptRenderer);
 
-      logChatCompletionRequest(agentRequestEvent, chatCompletionRequest, span);
+      logChatCompletionRequest(chatCompletionRequest, span, captures);
 
+      CancellationToken token = CancellationToken.current();
       ChatCompletionResponse chatCompletionResponse =
-          openAIClient.call(agentRequestEvent.sessionId(), chatCompletionRequest);
-
-      logChatCompletionResponse(agentRequestEvent, chatCompletionResponse, span);
-
-      publisher.publishEvent(
+          callOpenAI(agentRequestEvent, chatCompletionRequest, token);
+
+      if (CancellationToken.isCancelled(token)) {
+        tieredTracer.addEvent(span, "openai_call_cancelled");
+        logger.info(
+            "[AGENT_CALL_CANCELLED] sessionId={}, agent={}",
+            agentRequestEvent.sessionId(),
+            agentRequestEvent.agent().getIdentifier());
+        return;
+      }
+
+      if (!executionGuard.onTokens(
+          agentRequestEvent.sessionId(),
+          agentRequestEvent.agent(),
+          agentRequestEvent.user(),
+          chatCompletionResponse != null ? chatCompletionResponse.usage() : null)) {
+        tieredTracer.addEvent(span, "openai_response_dropped: limit exceeded");
+        return;
+      }
+
+      if (chatCompletionResponse == null) {
+        tieredTracer.addEvent(span, "openai_call_failed: no response");
+        turnFailurePublisher.publishEvent(
+            agentRequestEvent.sessionId(),
+            agentRequestEvent.agent(),
+            agentRequestEvent.user(),
+            "no response from OpenAI");
+        return;
+      }
+
+      logChatCompletionResponse(chatCompletionResponse, span, captures);
+
+      eventBus.publish(
           new AgentResponseEvent(
               agentRequestEvent.sessionId(),
               agentRequestEvent.agent(),
               agentRequestEvent.user(),
               chatCompletionResponse));
 
-      spanManager.addEvent(span, "agent_response_published");
+      tieredTracer.addEvent(span, "agent_response_published");
     } catch (Exception ex) {
-      spanManager.addEvent(span, "openai_call_failed: " + ex.getClass().getSimpleName());
+      tieredTracer.addEvent(span, "openai_call_failed: " + ex.getClass().getSimpleName());
       throw ex;
     } finally {
-      spanManager.endSpan(span);
+      captures.close(() -> tieredTracer.endSpan(span));
+    }
+  }
+
+  /** Calls OpenAI and records the call latency and token usage. */
+  private ChatCompletionResponse callOpenAI(
+      AgentRequestEvent agentRequestEvent,
+      ChatCompletionRequest chatCompletionRequest,
+      CancellationToken token) {
+    String agentIdentifier = agentRequestEvent.agent().getIdentifier();
+    long startedAt = System.nanoTime();
+    ChatCompletionResponse chatCompletionResponse;
+    try {
+      chatCompletionResponse =
+          openAIClient.call(agentRequestEvent.sessionId(), chatCompletionRequest, token);
+    } catch (RuntimeException ex) {
+      synaptraMetrics.recordLlmCall(
+          agentIdentifier,
+          chatCompletionRequest.model(),
+          SynaptraMetrics.ERROR,
+          System.nanoTime() - startedAt,
+          null);
+      throw ex;
     }
+
+    String outcome =
+        CancellationToken.isCancelled(token)
+            ? SynaptraMetrics.CANCELLED
+            : chatCompletionResponse != null ? SynaptraMetrics.SUCCESS : SynaptraMetrics.ERROR;
+    synaptraMetrics.recordLlmCall(
+        agentIdentifier,
+        chatCompletionRequest.model(),
+        outcome,
+        System.nanoTime() - startedAt,
+        chatCompletionResponse != null ? chatCompletionResponse.usage() : null);
+    return chatCompletionResponse;
   }
 
   /**
    * Dispatches {@link AgentResponseEvent} to all registered {@link AgentExecutionListener}s.
    *
-   * <p>This listener is asynchronous and runs on the {@code agentExecutionExecutor} thread pool. It
-   * does not mutate the event; it simply forwards it to downstream processors.
+   * <p>This listener is asynchronous and runs on the {@code answerExecutionExecutor} so slow
+   * listeners cannot delay LLM calls, in order with the other events of the session (see {@link
+   * SessionMailbox}). It does not mutate the event; it simply forwards it to downstream processors.
    *
    * @param agentResponseEvent the OpenAI result wrapped as an orchestration response event
    */
-  @LogTracer(spanName = "agent_response_dispatched")
-  @Async("agentExecutionExecutor")
-  @EventListener
+  @Traced(spanName = "agent_response_dispatched")
   public void onAgentExecutionEvent(AgentResponseEvent agentResponseEvent) {
-    agentExecutionListenerList.forEach(
-        listener -> listener.onAgentResponseEvent(agentResponseEvent));
+    sessionMailbox.submit(
+        agentResponseEvent.sessionId(),
+        ExecutionStage.ANSWER,
+        () ->
+            agentExecutionListenerList.forEach(
+                listener -> listener.onAgentResponseEvent(agentResponseEvent)));
   }
 
   private void logAgentExecutionRequest(AgentRequestEvent agentRequestEvent, Span span) {
     assert agentRequestEvent.agent() != null;
 
-    spanManager.addEvent(span, "agent_request_received");
-    spanManager.addEvent(span, "session_id: " + agentRequestEvent.sessionId());
-    spanManager.addEvent(span, "agent_id: " + agentRequestEvent.agent().getIdentifier());
+    tieredTracer.addEvent(span, "agent_request_received");
+    tieredTracer.addEvent(span, "session_id: " + agentRequestEvent.sessionId());
+    tieredTracer.addEvent(span, "agent_id: " + agentRequestEvent.agent().getIdentifier());
 
     logger.debug(
         "[agent-exec] agent_request_received - sessionId: {}, agent: {}",
@@ -167,42 +277,22 @@ public class AgentExecutionEvent {
   }
 
   private void logChatCompletionRequest(
-      AgentRequestEvent agentRequestEvent, ChatCompletionRequest chatCompletionRequest, Span span)
-      throws JsonProcessingException {
-
-    assert agentRequestEvent.agent() != null;
+      ChatCompletionRequest chatCompletionRequest, Span span, PayloadCapture.Captures captures) {
 
-    String chatCompletionRequestJson = mapper.writeValueAsString(chatCompletionRequest);
+    // Suggested span event name: "openai_call_started"
+    tieredTracer.addEvent(span, "openai_call_started");
 
     // Suggested log name: "[openai] chat_completion_request"
-    logger.debug(
-        "[openai] chat_completion_request - sessionId: {}, agent: {}, payload: {}",
-        agentRequestEvent.sessionId(),
-        agentRequestEvent.agent().getIdentifier(),
-        chatCompletionRequestJson);
-
-    // Suggested span event name: "openai_call_started"
-    spanManager.addEvent(span, "openai_call_started");
-    spanManager.addEvent(span, "openai_request: " + chatCompletionRequestJson);
+    captures.capture("chat_completion_request", "openai_request", chatCompletionRequest);
   }
 
   private void logChatCompletionResponse(
-      AgentRequestEvent agentRequestEvent, ChatCompletionResponse chatCompletionResponse, Span span)
-      throws JsonProcessingException {
-
-    assert agentRequestEvent.agent() != null;
+      ChatCompletionResponse chatCompletionResponse, Span span, PayloadCapture.Captures captures) {
 
-    String chatCompletionResponseJson = mapper.writeValueAsString(chatCompletionResponse);
+    // Suggested span event name: "openai_call_succeeded"
+    tieredTracer.addEvent(span, "openai_call_succeeded");
 
     // Suggested log name: "[openai] chat_completion_response"
-    logger.debug(
-        "[openai] chat_completion_response - sessionId: {}, agent: {}, payload: {}",
-        agentRequestEvent.sessionId(),
-        agentRequestEvent.agent().getIdentifier(),
-        chatCompletionResponseJson);
-
-    // Suggested span event name: "openai_call_succeeded"
-    spanManager.addEvent(span, "openai_call_succeeded");
-    spanManager.addEvent(span, "openai_response: " + chatCompletionResponseJson);
+    captures.capture("chat_completion_response", "openai_response", chatCompletionResponse);
   }
 }
@@ -0,0 +1,390 @@
+package com.ducks.synaptra.orchestration.event.agent;
+
+import com.ducks.synaptra.log.tracing.SpanManager;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.tracing.Span;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+/**
+ * Captures the OpenAI request/response payloads of an agent call for debug logs and span events.
+ *
+ * <p>Serializing a full chat-completion payload is expensive for large prompts, and attaching it to
+ * a span bloats the trace exporters. Payloads are therefore captured:
+ *
+ * <ul>
+ *   <li><b>Lazily</b>: only when debug logging is enabled for the caller's logger or the span is
+ *       sampled; otherwise the payload is never serialized
+ *   <li><b>Size-capped</b>: serialization stops once the configured number of characters is
+ *       written, and the captured text is marked as truncated
+ *   <li><b>Optionally hashed</b>: in {@code hash} mode, the payload is streamed into a SHA-256
+ *       digest and only the digest and size are captured
+ *   <li><b>Off the request thread</b>: serialization runs on a dedicated {@code ai-payload-capture}
+ *       thread; when its queue is full, captures are dropped and counted
+ * </ul>
+ *
+ * <p>A {@link Captures} is opened per agent call. The span of the call is ended once its captures
+ * are attached, so captured events never reach an ended span.
+ *
+ * <h2>Configuration Properties</h2>
+ *
+ * <ul>
+ *   <li><b>ai.agentics.payload-capture.mode</b> — {@code inline}, {@code hash} or {@code none}
+ *       (default {@code inline})
+ *   <li><b>ai.agentics.payload-capture.max-chars</b> — Maximum number of characters captured in
+ *       {@code inline} mode (default {@code 4096})
+ *   <li><b>ai.agentics.payload-capture.async</b> — Serialize payloads off the request thread
+ *       (default {@code true})
+ *   <li><b>ai.agentics.payload-capture.queue-capacity</b> — Maximum number of captures waiting for
+ *       the capture thread (default {@code 1000})
+ * </ul>
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@Component
+public class PayloadCapture implements DisposableBean {
+
+  /** Mode capturing the (truncated) payload JSON. */
+  public static final String INLINE_MODE = "inline";
+
+  /** Mode capturing a SHA-256 digest of the payload JSON. */
+  public static final String HASH_MODE = "hash";
+
+  /** Mode capturing nothing. */
+  public static final String NONE_MODE = "none";
+
+  private static final Logger logger = LogManager.getLogger(PayloadCapture.class);
+
+  private final SpanManager spanManager;
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final String mode;
+  private final int maxChars;
+  private final ThreadPoolExecutor executor;
+
+  private final LongAdder captured = new LongAdder();
+  private final LongAdder dropped = new LongAdder();
+
+  /**
+   * Creates the payload capture.
+   *
+   * @param spanManager the manager adding span events and ending spans
+   * @param mode {@code inline}, {@code hash} or {@code none}
+   * @param maxChars maximum number of characters captured in {@code inline} mode
+   * @param async whether payloads are serialized off the request thread
+   * @param queueCapacity maximum number of captures waiting for the capture thread
+   * @throws IllegalArgumentException if the mode is unknown or a size is not positive
+   */
+  public PayloadCapture(
+      SpanManager spanManager,
+      @Value("${ai.agentics.payload-capture.mode:inline}") String mode,
+      @Value("${ai.agentics.payload-capture.max-chars:4096}") int maxChars,
+      @Value("${ai.agentics.payload-capture.async:true}") boolean async,
+      @Value("${ai.agentics.payload-capture.queue-capacity:1000}") int queueCapacity) {
+    String normalizedMode = mode.trim().toLowerCase();
+    Assert.isTrue(
+        INLINE_MODE.equals(normalizedMode)
+            || HASH_MODE.equals(normalizedMode)
+            || NONE_MODE.equals(normalizedMode),
+        "Unknown ai.agentics.payload-capture.mode '"
+            + mode
+            + "' (expected '"
+            + INLINE_MODE
+            + "', '"
+            + HASH_MODE
+            + "' or '"
+            + NONE_MODE
+            + "')");
+    Assert.isTrue(maxChars > 0, "maxChars must be positive");
+    Assert.isTrue(queueCapacity > 0, "queueCapacity must be positive");
+    this.spanManager = spanManager;
+    this.mode = normalizedMode;
+    this.maxChars = maxChars;
+    this.executor =
+        async
+            ? new ThreadPoolExecutor(
+                1,
+                1,
+                0,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("ai-payload-capture").daemon().factory(),
+                (task, pool) -> ((CaptureTask) task).drop())
+            : null;
+  }
+
+  /**
+   * Opens the captures of an agent call.
+   *
+   * @param span the span of the call (may be {@code null})
+   * @param callerLogger the logger whose debug level enables log capture
+   * @param sessionId the session of the call
+   * @param agentId the agent of the call
+   * @return the captures of the call
+   */
+  public Captures open(Span span, Logger callerLogger, String sessionId, String agentId) {
+    boolean toLog = callerLogger.isDebugEnabled();
+    boolean toSpan = isSampled(span);
+    boolean enabled = !NONE_MODE.equals(mode) && (toLog || toSpan);
+    return new Captures(enabled, span, toSpan, toLog ? callerLogger : null, sessionId, agentId);
+  }
+
+  /**
+   * Returns the number of payloads captured since startup.
+   *
+   * @return captured payloads
+   */
+  public long getCapturedPayloads() {
+    return captured.sum();
+  }
+
+  /**
+   * Returns the number of payloads dropped because the capture queue was full since startup.
+   *
+   * @return dropped payloads
+   */
+  public long getDroppedPayloads() {
+    return dropped.sum();
+  }
+
+  /** Stops the capture thread once the queued captures are done. */
+  @Override
+  public void destroy() throws InterruptedException {
+    if (executor != null) {
+      executor.shutdown();
+      executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+  }
+
+  private static boolean isSampled(Span span) {
+    return span != null && !span.isNoop() && Boolean.TRUE.equals(span.context().sampled());
+  }
+
+  /** Serializes a payload according to the capture mode. */
+  private String render(Object payload) throws IOException {
+    if (HASH_MODE.equals(mode)) {
+      DigestWriter writer = new DigestWriter();
+      mapper.writeValue(writer, payload);
+      return "sha256:"
+          + HexFormat.of().formatHex(writer.digest.digest())
+          + " ("
+          + writer.chars
+          + " chars)";
+    }
+
+    CappedWriter writer = new CappedWriter(maxChars);
+    try {
+      mapper.writeValue(writer, payload);
+    } catch (CappedWriter.CapReached e) {
+      return writer.text + "...[truncated]";
+    }
+    return writer.text.toString();
+  }
+
+  /**
+   * Captures of one agent call.
+   *
+   * <p>Used by the thread running the call; captures complete on the capture thread.
+   */
+  public final class Captures {
+
+    private final boolean enabled;
+    private final Span span;
+    private final boolean toSpan;
+    private final Logger callerLogger;
+    private final String sessionId;
+    private final String agentId;
+
+    /** Captures not attached yet, plus one for the call itself until {@link #close(Runnable)}. */
+    private final AtomicInteger pending = new AtomicInteger(1);
+
+    private volatile Runnable endSpan;
+
+    private Captures(
+        boolean enabled,
+        Span span,
+        boolean toSpan,
+        Logger callerLogger,
+        String sessionId,
+        String agentId) {
+      this.enabled = enabled;
+      this.span = span;
+      this.toSpan = toSpan;
+      this.callerLogger = callerLogger;
+      this.sessionId = sessionId;
+      this.agentId = agentId;
+    }
+
+    /**
+     * Captures a payload, unless capture is disabled for this call.
+     *
+     * @param logName the name of the payload in the debug log (e.g. {@code
+     *     chat_completion_request})
+     * @param eventName the prefix of the span event (e.g. {@code openai_request})
+     * @param payload the payload to serialize
+     */
+    public void capture(String logName, String eventName, Object payload) {
+      if (!enabled || payload == null) {
+        return;
+      }
+      pending.incrementAndGet();
+      CaptureTask task = new CaptureTask(this, logName, eventName, payload);
+      if (executor == null) {
+        task.run();
+      } else {
+        executor.execute(task);
+      }
+    }
+
+    /**
+     * Ends the span of the call once every capture is attached; runs {@code endSpan} right away if
+     * none is pending.
+     *
+     * @param endSpan ends the span of the call
+     */
+    public void close(Runnable endSpan) {
+      this.endSpan = endSpan;
+      done();
+    }
+
+    private void attach(String logName, String eventName, String text) {
+      if (callerLogger != null) {
+        callerLogger.debug(
+            "[openai] {} - sessionId: {}, agent: {}, payload: {}",
+            logName,
+            sessionId,
+            agentId,
+            text);
+      }
+      if (toSpan) {
+        spanManager.addEvent(span, eventName + ": " + text);
+      }
+    }
+
+    private void done() {
+      if (pending.decrementAndGet() == 0) {
+        endSpan.run();
+      }
+    }
+  }
+
+  private final class CaptureTask implements Runnable {
+
+    private final Captures captures;
+    private final String logName;
+    private final String eventName;
+    private final Object payload;
+
+    private CaptureTask(Captures captures, String logName, String eventName, Object payload) {
+      this.captures = captures;
+      this.logName = logName;
+      this.eventName = eventName;
+      this.payload = payload;
+    }
+
+    @Override
+    public void run() {
+      try {
+        captures.attach(logName, eventName, render(payload));
+        captured.increment();
+      } catch (IOException | RuntimeException e) {
+        logger.warn(
+            "[PAYLOAD_CAPTURE_FAILED] sessionId={}, name={}, reason={}",
+            captures.sessionId,
+            logName,
+            e.getMessage());
+      } finally {
+        captures.done();
+      }
+    }
+
+    private void drop() {
+      dropped.increment();
+      captures.done();
+    }
+  }
+
+  /** Writer keeping the first characters written and aborting the serialization past its cap. */
+  private static final class CappedWriter extends Writer {
+
+    private final StringBuilder text = new StringBuilder();
+    private final int maxChars;
+
+    private CappedWriter(int maxChars) {
+      this.maxChars = maxChars;
+    }
+
+    @Override
+    public void write(char[] buffer, int offset, int length) throws IOException {
+      int room = maxChars - text.length();
+      if (length > room) {
+        text.append(buffer, offset, room);
+        throw new CapReached();
+      }
+      text.append(buffer, offset, length);
+    }
+
+    @Override
+    public void flush() {}
+
+    @Override
+    public void close() {}
+
+    /** Thrown to stop the serialization once the cap is reached. */
+    private static final class CapReached extends IOException {
+
+      private static final long serialVersionUID = 1L;
+
+      private CapReached() {
+        super(null, null);
+      }
+
+      @Override
+      public synchronized Throwable fillInStackTrace() {
+        return this;
+      }
+    }
+  }
+
+  /** Writer streaming the UTF-8 bytes of the characters written into a SHA-256 digest. */
+  private static final class DigestWriter extends Writer {
+
+    private final MessageDigest digest;
+    private long chars;
+
+    private DigestWriter() {
+      try {
+        this.digest = MessageDigest.getInstance("SHA-256");
+      } catch (NoSuchAlgorithmException e) {
+        throw new IllegalStateException("SHA-256 not available", e);
+      }
+    }
+
+    @Override
+    public void write(char[] buffer, int offset, int length) {
+      digest.update(new String(buffer, offset, length).getBytes(StandardCharsets.UTF_8));
+      chars += length;
+    }
+
+    @Override
+    public void flush() {}
+
+    @Override
+    public void close() {}
+  }
+}
@@ -3,7 +3,8 @@ package com.ducks.synaptra.orchestration.event.agent.contract;
 import com.ducks.synaptra.agent.Agent;
 import com.ducks.synaptra.client.openai.data.ChatCompletionRequest;
 import com.ducks.synaptra.client.openai.data.Message;
-import com.ducks.synaptra.velocity.VelocityTemplateService;
+import com.ducks.synaptra.orchestration.event.OrchestrationEvent;
+import com.ducks.synaptra.velocity.AgentPromptRenderer;
 import java.util.ArrayList;
 import java.util.List;
 import org.springframework.lang.Nullable;
@@ -32,8 +33,8 @@ import org.springframework.lang.Nullable;
  *
  * <p><strong>Execution preconditions:</strong> the execution layer must validate that {@code agent}
  * and {@code user} are present before calling the AI provider. This record uses {@code assert}
- * checks inside {@link #toChatCompletionRequest(VelocityTemplateService)} to enforce these
- * assumptions during development.
+ * checks inside {@link #toChatCompletionRequest(AgentPromptRenderer)} to enforce these assumptions
+ * during development.
  *
  * @param sessionId unique identifier of the execution session (used for correlation and continuity)
  * @param agent the agent selected to execute the request, or {@code null} if not yet resolved
@@ -48,7 +49,8 @@ public record AgentRequestEvent(
     @Nullable Agent agent,
     @Nullable Message handoffContext,
     @Nullable Message episodicContext,
-    @Nullable Message user) {
+    @Nullable Message user)
+    implements OrchestrationEvent {
 
   /**
    * Convenience constructor for request events where no episodic context exists yet.
@@ -68,7 +70,7 @@ public record AgentRequestEvent(
    * <p>This method assembles the provider request in the following order:
    *
    * <ol>
-   *   <li>System prompt rendered from the agent base prompt using {@link VelocityTemplateService}
+   *   <li>System prompt rendered from the agent base prompt using {@link AgentPromptRenderer}
    *   <li>Optional handoff context message (if present)
    *   <li>Optional episodic context message (if present)
    *   <li>User message (required)
@@ -86,17 +88,16 @@ public record AgentRequestEvent(
    * <ul>
    *   <li>{@code agent} must not be {@code null}
    *   <li>{@code user} must not be {@code null}
-   *   <li>{@code velocityTemplateService} must not be {@code null}
+   *   <li>{@code agentPromptRenderer} must not be {@code null}
    * </ul>
    *
    * <p>If {@code agent} or {@code user} is missing, an {@link AssertionError} will be thrown (when
    * assertions are enabled).
    *
-   * @param velocityTemplateService the service used to render Velocity templates for prompts
+   * @param agentPromptRenderer the renderer providing the (cached) agent system prompt
    * @return a fully constructed {@link ChatCompletionRequest} ready to be sent to the AI provider
    */
-  public ChatCompletionRequest toChatCompletionRequest(
-      VelocityTemplateService velocityTemplateService) {
+  public ChatCompletionRequest toChatCompletionRequest(AgentPromptRenderer agentPromptRenderer) {
 
     assert agent != null;
     assert user != null;
@@ -105,12 +106,7 @@ public record AgentRequestEvent(
 
     // Base system prompt (agent prompt rendered with its Velocity context)
     messageList.add(
-        new Message(
-            "system",
-            velocityTemplateService.render(agent.getPrompt(), agent.getVelocityContext()),
-            null,
-            null,
-            null));
+        new Message("system", agentPromptRenderer.renderSystemPrompt(agent), null, null, null));
 
     // Optional orchestration/handoff context
     if (handoffContext != null) {
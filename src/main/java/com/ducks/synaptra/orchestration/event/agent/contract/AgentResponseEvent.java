@@ -3,6 +3,7 @@ package com.ducks.synaptra.orchestration.event.agent.contract;
 import com.ducks.synaptra.agent.Agent;
 import com.ducks.synaptra.client.openai.data.ChatCompletionResponse;
 import com.ducks.synaptra.client.openai.data.Message;
+import com.ducks.synaptra.orchestration.event.OrchestrationEvent;
 import org.springframework.lang.Nullable;
 
 /**
@@ -36,4 +37,5 @@ public record AgentResponseEvent(
     String sessionId,
     @Nullable Agent agent,
     @Nullable Message user,
-    ChatCompletionResponse chatCompletionResponse) {}
+    ChatCompletionResponse chatCompletionResponse)
+    implements OrchestrationEvent {}
@@ -1,10 +1,13 @@
 package com.ducks.synaptra.orchestration.event.answer;
 
-import com.ducks.synaptra.log.LogTracer;
+import com.ducks.synaptra.config.ExecutionStage;
+import com.ducks.synaptra.metrics.SynaptraMetrics;
+import com.ducks.synaptra.orchestration.cancellation.CancellationToken;
 import com.ducks.synaptra.orchestration.event.answer.contract.AnswerResponseEvent;
+import com.ducks.synaptra.orchestration.mailbox.SessionMailbox;
+import com.ducks.synaptra.tracing.Traced;
+import com.ducks.synaptra.tracing.TracingLevel;
 import java.util.List;
-import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 /**
@@ -33,16 +36,25 @@ import org.springframework.stereotype.Service;
 public class AnswerExecutionEvent {
 
   private final List<AnswerExecutionListener> answerExecutionListenerList;
+  private final SessionMailbox sessionMailbox;
+  private final SynaptraMetrics synaptraMetrics;
 
-  public AnswerExecutionEvent(List<AnswerExecutionListener> answerExecutionListenerList) {
+  public AnswerExecutionEvent(
+      List<AnswerExecutionListener> answerExecutionListenerList,
+      SessionMailbox sessionMailbox,
+      SynaptraMetrics synaptraMetrics) {
     this.answerExecutionListenerList = answerExecutionListenerList;
+    this.sessionMailbox = sessionMailbox;
+    this.synaptraMetrics = synaptraMetrics;
   }
 
   /**
    * Handles answer delivery events and forwards them to registered listeners.
    *
-   * <p>This method is executed asynchronously using the {@code agentExecutionExecutor} executor. It
-   * logs the answer metadata and then notifies each listener.
+   * <p>This method is executed asynchronously using the {@code answerExecutionExecutor} executor,
+   * in order with the other events of the session (see {@link SessionMailbox}). It notifies each
+   * listener; the first answer of a turn records its time to first answer (see {@link
+   * SynaptraMetrics}).
    *
    * <p><strong>Preconditions:</strong>
    *
@@ -53,11 +65,15 @@ public class AnswerExecutionEvent {
    * @param answerResponseEvent the event containing the session id, agent metadata, and the answer
    *     to be delivered
    */
-  @LogTracer(spanName = "answer_delivery_event")
-  @Async("agentExecutionExecutor")
-  @EventListener
+  @Traced(spanName = "answer_delivery_event", level = TracingLevel.SESSION)
   public void onAnswerExecutionEvent(AnswerResponseEvent answerResponseEvent) {
-    answerExecutionListenerList.forEach(
-        listener -> listener.onAnswerExecutionResponseEvent(answerResponseEvent));
+    sessionMailbox.submit(
+        answerResponseEvent.sessionId(),
+        ExecutionStage.ANSWER,
+        () -> {
+          synaptraMetrics.answerDelivered(CancellationToken.current());
+          answerExecutionListenerList.forEach(
+              listener -> listener.onAnswerExecutionResponseEvent(answerResponseEvent));
+        });
   }
 }
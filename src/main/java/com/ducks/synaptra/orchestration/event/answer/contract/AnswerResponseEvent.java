@@ -2,6 +2,8 @@ package com.ducks.synaptra.orchestration.event.answer.contract;
 
 import com.ducks.synaptra.agent.Agent;
 import com.ducks.synaptra.client.openai.data.Message;
+import com.ducks.synaptra.orchestration.event.OrchestrationEvent;
+import com.ducks.synaptra.orchestration.state.SessionState;
 import org.springframework.lang.Nullable;
 
 /**
@@ -27,12 +29,56 @@ import org.springframework.lang.Nullable;
  * relay scenarios where attribution or the original input message may not be required or may be
  * resolved at a later stage.
  *
+ * <p>The answer ending a user turn carries the state the session stopped in ({@link
+ * SessionState#WAIT_USER_INPUT}, {@link SessionState#FINISHED} or {@link SessionState#FAILED}) as
+ * {@code finalState}; interim answers have none. Since the events of a session are delivered in
+ * order, no answer of the same turn follows a final one.
+ *
  * @param sessionId the unique identifier of the execution session
  * @param agent the agent that produced the answer, or {@code null} if not applicable
  * @param user the original user message associated with this answer, or {@code null}
  * @param response the finalized textual answer produced by the agent (required)
+ * @param finalState the state ending the turn if this is its last answer, or {@code null} for an
+ *     interim answer
  * @author Leandro Marques
  * @since 1.0.0
  */
 public record AnswerResponseEvent(
-    String sessionId, @Nullable Agent agent, @Nullable Message user, String response) {}
+    String sessionId,
+    @Nullable Agent agent,
+    @Nullable Message user,
+    String response,
+    @Nullable SessionState finalState)
+    implements OrchestrationEvent {
+
+  /**
+   * Convenience constructor for interim answers.
+   *
+   * @param sessionId the unique identifier of the execution session
+   * @param agent the agent that produced the answer, or {@code null} if not applicable
+   * @param user the original user message associated with this answer, or {@code null}
+   * @param response the textual answer produced by the agent (required)
+   */
+  public AnswerResponseEvent(
+      String sessionId, @Nullable Agent agent, @Nullable Message user, String response) {
+    this(sessionId, agent, user, response, null);
+  }
+
+  /**
+   * Checks whether this answer ends the user turn.
+   *
+   * @return {@code true} if no further answer follows in the turn
+   */
+  public boolean isFinal() {
+    return finalState != null;
+  }
+
+  /**
+   * Checks whether this answer ends a failed user turn; its response is then the failure answer.
+   *
+   * @return {@code true} if the turn failed
+   */
+  public boolean isFailed() {
+    return finalState == SessionState.FAILED;
+  }
+}
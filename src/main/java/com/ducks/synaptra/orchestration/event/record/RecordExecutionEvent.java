@@ -1,23 +1,27 @@
 package com.ducks.synaptra.orchestration.event.record;
 
 import com.ducks.synaptra.client.openai.data.Message;
-import com.ducks.synaptra.log.LogTracer;
+import com.ducks.synaptra.config.ExecutionStage;
 import com.ducks.synaptra.memory.EpisodeMemory;
+import com.ducks.synaptra.memory.EpisodicContextRenderer;
+import com.ducks.synaptra.metrics.SynaptraMetrics;
+import com.ducks.synaptra.orchestration.admission.AdmissionController;
+import com.ducks.synaptra.orchestration.bus.OrchestrationEventBus;
+import com.ducks.synaptra.orchestration.cancellation.CancellationToken;
+import com.ducks.synaptra.orchestration.cancellation.SessionCancellation;
 import com.ducks.synaptra.orchestration.event.agent.contract.AgentRequestEvent;
 import com.ducks.synaptra.orchestration.event.answer.contract.AnswerResponseEvent;
 import com.ducks.synaptra.orchestration.event.record.contract.RecordRequestEvent;
+import com.ducks.synaptra.orchestration.guard.ExecutionGuard;
+import com.ducks.synaptra.orchestration.mailbox.SessionMailbox;
+import com.ducks.synaptra.orchestration.state.SessionState;
+import com.ducks.synaptra.orchestration.state.SessionStateMachine;
+import com.ducks.synaptra.publisher.TurnFailurePublisher;
 import com.ducks.synaptra.publisher.contract.RecordEvent;
-import com.ducks.synaptra.velocity.VelocityTemplateService;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import com.ducks.synaptra.tracing.Traced;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.springframework.util.CollectionUtils;
 
 /**
  * Handles record events produced during an agent execution and drives the orchestration flow.
@@ -25,6 +29,7 @@ import org.springframework.util.CollectionUtils;
  * <p>This component is responsible for:
  *
  * <ul>
+ *   <li>Moving the session/agent through the {@link SessionStateMachine} for well-known statuses
  *   <li>Persisting each {@link RecordEvent} into episodic memory for the current session/agent
  *   <li>Publishing follow-up orchestration events based on the record status (e.g., ask user,
  *       resume parent agent, deliver final answer)
@@ -34,13 +39,29 @@ import org.springframework.util.CollectionUtils;
  *
  * <ul>
  *   <li>{@code WAIT_USER_INPUT} -> emits an {@link AnswerResponseEvent} to request more user input
- *   <li>{@code FINISHED} -> if the agent has a parent, resumes the parent with rehydrated context;
- *       otherwise emits the final {@link AnswerResponseEvent}
+ *   <li>{@code FINISHED} -> if the agent has a parent, resumes the parent with rehydrated context
+ *       (a hop of the turn for the {@link ExecutionGuard}); otherwise emits the final {@link
+ *       AnswerResponseEvent}
  *   <li>{@code FINISHED_TOOL_EXECUTION} -> resumes the parent agent with the tool output as a
  *       system handoff
+ *   <li>{@code FAILED} -> emits the failure answer as the final {@link AnswerResponseEvent} (see
+ *       {@link TurnFailurePublisher})
  * </ul>
  *
- * <p>All events are processed asynchronously using the {@code agentExecutionExecutor}.
+ * <p>These answers end the user turn: they carry the final state (see {@link
+ * AnswerResponseEvent#isFinal()}), and the session's {@link AdmissionController} slot is released
+ * right after publishing them. The turn also stops being cancellable (see {@link
+ * SessionCancellation}), and ends only once: an answer of a turn that already ended (e.g. one whose
+ * admission slot expired) is delivered as an interim answer, and a second failure answer is
+ * dropped.
+ *
+ * <p>Records whose status is an invalid transition for the current state (see {@link
+ * SessionStateMachine}) are rejected: they are neither stored nor acted upon. Only a tool result
+ * the agent no longer waits for (e.g. one of a previous turn) is rejected; records ending the turn
+ * are always accepted. Custom statuses do not affect the state machine.
+ *
+ * <p>All events are processed asynchronously using the {@code recordExecutionExecutor}, in order
+ * with the other events of the session (see {@link SessionMailbox}).
  *
  * @author Leandro Marques
  * @since 1.0.0
@@ -56,17 +77,41 @@ public class RecordExecutionEvent {
   public static final String WAIT_TOOL_EXECUTION = "WAIT_TOOL_EXECUTION";
   public static final String FINISHED_TOOL_EXECUTION = "FINISHED_TOOL_EXECUTION";
 
-  private final ApplicationEventPublisher publisher;
+  /** Recorded when a new user message cancels a running turn (see {@link SessionCancellation}). */
+  public static final String SUPERSEDED = "SUPERSEDED";
+
+  /** Recorded when a step of the turn fails (see {@link TurnFailurePublisher}). */
+  public static final String FAILED = "FAILED";
+
+  private final OrchestrationEventBus eventBus;
   private final EpisodeMemory episodeMemory;
-  private final VelocityTemplateService velocityTemplateService;
+  private final EpisodicContextRenderer episodicContextRenderer;
+  private final SessionStateMachine sessionStateMachine;
+  private final AdmissionController admissionController;
+  private final SessionMailbox sessionMailbox;
+  private final SessionCancellation sessionCancellation;
+  private final ExecutionGuard executionGuard;
+  private final SynaptraMetrics synaptraMetrics;
 
   public RecordExecutionEvent(
-      ApplicationEventPublisher publisher,
+      OrchestrationEventBus eventBus,
       EpisodeMemory episodeMemory,
-      VelocityTemplateService velocityTemplateService) {
-    this.publisher = publisher;
+      EpisodicContextRenderer episodicContextRenderer,
+      SessionStateMachine sessionStateMachine,
+      AdmissionController admissionController,
+      SessionMailbox sessionMailbox,
+      SessionCancellation sessionCancellation,
+      ExecutionGuard executionGuard,
+      SynaptraMetrics synaptraMetrics) {
+    this.eventBus = eventBus;
     this.episodeMemory = episodeMemory;
-    this.velocityTemplateService = velocityTemplateService;
+    this.episodicContextRenderer = episodicContextRenderer;
+    this.sessionStateMachine = sessionStateMachine;
+    this.admissionController = admissionController;
+    this.sessionMailbox = sessionMailbox;
+    this.sessionCancellation = sessionCancellation;
+    this.executionGuard = executionGuard;
+    this.synaptraMetrics = synaptraMetrics;
   }
 
   /**
@@ -78,23 +123,34 @@ public class RecordExecutionEvent {
    *
    * @param recordRequestEvent the record event emitted by an agent execution pipeline
    */
-  @LogTracer(spanName = "record_event_received")
-  @Async("agentExecutionExecutor")
-  @EventListener
+  @Traced(spanName = "record_event_received")
   public void onRecordExecutionEvent(RecordRequestEvent recordRequestEvent) {
-    assert recordRequestEvent.agent() != null;
+    sessionMailbox.submit(
+        recordRequestEvent.sessionId(),
+        ExecutionStage.RECORD,
+        () -> handleRecord(recordRequestEvent));
+  }
 
-    registerInEpisodicMemory(recordRequestEvent);
+  private void handleRecord(RecordRequestEvent recordRequestEvent) {
+    assert recordRequestEvent.agent() != null;
 
     final String status = recordRequestEvent.recordEvent().status();
+    final SessionState state = SessionState.fromStatus(status);
 
-    switch (status) {
-      case WAIT_USER_INPUT -> publishAnswerFromRecord(recordRequestEvent);
+    if (state != null && !transition(recordRequestEvent, state)) {
+      return;
+    }
+
+    registerInEpisodicMemory(recordRequestEvent);
+
+    switch (state) {
+      case WAIT_USER_INPUT ->
+          publishAnswerFromRecord(recordRequestEvent, SessionState.WAIT_USER_INPUT);
       case FINISHED -> handleAgentFinished(recordRequestEvent);
+      case FAILED -> publishAnswerFromRecord(recordRequestEvent, SessionState.FAILED);
       case FINISHED_TOOL_EXECUTION -> handleToolFinished(recordRequestEvent);
-      default -> // Other states (e.g., WAIT_AGENT_EXECUTION / WAIT_TOOL_EXECUTION) may be handled
-          // elsewhere,
-          // or intentionally ignored here to avoid duplicate transitions.
+      case null, default -> // Other states (e.g., WAIT_AGENT_EXECUTION / WAIT_TOOL_EXECUTION) may
+          // be handled elsewhere, or intentionally ignored here to avoid duplicate transitions.
           logger.debug(
               "[RECORD_EVENT_IGNORED] sessionId={}, agent={}, status={}",
               recordRequestEvent.sessionId(),
@@ -103,6 +159,21 @@ public class RecordExecutionEvent {
     }
   }
 
+  private boolean transition(RecordRequestEvent recordRequestEvent, SessionState state) {
+    try {
+      sessionStateMachine.transition(
+          recordRequestEvent.sessionId(), recordRequestEvent.agent(), state);
+      return true;
+    } catch (IllegalStateException e) {
+      logger.warn(
+          "[RECORD_EVENT_REJECTED] sessionId={}, agent={}, reason={}",
+          recordRequestEvent.sessionId(),
+          recordRequestEvent.agent().getIdentifier(),
+          e.getMessage());
+      return false;
+    }
+  }
+
   private void registerInEpisodicMemory(RecordRequestEvent recordRequestEvent) {
     episodeMemory.registerEvent(
         recordRequestEvent.sessionId(),
@@ -114,7 +185,16 @@ public class RecordExecutionEvent {
     assert recordRequestEvent.agent() != null;
     if (recordRequestEvent.agent().getParent() == null) {
       // Leaf agent finished and there is no parent to resume -> deliver final answer to user.
-      publishAnswerFromRecord(recordRequestEvent);
+      publishAnswerFromRecord(recordRequestEvent, SessionState.FINISHED);
+      return;
+    }
+
+    if (!executionGuard.onHop(
+        recordRequestEvent.sessionId(),
+        recordRequestEvent.agent().getParent(),
+        null,
+        recordRequestEvent.agent(),
+        recordRequestEvent.user())) {
       return;
     }
 
@@ -136,7 +216,7 @@ public class RecordExecutionEvent {
             null,
             null);
 
-    publisher.publishEvent(
+    eventBus.publish(
         new AgentRequestEvent(
             recordRequestEvent.sessionId(),
             recordRequestEvent.agent().getParent(),
@@ -149,8 +229,42 @@ public class RecordExecutionEvent {
     registerInEpisodicMemory(recordRequestEvent);
   }
 
-  private void publishAnswerFromRecord(RecordRequestEvent recordRequestEvent) {
-    publisher.publishEvent(
+  private void publishAnswerFromRecord(
+      RecordRequestEvent recordRequestEvent, SessionState finalState) {
+    if (!sessionCancellation.endTurn(recordRequestEvent.sessionId())) {
+      publishLateAnswer(recordRequestEvent, finalState);
+      return;
+    }
+    eventBus.publish(
+        new AnswerResponseEvent(
+            recordRequestEvent.sessionId(),
+            recordRequestEvent.agent(),
+            recordRequestEvent.user(),
+            recordRequestEvent.recordEvent().content(),
+            finalState));
+    // The turn ended: hand the admission slot over to the next queued session.
+    admissionController.release(CancellationToken.current());
+    synaptraMetrics.turnEnded(executionGuard.finishTurn(recordRequestEvent.sessionId()));
+  }
+
+  /**
+   * Handles the answer of a turn that already ended (e.g. it expired and its failure answer was
+   * sent): the content is still delivered, as an interim answer, but a second failure answer is
+   * not.
+   */
+  private void publishLateAnswer(RecordRequestEvent recordRequestEvent, SessionState finalState) {
+    if (finalState == SessionState.FAILED) {
+      logger.debug(
+          "[RECORD_ANSWER_DROPPED] sessionId={}, agent={}, reason=turn already ended",
+          recordRequestEvent.sessionId(),
+          recordRequestEvent.agent().getIdentifier());
+      return;
+    }
+    logger.warn(
+        "[RECORD_ANSWER_LATE] sessionId={}, agent={}, reason=turn already ended",
+        recordRequestEvent.sessionId(),
+        recordRequestEvent.agent().getIdentifier());
+    eventBus.publish(
         new AnswerResponseEvent(
             recordRequestEvent.sessionId(),
             recordRequestEvent.agent(),
@@ -164,41 +278,17 @@ public class RecordExecutionEvent {
    */
   private Message buildParentEpisodicContext(RecordRequestEvent recordRequestEvent) {
     assert recordRequestEvent.agent() != null;
-    List<RecordEvent> parentRecords =
-        episodeMemory.getEpisodeMemory(
-            recordRequestEvent.sessionId(), recordRequestEvent.agent().getParent());
+    String rendered =
+        episodicContextRenderer.renderParentEpisodicContext(
+            recordRequestEvent.sessionId(),
+            recordRequestEvent.agent().getParent(),
+            recordRequestEvent.agent(),
+            recordRequestEvent.recordEvent().content());
 
-    if (CollectionUtils.isEmpty(parentRecords)) {
+    if (rendered == null) {
       return null;
     }
 
-    Map<String, Object> velocityContext = new HashMap<>();
-    velocityContext.put("records", parentRecords);
-    velocityContext.put("agent", recordRequestEvent.agent());
-    velocityContext.put("content", recordRequestEvent.recordEvent().content());
-
-    String prompt =
-        """
-            EPISODIC_MEMORY_CONTEXT
-            Purpose:
-            This section summarizes what has already happened in the current session.
-            It exists to ensure continuity and avoid repetition.
-
-            The last events:
-            #foreach($record in $records)
-             # Event - status: $record.status(), content: $record.content()
-            #end
-
-            Child completion:
-            - The agent '$agent.getName()' has finished. Summary: $content
-
-            Constraints:
-            - Do not repeat previously asked questions.
-            - Do not redo completed steps.
-            - Resume execution from the last known state.
-            """;
-
-    String rendered = velocityTemplateService.render(prompt, velocityContext);
     return new Message("system", rendered, null, null, null);
   }
 }
@@ -2,6 +2,7 @@ package com.ducks.synaptra.orchestration.event.record.contract;
 
 import com.ducks.synaptra.agent.Agent;
 import com.ducks.synaptra.client.openai.data.Message;
+import com.ducks.synaptra.orchestration.event.OrchestrationEvent;
 import com.ducks.synaptra.publisher.contract.RecordEvent;
 import org.springframework.lang.Nullable;
 
@@ -35,4 +36,5 @@ import org.springframework.lang.Nullable;
  * @since 1.0.0
  */
 public record RecordRequestEvent(
-    String sessionId, @Nullable Agent agent, @Nullable Message user, RecordEvent recordEvent) {}
+    String sessionId, @Nullable Agent agent, @Nullable Message user, RecordEvent recordEvent)
+    implements OrchestrationEvent {}
@@ -1,16 +1,18 @@
 package com.ducks.synaptra.orchestration.event.tool;
 
-import com.ducks.synaptra.log.LogTracer;
+import com.ducks.synaptra.config.ExecutionStage;
+import com.ducks.synaptra.orchestration.cancellation.CancellationToken;
+import com.ducks.synaptra.orchestration.dedupe.ToolCallDeduplicator;
 import com.ducks.synaptra.orchestration.event.record.RecordExecutionEvent;
 import com.ducks.synaptra.orchestration.event.record.contract.RecordRequestEvent;
 import com.ducks.synaptra.orchestration.event.tool.contract.ToolResponseEvent;
+import com.ducks.synaptra.orchestration.mailbox.SessionMailbox;
 import com.ducks.synaptra.publisher.HandoffContextPublisher;
 import com.ducks.synaptra.publisher.RecordEventPublisher;
 import com.ducks.synaptra.publisher.contract.RecordEvent;
+import com.ducks.synaptra.tracing.Traced;
 import java.util.List;
 import java.util.Objects;
-import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 /**
@@ -30,6 +32,9 @@ import org.springframework.stereotype.Service;
  * <p>For any external tool call, a {@code WAIT_TOOL_EXECUTION} record is emitted and the execution
  * request is forwarded to all registered {@link ToolExecutionListener}s.
  *
+ * <p>A tool call already dispatched in the turn (same {@code ToolCall} id, e.g. after an LLM
+ * response was redelivered) is dropped (see {@link ToolCallDeduplicator}).
+ *
  * <p>This class does not execute tools directly; it only coordinates routing and notification.
  *
  * @author Leandro Marques
@@ -38,6 +43,9 @@ import org.springframework.stereotype.Service;
 @Service
 public class ToolExecutionEvent {
 
+  /** Deduplication scope of the dispatched tool calls. */
+  private static final String DEDUPE_SCOPE = "tool";
+
   /** Internal system function used to route execution back to another agent. */
   private static final String ROUTE_TO_AGENT = "route_to_agent";
 
@@ -47,28 +55,51 @@ public class ToolExecutionEvent {
   private final HandoffContextPublisher handoffContextPublisher;
   private final RecordEventPublisher recordEventPublisher;
   private final List<ToolExecutionListener> toolExecutionListenerList;
+  private final SessionMailbox sessionMailbox;
+  private final ToolCallDeduplicator toolCallDeduplicator;
 
   public ToolExecutionEvent(
       HandoffContextPublisher handoffContextPublisher,
       RecordEventPublisher recordEventPublisher,
-      List<ToolExecutionListener> toolExecutionListenerList) {
+      List<ToolExecutionListener> toolExecutionListenerList,
+      SessionMailbox sessionMailbox,
+      ToolCallDeduplicator toolCallDeduplicator) {
     this.handoffContextPublisher = Objects.requireNonNull(handoffContextPublisher);
     this.recordEventPublisher = Objects.requireNonNull(recordEventPublisher);
     this.toolExecutionListenerList = Objects.requireNonNull(toolExecutionListenerList);
+    this.sessionMailbox = Objects.requireNonNull(sessionMailbox);
+    this.toolCallDeduplicator = Objects.requireNonNull(toolCallDeduplicator);
   }
 
   /**
    * Handles a tool response event, routing internal system tools and notifying external tool
    * execution listeners when required.
    *
+   * <p>This listener is asynchronous and runs on the {@code toolExecutionExecutor}, isolating slow
+   * tool listeners from LLM calls, in order with the other events of the session (see {@link
+   * SessionMailbox}).
+   *
    * @param toolResponseEvent the tool response event produced by the agent execution layer
    */
-  @LogTracer(spanName = "tool_execution_event")
-  @Async("agentExecutionExecutor")
-  @EventListener
+  @Traced(spanName = "tool_execution_event")
   public void onToolExecutionEvent(ToolResponseEvent toolResponseEvent) {
+    sessionMailbox.submit(
+        toolResponseEvent.sessionId(),
+        ExecutionStage.TOOL,
+        () -> handleToolResponse(toolResponseEvent));
+  }
+
+  private void handleToolResponse(ToolResponseEvent toolResponseEvent) {
     String toolName = toolResponseEvent.toolCall().function().name();
 
+    if (!toolCallDeduplicator.firstSeen(
+        DEDUPE_SCOPE,
+        CancellationToken.current(),
+        toolResponseEvent.sessionId(),
+        toolResponseEvent.toolCall().id())) {
+      return;
+    }
+
     handleInternalOrchestration(toolName, toolResponseEvent);
 
     if (!isInternalFunction(toolName)) {
@@ -3,6 +3,7 @@ package com.ducks.synaptra.orchestration.event.tool.contract;
 import com.ducks.synaptra.agent.Agent;
 import com.ducks.synaptra.client.openai.data.Message;
 import com.ducks.synaptra.client.openai.data.ToolCall;
+import com.ducks.synaptra.orchestration.event.OrchestrationEvent;
 import org.springframework.lang.Nullable;
 
 /**
@@ -35,4 +36,5 @@ import org.springframework.lang.Nullable;
  * @since 1.0.0
  */
 public record ToolResponseEvent(
-    String sessionId, @Nullable Agent agent, @Nullable Message user, ToolCall toolCall) {}
+    String sessionId, @Nullable Agent agent, @Nullable Message user, ToolCall toolCall)
+    implements OrchestrationEvent {}
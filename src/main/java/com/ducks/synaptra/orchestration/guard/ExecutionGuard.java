@@ -0,0 +1,391 @@
+package com.ducks.synaptra.orchestration.guard;
+
+import com.ducks.synaptra.agent.Agent;
+import com.ducks.synaptra.client.openai.data.Message;
+import com.ducks.synaptra.client.openai.data.Usage;
+import com.ducks.synaptra.orchestration.bus.OrchestrationEventBus;
+import com.ducks.synaptra.orchestration.cancellation.CancellationToken;
+import com.ducks.synaptra.orchestration.cancellation.SessionCancellation;
+import com.ducks.synaptra.orchestration.event.record.RecordExecutionEvent;
+import com.ducks.synaptra.orchestration.event.record.contract.RecordRequestEvent;
+import com.ducks.synaptra.publisher.contract.RecordEvent;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+/**
+ * Per-session execution limits protecting against runaway orchestrations.
+ *
+ * <p>A supervisor can route to a child, the child finishes, the supervisor is resumed and routes
+ * again; a misbehaving prompt makes this go on until someone notices the token bill. The
+ * orchestration layer reports every step of a user turn to this guard:
+ *
+ * <ul>
+ *   <li>{@link #onHop(String, Agent, String, Agent, Message)} for every handoff to a child agent
+ *       and every resumption of a parent agent
+ *   <li>{@link #onLlmCall(String, Agent, Message)} before every LLM call
+ *   <li>{@link #onTokens(String, Agent, Message, Usage)} after every LLM call
+ * </ul>
+ *
+ * <p>Each check returns {@code false} when the turn exceeds one of its limits (see {@link
+ * LimitBreach}): the caller then stops instead of publishing the next step, and the guard ends the
+ * turn by publishing a {@code FINISHED} record for the root agent, whose content is the configured
+ * breach answer. The user receives that answer as the final answer of the turn. When the check has
+ * no agent at hand, the agent that received the user input is used. Every later check of the same
+ * turn fails silently, so the turn ends only once.
+ *
+ * <p>Loops are detected on the sequence of hops by a {@link LoopDetector}: a turn whose recent hops
+ * repeat the same (agent, objective) cycle too many times is ended even if it is still within its
+ * hop limit.
+ *
+ * <p>Limits apply to each user turn of a session: the counters are reset by {@link
+ * #startTurn(String, CancellationToken)} and dropped by {@link #finishTurn(String)} once the turn
+ * ended. Counters of turns that never end (e.g. expired turns, or steps published without a user
+ * turn) are evicted like the keys of the {@link
+ * com.ducks.synaptra.orchestration.dedupe.ToolCallDeduplicator}: oldest first, once older than
+ * their time to live or while there are more than the maximum number of them. A turn whose counters
+ * were evicted continues with fresh counters.
+ *
+ * <h2>Configuration Properties</h2>
+ *
+ * <p>A limit set to {@code 0} is disabled.
+ *
+ * <ul>
+ *   <li><b>ai.agentics.guard.max-hops</b> — Maximum number of handoffs and parent resumptions per
+ *       turn (default {@code 20})
+ *   <li><b>ai.agentics.guard.max-llm-calls</b> — Maximum number of LLM calls per turn (default
+ *       {@code 40})
+ *   <li><b>ai.agentics.guard.max-tokens</b> — Maximum number of tokens (prompt and completion)
+ *       consumed per turn (default {@code 0})
+ *   <li><b>ai.agentics.guard.loop-max-period</b> — Longest hop cycle detected; {@code 0} disables
+ *       loop detection (default {@code 4})
+ *   <li><b>ai.agentics.guard.loop-repetitions</b> — Number of consecutive repetitions of a cycle
+ *       ending the turn (default {@code 3})
+ *   <li><b>ai.agentics.guard.breach-answer</b> — Final answer sent to the user when a turn is ended
+ *   <li><b>ai.agentics.guard.max-entries</b> — Maximum number of turn counters kept (default {@code
+ *       100000})
+ *   <li><b>ai.agentics.guard.ttl-ms</b> — Time after which the counters of a turn that did not end
+ *       are evicted (default {@code 3600000})
+ * </ul>
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@Service
+public class ExecutionGuard {
+
+  private static final Logger logger = LogManager.getLogger(ExecutionGuard.class);
+
+  private final OrchestrationEventBus eventBus;
+  private final SessionCancellation sessionCancellation;
+  private final int maxHops;
+  private final int maxLlmCalls;
+  private final long maxTokens;
+  private final int loopMaxPeriod;
+  private final int loopRepetitions;
+  private final String breachAnswer;
+  private final int maxEntries;
+  private final long ttlNanos;
+
+  /** Budget of the current turn by session identifier. */
+  private final Map<String, TurnBudget> budgets = new ConcurrentHashMap<>();
+
+  /** Budgets in creation order, for eviction. */
+  private final Queue<Expiry> expiries = new ConcurrentLinkedQueue<>();
+
+  private final Map<LimitBreach, LongAdder> breaches = new EnumMap<>(LimitBreach.class);
+
+  /**
+   * Creates the guard.
+   *
+   * @param eventBus the bus used to end a turn
+   * @param sessionCancellation the running turns, used to end a turn without agent at hand
+   * @param maxHops maximum number of hops per turn ({@code 0} disables)
+   * @param maxLlmCalls maximum number of LLM calls per turn ({@code 0} disables)
+   * @param maxTokens maximum number of tokens per turn ({@code 0} disables)
+   * @param loopMaxPeriod longest hop cycle detected ({@code 0} disables)
+   * @param loopRepetitions number of consecutive repetitions of a cycle ending the turn
+   * @param breachAnswer final answer sent to the user when a turn is ended
+   * @param maxEntries maximum number of turn counters kept
+   * @param ttlMs time after which the counters of a turn that did not end are evicted
+   * @throws IllegalArgumentException if a limit is negative, {@code loopRepetitions} is lower than
+   *     2, or {@code maxEntries} or {@code ttlMs} is not positive
+   */
+  public ExecutionGuard(
+      OrchestrationEventBus eventBus,
+      SessionCancellation sessionCancellation,
+      @Value("${ai.agentics.guard.max-hops:20}") int maxHops,
+      @Value("${ai.agentics.guard.max-llm-calls:40}") int maxLlmCalls,
+      @Value("${ai.agentics.guard.max-tokens:0}") long maxTokens,
+      @Value("${ai.agentics.guard.loop-max-period:4}") int loopMaxPeriod,
+      @Value("${ai.agentics.guard.loop-repetitions:3}") int loopRepetitions,
+      @Value(
+              "${ai.agentics.guard.breach-answer:Sorry, I could not complete your request."
+                  + " Please try again with a more specific request.}")
+          String breachAnswer,
+      @Value("${ai.agentics.guard.max-entries:100000}") int maxEntries,
+      @Value("${ai.agentics.guard.ttl-ms:3600000}") long ttlMs) {
+    Assert.isTrue(maxHops >= 0, "maxHops must not be negative");
+    Assert.isTrue(maxLlmCalls >= 0, "maxLlmCalls must not be negative");
+    Assert.isTrue(maxTokens >= 0, "maxTokens must not be negative");
+    Assert.isTrue(loopMaxPeriod >= 0, "loopMaxPeriod must not be negative");
+    Assert.isTrue(loopRepetitions >= 2, "loopRepetitions must be at least 2");
+    Assert.isTrue(maxEntries > 0, "maxEntries must be positive");
+    Assert.isTrue(ttlMs > 0, "ttlMs must be positive");
+    this.eventBus = eventBus;
+    this.sessionCancellation = sessionCancellation;
+    this.maxHops = maxHops;
+    this.maxLlmCalls = maxLlmCalls;
+    this.maxTokens = maxTokens;
+    this.loopMaxPeriod = loopMaxPeriod;
+    this.loopRepetitions = loopRepetitions;
+    this.breachAnswer = breachAnswer;
+    this.maxEntries = maxEntries;
+    this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+    for (LimitBreach breach : LimitBreach.values()) {
+      breaches.put(breach, new LongAdder());
+    }
+  }
+
+  /**
+   * Starts a new user turn, resetting the counters of the session.
+   *
+   * @param sessionId the session identifier
+   * @param token the token of the new turn
+   */
+  public void startTurn(String sessionId, CancellationToken token) {
+    TurnBudget budget = newBudget(token);
+    budgets.put(sessionId, budget);
+    track(sessionId, budget);
+  }
+
+  /**
+   * Drops the counters of the turn the current work belongs to, once it ended. Counters of a newer
+   * turn of the session are kept.
+   *
+   * @param sessionId the session identifier
+   * @return hops of the turn ({@code 0} if its counters were not found)
+   */
+  public int finishTurn(String sessionId) {
+    CancellationToken token = CancellationToken.current();
+    int[] hops = new int[1];
+    budgets.computeIfPresent(
+        sessionId,
+        (key, budget) -> {
+          if (budget.token != token) {
+            return budget;
+          }
+          synchronized (budget) {
+            hops[0] = budget.hops;
+          }
+          return null;
+        });
+    return hops[0];
+  }
+
+  /**
+   * Counts a hop: a handoff to a child agent or the resumption of a parent agent.
+   *
+   * @param sessionId the session identifier
+   * @param target the agent receiving the hop
+   * @param objective the objective of the hop ({@code null} for a resumption)
+   * @param agent the agent of the current step, used to find the root agent if the turn is ended
+   * @param user the user message of the turn
+   * @return {@code true} if the hop may proceed, {@code false} if the turn was ended
+   */
+  public boolean onHop(
+      String sessionId, Agent target, String objective, Agent agent, Message user) {
+    TurnBudget budget = budget(sessionId);
+    LimitBreach breach;
+    int hops;
+    synchronized (budget) {
+      if (budget.ended) {
+        return false;
+      }
+      hops = ++budget.hops;
+      if (maxHops > 0 && hops > maxHops) {
+        breach = LimitBreach.HOPS;
+      } else if (budget.loopDetector != null
+          && budget.loopDetector.record(
+              LoopDetector.signature(target.getIdentifier(), objective))) {
+        breach = LimitBreach.LOOP;
+      } else {
+        return true;
+      }
+      budget.ended = true;
+    }
+    endTurn(sessionId, agent, user, breach, hops);
+    return false;
+  }
+
+  /**
+   * Counts an LLM call.
+   *
+   * @param sessionId the session identifier
+   * @param agent the agent about to be called
+   * @param user the user message of the turn
+   * @return {@code true} if the call may proceed, {@code false} if the turn was ended
+   */
+  public boolean onLlmCall(String sessionId, Agent agent, Message user) {
+    TurnBudget budget = budget(sessionId);
+    int llmCalls;
+    synchronized (budget) {
+      if (budget.ended) {
+        return false;
+      }
+      llmCalls = ++budget.llmCalls;
+      if (maxLlmCalls == 0 || llmCalls <= maxLlmCalls) {
+        return true;
+      }
+      budget.ended = true;
+    }
+    endTurn(sessionId, agent, user, LimitBreach.LLM_CALLS, llmCalls);
+    return false;
+  }
+
+  /**
+   * Counts the tokens consumed by an LLM call.
+   *
+   * @param sessionId the session identifier
+   * @param agent the agent that was called
+   * @param user the user message of the turn
+   * @param usage the token usage reported by the LLM (may be {@code null})
+   * @return {@code true} if the turn may proceed, {@code false} if the turn was ended
+   */
+  public boolean onTokens(String sessionId, Agent agent, Message user, Usage usage) {
+    TurnBudget budget = budget(sessionId);
+    long tokens;
+    synchronized (budget) {
+      if (budget.ended) {
+        return false;
+      }
+      if (usage != null && usage.totalTokens() != null) {
+        budget.tokens += usage.totalTokens();
+      }
+      tokens = budget.tokens;
+      if (maxTokens == 0 || tokens <= maxTokens) {
+        return true;
+      }
+      budget.ended = true;
+    }
+    endTurn(sessionId, agent, user, LimitBreach.TOKENS, tokens);
+    return false;
+  }
+
+  /**
+   * Returns the number of hops of the current turn of a session.
+   *
+   * @param sessionId the session identifier
+   * @return hops of the current turn ({@code 0} if the session has no turn)
+   */
+  public int getHops(String sessionId) {
+    TurnBudget budget = budgets.get(sessionId);
+    if (budget == null) {
+      return 0;
+    }
+    synchronized (budget) {
+      return budget.hops;
+    }
+  }
+
+  /**
+   * Returns the number of turns ended for a reason since startup.
+   *
+   * @param breach the reason
+   * @return ended turns
+   */
+  public long getBreachCount(LimitBreach breach) {
+    return breaches.get(breach).sum();
+  }
+
+  private TurnBudget budget(String sessionId) {
+    TurnBudget budget = budgets.get(sessionId);
+    if (budget != null) {
+      return budget;
+    }
+    // Steps published without a user turn (e.g. by the host application) get a budget too.
+    TurnBudget created = newBudget(CancellationToken.current());
+    budget = budgets.computeIfAbsent(sessionId, key -> created);
+    if (budget == created) {
+      track(sessionId, created);
+    }
+    return budget;
+  }
+
+  private TurnBudget newBudget(CancellationToken token) {
+    return new TurnBudget(
+        token, loopMaxPeriod > 0 ? new LoopDetector(loopMaxPeriod, loopRepetitions) : null);
+  }
+
+  /** Queues a new budget for eviction and evicts the budgets due. */
+  private void track(String sessionId, TurnBudget budget) {
+    long now = System.nanoTime();
+    expiries.add(new Expiry(sessionId, budget, now + ttlNanos));
+    Expiry oldest;
+    while ((oldest = expiries.peek()) != null
+        && (oldest.expiresAt() - now <= 0 || budgets.size() > maxEntries)) {
+      if (expiries.remove(oldest)) {
+        // A budget already dropped or replaced is simply forgotten.
+        budgets.remove(oldest.sessionId(), oldest.budget());
+      }
+    }
+  }
+
+  /** Ends the turn with the breach answer, as if its root agent had finished. */
+  private void endTurn(
+      String sessionId, Agent agent, Message user, LimitBreach breach, long value) {
+    breaches.get(breach).increment();
+    logger.warn(
+        "[GUARD_LIMIT_EXCEEDED] sessionId={}, agent={}, breach={}, value={}",
+        sessionId,
+        agent != null ? agent.getIdentifier() : "null",
+        breach,
+        value);
+
+    if (agent == null) {
+      SessionCancellation.Turn turn = sessionCancellation.turnOf(sessionId);
+      if (turn == null) {
+        // No turn to end: the work just stops.
+        return;
+      }
+      agent = turn.agent();
+    }
+    Agent root = agent;
+    while (root.getParent() != null) {
+      root = root.getParent();
+    }
+
+    eventBus.publish(
+        new RecordRequestEvent(
+            sessionId, root, user, new RecordEvent(breachAnswer, RecordExecutionEvent.FINISHED)));
+  }
+
+  /** Counters of the current turn of a session; guarded by the instance monitor. */
+  private static final class TurnBudget {
+
+    /** Token of the turn; {@code null} for steps published without a user turn. */
+    private final CancellationToken token;
+
+    private final LoopDetector loopDetector;
+    private int hops;
+    private int llmCalls;
+    private long tokens;
+    private boolean ended;
+
+    private TurnBudget(CancellationToken token, LoopDetector loopDetector) {
+      this.token = token;
+      this.loopDetector = loopDetector;
+    }
+  }
+
+  private record Expiry(String sessionId, TurnBudget budget, long expiresAt) {}
+}
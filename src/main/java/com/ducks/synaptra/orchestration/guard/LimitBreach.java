@@ -0,0 +1,22 @@
+package com.ducks.synaptra.orchestration.guard;
+
+/**
+ * Reason why the {@link ExecutionGuard} ended a user turn.
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+public enum LimitBreach {
+
+  /** Too many handoffs and parent resumptions. */
+  HOPS,
+
+  /** Too many LLM calls. */
+  LLM_CALLS,
+
+  /** Too many tokens consumed by the LLM calls. */
+  TOKENS,
+
+  /** The same (agent, objective) hops keep repeating. */
+  LOOP
+}
@@ -0,0 +1,107 @@
+package com.ducks.synaptra.orchestration.guard;
+
+/**
+ * Detects cycles in the sequence of hops of a session with a rolling hash.
+ *
+ * <p>Every hop is reduced to a 64-bit signature (target agent and objective) and appended to a
+ * polynomial rolling hash, keeping the prefix hashes of the last {@code maxPeriod * repetitions}
+ * hops in a ring. The hash of any window of recent hops is then computed in O(1), so checking
+ * whether the last hops are the same block of {@code 1..maxPeriod} hops repeated {@code
+ * repetitions} times costs O({@code maxPeriod * repetitions}) per hop, with no allocation.
+ *
+ * <p>For instance, a supervisor routing the same objective to a child that finishes and resumes the
+ * supervisor produces the hops {@code child:objective, supervisor:resume} over and over: a cycle of
+ * period 2.
+ *
+ * <p>Not thread-safe; callers synchronize.
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+final class LoopDetector {
+
+  private static final long BASE = 0x100000001B3L;
+
+  private final int maxPeriod;
+  private final int repetitions;
+
+  /** Prefix hashes of the recent hops, by hop count modulo the ring length. */
+  private final long[] prefixes;
+
+  /** Powers of {@link #BASE}, up to the ring length. */
+  private final long[] powers;
+
+  private long count;
+  private long hash;
+
+  /**
+   * Creates a detector.
+   *
+   * @param maxPeriod the longest cycle detected, in hops
+   * @param repetitions the number of consecutive occurrences making a cycle
+   */
+  LoopDetector(int maxPeriod, int repetitions) {
+    this.maxPeriod = maxPeriod;
+    this.repetitions = repetitions;
+    int window = maxPeriod * repetitions;
+    this.prefixes = new long[window + 1];
+    this.powers = new long[window + 1];
+    powers[0] = 1;
+    for (int i = 1; i <= window; i++) {
+      powers[i] = powers[i - 1] * BASE;
+    }
+  }
+
+  /**
+   * Computes the signature of a hop.
+   *
+   * @param agentIdentifier the identifier of the target agent
+   * @param objective the objective of the hop (may be {@code null})
+   * @return the signature
+   */
+  static long signature(String agentIdentifier, String objective) {
+    long signature = mix(agentIdentifier == null ? 0 : agentIdentifier.hashCode());
+    return mix(signature ^ (objective == null ? 0 : objective.hashCode()));
+  }
+
+  /**
+   * Appends a hop and tells whether the recent hops form a cycle.
+   *
+   * @param signature the signature of the hop
+   * @return {@code true} if the last hops repeat the same block {@code repetitions} times
+   */
+  boolean record(long signature) {
+    hash = hash * BASE + signature;
+    count++;
+    prefixes[(int) (count % prefixes.length)] = hash;
+
+    for (int period = 1; period <= maxPeriod && count >= (long) period * repetitions; period++) {
+      long last = window(count - period, count);
+      boolean repeated = true;
+      for (int r = 1; r < repetitions && repeated; r++) {
+        repeated = window(count - (long) (r + 1) * period, count - (long) r * period) == last;
+      }
+      if (repeated) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Hash of the hops in {@code (from, to]}. */
+  private long window(long from, long to) {
+    return prefix(to) - prefix(from) * powers[(int) (to - from)];
+  }
+
+  private long prefix(long index) {
+    return index == 0 ? 0 : prefixes[(int) (index % prefixes.length)];
+  }
+
+  /** 64-bit finalizer spreading the bits of a hash code (from SplitMix64). */
+  private static long mix(long value) {
+    long z = (value + 0x9E3779B97F4A7C15L);
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+}
@@ -0,0 +1,295 @@
+package com.ducks.synaptra.orchestration.mailbox;
+
+import com.ducks.synaptra.config.DiscardableTask;
+import com.ducks.synaptra.config.ExecutionStage;
+import com.ducks.synaptra.config.SaturationAwareExecutor;
+import com.ducks.synaptra.config.TraceTaskDecorator;
+import com.ducks.synaptra.orchestration.cancellation.CancellationToken;
+import com.ducks.synaptra.orchestration.cancellation.SessionCancellation;
+import com.ducks.synaptra.publisher.TurnFailurePublisher;
+import io.micrometer.tracing.CurrentTraceContext;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+/**
+ * Actor-style mailbox executing the orchestration events of a session one at a time, in order.
+ *
+ * <p>Every orchestration listener (agent request, agent response, tool, record, answer) submits its
+ * work here together with its {@link ExecutionStage}. Tasks of one session are queued in the
+ * session mailbox and run serially in submission order, each one on the executor of its stage, so
+ * the stage bulkheads still apply. Tasks of different sessions run fully in parallel on the shared
+ * executors.
+ *
+ * <p>Scheduling follows the usual actor mailbox model:
+ *
+ * <ul>
+ *   <li>A session with no pending task has no mailbox at all and holds no thread
+ *   <li>The first task submitted to an idle session schedules the mailbox on the executor of that
+ *       task; further tasks are only queued
+ *   <li>When a task completes, the next one is handed to the executor of its stage, or run inline
+ *       when it targets the same executor, up to {@code throughput} tasks in a row
+ *   <li>When the queue is empty the mailbox is removed
+ * </ul>
+ *
+ * <p>Mailbox state only changes inside the per-key atomic operations of a {@link
+ * ConcurrentHashMap}, so there is no global lock and sessions never contend with each other. Tasks
+ * always run outside of these operations.
+ *
+ * <p>Since a session never processes two events at the same time, everything a listener reads or
+ * writes for its session (episodic timeline, state machine entry) sees the effects of all the
+ * events published before it.
+ *
+ * <p>The tracing context is captured when a task is submitted, so a queued task runs under the span
+ * of the listener that published its event, not the span of the task that ran before it.
+ *
+ * <p>A failing task is logged and does not stop the mailbox. A task refused or discarded by its
+ * executor (see {@link com.ducks.synaptra.config.RejectionPolicy}) is dropped the same way, and the
+ * following tasks of the session still run. Either way, the turn of the task is failed through the
+ * {@link TurnFailurePublisher}, since the step it was waiting for will never happen.
+ *
+ * <p>Each task runs with the {@link CancellationToken} of the turn it was submitted for (see {@link
+ * SessionCancellation#tokenOf(String)}). Tasks of a turn cancelled while they were queued are
+ * dropped instead of run.
+ *
+ * <h2>Configuration Properties</h2>
+ *
+ * <ul>
+ *   <li><b>ai.agentics.mailbox.enabled</b> — Serialize the events of a session; when {@code false},
+ *       tasks are submitted straight to their stage executor (default {@code true})
+ *   <li><b>ai.agentics.mailbox.throughput</b> — Maximum number of consecutive tasks of a session
+ *       run inline on the same executor thread before yielding it (default {@code 16})
+ * </ul>
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@Service
+public class SessionMailbox {
+
+  private static final Logger logger = LogManager.getLogger(SessionMailbox.class);
+
+  private final Map<ExecutionStage, Executor> executors = new EnumMap<>(ExecutionStage.class);
+  private final Map<String, Mailbox> mailboxes = new ConcurrentHashMap<>();
+  private final TraceTaskDecorator taskDecorator;
+  private final SessionCancellation sessionCancellation;
+  private final ObjectProvider<TurnFailurePublisher> turnFailurePublisher;
+  private final boolean enabled;
+  private final int throughput;
+
+  /**
+   * Creates the session mailbox.
+   *
+   * @param executors the stage executors, by bean name
+   * @param currentTraceContext the trace context captured when a task is submitted
+   * @param sessionCancellation the source of the cancellation token of each task
+   * @param turnFailurePublisher publisher failing the turn of a task that failed or never ran
+   * @param enabled whether the events of a session are serialized
+   * @param throughput maximum number of consecutive tasks run inline on the same executor thread
+   * @throws IllegalArgumentException if an {@link ExecutionStage} executor is missing or {@code
+   *     throughput} is not positive
+   */
+  public SessionMailbox(
+      Map<String, SaturationAwareExecutor> executors,
+      CurrentTraceContext currentTraceContext,
+      SessionCancellation sessionCancellation,
+      ObjectProvider<TurnFailurePublisher> turnFailurePublisher,
+      @Value("${ai.agentics.mailbox.enabled:true}") boolean enabled,
+      @Value("${ai.agentics.mailbox.throughput:16}") int throughput) {
+    Assert.isTrue(throughput > 0, "throughput must be positive");
+    for (ExecutionStage stage : ExecutionStage.values()) {
+      Executor executor = executors.get(stage.beanName());
+      Assert.notNull(executor, "Missing executor bean: " + stage.beanName());
+      this.executors.put(stage, executor);
+    }
+    this.taskDecorator = new TraceTaskDecorator(currentTraceContext);
+    this.sessionCancellation = sessionCancellation;
+    this.turnFailurePublisher = turnFailurePublisher;
+    this.enabled = enabled;
+    this.throughput = throughput;
+  }
+
+  /**
+   * Submits a task to the mailbox of a session.
+   *
+   * <p>The task runs on the executor of {@code stage} once every task previously submitted for the
+   * same session has completed. This method never blocks and never runs the task on the calling
+   * thread, unless the stage executor itself does so (e.g. a {@code caller-runs} rejection policy).
+   *
+   * @param sessionId the session identifier (must not be blank)
+   * @param stage the stage whose executor runs the task (must not be {@code null})
+   * @param task the task (must not be {@code null})
+   * @throws TaskRejectedException if the mailbox is disabled and the stage executor refuses the
+   *     task
+   */
+  public void submit(String sessionId, ExecutionStage stage, Runnable task) {
+    Assert.hasText(sessionId, "sessionId must not be null or blank");
+    Assert.notNull(stage, "stage must not be null");
+    Assert.notNull(task, "task must not be null");
+
+    CancellationToken token = sessionCancellation.tokenOf(sessionId);
+    if (!enabled) {
+      Envelope envelope = new Envelope(sessionId, executors.get(stage), task, token);
+      envelope.executor().execute(() -> runTask(envelope));
+      return;
+    }
+
+    Envelope envelope =
+        new Envelope(sessionId, executors.get(stage), taskDecorator.decorate(task), token);
+    Envelope[] first = new Envelope[1];
+    mailboxes.compute(
+        sessionId,
+        (key, mailbox) -> {
+          if (mailbox == null) {
+            // Idle session: this task starts the mailbox.
+            first[0] = envelope;
+            return new Mailbox();
+          }
+          mailbox.pending.add(envelope);
+          return mailbox;
+        });
+
+    if (first[0] != null) {
+      dispatch(first[0]);
+    }
+  }
+
+  /**
+   * Returns the number of sessions with a running or pending task.
+   *
+   * @return busy sessions
+   */
+  public int getBusySessions() {
+    return mailboxes.size();
+  }
+
+  /**
+   * Returns the number of tasks waiting behind the running task of a session.
+   *
+   * @param sessionId the session identifier
+   * @return pending tasks ({@code 0} for an idle session)
+   */
+  public int getPendingCount(String sessionId) {
+    int[] pending = new int[1];
+    mailboxes.computeIfPresent(
+        sessionId,
+        (key, mailbox) -> {
+          pending[0] = mailbox.pending.size();
+          return mailbox;
+        });
+    return pending[0];
+  }
+
+  private void dispatch(Envelope envelope) {
+    Envelope next = envelope;
+    while (next != null) {
+      Envelope current = next;
+      try {
+        current
+            .executor()
+            .execute(DiscardableTask.of(() -> runMailbox(current), () -> skip(current)));
+        return;
+      } catch (TaskRejectedException e) {
+        logger.warn(
+            "[MAILBOX_TASK_REJECTED] sessionId={}, reason={}", current.sessionId(), e.getMessage());
+        failTurn(current, "mailbox task rejected", e);
+        next = complete(current.sessionId());
+      }
+    }
+  }
+
+  /** Moves on to the next task of a session after its executor discarded the current one. */
+  private void skip(Envelope envelope) {
+    logger.warn("[MAILBOX_TASK_DISCARDED] sessionId={}", envelope.sessionId());
+    failTurn(envelope, "mailbox task discarded", null);
+    Envelope next = complete(envelope.sessionId());
+    if (next != null) {
+      dispatch(next);
+    }
+  }
+
+  /** Runs a task and then the following tasks of its session sharing the same executor. */
+  private void runMailbox(Envelope envelope) {
+    Envelope current = envelope;
+    for (int run = 1; ; run++) {
+      runTask(current);
+
+      Envelope next = complete(current.sessionId());
+      if (next == null) {
+        return;
+      }
+      if (next.executor() != current.executor() || run >= throughput) {
+        dispatch(next);
+        return;
+      }
+      current = next;
+    }
+  }
+
+  private void runTask(Envelope envelope) {
+    if (CancellationToken.isCancelled(envelope.token())) {
+      logger.debug("[MAILBOX_TASK_CANCELLED] sessionId={}", envelope.sessionId());
+      return;
+    }
+    try {
+      CancellationToken.runWith(envelope.token(), envelope.task());
+    } catch (RuntimeException e) {
+      logger.error("[MAILBOX_TASK_FAILED] sessionId={}", envelope.sessionId(), e);
+      failTurn(envelope, "mailbox task failed: " + e.getMessage(), e);
+    }
+  }
+
+  /** Fails the turn of a task that failed or will never run, unless the turn was cancelled. */
+  private void failTurn(Envelope envelope, String reason, @Nullable Throwable cause) {
+    if (envelope.token() == null || envelope.token().isCancelled()) {
+      return;
+    }
+    TurnFailurePublisher publisher = turnFailurePublisher.getIfAvailable();
+    if (publisher == null) {
+      return;
+    }
+    try {
+      CancellationToken.runWith(
+          envelope.token(), () -> publisher.publishEvent(envelope.sessionId(), reason, cause));
+    } catch (RuntimeException e) {
+      logger.error("[MAILBOX_TURN_FAILURE_FAILED] sessionId={}", envelope.sessionId(), e);
+    }
+  }
+
+  /**
+   * Marks the running task of a session as completed.
+   *
+   * @return the next task to run, or {@code null} if the session became idle (its mailbox is
+   *     removed)
+   */
+  private Envelope complete(String sessionId) {
+    Envelope[] next = new Envelope[1];
+    mailboxes.computeIfPresent(
+        sessionId,
+        (key, mailbox) -> {
+          next[0] = mailbox.pending.poll();
+          return next[0] == null ? null : mailbox;
+        });
+    return next[0];
+  }
+
+  private record Envelope(
+      String sessionId, Executor executor, Runnable task, CancellationToken token) {}
+
+  /** Tasks waiting behind the running task of a session; only accessed inside map operations. */
+  private static final class Mailbox {
+
+    private final Queue<Envelope> pending = new ArrayDeque<>();
+  }
+}
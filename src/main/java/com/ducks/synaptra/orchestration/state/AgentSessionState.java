@@ -0,0 +1,21 @@
+package com.ducks.synaptra.orchestration.state;
+
+import java.time.Instant;
+
+/**
+ * Current execution state of one agent within one session.
+ *
+ * @param sessionId the session identifier
+ * @param agentIdentifier the agent identifier
+ * @param state the current state
+ * @param pendingToolCalls the number of tool calls the agent still waits for
+ * @param enteredAt when the current state was entered
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+public record AgentSessionState(
+    String sessionId,
+    String agentIdentifier,
+    SessionState state,
+    int pendingToolCalls,
+    Instant enteredAt) {}
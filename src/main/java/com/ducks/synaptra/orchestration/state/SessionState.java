@@ -0,0 +1,76 @@
+package com.ducks.synaptra.orchestration.state;
+
+import com.ducks.synaptra.orchestration.event.record.RecordExecutionEvent;
+
+/**
+ * Execution state of an agent within a session.
+ *
+ * <p>Each state corresponds to one of the well-known record statuses declared on {@link
+ * RecordExecutionEvent}. The tool calls an agent waits for are counted by the {@link
+ * SessionStateMachine}, so an agent may wait for several tool calls at once (parallel tool calls):
+ *
+ * <ul>
+ *   <li>{@code WAIT_TOOL_EXECUTION} adds an outstanding tool call
+ *   <li>{@code FINISHED_TOOL_EXECUTION} completes an outstanding tool call, and is only reachable
+ *       while the agent has one
+ *   <li>A state may follow itself (e.g. consecutive questions to the user)
+ *   <li>Terminal states (see {@link #isTerminal()}) end the turn of the agent and drop its
+ *       outstanding tool calls: results arriving later are stale
+ * </ul>
+ *
+ * <p>The allowed transitions are listed on {@link SessionStateMachine}.
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+public enum SessionState {
+  WAIT_USER_INPUT(RecordExecutionEvent.WAIT_USER_INPUT),
+  WAIT_AGENT_EXECUTION(RecordExecutionEvent.WAIT_AGENT_EXECUTION),
+  WAIT_TOOL_EXECUTION(RecordExecutionEvent.WAIT_TOOL_EXECUTION),
+  FINISHED_TOOL_EXECUTION(RecordExecutionEvent.FINISHED_TOOL_EXECUTION),
+  FINISHED(RecordExecutionEvent.FINISHED),
+  FAILED(RecordExecutionEvent.FAILED);
+
+  private final String status;
+
+  SessionState(String status) {
+    this.status = status;
+  }
+
+  /**
+   * Returns the record status this state corresponds to.
+   *
+   * @return the record status string
+   */
+  public String status() {
+    return status;
+  }
+
+  /**
+   * Checks whether this state ends the turn of the agent: an answer to the user ({@code
+   * WAIT_USER_INPUT}), its completion ({@code FINISHED}) or its failure ({@code FAILED}).
+   *
+   * @return {@code true} if the state is terminal
+   */
+  public boolean isTerminal() {
+    return this == WAIT_USER_INPUT || this == FINISHED || this == FAILED;
+  }
+
+  /**
+   * Resolves the state matching a record status.
+   *
+   * @param status the record status (may be {@code null})
+   * @return the matching state, or {@code null} if the status is not a well-known one
+   */
+  public static SessionState fromStatus(String status) {
+    if (status == null) {
+      return null;
+    }
+    for (SessionState state : values()) {
+      if (state.status.equals(status)) {
+        return state;
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,365 @@
+package com.ducks.synaptra.orchestration.state;
+
+import com.ducks.synaptra.agent.Agent;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+/**
+ * Tracks the explicit execution state of every (session, agent) pair.
+ *
+ * <p>Instead of deriving the state from the last record appended to episodic memory, the
+ * orchestration layer moves each agent through the {@link SessionState} machine. Transitions are
+ * validated against an explicit table before anything is recorded; invalid ones are rejected and
+ * counted (see {@link #getRejectedTransitions()}):
+ *
+ * <table>
+ *   <caption>Allowed transitions</caption>
+ *   <tr><th>From</th><th>To</th></tr>
+ *   <tr><td>(no state), {@code WAIT_USER_INPUT}, {@code WAIT_AGENT_EXECUTION}, {@code
+ *       FINISHED_TOOL_EXECUTION}</td><td>any state but {@code FINISHED_TOOL_EXECUTION}</td></tr>
+ *   <tr><td>{@code WAIT_TOOL_EXECUTION}</td><td>any state</td></tr>
+ *   <tr><td>{@code FINISHED}</td><td>{@code WAIT_USER_INPUT}, {@code WAIT_TOOL_EXECUTION}, {@code
+ *       FINISHED}, {@code FAILED}</td></tr>
+ *   <tr><td>{@code FAILED}</td><td>none</td></tr>
+ * </table>
+ *
+ * <p>Tool calls are counted per agent: every {@code WAIT_TOOL_EXECUTION} adds an outstanding tool
+ * call and every {@code FINISHED_TOOL_EXECUTION} completes one, so the results of parallel tool
+ * calls are all accepted. The agent stays in {@code WAIT_TOOL_EXECUTION} until the last result
+ * arrives, so a result without an outstanding tool call is rejected. Terminal states (see {@link
+ * SessionState#isTerminal()}) drop the outstanding tool calls of the agent.
+ *
+ * <p>A new user turn calls {@link #reset(String)}, so a turn never inherits the tool calls or
+ * handoffs its predecessor was still waiting for, and agents that finished or failed in the
+ * previous turn may run again.
+ *
+ * <h2>Storage model</h2>
+ *
+ * <ul>
+ *   <li>The current {@link AgentSessionState} is kept per session and agent, so looking it up is
+ *       two map accesses and resetting a session does not scan other sessions
+ *   <li>A secondary index groups the current states by {@link SessionState}, so questions like
+ *       "which agents are waiting for a tool right now" are answered without scanning timelines
+ *       (e.g. for timeouts, dashboards or recovery scans)
+ * </ul>
+ *
+ * <p>Sessions are forgotten once idle, like the keys of the {@link
+ * com.ducks.synaptra.orchestration.dedupe.ToolCallDeduplicator}: on every new session, the oldest
+ * sessions without a transition for the idle time to live are evicted, and the oldest sessions are
+ * evicted anyway while there are more than the maximum number of sessions. A session coming back
+ * after being forgotten is treated as a new session.
+ *
+ * <p>Concurrency: transitions of the same session are atomic; the secondary index is updated within
+ * the same atomic step and is weakly consistent for readers.
+ *
+ * <h2>Configuration Properties</h2>
+ *
+ * <ul>
+ *   <li><b>ai.agentics.state.max-sessions</b> — Maximum number of sessions tracked (default {@code
+ *       100000})
+ *   <li><b>ai.agentics.state.idle-ttl-ms</b> — Time without transition after which a session is
+ *       forgotten (default {@code 3600000})
+ * </ul>
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@Service
+public class SessionStateMachine {
+
+  private final int maxSessions;
+  private final long idleTtlNanos;
+
+  /** Current states by session identifier. */
+  private final Map<String, SessionStates> sessions = new ConcurrentHashMap<>();
+
+  /** Tracked sessions, oldest first, for eviction. */
+  private final Queue<Expiry> expiries = new ConcurrentLinkedQueue<>();
+
+  /** States reachable from an agent that has not entered any state yet. */
+  private static final Set<SessionState> INITIAL =
+      EnumSet.complementOf(EnumSet.of(SessionState.FINISHED_TOOL_EXECUTION));
+
+  /** Allowed transitions by current state. */
+  private static final Map<SessionState, Set<SessionState>> TRANSITIONS =
+      new EnumMap<>(SessionState.class);
+
+  static {
+    TRANSITIONS.put(SessionState.WAIT_USER_INPUT, INITIAL);
+    TRANSITIONS.put(SessionState.WAIT_AGENT_EXECUTION, INITIAL);
+    TRANSITIONS.put(SessionState.WAIT_TOOL_EXECUTION, EnumSet.allOf(SessionState.class));
+    TRANSITIONS.put(SessionState.FINISHED_TOOL_EXECUTION, INITIAL);
+    TRANSITIONS.put(
+        SessionState.FINISHED,
+        EnumSet.of(
+            SessionState.WAIT_USER_INPUT,
+            SessionState.WAIT_TOOL_EXECUTION,
+            SessionState.FINISHED,
+            SessionState.FAILED));
+    TRANSITIONS.put(SessionState.FAILED, EnumSet.noneOf(SessionState.class));
+  }
+
+  private final Map<SessionState, Set<AgentSessionState>> byState =
+      new EnumMap<>(SessionState.class);
+
+  private final LongAdder rejectedTransitions = new LongAdder();
+
+  /**
+   * Creates the state machine.
+   *
+   * @param maxSessions maximum number of sessions tracked
+   * @param idleTtlMs time without transition after which a session is forgotten
+   * @throws IllegalArgumentException if {@code maxSessions} or {@code idleTtlMs} is not positive
+   */
+  public SessionStateMachine(
+      @Value("${ai.agentics.state.max-sessions:100000}") int maxSessions,
+      @Value("${ai.agentics.state.idle-ttl-ms:3600000}") long idleTtlMs) {
+    Assert.isTrue(maxSessions > 0, "maxSessions must be positive");
+    Assert.isTrue(idleTtlMs > 0, "idleTtlMs must be positive");
+    this.maxSessions = maxSessions;
+    this.idleTtlNanos = TimeUnit.MILLISECONDS.toNanos(idleTtlMs);
+    for (SessionState state : SessionState.values()) {
+      byState.put(state, ConcurrentHashMap.newKeySet());
+    }
+  }
+
+  /**
+   * Moves an agent to a new state within a session.
+   *
+   * @param sessionId the session identifier (must not be blank)
+   * @param agent the agent whose state changes (must not be {@code null})
+   * @param target the state to enter (must not be {@code null})
+   * @return the new current state
+   * @throws IllegalStateException if the transition is not allowed from the current state of the
+   *     agent, e.g. {@code FINISHED_TOOL_EXECUTION} without an outstanding tool call
+   */
+  public AgentSessionState transition(String sessionId, Agent agent, SessionState target) {
+    Assert.hasText(sessionId, "sessionId must not be null or blank");
+    Assert.notNull(agent, "agent must not be null");
+    Assert.notNull(target, "target must not be null");
+
+    String agentIdentifier = agent.getIdentifier();
+    long now = System.nanoTime();
+    AgentSessionState[] next = new AgentSessionState[1];
+    SessionStates[] created = new SessionStates[1];
+    sessions.compute(
+        sessionId,
+        (key, existing) -> {
+          SessionStates states = existing;
+          if (states == null) {
+            states = new SessionStates();
+            created[0] = states;
+          }
+          states.touchedAt = now;
+          AgentSessionState current = states.agents.get(agentIdentifier);
+          SessionState from = current == null ? null : current.state();
+          int pending = current == null ? 0 : current.pendingToolCalls();
+          if (!(from == null ? INITIAL : TRANSITIONS.get(from)).contains(target)) {
+            throw rejected(sessionId, agentIdentifier, from, target, "transition not allowed");
+          }
+
+          SessionState state = target;
+          switch (target) {
+            case WAIT_TOOL_EXECUTION -> pending++;
+            case FINISHED_TOOL_EXECUTION -> {
+              if (pending == 0) {
+                throw rejected(
+                    sessionId, agentIdentifier, from, target, "no outstanding tool call");
+              }
+              pending--;
+              if (pending > 0) {
+                // Still waiting for the results of parallel tool calls.
+                state = SessionState.WAIT_TOOL_EXECUTION;
+              }
+            }
+            default -> {
+              if (target.isTerminal()) {
+                pending = 0;
+              }
+            }
+          }
+
+          next[0] = replace(states, current, sessionId, agentIdentifier, state, pending);
+          return states;
+        });
+    if (created[0] != null) {
+      expiries.add(new Expiry(sessionId, created[0], now + idleTtlNanos));
+      evict(now);
+    }
+    return next[0];
+  }
+
+  /**
+   * Resets a session for a new user turn: every agent not already waiting for user input (e.g.
+   * still waiting for a tool call or a child agent, or finished or failed) moves to {@code
+   * WAIT_USER_INPUT}, without outstanding tool calls. Results of the previous turn arriving later
+   * are rejected as stale.
+   *
+   * @param sessionId the session identifier
+   * @return the number of agents reset
+   */
+  public int reset(String sessionId) {
+    int[] reset = new int[1];
+    sessions.computeIfPresent(
+        sessionId,
+        (key, states) -> {
+          states.touchedAt = System.nanoTime();
+          for (AgentSessionState current : states.agents.values()) {
+            if (current.state() != SessionState.WAIT_USER_INPUT || current.pendingToolCalls() > 0) {
+              replace(
+                  states,
+                  current,
+                  sessionId,
+                  current.agentIdentifier(),
+                  SessionState.WAIT_USER_INPUT,
+                  0);
+              reset[0]++;
+            }
+          }
+          return states;
+        });
+    return reset[0];
+  }
+
+  /**
+   * Returns the current state of an agent within a session.
+   *
+   * @param sessionId the session identifier
+   * @param agent the agent to look up
+   * @return the current state, or {@code null} if the agent has not entered any state yet
+   */
+  public AgentSessionState current(String sessionId, Agent agent) {
+    Assert.notNull(agent, "agent must not be null");
+    SessionStates states = sessions.get(sessionId);
+    return states == null ? null : states.agents.get(agent.getIdentifier());
+  }
+
+  /**
+   * Returns the agents currently in the given state, across all sessions.
+   *
+   * @param state the state to look up
+   * @return a live, unmodifiable and weakly consistent view of the matching entries
+   */
+  public Set<AgentSessionState> inState(SessionState state) {
+    Assert.notNull(state, "state must not be null");
+    return Collections.unmodifiableSet(byState.get(state));
+  }
+
+  /**
+   * Returns the number of agents currently in the given state, across all sessions.
+   *
+   * @param state the state to look up
+   * @return the number of matching entries
+   */
+  public int countInState(SessionState state) {
+    Assert.notNull(state, "state must not be null");
+    return byState.get(state).size();
+  }
+
+  /**
+   * Returns the number of transitions rejected since startup.
+   *
+   * @return rejected transitions
+   */
+  public long getRejectedTransitions() {
+    return rejectedTransitions.sum();
+  }
+
+  /**
+   * Returns the number of sessions tracked.
+   *
+   * @return tracked sessions
+   */
+  public int getSessionCount() {
+    return sessions.size();
+  }
+
+  /**
+   * Forgets the oldest sessions while they are idle or there are more than the maximum number of
+   * sessions.
+   */
+  private void evict(long now) {
+    Expiry oldest;
+    while ((oldest = expiries.peek()) != null) {
+      boolean full = sessions.size() > maxSessions;
+      if (!full && oldest.expiresAt() - now > 0) {
+        return;
+      }
+      if (!expiries.remove(oldest) || sessions.get(oldest.sessionId()) != oldest.states()) {
+        continue;
+      }
+      long idleAt = oldest.states().touchedAt + idleTtlNanos;
+      if (!full && idleAt - now > 0) {
+        // Active since it was queued: check it again once it may be idle.
+        expiries.add(new Expiry(oldest.sessionId(), oldest.states(), idleAt));
+        continue;
+      }
+      Expiry evicted = oldest;
+      sessions.computeIfPresent(
+          evicted.sessionId(),
+          (key, states) -> {
+            if (states != evicted.states()) {
+              return states;
+            }
+            states.agents.values().forEach(current -> byState.get(current.state()).remove(current));
+            return null;
+          });
+    }
+  }
+
+  /** Counts a rejected transition and builds the exception reporting it. */
+  private IllegalStateException rejected(
+      String sessionId, String agentIdentifier, SessionState from, SessionState to, String reason) {
+    rejectedTransitions.increment();
+    return new IllegalStateException(
+        "Invalid session state transition: sessionId="
+            + sessionId
+            + ", agent="
+            + agentIdentifier
+            + ", from="
+            + from
+            + ", to="
+            + to
+            + ", reason="
+            + reason);
+  }
+
+  /** Replaces the current state of an agent; must run within the compute step of its session. */
+  private AgentSessionState replace(
+      SessionStates states,
+      AgentSessionState current,
+      String sessionId,
+      String agentIdentifier,
+      SessionState state,
+      int pendingToolCalls) {
+    AgentSessionState next =
+        new AgentSessionState(sessionId, agentIdentifier, state, pendingToolCalls, Instant.now());
+    if (current != null) {
+      byState.get(current.state()).remove(current);
+    }
+    byState.get(state).add(next);
+    states.agents.put(agentIdentifier, next);
+    return next;
+  }
+
+  /** Current states of the agents of a session; mutated within the compute step of the session. */
+  private static final class SessionStates {
+
+    private final Map<String, AgentSessionState> agents = new ConcurrentHashMap<>();
+    private volatile long touchedAt;
+  }
+
+  private record Expiry(String sessionId, SessionStates states, long expiresAt) {}
+}
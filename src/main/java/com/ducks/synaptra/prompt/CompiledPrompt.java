@@ -0,0 +1,30 @@
+package com.ducks.synaptra.prompt;
+
+/**
+ * A prompt rendered by code generated at build time (see {@link CompiledPrompts}).
+ *
+ * <p>Agents return an instance from {@link com.ducks.synaptra.agent.Agent#getCompiledPrompt()},
+ * typically a lambda that passes the agent properties to the generated renderer:
+ *
+ * <pre>{@code
+ * private static final SupervisorPrompts PROMPTS = new SupervisorPromptsCompiled();
+ *
+ * @Override
+ * public CompiledPrompt getCompiledPrompt() {
+ *   return () -> PROMPTS.supervisor(getName(), getAgents());
+ * }
+ * }</pre>
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@FunctionalInterface
+public interface CompiledPrompt {
+
+  /**
+   * Renders the prompt.
+   *
+   * @return the rendered prompt
+   */
+  String render();
+}
@@ -0,0 +1,58 @@
+package com.ducks.synaptra.prompt;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an interface whose methods declare prompt templates to be compiled at build time.
+ *
+ * <p>Every abstract method of the interface must be annotated with {@link PromptTemplate} and
+ * return {@link String}. The method parameters are the typed template context: each parameter is
+ * available in the template under its own name. For example:
+ *
+ * <pre>{@code
+ * @CompiledPrompts
+ * public interface SupervisorPrompts {
+ *
+ *   @PromptTemplate("""
+ *       You are $name.
+ *       #foreach($agent in $agents)
+ *        - $agent.getName(): $agent.getGoal()
+ *       #end
+ *       """)
+ *   String supervisor(String name, List<Agent> agents);
+ * }
+ * }</pre>
+ *
+ * <p>The {@code synaptra-ai-prompt-processor} annotation processor generates an implementation
+ * named after the interface with a {@code Compiled} suffix (e.g. {@code SupervisorPromptsCompiled})
+ * that renders each template with plain Java code: no parsing at startup, no reflection and no
+ * introspection at render time. Template syntax errors, unknown variables and unresolvable
+ * properties or methods are reported as compilation errors.
+ *
+ * <p>The processor is enabled by adding it to the compiler annotation processor path:
+ *
+ * <pre>{@code
+ * <annotationProcessorPaths>
+ *   <path>
+ *     <groupId>com.ducks.synaptra</groupId>
+ *     <artifactId>synaptra-ai-prompt-processor</artifactId>
+ *     <version>1.0.0</version>
+ *   </path>
+ * </annotationProcessorPaths>
+ * }</pre>
+ *
+ * <p>Agents expose compiled prompts through {@link
+ * com.ducks.synaptra.agent.Agent#getCompiledPrompt()}; prompts that are not compiled keep being
+ * rendered by Velocity.
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.SOURCE)
+public @interface CompiledPrompts {}
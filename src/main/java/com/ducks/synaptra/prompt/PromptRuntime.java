@@ -0,0 +1,66 @@
+package com.ducks.synaptra.prompt;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Runtime support for renderers generated from {@link PromptTemplate}s.
+ *
+ * <p>The helpers reproduce the Velocity rendering rules the generated code relies on, so compiled
+ * templates produce the same output as their Velocity counterparts.
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+public final class PromptRuntime {
+
+  private PromptRuntime() {}
+
+  /**
+   * Appends a reference value, or the reference source text when the value renders as {@code null}
+   * (Velocity behaviour for unresolved references).
+   *
+   * @param out the output builder
+   * @param value the reference value (may be {@code null})
+   * @param literal the text rendered when the value is {@code null}
+   */
+  public static void append(StringBuilder out, Object value, String literal) {
+    String rendered = value == null ? null : value.toString();
+    out.append(rendered == null ? literal : rendered);
+  }
+
+  /**
+   * Evaluates a value as a Velocity {@code #if} condition.
+   *
+   * <p>{@code null}, {@code false}, zero numbers, empty strings, empty collections, empty maps and
+   * empty arrays are false; anything else is true.
+   *
+   * @param value the value to evaluate
+   * @return the condition result
+   */
+  public static boolean isTrue(Object value) {
+    if (value == null) {
+      return false;
+    }
+    if (value instanceof Boolean bool) {
+      return bool;
+    }
+    if (value instanceof CharSequence text) {
+      return !text.isEmpty();
+    }
+    if (value instanceof Collection<?> collection) {
+      return !collection.isEmpty();
+    }
+    if (value instanceof Map<?, ?> map) {
+      return !map.isEmpty();
+    }
+    if (value instanceof Number number) {
+      return number.doubleValue() != 0;
+    }
+    if (value.getClass().isArray()) {
+      return Array.getLength(value) > 0;
+    }
+    return true;
+  }
+}
@@ -0,0 +1,45 @@
+package com.ducks.synaptra.prompt;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the template compiled into the annotated method of a {@link CompiledPrompts} interface.
+ *
+ * <p>Templates use the Velocity syntax subset below and render exactly as Velocity would with the
+ * default configuration (including {@code lines} space gobbling):
+ *
+ * <ul>
+ *   <li>References: {@code $name}, {@code $!name}, {@code ${name}}, {@code $!{name}}, followed by
+ *       any chain of properties ({@code .goal}, resolved to {@code getGoal()}, {@code isGoal()} or
+ *       {@code Map.get("goal")}) and no-argument method calls ({@code .getGoal()})
+ *   <li>{@code #foreach($item in $reference) ... #end} over an {@link Iterable} or an object array,
+ *       including {@code $foreach.index}, {@code .count}, {@code .hasNext}, {@code .first} and
+ *       {@code .last}
+ *   <li>{@code #if($reference) ... #elseif(!$reference) ... #else ... #end}, with Velocity
+ *       truthiness ({@code null}, {@code false}, zero, empty strings and empty collections are
+ *       false)
+ *   <li>Comments: {@code ## line} and {@code #* block *#}
+ * </ul>
+ *
+ * <p>Any other directive, method arguments, index notation and escaped references are rejected at
+ * compile time; templates needing them should stay dynamic and be rendered by Velocity.
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.SOURCE)
+public @interface PromptTemplate {
+
+  /**
+   * Returns the template source.
+   *
+   * @return the template source
+   */
+  String value();
+}
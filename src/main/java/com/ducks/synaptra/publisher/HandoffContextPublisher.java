@@ -4,18 +4,23 @@ import static com.ducks.synaptra.orchestration.event.record.RecordExecutionEvent
 
 import com.ducks.synaptra.agent.Agent;
 import com.ducks.synaptra.client.openai.data.Message;
-import com.ducks.synaptra.log.LogTracer;
 import com.ducks.synaptra.memory.EpisodeMemory;
+import com.ducks.synaptra.orchestration.bus.OrchestrationEventBus;
+import com.ducks.synaptra.orchestration.cancellation.CancellationToken;
+import com.ducks.synaptra.orchestration.dedupe.ToolCallDeduplicator;
 import com.ducks.synaptra.orchestration.event.agent.contract.AgentRequestEvent;
 import com.ducks.synaptra.orchestration.event.answer.contract.AnswerResponseEvent;
 import com.ducks.synaptra.orchestration.event.tool.contract.ToolResponseEvent;
+import com.ducks.synaptra.orchestration.guard.ExecutionGuard;
+import com.ducks.synaptra.orchestration.state.SessionState;
+import com.ducks.synaptra.orchestration.state.SessionStateMachine;
 import com.ducks.synaptra.publisher.contract.RecordEvent;
 import com.ducks.synaptra.publisher.contract.RouteMapper;
-import com.ducks.synaptra.velocity.VelocityTemplateService;
+import com.ducks.synaptra.tracing.Traced;
+import com.ducks.synaptra.velocity.BuiltInPrompts;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.Optional;
-import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 /**
@@ -27,13 +32,23 @@ import org.springframework.stereotype.Service;
  * <ul>
  *   <li>Parsing the tool call arguments into a {@link RouteMapper}
  *   <li>Resolving the target {@link Agent} to execute from the current agent's available agents
+ *   <li>Moving the current agent to {@link SessionState#WAIT_AGENT_EXECUTION}
  *   <li>Registering an episodic memory record indicating that the next agent execution is pending
  *   <li>Publishing an {@link AgentRequestEvent} with a system handoff context message
  * </ul>
  *
- * <p>The produced system message is rendered with {@link VelocityTemplateService} using the routing
- * context so that the selected agent receives clear instructions about the next objective to
- * execute.
+ * <p>The produced system message is rendered with {@link BuiltInPrompts#handoff(Object)} from the
+ * routing objective so that the selected agent receives clear instructions about the next objective
+ * to execute.
+ *
+ * <p>Each routing tool call hands off at most once: a call already handled in the turn (same {@code
+ * ToolCall} id) is dropped (see {@link ToolCallDeduplicator}). Every handoff counts as a hop of the
+ * turn for the {@link ExecutionGuard}, which may end the turn instead; the hop is counted once the
+ * routing agent has moved to {@code WAIT_AGENT_EXECUTION}.
+ *
+ * <p>A routing call that cannot be handed off (unparseable arguments, unknown target agent) fails
+ * the turn through the {@link TurnFailurePublisher} instead of throwing, so the user still gets a
+ * final answer.
  *
  * @author Leandro Marques
  * @since 1.0.0
@@ -43,38 +58,39 @@ public class HandoffContextPublisher {
 
   private static final ObjectMapper MAPPER = new ObjectMapper();
 
-  /**
-   * Base system prompt injected during handoff to guide the next agent execution.
-   *
-   * <p>Rendered with the Velocity context from {@link RouteMapper#velocityContext()}.
-   */
-  private static final String BASE_PROMPT =
-      """
-          HANDOFF
-          Objective: $objective
-
-          Constraints:
-           - Do not assume missing data.
-          """;
+  /** Deduplication scope of the handoffs. */
+  private static final String DEDUPE_SCOPE = "handoff";
 
-  private final ApplicationEventPublisher publisher;
-  private final VelocityTemplateService velocityTemplateService;
+  private final OrchestrationEventBus eventBus;
   private final EpisodeMemory episodeMemory;
+  private final SessionStateMachine sessionStateMachine;
+  private final ToolCallDeduplicator toolCallDeduplicator;
+  private final ExecutionGuard executionGuard;
+  private final TurnFailurePublisher turnFailurePublisher;
 
   /**
    * Creates a new {@link HandoffContextPublisher}.
    *
-   * @param publisher Spring event publisher used to emit {@link AgentRequestEvent}s
-   * @param velocityTemplateService template renderer used to build the handoff system message
+   * @param eventBus orchestration event bus used to emit {@link AgentRequestEvent}s
    * @param episodeMemory episodic memory store used to register the routing step
+   * @param sessionStateMachine state machine tracking the routing agent state
+   * @param toolCallDeduplicator guard dropping routing tool calls already handled
+   * @param executionGuard guard enforcing the hop limits of the turn
+   * @param turnFailurePublisher publisher failing the turn when the handoff is impossible
    */
   public HandoffContextPublisher(
-      ApplicationEventPublisher publisher,
-      VelocityTemplateService velocityTemplateService,
-      EpisodeMemory episodeMemory) {
-    this.publisher = publisher;
-    this.velocityTemplateService = velocityTemplateService;
+      OrchestrationEventBus eventBus,
+      EpisodeMemory episodeMemory,
+      SessionStateMachine sessionStateMachine,
+      ToolCallDeduplicator toolCallDeduplicator,
+      ExecutionGuard executionGuard,
+      TurnFailurePublisher turnFailurePublisher) {
+    this.eventBus = eventBus;
     this.episodeMemory = episodeMemory;
+    this.sessionStateMachine = sessionStateMachine;
+    this.toolCallDeduplicator = toolCallDeduplicator;
+    this.executionGuard = executionGuard;
+    this.turnFailurePublisher = turnFailurePublisher;
   }
 
   /**
@@ -92,12 +108,37 @@ public class HandoffContextPublisher {
    *   <li>Publish the corresponding {@link AgentRequestEvent}
    * </ul>
    *
+   * <p>Nothing happens if the routing tool call was already handled for the session, and no request
+   * is published if the {@link ExecutionGuard} ends the turn. If the arguments cannot be parsed, or
+   * the target agent cannot be resolved, the turn fails instead (see {@link TurnFailurePublisher}).
+   *
    * @param toolResponseEvent the tool response event containing the routing tool call
-   * @throws RuntimeException if arguments cannot be parsed or the target agent cannot be resolved
    */
-  @LogTracer(spanName = "agent_handoff_publish_event")
+  @Traced(spanName = "agent_handoff_publish_event")
   public void publishEvent(ToolResponseEvent toolResponseEvent) {
-    publisher.publishEvent(buildAgentRequestEvent(toolResponseEvent));
+    if (!toolCallDeduplicator.firstSeen(
+        DEDUPE_SCOPE,
+        CancellationToken.current(),
+        toolResponseEvent.sessionId(),
+        toolResponseEvent.toolCall().id())) {
+      return;
+    }
+    AgentRequestEvent agentRequestEvent;
+    try {
+      agentRequestEvent = buildAgentRequestEvent(toolResponseEvent);
+    } catch (RuntimeException e) {
+      assert toolResponseEvent.agent() != null;
+      turnFailurePublisher.publishEvent(
+          toolResponseEvent.sessionId(),
+          toolResponseEvent.agent(),
+          toolResponseEvent.user(),
+          "handoff failed: " + e.getMessage(),
+          e);
+      return;
+    }
+    if (agentRequestEvent != null) {
+      eventBus.publish(agentRequestEvent);
+    }
   }
 
   /**
@@ -105,8 +146,9 @@ public class HandoffContextPublisher {
    * tool.
    *
    * <p>This method parses the routing tool arguments into a {@link RouteMapper}, resolves the
-   * target agent, registers an orchestration step into episodic memory, and finally builds the
-   * handoff system {@link Message} rendered via Velocity before returning the resulting {@link
+   * target agent, moves the routing agent to {@code WAIT_AGENT_EXECUTION}, counts the hop,
+   * registers an orchestration step into episodic memory, and finally builds the handoff system
+   * {@link Message} rendered from the routing objective before returning the resulting {@link
    * AgentRequestEvent}.
    *
    * <h3>Interim response behavior</h3>
@@ -129,9 +171,10 @@ public class HandoffContextPublisher {
    * episodic memory accurately reflects that an agent handoff is pending.
    *
    * @param toolResponseEvent the tool response event containing the routing tool call
-   * @return the constructed {@link AgentRequestEvent} to execute the resolved target agent
+   * @return the constructed {@link AgentRequestEvent} to execute the resolved target agent, or
+   *     {@code null} if the {@link ExecutionGuard} ended the turn
    * @throws RuntimeException if the routing tool arguments cannot be parsed into {@link
-   *     RouteMapper}
+   *     RouteMapper}, or the target agent cannot be resolved
    */
   private AgentRequestEvent buildAgentRequestEvent(ToolResponseEvent toolResponseEvent) {
     try {
@@ -140,7 +183,7 @@ public class HandoffContextPublisher {
 
       assert toolResponseEvent.agent() != null;
       if (toolResponseEvent.agent().isSupportsInterimMessages()) {
-        publisher.publishEvent(
+        eventBus.publish(
             new AnswerResponseEvent(
                 toolResponseEvent.sessionId(),
                 toolResponseEvent.agent(),
@@ -150,6 +193,20 @@ public class HandoffContextPublisher {
 
       Agent targetAgent = resolveTargetAgent(routeMapper, toolResponseEvent);
 
+      // Move the routing agent first: the hop only counts once the handoff is under way.
+      sessionStateMachine.transition(
+          toolResponseEvent.sessionId(),
+          toolResponseEvent.agent(),
+          SessionState.WAIT_AGENT_EXECUTION);
+      if (!executionGuard.onHop(
+          toolResponseEvent.sessionId(),
+          targetAgent,
+          routeMapper.objective(),
+          toolResponseEvent.agent(),
+          toolResponseEvent.user())) {
+        return null;
+      }
+
       // Record the orchestration step so episodic memory reflects the pending agent execution.
       episodeMemory.registerEvent(
           toolResponseEvent.sessionId(),
@@ -158,12 +215,7 @@ public class HandoffContextPublisher {
               "Waiting for agent execution: " + targetAgent.getName(), WAIT_AGENT_EXECUTION));
 
       Message handoffContext =
-          new Message(
-              "system",
-              velocityTemplateService.render(BASE_PROMPT, routeMapper.velocityContext()),
-              null,
-              null,
-              null);
+          new Message("system", BuiltInPrompts.handoff(routeMapper.objective()), null, null, null);
 
       return new AgentRequestEvent(
           toolResponseEvent.sessionId(), targetAgent, handoffContext, toolResponseEvent.user());
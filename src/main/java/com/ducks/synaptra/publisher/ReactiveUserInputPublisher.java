@@ -0,0 +1,228 @@
+package com.ducks.synaptra.publisher;
+
+import com.ducks.synaptra.agent.Agent;
+import com.ducks.synaptra.orchestration.admission.AdmissionRejectedException;
+import com.ducks.synaptra.orchestration.cancellation.CancellationToken;
+import com.ducks.synaptra.orchestration.cancellation.SessionCancellation;
+import com.ducks.synaptra.orchestration.cancellation.TurnCancelledException;
+import com.ducks.synaptra.orchestration.event.answer.AnswerExecutionListener;
+import com.ducks.synaptra.orchestration.event.answer.contract.AnswerResponseEvent;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+/**
+ * Reactive entry point running a user turn and streaming its answers.
+ *
+ * <p>{@link #run(String, Agent, String)} publishes the user input through {@link
+ * UserInputPublisher} and returns the answers of the turn as a {@link Flux}: the interim answers
+ * (e.g. progress messages before a handoff) followed by the final one, after which the flux
+ * completes (see {@link AnswerResponseEvent#isFinal()}). Callers no longer need their own {@link
+ * AnswerExecutionListener} to correlate answers with requests.
+ *
+ * <p>A turn that fails ends the flux with a {@link TurnFailedException} carrying the failure answer
+ * instead (see {@link TurnFailurePublisher}). A turn that does not end within the turn timeout
+ * (e.g. a step that never completes) ends the flux with a {@link TimeoutException}, so the session
+ * accepts a new run; the orchestration of the turn itself is not stopped.
+ *
+ * <p>Answers are collected as an {@link AnswerExecutionListener}, so they are emitted from the
+ * answer stage executor, in session order, without any extra thread or polling. Answers not yet
+ * requested by the subscriber are buffered, up to the configured buffer size; the flux fails when
+ * the buffer overflows, since the orchestration itself cannot be paused. Cancelling the
+ * subscription detaches the flux from the session; the orchestration of the turn goes on and its
+ * answers are still delivered to the other listeners.
+ *
+ * <p>Only one run may be active per session at a time. When supersede is enabled (see {@link
+ * SessionCancellation}), a new run replaces the active one instead, which fails with a {@link
+ * TurnCancelledException}.
+ *
+ * <p>Typical use, streaming a turn as server-sent events:
+ *
+ * <pre>{@code
+ * @GetMapping(path = "/sessions/{sessionId}/turns", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+ * public Flux<String> turn(@PathVariable String sessionId, @RequestParam String input) {
+ *   return reactiveUserInputPublisher
+ *       .run(sessionId, agent, input)
+ *       .map(AnswerResponseEvent::response);
+ * }
+ * }</pre>
+ *
+ * <h2>Configuration Properties</h2>
+ *
+ * <ul>
+ *   <li><b>ai.agentics.reactive.buffer-size</b> — Maximum number of answers buffered for a slow
+ *       subscriber (default {@code 256})
+ *   <li><b>ai.agentics.reactive.turn-timeout-ms</b> — Maximum time from the subscription to the
+ *       final answer of a run; {@code 0} disables (default {@code 300000})
+ * </ul>
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@Service
+public class ReactiveUserInputPublisher implements AnswerExecutionListener {
+
+  private static final Logger logger = LogManager.getLogger(ReactiveUserInputPublisher.class);
+
+  private final UserInputPublisher userInputPublisher;
+  private final SessionCancellation sessionCancellation;
+  private final int bufferSize;
+
+  /** Maximum duration of a run, or {@code null} if disabled. */
+  private final Duration turnTimeout;
+
+  /** Active runs by session identifier. */
+  private final Map<String, Sinks.Many<AnswerResponseEvent>> runs = new ConcurrentHashMap<>();
+
+  /**
+   * Creates the reactive publisher.
+   *
+   * @param userInputPublisher the publisher of the user input
+   * @param sessionCancellation tells whether a new run supersedes the active one
+   * @param bufferSize the maximum number of answers buffered for a slow subscriber
+   * @param turnTimeoutMs the maximum duration of a run ({@code 0} disables)
+   */
+  public ReactiveUserInputPublisher(
+      UserInputPublisher userInputPublisher,
+      SessionCancellation sessionCancellation,
+      @Value("${ai.agentics.reactive.buffer-size:256}") int bufferSize,
+      @Value("${ai.agentics.reactive.turn-timeout-ms:300000}") long turnTimeoutMs) {
+    Assert.isTrue(bufferSize > 0, "bufferSize must be positive");
+    Assert.isTrue(turnTimeoutMs >= 0, "turnTimeoutMs must not be negative");
+    this.userInputPublisher = userInputPublisher;
+    this.sessionCancellation = sessionCancellation;
+    this.bufferSize = bufferSize;
+    this.turnTimeout = turnTimeoutMs > 0 ? Duration.ofMillis(turnTimeoutMs) : null;
+  }
+
+  /**
+   * Runs a user turn and streams its answers.
+   *
+   * <p>Nothing is published until the returned flux is subscribed. The flux completes after the
+   * final answer of the turn, and fails with an {@link IllegalStateException} if a run is already
+   * active for the session (unless supersede is enabled) or with an {@link
+   * AdmissionRejectedException} if the session is refused by admission control. It fails with a
+   * {@link TurnCancelledException} if a newer run supersedes it, a {@link TurnFailedException} if
+   * the turn fails, or a {@link TimeoutException} if the turn does not end within the turn timeout.
+   *
+   * @param sessionId the unique identifier of the execution session (must not be blank)
+   * @param agent the agent responsible for handling the user input (must not be {@code null})
+   * @param userInput the raw input provided by the user
+   * @return the answers of the turn, the final one last
+   */
+  public Flux<AnswerResponseEvent> run(String sessionId, Agent agent, String userInput) {
+    Assert.hasText(sessionId, "sessionId must not be null or blank");
+    Assert.notNull(agent, "agent must not be null");
+
+    return Flux.defer(
+        () -> {
+          Sinks.Many<AnswerResponseEvent> sink =
+              Sinks.many()
+                  .unicast()
+                  .onBackpressureBuffer(Queues.<AnswerResponseEvent>get(bufferSize).get());
+
+          if (sessionCancellation.isSupersedeEnabled()) {
+            Sinks.Many<AnswerResponseEvent> superseded = runs.put(sessionId, sink);
+            if (superseded != null) {
+              superseded.tryEmitError(new TurnCancelledException(sessionId));
+            }
+          } else if (runs.putIfAbsent(sessionId, sink) != null) {
+            return Flux.error(
+                new IllegalStateException("A run is already active for session " + sessionId));
+          }
+
+          try {
+            userInputPublisher.publishEvent(sessionId, agent, userInput);
+          } catch (RuntimeException e) {
+            runs.remove(sessionId, sink);
+            return Flux.error(e);
+          }
+
+          return withTurnTimeout(sessionId, sink.asFlux())
+              .doFinally(signal -> runs.remove(sessionId, sink));
+        });
+  }
+
+  /** Fails the answers of a run if its final answer does not arrive within the turn timeout. */
+  private Flux<AnswerResponseEvent> withTurnTimeout(
+      String sessionId, Flux<AnswerResponseEvent> answers) {
+    if (turnTimeout == null) {
+      return answers;
+    }
+    long deadline = System.nanoTime() + turnTimeout.toNanos();
+    return answers.timeout(
+        Mono.delay(turnTimeout),
+        answer -> Mono.delay(Duration.ofNanos(Math.max(0, deadline - System.nanoTime()))),
+        Flux.error(
+            () ->
+                new TimeoutException(
+                    "Turn of session '"
+                        + sessionId
+                        + "' did not end within "
+                        + turnTimeout.toMillis()
+                        + " ms")));
+  }
+
+  /**
+   * Returns the number of sessions with an active run.
+   *
+   * @return active runs
+   */
+  public int getActiveRuns() {
+    return runs.size();
+  }
+
+  /**
+   * Emits an answer to the run of its session, completing the run after the final answer, or
+   * failing it with a {@link TurnFailedException} if the turn failed.
+   *
+   * <p>Answers of sessions without an active run, and answers of a superseded turn, are ignored.
+   *
+   * @param answerResponseEvent the answer
+   */
+  @Override
+  public void onAnswerExecutionResponseEvent(AnswerResponseEvent answerResponseEvent) {
+    Sinks.Many<AnswerResponseEvent> sink = runs.get(answerResponseEvent.sessionId());
+    if (sink == null || CancellationToken.isCancelled(CancellationToken.current())) {
+      return;
+    }
+
+    if (answerResponseEvent.isFailed()) {
+      runs.remove(answerResponseEvent.sessionId(), sink);
+      sink.tryEmitError(
+          new TurnFailedException(answerResponseEvent.sessionId(), answerResponseEvent.response()));
+      return;
+    }
+
+    Sinks.EmitResult result = sink.tryEmitNext(answerResponseEvent);
+    if (result.isFailure()) {
+      logger.warn(
+          "[REACTIVE_RUN_EMIT_FAILED] sessionId={}, result={}",
+          answerResponseEvent.sessionId(),
+          result);
+      runs.remove(answerResponseEvent.sessionId(), sink);
+      sink.tryEmitError(
+          new IllegalStateException(
+              "Failed to emit answer for session "
+                  + answerResponseEvent.sessionId()
+                  + ": "
+                  + result));
+      return;
+    }
+
+    if (answerResponseEvent.isFinal()) {
+      runs.remove(answerResponseEvent.sessionId(), sink);
+      sink.tryEmitComplete();
+    }
+  }
+}
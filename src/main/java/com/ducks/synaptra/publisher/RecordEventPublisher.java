@@ -1,12 +1,12 @@
 package com.ducks.synaptra.publisher;
 
-import com.ducks.synaptra.log.LogTracer;
+import com.ducks.synaptra.orchestration.bus.OrchestrationEventBus;
 import com.ducks.synaptra.orchestration.event.record.contract.RecordRequestEvent;
 import com.ducks.synaptra.orchestration.event.tool.contract.ToolResponseEvent;
 import com.ducks.synaptra.publisher.contract.RecordEvent;
+import com.ducks.synaptra.tracing.Traced;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 /**
@@ -15,7 +15,7 @@ import org.springframework.stereotype.Service;
  * <p>This publisher supports two main use cases:
  *
  * <ol>
- *   <li>Forward an already built {@link RecordRequestEvent} to the application event bus.
+ *   <li>Forward an already built {@link RecordRequestEvent} to the orchestration event bus.
  *   <li>Build a {@link RecordRequestEvent} from a {@link ToolResponseEvent} when an agent invokes
  *       the internal tool function <strong>{@code record_event}</strong>. In this case, the tool
  *       arguments are expected to match the {@link RecordEvent} contract (e.g. {@code status} and
@@ -32,8 +32,8 @@ import org.springframework.stereotype.Service;
 @Service
 public class RecordEventPublisher {
 
-  /** Spring application event publisher used to dispatch record events. */
-  private final ApplicationEventPublisher publisher;
+  /** Orchestration event bus used to dispatch record events. */
+  private final OrchestrationEventBus eventBus;
 
   /** JSON mapper used to parse internal tool arguments into {@link RecordEvent}. */
   private final ObjectMapper mapper;
@@ -41,10 +41,10 @@ public class RecordEventPublisher {
   /**
    * Creates a new record event publisher.
    *
-   * @param publisher the Spring event publisher used to dispatch {@link RecordRequestEvent} events
+   * @param eventBus the orchestration event bus used to dispatch {@link RecordRequestEvent} events
    */
-  public RecordEventPublisher(ApplicationEventPublisher publisher) {
-    this.publisher = publisher;
+  public RecordEventPublisher(OrchestrationEventBus eventBus) {
+    this.eventBus = eventBus;
     this.mapper = new ObjectMapper();
   }
 
@@ -66,22 +66,22 @@ public class RecordEventPublisher {
    * @param toolResponseEvent the tool response event containing the tool call and its arguments
    * @throws RuntimeException if the tool arguments cannot be parsed into a {@link RecordEvent}
    */
-  @LogTracer(spanName = "publish_record_event_from_tool_call")
+  @Traced(spanName = "publish_record_event_from_tool_call")
   public void publishEvent(ToolResponseEvent toolResponseEvent) {
-    publisher.publishEvent(buildRecordRequestEvent(toolResponseEvent));
+    eventBus.publish(buildRecordRequestEvent(toolResponseEvent));
   }
 
   /**
-   * Publishes the given {@link RecordRequestEvent} to the application event bus.
+   * Publishes the given {@link RecordRequestEvent} to the orchestration event bus.
    *
    * <p>This overload is used when the {@link RecordRequestEvent} has already been assembled by an
    * upstream component and only needs to be dispatched.
    *
    * @param recordRequestEvent the event to publish
    */
-  @LogTracer(spanName = "publish_record_request_event")
+  @Traced(spanName = "publish_record_request_event")
   public void publishEvent(RecordRequestEvent recordRequestEvent) {
-    publisher.publishEvent(recordRequestEvent);
+    eventBus.publish(recordRequestEvent);
   }
 
   /**
@@ -0,0 +1,45 @@
+package com.ducks.synaptra.publisher;
+
+/**
+ * Signals that a user turn failed before it completed (see {@link TurnFailurePublisher}).
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+public class TurnFailedException extends RuntimeException {
+
+  private static final long serialVersionUID = 1L;
+
+  private final String sessionId;
+  private final String answer;
+
+  /**
+   * Creates a new {@link TurnFailedException}.
+   *
+   * @param sessionId the session of the failed turn
+   * @param answer the failure answer of the turn, meant for the user
+   */
+  public TurnFailedException(String sessionId, String answer) {
+    super("Turn of session '" + sessionId + "' failed");
+    this.sessionId = sessionId;
+    this.answer = answer;
+  }
+
+  /**
+   * Returns the session of the failed turn.
+   *
+   * @return the session identifier
+   */
+  public String getSessionId() {
+    return sessionId;
+  }
+
+  /**
+   * Returns the failure answer of the turn, meant for the user.
+   *
+   * @return the failure answer
+   */
+  public String getAnswer() {
+    return answer;
+  }
+}
@@ -0,0 +1,233 @@
+package com.ducks.synaptra.publisher;
+
+import com.ducks.synaptra.agent.Agent;
+import com.ducks.synaptra.client.openai.data.Message;
+import com.ducks.synaptra.metrics.SynaptraMetrics;
+import com.ducks.synaptra.orchestration.admission.AdmissionController;
+import com.ducks.synaptra.orchestration.bus.OrchestrationEventBus;
+import com.ducks.synaptra.orchestration.cancellation.CancellationToken;
+import com.ducks.synaptra.orchestration.cancellation.SessionCancellation;
+import com.ducks.synaptra.orchestration.cancellation.SessionCancellation.Turn;
+import com.ducks.synaptra.orchestration.event.answer.contract.AnswerResponseEvent;
+import com.ducks.synaptra.orchestration.event.record.RecordExecutionEvent;
+import com.ducks.synaptra.orchestration.event.record.contract.RecordRequestEvent;
+import com.ducks.synaptra.orchestration.guard.ExecutionGuard;
+import com.ducks.synaptra.orchestration.mailbox.SessionMailbox;
+import com.ducks.synaptra.orchestration.state.SessionState;
+import com.ducks.synaptra.publisher.contract.RecordEvent;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+/**
+ * Ends a user turn that cannot proceed.
+ *
+ * <p>A step of the orchestration may fail in a way that leaves nothing to publish next (e.g. an
+ * unparseable routing call, a target agent that does not exist, an OpenAI call without response, or
+ * a task failed or refused by the {@link SessionMailbox}). Instead of letting the exception escape,
+ * and the turn hold its admission slot while waiting forever for an answer, the step reports the
+ * failure here: a {@link RecordExecutionEvent#FAILED} record is published for the root agent, whose
+ * content is the configured failure answer. The record ends the turn like a {@code FINISHED} one,
+ * and the user receives the failure answer as the final answer of the turn (see {@link
+ * SessionState#FAILED} and {@link AnswerResponseEvent#isFailed()}).
+ *
+ * <p>A turn whose admission slot expired is failed the same way (see {@link
+ * #publishExpired(Turn)}), so its user receives the failure answer instead of waiting for an answer
+ * that may never come.
+ *
+ * <p>The failure reason is logged, but never sent to the user. Only the first failure of a turn is
+ * reported; if the failure record itself cannot be handled, the turn is ended without an answer
+ * (its admission slot is released, see {@link AdmissionController}).
+ *
+ * <h2>Configuration Properties</h2>
+ *
+ * <ul>
+ *   <li><b>ai.agentics.turn.failure-answer</b> — Final answer sent to the user when a turn fails
+ * </ul>
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@Service
+public class TurnFailurePublisher {
+
+  private static final Logger logger = LogManager.getLogger(TurnFailurePublisher.class);
+
+  private final OrchestrationEventBus eventBus;
+  private final SessionCancellation sessionCancellation;
+  private final AdmissionController admissionController;
+  private final ExecutionGuard executionGuard;
+  private final SynaptraMetrics synaptraMetrics;
+  private final String failureAnswer;
+
+  private final LongAdder failedTurns = new LongAdder();
+
+  /**
+   * Creates the publisher.
+   *
+   * @param eventBus the bus used to publish the failure record
+   * @param sessionCancellation the running turns, reported once
+   * @param admissionController the admission slots released by turns ended without an answer
+   * @param executionGuard the guard counting the hops of the turn
+   * @param synaptraMetrics the metrics recording the end of the turn
+   * @param failureAnswer final answer sent to the user when a turn fails
+   */
+  public TurnFailurePublisher(
+      OrchestrationEventBus eventBus,
+      SessionCancellation sessionCancellation,
+      AdmissionController admissionController,
+      ExecutionGuard executionGuard,
+      SynaptraMetrics synaptraMetrics,
+      @Value(
+              "${ai.agentics.turn.failure-answer:Sorry, something went wrong while processing your"
+                  + " request. Please try again.}")
+          String failureAnswer) {
+    Assert.hasText(failureAnswer, "failureAnswer must not be null or blank");
+    this.eventBus = eventBus;
+    this.sessionCancellation = sessionCancellation;
+    this.admissionController = admissionController;
+    this.executionGuard = executionGuard;
+    this.synaptraMetrics = synaptraMetrics;
+    this.failureAnswer = failureAnswer;
+  }
+
+  /**
+   * Fails the turn of a session, as if its root agent had failed.
+   *
+   * @param sessionId the session identifier
+   * @param agent the agent of the failed step, used to find the root agent
+   * @param user the user message of the turn
+   * @param reason the failure, logged only
+   */
+  public void publishEvent(String sessionId, Agent agent, @Nullable Message user, String reason) {
+    publishEvent(sessionId, agent, user, reason, null);
+  }
+
+  /**
+   * Fails the turn of a session, as if its root agent had failed.
+   *
+   * @param sessionId the session identifier
+   * @param agent the agent of the failed step, used to find the root agent
+   * @param user the user message of the turn
+   * @param reason the failure, logged only
+   * @param cause the exception behind the failure, if any
+   */
+  public void publishEvent(
+      String sessionId,
+      Agent agent,
+      @Nullable Message user,
+      String reason,
+      @Nullable Throwable cause) {
+    Assert.notNull(agent, "agent must not be null");
+    Turn turn = sessionCancellation.turnOf(sessionId);
+    if (turn != null && !sessionCancellation.failTurn(turn)) {
+      abort(sessionId, agent, reason, cause);
+      return;
+    }
+
+    failedTurns.increment();
+    logger.warn(
+        "[TURN_FAILED] sessionId={}, agent={}, reason={}",
+        sessionId,
+        agent.getIdentifier(),
+        reason,
+        cause);
+
+    publishFailureRecord(sessionId, agent, user);
+  }
+
+  /**
+   * Fails a turn whose admission slot expired (see {@link AdmissionController}).
+   *
+   * <p>The failure answer becomes the final answer of the turn once the failure record is handled;
+   * work the turn still runs goes on, but cannot end the turn again. Nothing happens if the turn
+   * already failed or ended.
+   *
+   * @param turn the expired turn
+   */
+  public void publishExpired(Turn turn) {
+    Assert.notNull(turn, "turn must not be null");
+    String sessionId = turn.token().getSessionId();
+    if (!sessionCancellation.failTurn(turn)) {
+      logger.debug("[TURN_FAILURE_IGNORED] sessionId={}, reason=turn expired", sessionId);
+      return;
+    }
+
+    failedTurns.increment();
+    logger.warn(
+        "[TURN_FAILED] sessionId={}, agent={}, reason=turn expired",
+        sessionId,
+        turn.agent().getIdentifier());
+    CancellationToken.runWith(
+        turn.token(),
+        () ->
+            publishFailureRecord(
+                sessionId, turn.agent(), new Message("user", turn.userInput(), null, null, null)));
+  }
+
+  /** Publishes the failure record of the root agent, ending the turn with the failure answer. */
+  private void publishFailureRecord(String sessionId, Agent agent, @Nullable Message user) {
+    Agent root = agent;
+    while (root.getParent() != null) {
+      root = root.getParent();
+    }
+    eventBus.publish(
+        new RecordRequestEvent(
+            sessionId, root, user, new RecordEvent(failureAnswer, RecordExecutionEvent.FAILED)));
+  }
+
+  /**
+   * Fails the turn the current work of a session belongs to, when the failed step has no agent at
+   * hand (e.g. a task of the {@link SessionMailbox}); the agent that received the user input is
+   * used instead. Nothing happens if the work belongs to no running turn, or to a cancelled one.
+   *
+   * @param sessionId the session identifier
+   * @param reason the failure, logged only
+   * @param cause the exception behind the failure, if any
+   */
+  public void publishEvent(String sessionId, String reason, @Nullable Throwable cause) {
+    Turn turn = sessionCancellation.turnOf(sessionId);
+    if (turn == null || turn.token().isCancelled()) {
+      logger.debug("[TURN_FAILURE_IGNORED] sessionId={}, reason={}", sessionId, reason);
+      return;
+    }
+    CancellationToken.runWith(
+        turn.token(),
+        () ->
+            publishEvent(
+                sessionId,
+                turn.agent(),
+                new Message("user", turn.userInput(), null, null, null),
+                reason,
+                cause));
+  }
+
+  /** Ends a turn whose failure could not be reported, without an answer. */
+  private void abort(String sessionId, Agent agent, String reason, @Nullable Throwable cause) {
+    if (!sessionCancellation.endTurn(sessionId)) {
+      logger.debug("[TURN_FAILURE_IGNORED] sessionId={}, reason={}", sessionId, reason);
+      return;
+    }
+    logger.error(
+        "[TURN_ABORTED] sessionId={}, agent={}, reason={}",
+        sessionId,
+        agent.getIdentifier(),
+        reason,
+        cause);
+    admissionController.release(CancellationToken.current());
+    synaptraMetrics.turnEnded(executionGuard.finishTurn(sessionId));
+  }
+
+  /**
+   * Returns the number of turns failed since startup.
+   *
+   * @return failed turns
+   */
+  public long getFailedTurns() {
+    return failedTurns.sum();
+  }
+}
@@ -2,18 +2,26 @@ package com.ducks.synaptra.publisher;
 
 import com.ducks.synaptra.agent.Agent;
 import com.ducks.synaptra.client.openai.data.Message;
-import com.ducks.synaptra.log.LogTracer;
+import com.ducks.synaptra.config.ExecutionStage;
 import com.ducks.synaptra.memory.EpisodeMemory;
+import com.ducks.synaptra.memory.EpisodicContextRenderer;
+import com.ducks.synaptra.orchestration.admission.AdmissionController;
+import com.ducks.synaptra.orchestration.admission.AdmissionRejectedException;
+import com.ducks.synaptra.orchestration.bus.OrchestrationEventBus;
+import com.ducks.synaptra.orchestration.cancellation.CancellationToken;
+import com.ducks.synaptra.orchestration.cancellation.SessionCancellation;
+import com.ducks.synaptra.orchestration.cancellation.SessionCancellation.Turn;
+import com.ducks.synaptra.orchestration.cancellation.SessionCancellation.TurnStart;
 import com.ducks.synaptra.orchestration.event.agent.contract.AgentRequestEvent;
+import com.ducks.synaptra.orchestration.event.record.RecordExecutionEvent;
+import com.ducks.synaptra.orchestration.guard.ExecutionGuard;
+import com.ducks.synaptra.orchestration.mailbox.SessionMailbox;
+import com.ducks.synaptra.orchestration.state.SessionStateMachine;
 import com.ducks.synaptra.publisher.contract.RecordEvent;
-import com.ducks.synaptra.velocity.VelocityTemplateService;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import com.ducks.synaptra.tracing.Traced;
+import com.ducks.synaptra.tracing.TracingLevel;
 import lombok.RequiredArgsConstructor;
-import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.util.CollectionUtils;
 
 /**
  * Publishes user input as an agent execution request, enriching it with episodic execution context
@@ -34,6 +42,19 @@ import org.springframework.util.CollectionUtils;
  *   <li>Execution state remains consistent across multi-turn interactions
  * </ul>
  *
+ * <p>Every request goes through the {@link AdmissionController} first: when the orchestration is at
+ * capacity, the request is queued (and its episodic context built only once it is admitted), or
+ * refused for a new session when the admission queue is full.
+ *
+ * <p>When supersede is enabled, a request for a session whose previous turn is still running
+ * cancels that turn once admitted (see {@link SessionCancellation}). Every request also starts a
+ * fresh {@link ExecutionGuard} budget for the session.
+ *
+ * <p>The turn then starts in the {@link SessionMailbox}, after the work already queued for the
+ * session: a superseded turn is recorded as a {@link RecordExecutionEvent#SUPERSEDED} record, the
+ * {@link SessionStateMachine} is reset for the new turn (unless an older turn still runs alongside
+ * it), and only then the episodic context is built and the request published.
+ *
  * <p>This component acts as the boundary between the interaction layer and the orchestration layer,
  * ensuring that user intent is contextualized before triggering agent execution.
  *
@@ -44,9 +65,14 @@ import org.springframework.util.CollectionUtils;
 @Service
 public class UserInputPublisher {
 
+  private final EpisodicContextRenderer episodicContextRenderer;
+  private final OrchestrationEventBus eventBus;
+  private final AdmissionController admissionController;
+  private final SessionCancellation sessionCancellation;
+  private final ExecutionGuard executionGuard;
+  private final SessionMailbox sessionMailbox;
+  private final SessionStateMachine sessionStateMachine;
   private final EpisodeMemory episodeMemory;
-  private final VelocityTemplateService velocityTemplateService;
-  private final ApplicationEventPublisher publisher;
 
   /**
    * Publishes a new agent execution request based on user input.
@@ -55,13 +81,54 @@ public class UserInputPublisher {
    * episodic execution context when the agent has already processed previous steps in the same
    * session.
    *
+   * <p>The request is published once admitted by the {@link AdmissionController}, which may be
+   * after this method returns.
+   *
    * @param sessionId the unique identifier of the execution session
    * @param agent the agent responsible for handling the user input
    * @param userInput the raw input provided by the user
+   * @throws AdmissionRejectedException if the session is new and the admission queue is full
    */
-  @LogTracer(spanName = "publish_agent_execution_event")
+  @Traced(spanName = "publish_agent_execution_event", level = TracingLevel.SESSION)
   public void publishEvent(String sessionId, Agent agent, String userInput) {
-    publisher.publishEvent(buildAgentRequestEvent(sessionId, agent, userInput));
+    Turn turn = sessionCancellation.newTurn(sessionId, agent, userInput);
+    admissionController.admit(turn, () -> startTurn(sessionId, agent, userInput, turn));
+  }
+
+  private void startTurn(String sessionId, Agent agent, String userInput, Turn turn) {
+    TurnStart turnStart = sessionCancellation.startTurn(turn);
+    if (turnStart.superseded()) {
+      // The cancelled turn never ends by itself: its admission slot is given up here.
+      admissionController.release(turnStart.previous().token());
+    }
+    executionGuard.startTurn(sessionId, turnStart.turn().token());
+    CancellationToken.runWith(
+        turnStart.turn().token(),
+        () ->
+            sessionMailbox.submit(
+                sessionId,
+                ExecutionStage.RECORD,
+                () -> beginTurn(sessionId, agent, userInput, turnStart)));
+  }
+
+  private void beginTurn(String sessionId, Agent agent, String userInput, TurnStart turnStart) {
+    if (turnStart.superseded()) {
+      // Record the cancelled turn first, so the episodic context of the new turn includes it.
+      Turn previous = turnStart.previous();
+      episodeMemory.registerEvent(
+          sessionId,
+          previous.agent(),
+          new RecordEvent(
+              "The user sent a new message before the previous request was completed; the"
+                  + " processing of the previous request was cancelled. Previous request: "
+                  + previous.userInput(),
+              RecordExecutionEvent.SUPERSEDED));
+    }
+    if (turnStart.previous() == null || turnStart.superseded()) {
+      // Agents of the session no longer wait for what the previous turn started.
+      sessionStateMachine.reset(sessionId);
+    }
+    eventBus.publish(buildAgentRequestEvent(sessionId, agent, userInput));
   }
 
   private AgentRequestEvent buildAgentRequestEvent(
@@ -78,7 +145,9 @@ public class UserInputPublisher {
    * <p>This method is responsible for restoring historical execution context from the episodic
    * memory associated with the given session and agent. The generated system message summarizes
    * previously processed events and is injected into the agent prompt to ensure continuity of the
-   * execution flow.
+   * execution flow. Rendering is delegated to {@link EpisodicContextRenderer}, which renders either
+   * the whole timeline or the configured window of it (the last events and/or the events since a
+   * given status).
    *
    * <p>The episodic context allows the agent to:
    *
@@ -99,33 +168,9 @@ public class UserInputPublisher {
    *     no episodic memory exists for the given session and agent
    */
   private Message getEpisodicContext(String sessionId, Agent agent) {
-    List<RecordEvent> recordEventList = episodeMemory.getEpisodeMemory(sessionId, agent);
-
-    if (!CollectionUtils.isEmpty(recordEventList)) {
-      Map<String, Object> velocityContext = new HashMap<>();
-      velocityContext.put("records", recordEventList);
-
-      String episodicContextPrompt =
-          """
-                  EPISODIC_MEMORY_CONTEXT
-                  Purpose:
-                  This section summarizes what has already happened in the current session.
-                  It exists to ensure continuity and avoid repetition.
-
-                  The last events:
-                  #foreach($record in $records)
-                   # Event - status: $record.status(), content: $record.content()
-                  #end
-
-                  Constraints:
-                  - Do not repeat previously asked questions.
-                  - Do not redo completed steps.
-                  - Resume execution from the last known state.
-                  """;
-
-      episodicContextPrompt =
-          velocityTemplateService.render(episodicContextPrompt, velocityContext);
+    String episodicContextPrompt = episodicContextRenderer.renderEpisodicContext(sessionId, agent);
 
+    if (episodicContextPrompt != null) {
       return new Message("system", episodicContextPrompt, null, null, null);
     }
     return null;
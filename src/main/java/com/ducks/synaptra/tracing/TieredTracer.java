@@ -0,0 +1,216 @@
+package com.ducks.synaptra.tracing;
+
+import com.ducks.synaptra.log.tracing.SpanManager;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the orchestration spans according to the configured {@link TracingLevel}.
+ *
+ * <p>Every orchestration method used to open a span, so a user turn produced dozens of spans, most
+ * of them around sub-microsecond work such as episodic memory reads. The tiered tracer only opens a
+ * span for the methods whose level is included in the configured level:
+ *
+ * <ul>
+ *   <li>Methods annotated with {@link Traced} are intercepted (see {@link
+ *       TracedMethodPostProcessor}); an included invocation runs in its own span, which is current
+ *       while the method runs
+ *   <li>An excluded invocation only increments a counter (see {@link #getInvocationCount(String)})
+ *       and, unless tracing is {@link TracingLevel#OFF}, is recorded as an event of the current
+ *       span, if any
+ *   <li>Manual spans, such as the LLM call span, are created through {@link
+ *       #startSpan(TracingLevel, String)}, which returns {@code null} when the level is excluded;
+ *       the other methods accept that {@code null} span
+ * </ul>
+ *
+ * <h2>Configuration Properties</h2>
+ *
+ * <ul>
+ *   <li><b>ai.agentics.tracing.level</b> — {@code OFF}, {@code SESSION}, {@code HOP} or {@code
+ *       DETAIL} (default {@code HOP})
+ * </ul>
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@Component
+public class TieredTracer implements MethodInterceptor {
+
+  private final SpanManager spanManager;
+  private final Tracer tracer;
+  private final TracingLevel level;
+
+  /** {@link Traced} annotation and counter of the intercepted methods. */
+  private final Map<Method, TracedMethod> tracedMethods = new ConcurrentHashMap<>();
+
+  /** Invocations that did not get a span, by span name. */
+  private final Map<String, LongAdder> invocationCounts = new ConcurrentHashMap<>();
+
+  /**
+   * Creates the tracer.
+   *
+   * @param spanManager the manager creating and ending spans
+   * @param tracer the tracer making spans current
+   * @param level {@code OFF}, {@code SESSION}, {@code HOP} or {@code DETAIL}
+   * @throws IllegalArgumentException if the level is unknown
+   */
+  public TieredTracer(
+      SpanManager spanManager,
+      Tracer tracer,
+      @Value("${ai.agentics.tracing.level:HOP}") String level) {
+    this.spanManager = spanManager;
+    this.tracer = tracer;
+    this.level = parse(level);
+  }
+
+  /**
+   * Tells whether spans of a level are created.
+   *
+   * @param level the level of the span
+   * @return {@code true} if the span is created
+   */
+  public boolean isEnabled(TracingLevel level) {
+    return this.level.includes(level);
+  }
+
+  /**
+   * Starts a span of a level, if included in the configured level.
+   *
+   * @param level the level of the span
+   * @param spanName the span name
+   * @return the span, or {@code null} if the level is excluded
+   */
+  public Span startSpan(TracingLevel level, String spanName) {
+    return isEnabled(level) ? spanManager.createSpan(spanName) : null;
+  }
+
+  /**
+   * Adds an event to a span.
+   *
+   * @param span the span (may be {@code null})
+   * @param event the event
+   */
+  public void addEvent(Span span, String event) {
+    if (span != null) {
+      spanManager.addEvent(span, event);
+    }
+  }
+
+  /**
+   * Ends a span.
+   *
+   * @param span the span (may be {@code null})
+   */
+  public void endSpan(Span span) {
+    if (span != null) {
+      spanManager.endSpan(span);
+    }
+  }
+
+  /**
+   * Makes a span current.
+   *
+   * @param span the span (may be {@code null})
+   * @return the scope to close, or {@code null} if there is no span, which try-with-resources
+   *     accepts
+   */
+  public Tracer.SpanInScope withSpan(Span span) {
+    return span != null ? tracer.withSpan(span) : null;
+  }
+
+  /**
+   * Returns the configured tracing level.
+   *
+   * @return the tracing level
+   */
+  public TracingLevel getLevel() {
+    return level;
+  }
+
+  /**
+   * Returns the number of invocations of a {@link Traced} method that did not get a span since
+   * startup.
+   *
+   * @param spanName the span name of the method
+   * @return invocations without span
+   */
+  public long getInvocationCount(String spanName) {
+    LongAdder count = invocationCounts.get(spanName);
+    return count != null ? count.sum() : 0;
+  }
+
+  /**
+   * Runs a {@link Traced} method in its own span, or records it as an event if its level is
+   * excluded.
+   *
+   * @param invocation the method invocation
+   * @return the method result
+   * @throws Throwable the method failure
+   */
+  @Override
+  @SuppressWarnings("try") // the span scope is only closed, never read
+  public Object invoke(MethodInvocation invocation) throws Throwable {
+    TracedMethod tracedMethod = tracedMethod(invocation.getMethod());
+    if (tracedMethod == null) {
+      return invocation.proceed();
+    }
+
+    Traced traced = tracedMethod.traced();
+    if (!tracedMethod.spanned()) {
+      tracedMethod.invocations().increment();
+      if (level != TracingLevel.OFF) {
+        addEvent(tracer.currentSpan(), traced.spanName());
+      }
+      return invocation.proceed();
+    }
+
+    Span span = spanManager.createSpan(traced.spanName());
+    try (Tracer.SpanInScope ignored = withSpan(span)) {
+      return invocation.proceed();
+    } catch (Throwable ex) {
+      addEvent(span, traced.spanName() + "_failed: " + ex.getClass().getSimpleName());
+      throw ex;
+    } finally {
+      endSpan(span);
+    }
+  }
+
+  private TracedMethod tracedMethod(Method method) {
+    TracedMethod tracedMethod = tracedMethods.get(method);
+    if (tracedMethod == null) {
+      Traced traced = AnnotatedElementUtils.findMergedAnnotation(method, Traced.class);
+      if (traced == null) {
+        return null;
+      }
+      tracedMethod =
+          new TracedMethod(
+              traced,
+              isEnabled(traced.level()),
+              invocationCounts.computeIfAbsent(traced.spanName(), key -> new LongAdder()));
+      tracedMethods.put(method, tracedMethod);
+    }
+    return tracedMethod;
+  }
+
+  private static TracingLevel parse(String level) {
+    for (TracingLevel candidate : TracingLevel.values()) {
+      if (candidate.name().equalsIgnoreCase(level.trim())) {
+        return candidate;
+      }
+    }
+    throw new IllegalArgumentException(
+        "Unknown ai.agentics.tracing.level '" + level + "' (expected OFF, SESSION, HOP or DETAIL)");
+  }
+
+  /** Resolved {@link Traced} method: its annotation, whether it gets a span and its counter. */
+  private record TracedMethod(Traced traced, boolean spanned, LongAdder invocations) {}
+}
@@ -0,0 +1,40 @@
+package com.ducks.synaptra.tracing;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a bean method whose invocations are traced by the {@link TieredTracer}.
+ *
+ * <p>The invocation gets its own span only when the configured {@link TracingLevel} includes the
+ * {@link #level()} of the method; otherwise it is counted, and recorded as an event of the current
+ * span if any.
+ *
+ * <p>Like any Spring proxy-based advice, only calls through the bean reference are traced: calls of
+ * a bean to its own methods are not.
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Traced {
+
+  /**
+   * Returns the name of the span (or span event) of the invocation.
+   *
+   * @return the span name
+   */
+  String spanName();
+
+  /**
+   * Returns the coarsest tracing level creating a span for the invocation.
+   *
+   * @return the tracing level
+   */
+  TracingLevel level() default TracingLevel.HOP;
+}
@@ -0,0 +1,42 @@
+package com.ducks.synaptra.tracing;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.util.function.SingletonSupplier;
+
+/**
+ * Proxies the beans having {@link Traced} methods so their invocations go through the {@link
+ * TieredTracer}.
+ *
+ * <p>Beans are proxied by subclass, so they are still injected by their class. The tracer is
+ * resolved once, on the first traced invocation: post-processors are created before the other
+ * beans, and resolving the tracer (and its span manager) eagerly would exclude them from
+ * post-processing.
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@Component
+public final class TracedMethodPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Creates the post-processor.
+   *
+   * @param tieredTracer provider of the tracer intercepting the traced methods
+   */
+  public TracedMethodPostProcessor(ObjectProvider<TieredTracer> tieredTracer) {
+    SingletonSupplier<TieredTracer> tracer = SingletonSupplier.of(tieredTracer::getObject);
+    MethodInterceptor interceptor = invocation -> tracer.obtain().invoke(invocation);
+    this.advisor =
+        new DefaultPointcutAdvisor(
+            new AnnotationMatchingPointcut(null, Traced.class, true), interceptor);
+    setBeforeExistingAdvisors(true);
+    setProxyTargetClass(true);
+  }
+}
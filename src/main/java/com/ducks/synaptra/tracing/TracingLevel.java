@@ -0,0 +1,45 @@
+package com.ducks.synaptra.tracing;
+
+/**
+ * Granularity of the spans created for the orchestration.
+ *
+ * <p>Levels are ordered from the coarsest to the finest: a level creates the spans of its own level
+ * and of every coarser level. Methods annotated with {@link Traced} above the configured level do
+ * not get a span (see {@link TieredTracer}).
+ *
+ * <ul>
+ *   <li>{@link #OFF}: no span at all
+ *   <li>{@link #SESSION}: one span per user turn boundary (turn start, final answer delivery)
+ *   <li>{@link #HOP}: one span per orchestration step (agent request, LLM call, tool call, handoff,
+ *       record)
+ *   <li>{@link #DETAIL}: every traced method, including sub-microsecond ones such as episodic
+ *       memory reads
+ * </ul>
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+public enum TracingLevel {
+
+  /** No span. */
+  OFF,
+
+  /** User turn boundaries. */
+  SESSION,
+
+  /** Orchestration steps. */
+  HOP,
+
+  /** Every traced method. */
+  DETAIL;
+
+  /**
+   * Tells whether a span of the given level is created when this level is configured.
+   *
+   * @param level the level of the span
+   * @return {@code true} if the span is created
+   */
+  public boolean includes(TracingLevel level) {
+    return this != OFF && level != OFF && compareTo(level) >= 0;
+  }
+}
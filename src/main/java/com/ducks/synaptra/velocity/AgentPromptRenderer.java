@@ -0,0 +1,212 @@
+package com.ducks.synaptra.velocity;
+
+import com.ducks.synaptra.agent.Agent;
+import com.ducks.synaptra.prompt.CompiledPrompt;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+/**
+ * Renders and caches the system prompt of each {@link Agent}.
+ *
+ * <p>The system prompt is {@link Agent#getPrompt()} rendered against {@link
+ * Agent#getVelocityContext()}. It is needed on every agent request, yet it only changes when the
+ * agent definition changes (for supervisors, rendering includes iterating all child agents). The
+ * rendered prompt is therefore cached per agent identifier:
+ *
+ * <ul>
+ *   <li>Agents that declare {@link Agent#isPromptStatic()} are rendered once; later requests only
+ *       check that the prompt template is unchanged and never build the Velocity context
+ *   <li>For other agents, a cheap fingerprint of the Velocity context is compared first, and a
+ *       matching fingerprint is confirmed with a full equality check of the prompt template and the
+ *       context before the cached prompt is reused
+ * </ul>
+ *
+ * <p>Agents providing a {@link Agent#getCompiledPrompt() compiled prompt} are rendered by it
+ * instead of Velocity; since compiled rendering is cheap, only static compiled prompts are cached.
+ *
+ * <p>The fingerprint covers strings, numbers, booleans, enums, collections and maps structurally,
+ * and agents through their identifier, name and goal, so in-place changes of child agents are
+ * detected even though agents are compared by identity.
+ *
+ * <h2>Configuration Properties</h2>
+ *
+ * <ul>
+ *   <li><b>ai.agentics.velocity.agent-prompt-cache.max-size</b> — Maximum number of agents whose
+ *       rendered prompt is cached; {@code 0} disables the cache (default {@code 512})
+ * </ul>
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@Service
+public class AgentPromptRenderer {
+
+  private final VelocityTemplateService velocityTemplateService;
+  private final int maxCacheSize;
+
+  /** Rendered prompts keyed by agent identifier. */
+  private final Map<String, RenderedPrompt> prompts = new ConcurrentHashMap<>();
+
+  private final LongAdder cacheHits = new LongAdder();
+  private final LongAdder cacheMisses = new LongAdder();
+
+  /**
+   * Creates the renderer.
+   *
+   * @param velocityTemplateService the service used to render agent prompts
+   * @param maxCacheSize the maximum number of cached agent prompts ({@code 0} disables caching)
+   */
+  public AgentPromptRenderer(
+      VelocityTemplateService velocityTemplateService,
+      @Value("${ai.agentics.velocity.agent-prompt-cache.max-size:512}") int maxCacheSize) {
+    this.velocityTemplateService = velocityTemplateService;
+    this.maxCacheSize = maxCacheSize;
+  }
+
+  /**
+   * Returns the rendered system prompt of the given agent.
+   *
+   * @param agent the agent whose prompt is rendered (must not be {@code null})
+   * @return the rendered system prompt
+   */
+  public String renderSystemPrompt(Agent agent) {
+    Assert.notNull(agent, "agent must not be null");
+
+    CompiledPrompt compiledPrompt = agent.getCompiledPrompt();
+    if (compiledPrompt != null) {
+      return renderCompiled(agent, compiledPrompt);
+    }
+
+    String prompt = agent.getPrompt();
+    if (maxCacheSize <= 0) {
+      return velocityTemplateService.render(prompt, agent.getVelocityContext());
+    }
+
+    RenderedPrompt cached = prompts.get(agent.getIdentifier());
+
+    if (agent.isPromptStatic()) {
+      if (cached != null && cached.context() == null && Objects.equals(cached.prompt(), prompt)) {
+        cacheHits.increment();
+        return cached.rendered();
+      }
+      cacheMisses.increment();
+      String rendered = velocityTemplateService.render(prompt, agent.getVelocityContext());
+      store(agent.getIdentifier(), new RenderedPrompt(prompt, 0, null, rendered));
+      return rendered;
+    }
+
+    Map<String, Object> context = agent.getVelocityContext();
+    int fingerprint = fingerprint(context);
+    if (cached != null
+        && cached.fingerprint() == fingerprint
+        && Objects.equals(cached.prompt(), prompt)
+        && Objects.equals(cached.context(), context)) {
+      cacheHits.increment();
+      return cached.rendered();
+    }
+
+    cacheMisses.increment();
+    String rendered = velocityTemplateService.render(prompt, context);
+    if (context != null) {
+      store(agent.getIdentifier(), new RenderedPrompt(prompt, fingerprint, context, rendered));
+    }
+    return rendered;
+  }
+
+  /**
+   * Returns the number of prompts served from the cache.
+   *
+   * @return the cache hit count
+   */
+  public long getCacheHits() {
+    return cacheHits.sum();
+  }
+
+  /**
+   * Returns the number of prompts that had to be rendered.
+   *
+   * @return the cache miss count
+   */
+  public long getCacheMisses() {
+    return cacheMisses.sum();
+  }
+
+  /**
+   * Returns the number of agents whose prompt is currently cached.
+   *
+   * @return the cache size
+   */
+  public int getCacheSize() {
+    return prompts.size();
+  }
+
+  private String renderCompiled(Agent agent, CompiledPrompt compiledPrompt) {
+    if (maxCacheSize <= 0 || !agent.isPromptStatic()) {
+      return compiledPrompt.render();
+    }
+
+    RenderedPrompt cached = prompts.get(agent.getIdentifier());
+    if (cached != null && cached.prompt() == null && cached.context() == null) {
+      cacheHits.increment();
+      return cached.rendered();
+    }
+
+    cacheMisses.increment();
+    String rendered = compiledPrompt.render();
+    store(agent.getIdentifier(), new RenderedPrompt(null, 0, null, rendered));
+    return rendered;
+  }
+
+  private void store(String agentIdentifier, RenderedPrompt renderedPrompt) {
+    if (!prompts.containsKey(agentIdentifier) && prompts.size() >= maxCacheSize) {
+      Iterator<String> keys = prompts.keySet().iterator();
+      if (keys.hasNext()) {
+        keys.next();
+        keys.remove();
+      }
+    }
+    prompts.put(agentIdentifier, renderedPrompt);
+  }
+
+  private static int fingerprint(Object value) {
+    if (value == null) {
+      return 0;
+    }
+    if (value instanceof Agent agent) {
+      return Objects.hash(agent.getIdentifier(), agent.getName(), agent.getGoal());
+    }
+    if (value instanceof Map<?, ?> map) {
+      int hash = 0;
+      for (Map.Entry<?, ?> entry : map.entrySet()) {
+        hash += Objects.hashCode(entry.getKey()) ^ fingerprint(entry.getValue());
+      }
+      return hash;
+    }
+    if (value instanceof Collection<?> collection) {
+      int hash = 1;
+      for (Object element : collection) {
+        hash = 31 * hash + fingerprint(element);
+      }
+      return hash;
+    }
+    return value.hashCode();
+  }
+
+  /**
+   * A cached rendered prompt.
+   *
+   * @param prompt the prompt template it was rendered from, or {@code null} for compiled prompts
+   * @param fingerprint the fingerprint of {@code context}
+   * @param context the Velocity context it was rendered with, or {@code null} for static prompts
+   * @param rendered the rendered prompt
+   */
+  private record RenderedPrompt(
+      String prompt, int fingerprint, Map<String, Object> context, String rendered) {}
+}
@@ -0,0 +1,101 @@
+package com.ducks.synaptra.velocity;
+
+import com.ducks.synaptra.agent.Agent;
+import com.ducks.synaptra.publisher.contract.RecordEvent;
+
+/**
+ * Precompiled renderers for the fixed orchestration prompts.
+ *
+ * <p>The built-in prompts (handoff, episodic event lines and child completion) are plain variable
+ * substitutions. Rendering them through a general-purpose {@link
+ * org.apache.velocity.app.VelocityEngine}, with a fresh context and writer per call, costs far more
+ * than the text itself, so they are implemented here as direct string building. Velocity remains in
+ * use for user-defined agent prompts through {@link VelocityTemplateService}.
+ *
+ * <p>Every method produces output byte-identical to the Velocity template documented on it,
+ * including Velocity's handling of {@code null} references: a reference that evaluates to {@code
+ * null} is rendered as its literal source text (e.g. {@code $objective}).
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+public final class BuiltInPrompts {
+
+  private static final String HANDOFF_PREFIX = "HANDOFF\nObjective: ";
+  private static final String HANDOFF_SUFFIX = "\n\nConstraints:\n - Do not assume missing data.\n";
+
+  private static final String RECORD_LINE_PREFIX = " # Event - status: ";
+  private static final String RECORD_LINE_CONTENT = ", content: ";
+
+  /** Upper bound of the fixed characters of an event line, including the status. */
+  public static final int RECORD_LINE_OVERHEAD = 56;
+
+  private BuiltInPrompts() {}
+
+  /**
+   * Renders the handoff system prompt.
+   *
+   * <p>Equivalent template:
+   *
+   * <pre>
+   * HANDOFF
+   * Objective: $objective
+   *
+   * Constraints:
+   *  - Do not assume missing data.
+   * </pre>
+   *
+   * @param objective the routing objective (may be {@code null})
+   * @return the rendered prompt
+   */
+  public static String handoff(Object objective) {
+    return HANDOFF_PREFIX + reference(objective, "$objective") + HANDOFF_SUFFIX;
+  }
+
+  /**
+   * Appends one episodic event line to the given builder.
+   *
+   * <p>Equivalent template:
+   *
+   * <pre>
+   *  # Event - status: $record.status(), content: $record.content()
+   * </pre>
+   *
+   * @param text the builder to append to
+   * @param recordEvent the record to render
+   */
+  public static void appendRecordLine(StringBuilder text, RecordEvent recordEvent) {
+    text.append(RECORD_LINE_PREFIX)
+        .append(reference(recordEvent.status(), "$record.status()"))
+        .append(RECORD_LINE_CONTENT)
+        .append(reference(recordEvent.content(), "$record.content()"))
+        .append('\n');
+  }
+
+  /**
+   * Renders the note reporting the completion of a child agent to its parent.
+   *
+   * <p>Equivalent template:
+   *
+   * <pre>
+   * Child completion:
+   * - The agent '$agent.getName()' has finished. Summary: $content
+   * </pre>
+   *
+   * @param agent the child agent that has finished (may be {@code null})
+   * @param content the completion summary reported by the child (may be {@code null})
+   * @return the rendered note
+   */
+  public static String childCompletion(Agent agent, Object content) {
+    return "Child completion:\n- The agent '"
+        + reference(agent == null ? null : agent.getName(), "$agent.getName()")
+        + "' has finished. Summary: "
+        + reference(content, "$content")
+        + "\n";
+  }
+
+  private static String reference(Object value, String literal) {
+    String rendered = value == null ? null : value.toString();
+    return rendered == null ? literal : rendered;
+  }
+}
@@ -1,11 +1,19 @@
 package com.ducks.synaptra.velocity;
 
+import com.ducks.synaptra.config.VelocityConfiguration;
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.Map;
-import lombok.RequiredArgsConstructor;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.velocity.Template;
 import org.apache.velocity.VelocityContext;
 import org.apache.velocity.app.VelocityEngine;
+import org.apache.velocity.runtime.resource.util.StringResourceRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 /**
@@ -23,25 +31,76 @@ import org.springframework.stereotype.Service;
  *   <li>Evaluate the template against the model and return the rendered output
  * </ol>
  *
+ * <h2>Template cache</h2>
+ *
+ * <p>Parsing a template into its AST is the most expensive part of a render, and the same few
+ * templates (agent prompts, handoff and episodic prompts) are rendered on every hop. Parsed {@link
+ * Template}s are therefore cached, keyed by the template content itself: the lookup uses the
+ * content hash (cached by {@link String}) and confirms hits with a content equality check, which is
+ * an identity comparison for the usual constant templates.
+ *
+ * <p>Templates are parsed through the in-memory repository published by {@link
+ * VelocityConfiguration}. If the engine was configured without it, or the cache is disabled, every
+ * render falls back to {@link VelocityEngine#evaluate}.
+ *
  * <p><strong>Notes:</strong>
  *
  * <ul>
- *   <li>This service performs a single-pass evaluation using {@link VelocityEngine#evaluate}.
+ *   <li>The cache is bounded; when full, an arbitrary entry is evicted to make room.
+ *   <li>Hits and misses are counted and exposed through {@link #getCacheHits()} and {@link
+ *       #getCacheMisses()}.
  *   <li>Null-safe model handling: a {@code null} model is treated as an empty map.
  *   <li>The caller is responsible for ensuring that the template content is safe and trusted (i.e.
  *       not allowing untrusted users to inject arbitrary template directives).
  * </ul>
  *
+ * <h2>Configuration Properties</h2>
+ *
+ * <ul>
+ *   <li><b>ai.agentics.velocity.template-cache.max-size</b> — Maximum number of parsed templates
+ *       kept in memory; {@code 0} disables the cache (default {@code 256})
+ * </ul>
+ *
  * @author Leandro Marques
  * @since 1.0.0
  */
 @Service
-@RequiredArgsConstructor
 public class VelocityTemplateService {
 
   /** Underlying Velocity engine used to evaluate templates. */
   private final VelocityEngine velocityEngine;
 
+  /** In-memory repository used to parse templates, or {@code null} if unavailable. */
+  private final StringResourceRepository repository;
+
+  /** Maximum number of cached templates. */
+  private final int maxCacheSize;
+
+  /** Parsed templates keyed by their content. */
+  private final Map<String, Template> templates = new ConcurrentHashMap<>();
+
+  private final AtomicLong templateSequence = new AtomicLong();
+  private final LongAdder cacheHits = new LongAdder();
+  private final LongAdder cacheMisses = new LongAdder();
+
+  /**
+   * Creates the template service.
+   *
+   * @param velocityEngine the engine used to parse and evaluate templates
+   * @param maxCacheSize the maximum number of cached parsed templates ({@code 0} disables caching)
+   */
+  public VelocityTemplateService(
+      VelocityEngine velocityEngine,
+      @Value("${ai.agentics.velocity.template-cache.max-size:256}") int maxCacheSize) {
+    this.velocityEngine = velocityEngine;
+    this.repository =
+        velocityEngine.getApplicationAttribute(VelocityConfiguration.INLINE_TEMPLATE_REPOSITORY)
+                instanceof StringResourceRepository stringResourceRepository
+            ? stringResourceRepository
+            : null;
+    this.maxCacheSize = maxCacheSize;
+  }
+
   /**
    * Renders the provided Velocity template content using the given model.
    *
@@ -65,8 +124,70 @@ public class VelocityTemplateService {
     safeModel.forEach(ctx::put);
 
     StringWriter out = new StringWriter();
-    velocityEngine.evaluate(ctx, out, "inline-template", templateContent);
+    if (repository == null || maxCacheSize <= 0) {
+      velocityEngine.evaluate(ctx, out, "inline-template", templateContent);
+    } else {
+      getTemplate(templateContent).merge(ctx, out);
+    }
 
     return out.toString();
   }
+
+  /**
+   * Returns the number of renders served by an already parsed template.
+   *
+   * @return the cache hit count
+   */
+  public long getCacheHits() {
+    return cacheHits.sum();
+  }
+
+  /**
+   * Returns the number of renders that required parsing the template.
+   *
+   * @return the cache miss count
+   */
+  public long getCacheMisses() {
+    return cacheMisses.sum();
+  }
+
+  /**
+   * Returns the number of parsed templates currently cached.
+   *
+   * @return the cache size
+   */
+  public int getCacheSize() {
+    return templates.size();
+  }
+
+  private Template getTemplate(String templateContent) {
+    Template template = templates.get(templateContent);
+    if (template != null) {
+      cacheHits.increment();
+      return template;
+    }
+
+    cacheMisses.increment();
+    template = parse(templateContent);
+
+    if (templates.size() >= maxCacheSize) {
+      Iterator<String> keys = templates.keySet().iterator();
+      if (keys.hasNext()) {
+        keys.next();
+        keys.remove();
+      }
+    }
+    templates.put(templateContent, template);
+    return template;
+  }
+
+  private Template parse(String templateContent) {
+    String name = "inline-template-" + templateSequence.incrementAndGet();
+    repository.putStringResource(name, templateContent, StandardCharsets.UTF_8.name());
+    try {
+      return velocityEngine.getTemplate(name, StandardCharsets.UTF_8.name());
+    } finally {
+      repository.removeStringResource(name);
+    }
+  }
 }
@@ -0,0 +1,128 @@
+package com.ducks.synaptra.memory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ducks.synaptra.agent.Agent;
+import com.ducks.synaptra.publisher.contract.RecordEvent;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Checks that {@link EpisodeMemorySnapshotter} rejects truncated or corrupt snapshots without
+ * installing anything, and that startup survives them unless fail-fast is enabled.
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+class EpisodeMemorySnapshotterTest {
+
+  private static final int SESSIONS = 32;
+
+  @TempDir Path directory;
+
+  private Path snapshot;
+  private Agent agent;
+
+  @BeforeEach
+  void setUp() {
+    snapshot = directory.resolve("memory.snap");
+    agent =
+        (Agent)
+            Proxy.newProxyInstance(
+                Agent.class.getClassLoader(),
+                new Class<?>[] {Agent.class},
+                (proxy, method, args) ->
+                    switch (method.getName()) {
+                      case "getIdentifier" -> "agent-1";
+                      case "hashCode" -> System.identityHashCode(proxy);
+                      case "equals" -> proxy == args[0];
+                      default -> throw new UnsupportedOperationException(method.getName());
+                    });
+
+    EpisodeMemory source = new EpisodeMemory(false, 65536);
+    for (int i = 0; i < SESSIONS; i++) {
+      source.registerEvent("session-" + i, agent, new RecordEvent("hello " + i, "FINISHED"));
+    }
+    snapshotter(source, false).snapshot(snapshot);
+  }
+
+  @Test
+  void restoresIntactSnapshot() {
+    EpisodeMemory memory = new EpisodeMemory(false, 65536);
+
+    EpisodeMemorySnapshotter.SnapshotStats stats = snapshotter(memory, false).restore(snapshot);
+
+    assertEquals(SESSIONS, stats.sessions());
+    assertEquals(SESSIONS, memory.getSessionCount());
+    assertEquals("hello 7", memory.getEpisodeMemory("session-7", agent).get(0).content());
+  }
+
+  @Test
+  void rejectsTruncatedSnapshotWithoutInstallingSessions() throws IOException {
+    truncate(snapshot, Files.size(snapshot) - 3);
+    EpisodeMemory memory = new EpisodeMemory(false, 65536);
+
+    assertThrows(UncheckedIOException.class, () -> snapshotter(memory, false).restore(snapshot));
+    assertEquals(0, memory.getSessionCount());
+  }
+
+  @Test
+  void rejectsShardLengthBeyondEndOfFile() throws IOException {
+    byte[] bytes = Files.readAllBytes(snapshot);
+    // First shard length, right after the four header ints.
+    ByteBuffer.wrap(bytes).putInt(16, Integer.MAX_VALUE - 8);
+    Files.write(snapshot, bytes);
+    EpisodeMemory memory = new EpisodeMemory(false, 65536);
+
+    UncheckedIOException e =
+        assertThrows(
+            UncheckedIOException.class, () -> snapshotter(memory, false).restore(snapshot));
+    assertTrue(e.getCause().getMessage().startsWith("Invalid length of shard 0"));
+    assertEquals(0, memory.getSessionCount());
+  }
+
+  @Test
+  void startMovesCorruptSnapshotAsideAndStartsEmpty() throws IOException {
+    truncate(snapshot, Files.size(snapshot) / 2);
+    byte[] corrupt = Files.readAllBytes(snapshot);
+    EpisodeMemory memory = new EpisodeMemory(false, 65536);
+
+    snapshotter(memory, false).start();
+
+    assertEquals(0, memory.getSessionCount());
+    assertFalse(Files.exists(snapshot));
+    Path movedTo = directory.resolve("memory.snap.corrupt");
+    assertTrue(Arrays.equals(corrupt, Files.readAllBytes(movedTo)));
+  }
+
+  @Test
+  void startFailsOnCorruptSnapshotWhenFailFast() throws IOException {
+    truncate(snapshot, Files.size(snapshot) / 2);
+
+    EpisodeMemorySnapshotter snapshotter = snapshotter(new EpisodeMemory(false, 65536), true);
+
+    assertThrows(UncheckedIOException.class, snapshotter::start);
+    assertTrue(Files.exists(snapshot));
+  }
+
+  private EpisodeMemorySnapshotter snapshotter(EpisodeMemory memory, boolean failFast) {
+    return new EpisodeMemorySnapshotter(
+        memory, snapshot.toString(), true, false, true, 4, failFast);
+  }
+
+  private static void truncate(Path file, long size) throws IOException {
+    byte[] bytes = Files.readAllBytes(file);
+    Files.write(file, Arrays.copyOf(bytes, (int) size));
+  }
+}
@@ -0,0 +1,136 @@
+package com.ducks.synaptra.orchestration.state;
+
+import static com.ducks.synaptra.orchestration.state.SessionState.FAILED;
+import static com.ducks.synaptra.orchestration.state.SessionState.FINISHED;
+import static com.ducks.synaptra.orchestration.state.SessionState.FINISHED_TOOL_EXECUTION;
+import static com.ducks.synaptra.orchestration.state.SessionState.WAIT_AGENT_EXECUTION;
+import static com.ducks.synaptra.orchestration.state.SessionState.WAIT_TOOL_EXECUTION;
+import static com.ducks.synaptra.orchestration.state.SessionState.WAIT_USER_INPUT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.ducks.synaptra.agent.Agent;
+import java.lang.reflect.Proxy;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Checks the transition table of {@link SessionStateMachine}: every rejected edge is refused,
+ * counted and leaves the state untouched.
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+class SessionStateMachineTest {
+
+  private static final String SESSION = "session-1";
+
+  private SessionStateMachine stateMachine;
+  private Agent agent;
+
+  @BeforeEach
+  void setUp() {
+    stateMachine = new SessionStateMachine(100, 60_000);
+    agent =
+        (Agent)
+            Proxy.newProxyInstance(
+                Agent.class.getClassLoader(),
+                new Class<?>[] {Agent.class},
+                (proxy, method, args) ->
+                    switch (method.getName()) {
+                      case "getIdentifier" -> "agent-1";
+                      case "hashCode" -> System.identityHashCode(proxy);
+                      case "equals" -> proxy == args[0];
+                      default -> throw new UnsupportedOperationException(method.getName());
+                    });
+  }
+
+  /** Every edge missing from the transition table, {@code null} being the initial state. */
+  static Stream<Arguments> rejectedTransitions() {
+    return Stream.of(
+        Arguments.of(null, FINISHED_TOOL_EXECUTION),
+        Arguments.of(WAIT_USER_INPUT, FINISHED_TOOL_EXECUTION),
+        Arguments.of(WAIT_AGENT_EXECUTION, FINISHED_TOOL_EXECUTION),
+        Arguments.of(FINISHED_TOOL_EXECUTION, FINISHED_TOOL_EXECUTION),
+        Arguments.of(FINISHED, WAIT_AGENT_EXECUTION),
+        Arguments.of(FINISHED, FINISHED_TOOL_EXECUTION),
+        Arguments.of(FAILED, WAIT_USER_INPUT),
+        Arguments.of(FAILED, WAIT_AGENT_EXECUTION),
+        Arguments.of(FAILED, WAIT_TOOL_EXECUTION),
+        Arguments.of(FAILED, FINISHED_TOOL_EXECUTION),
+        Arguments.of(FAILED, FINISHED),
+        Arguments.of(FAILED, FAILED));
+  }
+
+  @ParameterizedTest(name = "{0} -> {1}")
+  @MethodSource("rejectedTransitions")
+  void rejectsAndCountsIllegalTransition(SessionState from, SessionState to) {
+    enter(from);
+    AgentSessionState before = stateMachine.current(SESSION, agent);
+
+    assertThrows(IllegalStateException.class, () -> stateMachine.transition(SESSION, agent, to));
+
+    assertEquals(1, stateMachine.getRejectedTransitions());
+    assertEquals(before, stateMachine.current(SESSION, agent));
+  }
+
+  @Test
+  void acceptsEveryResultOfParallelToolCalls() {
+    stateMachine.transition(SESSION, agent, WAIT_TOOL_EXECUTION);
+    stateMachine.transition(SESSION, agent, WAIT_TOOL_EXECUTION);
+
+    AgentSessionState first = stateMachine.transition(SESSION, agent, FINISHED_TOOL_EXECUTION);
+    assertEquals(WAIT_TOOL_EXECUTION, first.state());
+    assertEquals(1, first.pendingToolCalls());
+
+    AgentSessionState last = stateMachine.transition(SESSION, agent, FINISHED_TOOL_EXECUTION);
+    assertEquals(FINISHED_TOOL_EXECUTION, last.state());
+    assertEquals(0, last.pendingToolCalls());
+
+    assertThrows(
+        IllegalStateException.class,
+        () -> stateMachine.transition(SESSION, agent, FINISHED_TOOL_EXECUTION));
+    assertEquals(1, stateMachine.getRejectedTransitions());
+  }
+
+  @Test
+  void terminalStateDropsOutstandingToolCalls() {
+    stateMachine.transition(SESSION, agent, WAIT_TOOL_EXECUTION);
+    stateMachine.transition(SESSION, agent, WAIT_USER_INPUT);
+
+    assertEquals(0, stateMachine.current(SESSION, agent).pendingToolCalls());
+    assertThrows(
+        IllegalStateException.class,
+        () -> stateMachine.transition(SESSION, agent, FINISHED_TOOL_EXECUTION));
+  }
+
+  @Test
+  void newTurnLetsFinishedAndFailedAgentsRunAgain() {
+    stateMachine.transition(SESSION, agent, FAILED);
+    assertEquals(1, stateMachine.reset(SESSION));
+    assertEquals(WAIT_USER_INPUT, stateMachine.current(SESSION, agent).state());
+    stateMachine.transition(SESSION, agent, WAIT_AGENT_EXECUTION);
+
+    stateMachine.transition(SESSION, agent, FINISHED);
+    assertEquals(1, stateMachine.reset(SESSION));
+    stateMachine.transition(SESSION, agent, WAIT_AGENT_EXECUTION);
+
+    assertEquals(0, stateMachine.getRejectedTransitions());
+  }
+
+  private void enter(SessionState state) {
+    if (state == null) {
+      assertNull(stateMachine.current(SESSION, agent));
+      return;
+    }
+    if (state == FINISHED_TOOL_EXECUTION) {
+      stateMachine.transition(SESSION, agent, WAIT_TOOL_EXECUTION);
+    }
+    assertEquals(state, stateMachine.transition(SESSION, agent, state).state());
+  }
+}
@@ -0,0 +1,122 @@
+package com.ducks.synaptra.benchmark;
+
+import com.ducks.synaptra.agent.Agent;
+import com.ducks.synaptra.agent.AgentType;
+import com.ducks.synaptra.agent.BaseAgent;
+import com.ducks.synaptra.agent.ProviderConfig;
+import com.ducks.synaptra.client.openai.data.ToolChoice;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal {@link BaseAgent} used as benchmark fixture.
+ *
+ * <p>Agents can be wired into supervisor hierarchies through {@link #addAgent(BenchmarkAgent)} to
+ * reproduce the prompt shapes produced by real orchestration trees.
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+public class BenchmarkAgent extends BaseAgent {
+
+  /** Prompt shaped like a typical supervisor prompt, including the child agent loop. */
+  public static final String SUPERVISOR_PROMPT =
+      """
+      You are $name.
+      Goal: $goal
+
+      Available agents:
+      #foreach($agent in $agents)
+       - $agent.getName(): $agent.getGoal()
+      #end
+
+      Route the request to the agent that best fulfills it.
+      """;
+
+  private final String identifier;
+  private final String name;
+  private final String goal;
+  private final String prompt;
+  private final List<Agent> agents = new ArrayList<>();
+  private boolean promptStatic;
+
+  public BenchmarkAgent(String identifier, String name, String goal, String prompt) {
+    this.identifier = identifier;
+    this.name = name;
+    this.goal = goal;
+    this.prompt = prompt;
+  }
+
+  /**
+   * Adds a child agent and links it back to this agent.
+   *
+   * @param agent the child agent
+   * @return this agent, for chaining
+   */
+  public BenchmarkAgent addAgent(BenchmarkAgent agent) {
+    agents.add(agent);
+    agent.setParent(this);
+    return this;
+  }
+
+  /**
+   * Declares whether the rendered prompt of this agent is static.
+   *
+   * @param promptStatic the value returned by {@link #isPromptStatic()}
+   * @return this agent, for chaining
+   */
+  public BenchmarkAgent promptStatic(boolean promptStatic) {
+    this.promptStatic = promptStatic;
+    return this;
+  }
+
+  @Override
+  public boolean isPromptStatic() {
+    return promptStatic;
+  }
+
+  @Override
+  public String getIdentifier() {
+    return identifier;
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public String getGoal() {
+    return goal;
+  }
+
+  @Override
+  public boolean isSupportsInterimMessages() {
+    return false;
+  }
+
+  @Override
+  public AgentType getAgentType() {
+    return agents.isEmpty() ? AgentType.AGENT : AgentType.SUPERVISOR;
+  }
+
+  @Override
+  public ProviderConfig getProviderConfig() {
+    return new ProviderConfig("gpt-4o-mini", 0.2, 1024, 1.0);
+  }
+
+  @Override
+  public String getPrompt() {
+    return prompt;
+  }
+
+  @Override
+  public List<Agent> getAgents() {
+    return agents;
+  }
+
+  @Override
+  public ToolChoice getToolChoice() {
+    return ToolChoice.AUTO;
+  }
+}
@@ -0,0 +1,109 @@
+package com.ducks.synaptra.benchmark.agent;
+
+import com.ducks.synaptra.agent.BaseAgent;
+import com.ducks.synaptra.benchmark.BenchmarkAgent;
+import com.ducks.synaptra.client.openai.data.ChatCompletionRequest;
+import com.ducks.synaptra.client.openai.data.Message;
+import com.ducks.synaptra.client.openai.data.Tool;
+import com.ducks.synaptra.config.VelocityConfiguration;
+import com.ducks.synaptra.orchestration.event.agent.contract.AgentRequestEvent;
+import com.ducks.synaptra.velocity.AgentPromptRenderer;
+import com.ducks.synaptra.velocity.VelocityTemplateService;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the per-call cost of building the OpenAI request of an agent.
+ *
+ * <ul>
+ *   <li>{@code toChatCompletionRequest}: {@link AgentRequestEvent#toChatCompletionRequest} with
+ *       handoff and episodic contexts, the system prompt served by the prompt cache
+ *   <li>{@code getTools}: the tool definitions of {@link BaseAgent#getTools()}, rebuilt on every
+ *       call
+ * </ul>
+ *
+ * <p>{@code children = 0} measures a leaf agent, any other value a supervisor routing to that many
+ * agents.
+ *
+ * <p>Usage:
+ *
+ * <pre>{@code
+ * java -jar target/benchmarks.jar AgentRequestBenchmark -prof gc
+ * }</pre>
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AgentRequestBenchmark {
+
+  @Param({"0", "8"})
+  private int children;
+
+  private AgentPromptRenderer agentPromptRenderer;
+  private BenchmarkAgent agent;
+  private AgentRequestEvent agentRequestEvent;
+
+  @Setup
+  public void setUp() {
+    VelocityTemplateService velocityTemplateService =
+        new VelocityTemplateService(new VelocityConfiguration().velocityEngine(), 256);
+    agentPromptRenderer = new AgentPromptRenderer(velocityTemplateService, 512);
+
+    agent =
+        new BenchmarkAgent(
+            "supervisor",
+            "Supervisor",
+            "Route customer requests",
+            BenchmarkAgent.SUPERVISOR_PROMPT);
+    for (int c = 0; c < children; c++) {
+      agent.addAgent(
+          new BenchmarkAgent("child-" + c, "Child " + c, "Handle request type " + c, ""));
+    }
+
+    agentRequestEvent =
+        new AgentRequestEvent(
+            "session-1",
+            agent,
+            new Message(
+                "system",
+                "HANDOFF\nObjective: Refund the last order\n\nConstraints:\n"
+                    + " - Do not assume missing data.",
+                null,
+                null,
+                null),
+            new Message(
+                "system",
+                "EPISODIC_MEMORY_CONTEXT\n - WAIT_USER_INPUT: Asked for the order number.",
+                null,
+                null,
+                null),
+            new Message("user", "The order number is 4711.", null, null, null));
+  }
+
+  @Benchmark
+  public ChatCompletionRequest toChatCompletionRequest() {
+    return agentRequestEvent.toChatCompletionRequest(agentPromptRenderer);
+  }
+
+  @Benchmark
+  public List<Tool> getTools() {
+    return agent.getTools();
+  }
+}
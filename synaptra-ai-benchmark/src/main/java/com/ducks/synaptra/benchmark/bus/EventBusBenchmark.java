@@ -0,0 +1,113 @@
+package com.ducks.synaptra.benchmark.bus;
+
+import com.ducks.synaptra.memory.EpisodeMemory;
+import com.ducks.synaptra.orchestration.bus.OrchestrationEventBus;
+import com.ducks.synaptra.orchestration.bus.OrchestrationEventHandler;
+import com.ducks.synaptra.orchestration.bus.SpringEventBusAdapter;
+import com.ducks.synaptra.orchestration.cancellation.SessionCancellation;
+import com.ducks.synaptra.orchestration.event.answer.contract.AnswerResponseEvent;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+/**
+ * Compares the {@link OrchestrationEventBus} modes: the ring buffer against Spring application
+ * events.
+ *
+ * <p>The bus runs in a minimal application context with a single handler counting the events, so
+ * the scores measure the event transport alone:
+ *
+ * <ul>
+ *   <li>{@code publish}: events per second published by 4 concurrent producers; in {@code ring}
+ *       mode the producers are throttled by the ring backpressure, so the score is the sustained
+ *       consumer rate
+ *   <li>{@code roundTrip}: latency distribution from publishing an event to its handler having run
+ * </ul>
+ *
+ * <p>Usage:
+ *
+ * <pre>{@code
+ * java -jar target/benchmarks.jar EventBusBenchmark
+ * }</pre>
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventBusBenchmark {
+
+  @Param({OrchestrationEventBus.RING_MODE, OrchestrationEventBus.SPRING_MODE})
+  private String mode;
+
+  private final LongAdder handled = new LongAdder();
+  private final AnswerResponseEvent event =
+      new AnswerResponseEvent("session-1", null, null, "answer");
+
+  private AnnotationConfigApplicationContext context;
+  private OrchestrationEventBus eventBus;
+
+  @Setup
+  public void setUp() {
+    context = new AnnotationConfigApplicationContext();
+    context
+        .getEnvironment()
+        .getPropertySources()
+        .addFirst(new MapPropertySource("benchmark", Map.of("ai.agentics.event-bus.mode", mode)));
+    context.register(
+        EpisodeMemory.class,
+        SessionCancellation.class,
+        OrchestrationEventBus.class,
+        SpringEventBusAdapter.class);
+    context.registerBean(
+        "countingHandler",
+        OrchestrationEventHandler.class,
+        () ->
+            OrchestrationEventHandler.of(
+                AnswerResponseEvent.class, ignored -> handled.increment()));
+    context.refresh();
+    eventBus = context.getBean(OrchestrationEventBus.class);
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  @Threads(4)
+  public void publish() {
+    eventBus.publish(event);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SampleTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Threads(1)
+  public void roundTrip() {
+    long target = handled.sum() + 1;
+    eventBus.publish(event);
+    while (handled.sum() < target) {
+      Thread.onSpinWait();
+    }
+  }
+}
@@ -0,0 +1,167 @@
+package com.ducks.synaptra.benchmark.client;
+
+import com.ducks.synaptra.benchmark.BenchmarkAgent;
+import com.ducks.synaptra.client.openai.data.ChatCompletionRequest;
+import com.ducks.synaptra.client.openai.data.ChatCompletionResponse;
+import com.ducks.synaptra.client.openai.data.Message;
+import com.ducks.synaptra.config.VelocityConfiguration;
+import com.ducks.synaptra.orchestration.event.agent.contract.AgentRequestEvent;
+import com.ducks.synaptra.velocity.AgentPromptRenderer;
+import com.ducks.synaptra.velocity.VelocityTemplateService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Measures the Jackson cost of an OpenAI exchange: serializing a {@link ChatCompletionRequest} and
+ * deserializing a {@link ChatCompletionResponse}.
+ *
+ * <p>The mapper is configured like the one of the WebClient codecs used by the OpenAI client. The
+ * request is a supervisor request with 8 child agents; the response is either a plain answer or a
+ * {@code route_to_agent} tool call.
+ *
+ * <p>Usage:
+ *
+ * <pre>{@code
+ * java -jar target/benchmarks.jar OpenAIPayloadBenchmark -prof gc
+ * }</pre>
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OpenAIPayloadBenchmark {
+
+  private static final String ANSWER_RESPONSE =
+      """
+      {
+        "id": "chatcmpl-9xKf2",
+        "object": "chat.completion",
+        "created": 1735689600,
+        "model": "gpt-4o-mini",
+        "choices": [
+          {
+            "index": 0,
+            "message": {
+              "role": "assistant",
+              "content": "Your refund for order 4711 has been requested. You will receive a \
+      confirmation e-mail within the next hour, and the amount will be credited in 3 to 5 \
+      business days."
+            },
+            "logprobs": null,
+            "finish_reason": "stop"
+          }
+        ],
+        "usage": {"prompt_tokens": 812, "completion_tokens": 41, "total_tokens": 853},
+        "system_fingerprint": "fp_0ba0d124f1"
+      }
+      """;
+
+  private static final String TOOL_CALL_RESPONSE =
+      """
+      {
+        "id": "chatcmpl-9xKf3",
+        "object": "chat.completion",
+        "created": 1735689601,
+        "model": "gpt-4o-mini",
+        "choices": [
+          {
+            "index": 0,
+            "message": {
+              "role": "assistant",
+              "content": null,
+              "tool_calls": [
+                {
+                  "id": "call_Q2b7x",
+                  "type": "function",
+                  "function": {
+                    "name": "route_to_agent",
+                    "arguments": "{\\"agent\\":\\"child-3\\",\\"objective\\":\\"Refund the \
+      last order\\",\\"input\\":\\"The order number is 4711.\\"}"
+                  }
+                }
+              ]
+            },
+            "logprobs": null,
+            "finish_reason": "tool_calls"
+          }
+        ],
+        "usage": {"prompt_tokens": 812, "completion_tokens": 37, "total_tokens": 849},
+        "system_fingerprint": "fp_0ba0d124f1"
+      }
+      """;
+
+  private ObjectMapper mapper;
+  private ChatCompletionRequest chatCompletionRequest;
+
+  /** Response JSON deserialized by {@link #deserializeResponse(Response)}. */
+  @State(Scope.Benchmark)
+  public static class Response {
+
+    @Param({"answer", "toolCall"})
+    private String response;
+
+    private byte[] json;
+
+    @Setup
+    public void setUp() {
+      json =
+          ("answer".equals(response) ? ANSWER_RESPONSE : TOOL_CALL_RESPONSE)
+              .getBytes(StandardCharsets.UTF_8);
+    }
+  }
+
+  @Setup
+  public void setUp() {
+    mapper = Jackson2ObjectMapperBuilder.json().build();
+
+    BenchmarkAgent supervisor =
+        new BenchmarkAgent(
+            "supervisor",
+            "Supervisor",
+            "Route customer requests",
+            BenchmarkAgent.SUPERVISOR_PROMPT);
+    for (int c = 0; c < 8; c++) {
+      supervisor.addAgent(
+          new BenchmarkAgent("child-" + c, "Child " + c, "Handle request type " + c, ""));
+    }
+    AgentPromptRenderer agentPromptRenderer =
+        new AgentPromptRenderer(
+            new VelocityTemplateService(new VelocityConfiguration().velocityEngine(), 256), 512);
+    chatCompletionRequest =
+        new AgentRequestEvent(
+                "session-1",
+                supervisor,
+                null,
+                new Message("user", "I want a refund for order 4711.", null, null, null))
+            .toChatCompletionRequest(agentPromptRenderer);
+  }
+
+  @Benchmark
+  public byte[] serializeRequest() throws IOException {
+    return mapper.writeValueAsBytes(chatCompletionRequest);
+  }
+
+  @Benchmark
+  public ChatCompletionResponse deserializeResponse(Response response) throws IOException {
+    return mapper.readValue(response.json, ChatCompletionResponse.class);
+  }
+}
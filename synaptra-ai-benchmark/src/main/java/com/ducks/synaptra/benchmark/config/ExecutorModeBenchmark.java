@@ -0,0 +1,100 @@
+package com.ducks.synaptra.benchmark.config;
+
+import com.ducks.synaptra.config.ExecutionStage;
+import com.ducks.synaptra.config.ThreadPoolTaskExecutorConfig;
+import io.micrometer.tracing.CurrentTraceContext;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+/**
+ * Load test of the {@code agentExecutionExecutor} modes under I/O-bound work.
+ *
+ * <p>Each benchmark thread plays a concurrent session: it submits a task that blocks for {@code
+ * ioMillis} (standing in for an LLM call) and waits for its completion. Sample mode reports the
+ * end-to-end latency distribution (including p0.99) and the score gives the throughput per thread.
+ *
+ * <p>Usage (the thread count is the number of concurrent sessions):
+ *
+ * <pre>{@code
+ * java -jar target/benchmarks.jar ExecutorModeBenchmark -t 64
+ * }</pre>
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(64)
+@Fork(1)
+public class ExecutorModeBenchmark {
+
+  @Param({ThreadPoolTaskExecutorConfig.PLATFORM_MODE, ThreadPoolTaskExecutorConfig.VIRTUAL_MODE})
+  private String mode;
+
+  @Param({"10"})
+  private int ioMillis;
+
+  @Param({"256"})
+  private int maxConcurrency;
+
+  private AsyncTaskExecutor executor;
+
+  @Setup
+  public void setUp() {
+    StandardEnvironment environment = new StandardEnvironment();
+    environment
+        .getPropertySources()
+        .addFirst(
+            new MapPropertySource(
+                "benchmark",
+                Map.of(
+                    "ai.agentics.executor.mode", mode,
+                    "ai.agentics.executor.agent.max-concurrency", maxConcurrency)));
+
+    executor =
+        new ThreadPoolTaskExecutorConfig(environment)
+            .stageExecutor(ExecutionStage.AGENT, CurrentTraceContext.NOOP);
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    if (executor instanceof DisposableBean disposable) {
+      disposable.destroy();
+    }
+  }
+
+  @Benchmark
+  public void blockingTask() {
+    CompletableFuture<Void> completion = executor.submitCompletable(this::simulateIo);
+    completion.join();
+  }
+
+  private void simulateIo() {
+    try {
+      Thread.sleep(ioMillis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,99 @@
+package com.ducks.synaptra.benchmark.memory;
+
+import com.ducks.synaptra.benchmark.BenchmarkAgent;
+import com.ducks.synaptra.memory.EpisodeMemory;
+import com.ducks.synaptra.orchestration.event.record.RecordExecutionEvent;
+import com.ducks.synaptra.publisher.contract.RecordEvent;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link EpisodeMemory#registerEvent} and {@link EpisodeMemory#getEpisodeMemory} under
+ * contention: two writer threads and two reader threads work on the same memory at the same time.
+ *
+ * <p>Every thread cycles over {@code sessions} sessions: with a single session, all threads contend
+ * on the same session monitor; with more sessions, they mostly work on different ones. The memory
+ * is recreated for every iteration so the timelines (and the scores) do not grow without bound.
+ *
+ * <p>Usage:
+ *
+ * <pre>{@code
+ * java -jar target/benchmarks.jar EpisodeMemoryContentionBenchmark -prof gc
+ * }</pre>
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class EpisodeMemoryContentionBenchmark {
+
+  private static final RecordEvent RECORD =
+      new RecordEvent(
+          "Asked the user for the order number and the delivery address.",
+          RecordExecutionEvent.WAIT_USER_INPUT);
+
+  @Param({"1", "64"})
+  private int sessions;
+
+  private final BenchmarkAgent agent = new BenchmarkAgent("child", "Child", "Refunds", "");
+  private String[] sessionIds;
+  private EpisodeMemory memory;
+
+  @Setup(Level.Iteration)
+  public void setUp() {
+    memory = new EpisodeMemory(false, 65_536);
+    sessionIds = new String[sessions];
+    for (int s = 0; s < sessions; s++) {
+      sessionIds[s] = "session-" + s;
+      for (int r = 0; r < 8; r++) {
+        memory.registerEvent(sessionIds[s], agent, RECORD);
+      }
+    }
+  }
+
+  /** Session cursor of a thread. */
+  @State(Scope.Thread)
+  public static class Cursor {
+
+    private int next;
+
+    String nextSession(String[] sessionIds) {
+      next = next + 1 == sessionIds.length ? 0 : next + 1;
+      return sessionIds[next];
+    }
+  }
+
+  @Benchmark
+  @Group("readWrite")
+  @GroupThreads(2)
+  public void registerEvent(Cursor cursor) {
+    memory.registerEvent(cursor.nextSession(sessionIds), agent, RECORD);
+  }
+
+  @Benchmark
+  @Group("readWrite")
+  @GroupThreads(2)
+  public RecordEvent getEpisodeMemory(Cursor cursor) {
+    List<RecordEvent> timeline = memory.getEpisodeMemory(cursor.nextSession(sessionIds), agent);
+    return timeline.get(timeline.size() - 1);
+  }
+}
@@ -0,0 +1,120 @@
+package com.ducks.synaptra.benchmark.memory;
+
+import com.ducks.synaptra.benchmark.BenchmarkAgent;
+import com.ducks.synaptra.memory.EpisodeMemory;
+import com.ducks.synaptra.memory.EpisodeMemorySnapshotter;
+import com.ducks.synaptra.orchestration.event.record.RecordExecutionEvent;
+import com.ducks.synaptra.publisher.contract.RecordEvent;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures snapshot and restore time of a populated {@link EpisodeMemory}.
+ *
+ * <p>Usage:
+ *
+ * <pre>{@code
+ * java -jar target/benchmarks.jar EpisodeMemorySnapshotBenchmark -p sessions=100000
+ * }</pre>
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class EpisodeMemorySnapshotBenchmark {
+
+  private static final String[] STATUSES = {
+    RecordExecutionEvent.WAIT_USER_INPUT,
+    RecordExecutionEvent.WAIT_AGENT_EXECUTION,
+    RecordExecutionEvent.WAIT_TOOL_EXECUTION,
+    RecordExecutionEvent.FINISHED_TOOL_EXECUTION,
+    RecordExecutionEvent.FINISHED
+  };
+
+  private static final String CONTENT =
+      "Asked the user for the order number and the delivery address to continue the refund.";
+
+  @Param({"10000"})
+  private int sessions;
+
+  @Param({"12"})
+  private int recordsPerAgent;
+
+  @Param({"true", "false"})
+  private boolean compress;
+
+  @Param({"16"})
+  private int shards;
+
+  private Path file;
+  private EpisodeMemorySnapshotter populated;
+  private EpisodeMemorySnapshotter empty;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    BenchmarkAgent supervisor = new BenchmarkAgent("supervisor", "Supervisor", "Route", "");
+    BenchmarkAgent child = new BenchmarkAgent("child", "Child", "Refunds", "");
+    supervisor.addAgent(child);
+    BenchmarkAgent[] agents = {supervisor, child};
+
+    EpisodeMemory memory = new EpisodeMemory(false, 65_536);
+    for (int s = 0; s < sessions; s++) {
+      for (BenchmarkAgent agent : agents) {
+        for (int r = 0; r < recordsPerAgent; r++) {
+          memory.registerEvent(
+              "session-" + s,
+              agent,
+              new RecordEvent(CONTENT + " #" + r, STATUSES[r % STATUSES.length]));
+        }
+      }
+    }
+
+    file = Files.createTempFile("episode-memory", ".snapshot");
+    populated = newSnapshotter(memory);
+    populated.snapshot(file);
+  }
+
+  @Setup(Level.Iteration)
+  public void resetTarget() {
+    empty = newSnapshotter(new EpisodeMemory(false, 65_536));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(file);
+  }
+
+  @Benchmark
+  public EpisodeMemorySnapshotter.SnapshotStats snapshot() {
+    return populated.snapshot(file);
+  }
+
+  @Benchmark
+  public EpisodeMemorySnapshotter.SnapshotStats restore() {
+    return empty.restore(file);
+  }
+
+  private EpisodeMemorySnapshotter newSnapshotter(EpisodeMemory memory) {
+    return new EpisodeMemorySnapshotter(memory, "", false, false, compress, shards, false);
+  }
+}
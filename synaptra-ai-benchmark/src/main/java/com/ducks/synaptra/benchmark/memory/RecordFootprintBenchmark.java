@@ -0,0 +1,142 @@
+package com.ducks.synaptra.benchmark.memory;
+
+import com.ducks.synaptra.benchmark.BenchmarkAgent;
+import com.ducks.synaptra.memory.EpisodeMemory;
+import com.ducks.synaptra.orchestration.event.record.RecordExecutionEvent;
+import com.ducks.synaptra.publisher.contract.RecordEvent;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jol.info.GraphLayout;
+
+/**
+ * Measures the retained heap size per stored record, before and after the compact episodic
+ * encoding.
+ *
+ * <p>The "before" layout reproduces the original {@code sessionId -> agentId -> List<RecordEvent>}
+ * structure. Statuses and contents are created as fresh {@link String} instances, the same way
+ * Jackson produces them when parsing {@code record_event} tool arguments.
+ *
+ * <p>The footprint is reported through the {@link Footprint} counters ({@code
+ * legacyBytesPerRecord}, {@code compactBytesPerRecord} and {@code ratio}); the primary score is the
+ * time taken to walk both heap graphs. With {@code offHeap=true} the contents are stored in direct
+ * buffers and the compact number is the remaining on-heap cost.
+ *
+ * <p>Usage:
+ *
+ * <pre>{@code
+ * java -jar target/benchmarks.jar RecordFootprintBenchmark -p sessions=10000
+ * }</pre>
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+// RecordEvent is a record; JOL needs the magic field offset mode to introspect it.
+@Fork(value = 1, jvmArgsAppend = "-Djol.magicFieldOffset=true")
+public class RecordFootprintBenchmark {
+
+  private static final String[] STATUSES = {
+    RecordExecutionEvent.WAIT_USER_INPUT,
+    RecordExecutionEvent.WAIT_AGENT_EXECUTION,
+    RecordExecutionEvent.WAIT_TOOL_EXECUTION,
+    RecordExecutionEvent.FINISHED_TOOL_EXECUTION,
+    RecordExecutionEvent.FINISHED
+  };
+
+  private static final String CONTENT =
+      "Asked the user for the order number and the delivery address to continue the refund.";
+
+  @Param({"2000"})
+  private int sessions;
+
+  @Param({"12"})
+  private int recordsPerAgent;
+
+  @Param({"false", "true"})
+  private boolean offHeap;
+
+  private long records;
+  private Map<String, Map<String, List<RecordEvent>>> legacy;
+  private EpisodeMemory compact;
+
+  /** Footprint of the last measured layouts, reported as secondary metrics. */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Footprint {
+
+    /** Retained bytes per record of the original layout. */
+    public double legacyBytesPerRecord;
+
+    /** Retained bytes per record of the compact encoding. */
+    public double compactBytesPerRecord;
+
+    /** Original footprint divided by the compact footprint. */
+    public double ratio;
+  }
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    BenchmarkAgent supervisor = new BenchmarkAgent("supervisor", "Supervisor", "Route", "");
+    BenchmarkAgent child = new BenchmarkAgent("child", "Child", "Refunds", "");
+    supervisor.addAgent(child);
+    BenchmarkAgent[] agents = {supervisor, child};
+
+    records = (long) sessions * agents.length * recordsPerAgent;
+
+    legacy = new HashMap<>();
+    for (int s = 0; s < sessions; s++) {
+      Map<String, List<RecordEvent>> session =
+          legacy.computeIfAbsent("session-" + s, key -> new HashMap<>());
+      for (BenchmarkAgent agent : agents) {
+        List<RecordEvent> timeline =
+            session.computeIfAbsent(agent.getIdentifier(), key -> new ArrayList<>());
+        for (int r = 0; r < recordsPerAgent; r++) {
+          timeline.add(newRecord(r));
+        }
+      }
+    }
+
+    compact = new EpisodeMemory(offHeap, 65_536);
+    for (int s = 0; s < sessions; s++) {
+      for (BenchmarkAgent agent : agents) {
+        for (int r = 0; r < recordsPerAgent; r++) {
+          compact.registerEvent("session-" + s, agent, newRecord(r));
+        }
+      }
+    }
+  }
+
+  @Benchmark
+  public void footprint(Footprint footprint) {
+    long legacyBytes = GraphLayout.parseInstance(legacy).totalSize();
+    long compactBytes = GraphLayout.parseInstance(compact).totalSize();
+
+    footprint.legacyBytesPerRecord = (double) legacyBytes / records;
+    footprint.compactBytesPerRecord = (double) compactBytes / records;
+    footprint.ratio = (double) legacyBytes / compactBytes;
+  }
+
+  private static RecordEvent newRecord(int index) {
+    return new RecordEvent(CONTENT + " #" + index, new String(STATUSES[index % STATUSES.length]));
+  }
+}
@@ -0,0 +1,79 @@
+package com.ducks.synaptra.benchmark.tracing;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link SpanExporter} counting the exported spans by name, without keeping them.
+ *
+ * <p>It stands for the exporter of a real deployment, minus the I/O: every ended span still goes
+ * through the span processor and is converted to {@link SpanData}, and the counts let a benchmark
+ * check that the spans it measures were actually produced.
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+public class CountingSpanExporter implements SpanExporter {
+
+  private final Map<String, LongAdder> counts = new ConcurrentHashMap<>();
+
+  @Override
+  public CompletableResultCode export(Collection<SpanData> spans) {
+    for (SpanData span : spans) {
+      counts.computeIfAbsent(span.getName(), name -> new LongAdder()).increment();
+    }
+    return CompletableResultCode.ofSuccess();
+  }
+
+  @Override
+  public CompletableResultCode flush() {
+    return CompletableResultCode.ofSuccess();
+  }
+
+  @Override
+  public CompletableResultCode shutdown() {
+    return CompletableResultCode.ofSuccess();
+  }
+
+  /**
+   * Returns the number of exported spans of a name.
+   *
+   * @param spanName the span name
+   * @return exported spans
+   */
+  public long count(String spanName) {
+    LongAdder count = counts.get(spanName);
+    return count != null ? count.sum() : 0;
+  }
+
+  /**
+   * Returns the number of exported spans.
+   *
+   * @return exported spans
+   */
+  public long total() {
+    return counts.values().stream().mapToLong(LongAdder::sum).sum();
+  }
+
+  /**
+   * Returns the exported spans by name.
+   *
+   * @return exported spans by name, sorted by name
+   */
+  public Map<String, Long> counts() {
+    Map<String, Long> snapshot = new TreeMap<>();
+    counts.forEach((name, count) -> snapshot.put(name, count.sum()));
+    return snapshot;
+  }
+
+  /** Forgets the spans exported so far. */
+  public void reset() {
+    counts.clear();
+  }
+}
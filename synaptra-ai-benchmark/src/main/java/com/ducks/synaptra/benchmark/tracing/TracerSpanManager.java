@@ -0,0 +1,45 @@
+package com.ducks.synaptra.benchmark.tracing;
+
+import com.ducks.synaptra.log.tracing.SpanManager;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+
+/**
+ * {@link SpanManager} creating real spans through a Micrometer {@link Tracer}.
+ *
+ * <p>The span manager of the log library is a no-op outside of an application wired with its
+ * tracing backend, so a benchmark using it would measure no span work at all. This one starts each
+ * span as a child of the current span, records events on it and ends it, which is what the
+ * orchestration pays for a span in production.
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+public class TracerSpanManager extends SpanManager {
+
+  private final Tracer tracer;
+
+  /**
+   * Creates the span manager.
+   *
+   * @param tracer the tracer creating the spans
+   */
+  public TracerSpanManager(Tracer tracer) {
+    this.tracer = tracer;
+  }
+
+  @Override
+  public Span createSpan(String spanName) {
+    return tracer.nextSpan().name(spanName).start();
+  }
+
+  @Override
+  public void addEvent(Span span, String event) {
+    span.event(event);
+  }
+
+  @Override
+  public void endSpan(Span span) {
+    span.end();
+  }
+}
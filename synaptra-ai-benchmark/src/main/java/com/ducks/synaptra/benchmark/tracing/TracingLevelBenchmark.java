@@ -0,0 +1,183 @@
+package com.ducks.synaptra.benchmark.tracing;
+
+import com.ducks.synaptra.benchmark.BenchmarkAgent;
+import com.ducks.synaptra.log.tracing.SpanManager;
+import com.ducks.synaptra.memory.EpisodeMemory;
+import com.ducks.synaptra.orchestration.event.record.RecordExecutionEvent;
+import com.ducks.synaptra.publisher.contract.RecordEvent;
+import com.ducks.synaptra.tracing.TieredTracer;
+import com.ducks.synaptra.tracing.TracedMethodPostProcessor;
+import com.ducks.synaptra.tracing.TracingLevel;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.otel.bridge.OtelBaggageManager;
+import io.micrometer.tracing.otel.bridge.OtelCurrentTraceContext;
+import io.micrometer.tracing.otel.bridge.OtelTracer;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+/**
+ * Measures the tracing overhead of the orchestration per {@link TracingLevel}.
+ *
+ * <p>The {@link EpisodeMemory} runs in a minimal application context, proxied by the {@link
+ * TieredTracer}. Spans are created by a {@link TracerSpanManager} on an OpenTelemetry SDK tracer
+ * that samples every span and hands each ended span to a {@link CountingSpanExporter} through a
+ * simple (synchronous) span processor, so the scores include span creation, events and export, but
+ * no I/O:
+ *
+ * <ul>
+ *   <li>{@code memoryRead}: a latest-status lookup, a {@link TracingLevel#DETAIL} method
+ *   <li>{@code hop}: an orchestration step, a {@link TracingLevel#HOP} span around four memory
+ *       reads
+ *   <li>{@code untraced}: the same memory read on a memory that is not proxied, as reference
+ * </ul>
+ *
+ * <p>The teardown checks the exported spans against the level, so a run whose spans were not
+ * actually created (or were created at the wrong level) fails instead of reporting numbers:
+ *
+ * <ul>
+ *   <li>{@code OFF} and {@code SESSION}: no span
+ *   <li>{@code HOP}: only {@code hop} spans, and only for the {@code hop} benchmark
+ *   <li>{@code DETAIL}: {@code memoryRead} exports one memory span per operation; {@code hop}
+ *       exports four memory spans per {@code hop} span
+ * </ul>
+ *
+ * <p>Usage:
+ *
+ * <pre>{@code
+ * java -jar target/benchmarks.jar TracingLevelBenchmark
+ * }</pre>
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TracingLevelBenchmark {
+
+  @Param({"OFF", "SESSION", "HOP", "DETAIL"})
+  private String level;
+
+  private final BenchmarkAgent agent = new BenchmarkAgent("child", "Child", "Refunds", "");
+  private final RecordEvent record =
+      new RecordEvent("Waiting for the order number.", RecordExecutionEvent.WAIT_USER_INPUT);
+
+  private CountingSpanExporter exporter;
+  private SdkTracerProvider tracerProvider;
+  private AnnotationConfigApplicationContext context;
+  private EpisodeMemory memory;
+  private EpisodeMemory untracedMemory;
+  private TieredTracer tieredTracer;
+
+  @Setup
+  public void setUp() {
+    exporter = new CountingSpanExporter();
+    tracerProvider =
+        SdkTracerProvider.builder()
+            .setSampler(Sampler.alwaysOn())
+            .addSpanProcessor(SimpleSpanProcessor.create(exporter))
+            .build();
+    OtelCurrentTraceContext currentTraceContext = new OtelCurrentTraceContext();
+    Tracer tracer =
+        new OtelTracer(
+            tracerProvider.get("benchmark"),
+            currentTraceContext,
+            event -> {},
+            new OtelBaggageManager(currentTraceContext, List.of(), List.of()));
+
+    context = new AnnotationConfigApplicationContext();
+    context
+        .getEnvironment()
+        .getPropertySources()
+        .addFirst(new MapPropertySource("benchmark", Map.of("ai.agentics.tracing.level", level)));
+    context.registerBean(Tracer.class, () -> tracer);
+    context.registerBean(SpanManager.class, () -> new TracerSpanManager(tracer));
+    context.register(TieredTracer.class, TracedMethodPostProcessor.class, EpisodeMemory.class);
+    context.refresh();
+
+    memory = context.getBean(EpisodeMemory.class);
+    tieredTracer = context.getBean(TieredTracer.class);
+    untracedMemory = new EpisodeMemory(false, 65_536);
+    for (int i = 0; i < 8; i++) {
+      memory.registerEvent("session-1", agent, record);
+      untracedMemory.registerEvent("session-1", agent, record);
+    }
+    exporter.reset();
+  }
+
+  @TearDown
+  public void tearDown(BenchmarkParams params) {
+    context.close();
+    tracerProvider.close();
+
+    String benchmark = params.getBenchmark();
+    String method = benchmark.substring(benchmark.lastIndexOf('.') + 1);
+    long hopSpans = exporter.count("hop");
+    long memorySpans = exporter.total() - hopSpans;
+    long latestStatusSpans = exporter.count("episode_memory_latest_status");
+
+    boolean expected =
+        switch (TracingLevel.valueOf(level)) {
+          case OFF, SESSION -> exporter.total() == 0;
+          case HOP -> memorySpans == 0 && (method.equals("hop") ? hopSpans > 0 : hopSpans == 0);
+          case DETAIL ->
+              switch (method) {
+                case "memoryRead" ->
+                    hopSpans == 0 && memorySpans == latestStatusSpans && latestStatusSpans > 0;
+                case "hop" -> hopSpans > 0 && memorySpans == 4 * hopSpans;
+                default -> exporter.total() == 0;
+              };
+        };
+    if (!expected) {
+      throw new IllegalStateException(
+          "Unexpected spans for " + method + " at level " + level + ": " + exporter.counts());
+    }
+  }
+
+  @Benchmark
+  public String memoryRead() {
+    return memory.latestStatus("session-1", agent);
+  }
+
+  @Benchmark
+  @SuppressWarnings("try") // the span scope is only closed, never read
+  public String hop() {
+    Span span = tieredTracer.startSpan(TracingLevel.HOP, "hop");
+    try (Tracer.SpanInScope ignored = tieredTracer.withSpan(span)) {
+      memory.getEpisodeMemory("session-1", agent);
+      memory.tail("session-1", agent, 4);
+      memory.sinceStatus("session-1", agent, RecordExecutionEvent.WAIT_USER_INPUT);
+      return memory.latestStatus("session-1", agent);
+    } finally {
+      tieredTracer.endSpan(span);
+    }
+  }
+
+  @Benchmark
+  public String untraced() {
+    return untracedMemory.latestStatus("session-1", agent);
+  }
+}
@@ -0,0 +1,79 @@
+package com.ducks.synaptra.benchmark.velocity;
+
+import com.ducks.synaptra.benchmark.BenchmarkAgent;
+import com.ducks.synaptra.config.VelocityConfiguration;
+import com.ducks.synaptra.velocity.AgentPromptRenderer;
+import com.ducks.synaptra.velocity.VelocityTemplateService;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of producing a supervisor system prompt through {@link AgentPromptRenderer}.
+ *
+ * <ul>
+ *   <li>{@code uncached}: the prompt cache is disabled (template cache still enabled)
+ *   <li>{@code fingerprint}: dynamic prompt served after fingerprint and equality checks
+ *   <li>{@code static}: the agent declares its prompt static
+ * </ul>
+ *
+ * <p>Usage:
+ *
+ * <pre>{@code
+ * java -jar target/benchmarks.jar AgentPromptBenchmark -prof gc
+ * }</pre>
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AgentPromptBenchmark {
+
+  @Param({"uncached", "fingerprint", "static"})
+  private String mode;
+
+  @Param({"8"})
+  private int children;
+
+  private AgentPromptRenderer agentPromptRenderer;
+  private BenchmarkAgent supervisor;
+
+  @Setup
+  public void setUp() {
+    VelocityTemplateService velocityTemplateService =
+        new VelocityTemplateService(new VelocityConfiguration().velocityEngine(), 256);
+    agentPromptRenderer =
+        new AgentPromptRenderer(velocityTemplateService, "uncached".equals(mode) ? 0 : 512);
+
+    supervisor =
+        new BenchmarkAgent(
+                "supervisor",
+                "Supervisor",
+                "Route customer requests",
+                BenchmarkAgent.SUPERVISOR_PROMPT)
+            .promptStatic("static".equals(mode));
+    for (int c = 0; c < children; c++) {
+      supervisor.addAgent(
+          new BenchmarkAgent("child-" + c, "Child " + c, "Handle request type " + c, ""));
+    }
+  }
+
+  @Benchmark
+  public String systemPrompt() {
+    return agentPromptRenderer.renderSystemPrompt(supervisor);
+  }
+}
@@ -0,0 +1,140 @@
+package com.ducks.synaptra.benchmark.velocity;
+
+import com.ducks.synaptra.benchmark.BenchmarkAgent;
+import com.ducks.synaptra.config.VelocityConfiguration;
+import com.ducks.synaptra.memory.EpisodeMemory;
+import com.ducks.synaptra.memory.EpisodicContextRenderer;
+import com.ducks.synaptra.orchestration.event.record.RecordExecutionEvent;
+import com.ducks.synaptra.publisher.contract.RecordEvent;
+import com.ducks.synaptra.velocity.BuiltInPrompts;
+import com.ducks.synaptra.velocity.VelocityTemplateService;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the precompiled {@link BuiltInPrompts} renderers with the equivalent (cached) Velocity
+ * templates.
+ *
+ * <p>The episodic context is rendered without the incremental line cache, so every record is
+ * rendered on each call in both variants.
+ *
+ * <p>Usage (with allocation rates):
+ *
+ * <pre>{@code
+ * java -jar target/benchmarks.jar BuiltInPromptBenchmark -prof gc
+ * }</pre>
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BuiltInPromptBenchmark {
+
+  private static final String HANDOFF =
+      """
+      HANDOFF
+      Objective: $objective
+
+      Constraints:
+       - Do not assume missing data.
+      """;
+
+  private static final String EPISODIC_MEMORY_CONTEXT =
+      """
+      EPISODIC_MEMORY_CONTEXT
+      Purpose:
+      This section summarizes what has already happened in the current session.
+      It exists to ensure continuity and avoid repetition.
+
+      The last events:
+      #foreach($record in $records)
+       # Event - status: $record.status(), content: $record.content()
+      #end
+
+      Constraints:
+      - Do not repeat previously asked questions.
+      - Do not redo completed steps.
+      - Resume execution from the last known state.
+      """;
+
+  private static final String OBJECTIVE = "Refund order 42 to the original payment method.";
+
+  private static final String[] STATUSES = {
+    RecordExecutionEvent.WAIT_USER_INPUT,
+    RecordExecutionEvent.WAIT_AGENT_EXECUTION,
+    RecordExecutionEvent.WAIT_TOOL_EXECUTION,
+    RecordExecutionEvent.FINISHED_TOOL_EXECUTION,
+    RecordExecutionEvent.FINISHED
+  };
+
+  @Param({"12"})
+  private int records;
+
+  private VelocityTemplateService velocityTemplateService;
+  private EpisodicContextRenderer episodicContextRenderer;
+  private BenchmarkAgent agent;
+  private Map<String, Object> handoffContext;
+  private Map<String, Object> episodicContext;
+
+  @Setup
+  public void setUp() {
+    velocityTemplateService =
+        new VelocityTemplateService(new VelocityConfiguration().velocityEngine(), 256);
+
+    EpisodeMemory episodeMemory = new EpisodeMemory(false, 65_536);
+    episodicContextRenderer = new EpisodicContextRenderer(episodeMemory, false, 0, null);
+
+    agent = new BenchmarkAgent("agent", "Refunds", "Handle refunds", "");
+    for (int r = 0; r < records; r++) {
+      episodeMemory.registerEvent(
+          "session",
+          agent,
+          new RecordEvent(
+              "Asked the user for the order number #" + r, STATUSES[r % STATUSES.length]));
+    }
+
+    handoffContext = new HashMap<>();
+    handoffContext.put("objective", OBJECTIVE);
+
+    episodicContext = new HashMap<>();
+    episodicContext.put("records", List.copyOf(episodeMemory.getEpisodeMemory("session", agent)));
+  }
+
+  @Benchmark
+  public String handoffVelocity() {
+    return velocityTemplateService.render(HANDOFF, handoffContext);
+  }
+
+  @Benchmark
+  public String handoffNative() {
+    return BuiltInPrompts.handoff(OBJECTIVE);
+  }
+
+  @Benchmark
+  public String episodicContextVelocity() {
+    return velocityTemplateService.render(EPISODIC_MEMORY_CONTEXT, episodicContext);
+  }
+
+  @Benchmark
+  public String episodicContextNative() {
+    return episodicContextRenderer.renderEpisodicContext("session", agent);
+  }
+}
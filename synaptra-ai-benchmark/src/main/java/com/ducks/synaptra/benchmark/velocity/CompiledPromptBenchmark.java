@@ -0,0 +1,79 @@
+package com.ducks.synaptra.benchmark.velocity;
+
+import com.ducks.synaptra.benchmark.BenchmarkAgent;
+import com.ducks.synaptra.config.VelocityConfiguration;
+import com.ducks.synaptra.velocity.VelocityTemplateService;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares rendering the supervisor prompt with Velocity (parsed template cached) against the
+ * renderer generated at build time from {@link SupervisorPrompts}.
+ *
+ * <p>Usage:
+ *
+ * <pre>{@code
+ * java -jar target/benchmarks.jar CompiledPromptBenchmark -prof gc
+ * }</pre>
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompiledPromptBenchmark {
+
+  @Param({"8", "64"})
+  private int children;
+
+  private VelocityTemplateService velocityTemplateService;
+  private SupervisorPrompts compiled;
+  private BenchmarkAgent supervisor;
+
+  @Setup
+  public void setUp() {
+    velocityTemplateService =
+        new VelocityTemplateService(new VelocityConfiguration().velocityEngine(), 256);
+    compiled = new SupervisorPromptsCompiled();
+
+    supervisor =
+        new BenchmarkAgent(
+            "supervisor",
+            "Supervisor",
+            "Route customer requests",
+            BenchmarkAgent.SUPERVISOR_PROMPT);
+    for (int c = 0; c < children; c++) {
+      supervisor.addAgent(
+          new BenchmarkAgent("child-" + c, "Child " + c, "Handle request type " + c, ""));
+    }
+
+    String expected = velocity();
+    if (!expected.equals(compiled())) {
+      throw new IllegalStateException("Compiled prompt differs from the Velocity output");
+    }
+  }
+
+  @Benchmark
+  public String velocity() {
+    return velocityTemplateService.render(supervisor.getPrompt(), supervisor.getVelocityContext());
+  }
+
+  @Benchmark
+  public String compiled() {
+    return compiled.supervisor(supervisor.getName(), supervisor.getGoal(), supervisor.getAgents());
+  }
+}
@@ -0,0 +1,32 @@
+package com.ducks.synaptra.benchmark.velocity;
+
+import com.ducks.synaptra.agent.Agent;
+import com.ducks.synaptra.benchmark.BenchmarkAgent;
+import com.ducks.synaptra.prompt.CompiledPrompts;
+import com.ducks.synaptra.prompt.PromptTemplate;
+import java.util.List;
+
+/**
+ * {@link BenchmarkAgent#SUPERVISOR_PROMPT} compiled at build time, generating {@code
+ * SupervisorPromptsCompiled}.
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@CompiledPrompts
+public interface SupervisorPrompts {
+
+  @PromptTemplate(
+      """
+      You are $name.
+      Goal: $goal
+
+      Available agents:
+      #foreach($agent in $agents)
+       - $agent.getName(): $agent.getGoal()
+      #end
+
+      Route the request to the agent that best fulfills it.
+      """)
+  String supervisor(String name, String goal, List<Agent> agents);
+}
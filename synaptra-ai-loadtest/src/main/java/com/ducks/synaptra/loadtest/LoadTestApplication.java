@@ -0,0 +1,115 @@
+package com.ducks.synaptra.loadtest;
+
+import com.ducks.synaptra.loadtest.simulation.SimulationSweep;
+import com.ducks.synaptra.log.tracing.SpanManager;
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.simple.CountingMode;
+import io.micrometer.core.instrument.simple.SimpleConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.CurrentTraceContext;
+import io.micrometer.tracing.Tracer;
+import java.time.Duration;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Load-test application: the library, an embedded stub of the OpenAI API and the load driver in a
+ * single process.
+ *
+ * <p>The application scans the library packages like a host application would, points the OpenAI
+ * client at the {@link com.ducks.synaptra.loadtest.stub.StubOpenAIServer} (see {@code
+ * application.properties}), runs the {@link com.ducks.synaptra.loadtest.driver.LoadTestDriver} and
+ * exits once the report is written.
+ *
+ * <p>Spans are not exported (no-op tracer), so tracing costs stay out of the measurement. Meters
+ * are kept in a cumulative in-memory registry whose percentiles cover the whole run.
+ *
+ * <p>Usage:
+ *
+ * <pre>{@code
+ * java -jar target/loadtest.jar --loadtest.sessions=5000 --loadtest.report-file=report.json
+ * }</pre>
+ *
+ * <p>With the {@value #SIMULATION_PROFILE} profile, the orchestration runs as a discrete-event
+ * simulation instead (see {@link com.ducks.synaptra.loadtest.simulation.SimulationDriver}): no stub
+ * server, no threads, virtual time. A {@code loadtest.simulation.sweep} runs one simulation per
+ * configuration variant and compares them (see {@link
+ * com.ducks.synaptra.loadtest.simulation.SimulationSweep}):
+ *
+ * <pre>{@code
+ * java -jar target/loadtest.jar --spring.profiles.active=simulation --loadtest.sessions=100000
+ * java -jar target/loadtest.jar --loadtest.sessions=100000 \
+ *     "--loadtest.simulation.sweep=ai.agentics.executor.agent.max-size=8;ai.agentics.executor.agent.max-size=32"
+ * }</pre>
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@SpringBootApplication(scanBasePackages = "com.ducks.synaptra")
+public class LoadTestApplication {
+
+  /** Profile running the orchestration as a discrete-event simulation. */
+  public static final String SIMULATION_PROFILE = "simulation";
+
+  public static void main(String[] args) {
+    if (SimulationSweep.isRequested(args)) {
+      SimulationSweep.run(args);
+      return;
+    }
+    System.exit(SpringApplication.exit(SpringApplication.run(LoadTestApplication.class, args)));
+  }
+
+  @Bean
+  public Tracer tracer() {
+    return Tracer.NOOP;
+  }
+
+  @Bean
+  public CurrentTraceContext currentTraceContext() {
+    return CurrentTraceContext.NOOP;
+  }
+
+  @Bean
+  public SpanManager spanManager() {
+    return new SpanManager();
+  }
+
+  @Bean
+  public MeterRegistry meterRegistry() {
+    SimpleMeterRegistry registry =
+        new SimpleMeterRegistry(
+            new SimpleConfig() {
+              @Override
+              public String get(String key) {
+                return null;
+              }
+
+              @Override
+              public CountingMode mode() {
+                return CountingMode.CUMULATIVE;
+              }
+            },
+            Clock.SYSTEM);
+    // Percentiles and maxima over the whole run instead of a sliding window.
+    registry
+        .config()
+        .meterFilter(
+            new MeterFilter() {
+              @Override
+              public DistributionStatisticConfig configure(
+                  Meter.Id id, DistributionStatisticConfig config) {
+                return DistributionStatisticConfig.builder()
+                    .expiry(Duration.ofDays(1))
+                    .bufferLength(1)
+                    .build()
+                    .merge(config);
+              }
+            });
+    return registry;
+  }
+}
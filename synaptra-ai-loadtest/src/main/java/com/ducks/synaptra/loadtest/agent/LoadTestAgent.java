@@ -0,0 +1,141 @@
+package com.ducks.synaptra.loadtest.agent;
+
+import com.ducks.synaptra.agent.Agent;
+import com.ducks.synaptra.agent.AgentType;
+import com.ducks.synaptra.agent.BaseAgent;
+import com.ducks.synaptra.agent.ProviderConfig;
+import com.ducks.synaptra.client.openai.data.ToolChoice;
+import com.ducks.synaptra.prompt.CompiledPrompt;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal {@link BaseAgent} driven by the load test.
+ *
+ * <p>Agents are wired into a supervisor hierarchy through {@link #addAgent(LoadTestAgent)};
+ * scripted agents support interim messages, so routing produces the interim answers of real trees.
+ * Agents rebuilt from recorded traffic carry the recorded system prompt as a static {@link
+ * CompiledPrompt}, so their requests match the recorded ones.
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+public class LoadTestAgent extends BaseAgent {
+
+  private final String identifier;
+  private final String name;
+  private final String goal;
+  private final String prompt;
+  private final String model;
+  private final CompiledPrompt compiledPrompt;
+  private final boolean supportsInterimMessages;
+  private final List<Agent> agents = new ArrayList<>();
+
+  public LoadTestAgent(String identifier, String name, String goal, String prompt, String model) {
+    this(identifier, name, goal, prompt, model, null, true);
+  }
+
+  /**
+   * Creates an agent rendering a fixed system prompt.
+   *
+   * @param identifier the agent identifier
+   * @param name the agent name, used as routing target
+   * @param systemPrompt the system prompt, sent as is
+   * @param model the model sent in the requests
+   * @param supportsInterimMessages whether the routing tool asks for an interim answer
+   * @return the agent
+   */
+  public static LoadTestAgent ofSystemPrompt(
+      String identifier,
+      String name,
+      String systemPrompt,
+      String model,
+      boolean supportsInterimMessages) {
+    return new LoadTestAgent(
+        identifier, name, name, systemPrompt, model, () -> systemPrompt, supportsInterimMessages);
+  }
+
+  private LoadTestAgent(
+      String identifier,
+      String name,
+      String goal,
+      String prompt,
+      String model,
+      CompiledPrompt compiledPrompt,
+      boolean supportsInterimMessages) {
+    this.identifier = identifier;
+    this.name = name;
+    this.goal = goal;
+    this.prompt = prompt;
+    this.model = model;
+    this.compiledPrompt = compiledPrompt;
+    this.supportsInterimMessages = supportsInterimMessages;
+  }
+
+  /**
+   * Adds a child agent and links it back to this agent.
+   *
+   * @param agent the child agent
+   * @return this agent, for chaining
+   */
+  public LoadTestAgent addAgent(LoadTestAgent agent) {
+    agents.add(agent);
+    agent.setParent(this);
+    return this;
+  }
+
+  @Override
+  public String getIdentifier() {
+    return identifier;
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public String getGoal() {
+    return goal;
+  }
+
+  @Override
+  public boolean isSupportsInterimMessages() {
+    return supportsInterimMessages;
+  }
+
+  @Override
+  public AgentType getAgentType() {
+    return agents.isEmpty() ? AgentType.AGENT : AgentType.SUPERVISOR;
+  }
+
+  @Override
+  public ProviderConfig getProviderConfig() {
+    return new ProviderConfig(model, 0.2, 1024, 1.0);
+  }
+
+  @Override
+  public String getPrompt() {
+    return prompt;
+  }
+
+  @Override
+  public boolean isPromptStatic() {
+    return compiledPrompt != null;
+  }
+
+  @Override
+  public CompiledPrompt getCompiledPrompt() {
+    return compiledPrompt;
+  }
+
+  @Override
+  public List<Agent> getAgents() {
+    return agents;
+  }
+
+  @Override
+  public ToolChoice getToolChoice() {
+    return ToolChoice.AUTO;
+  }
+}
@@ -0,0 +1,103 @@
+package com.ducks.synaptra.loadtest.agent;
+
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+/**
+ * Agent tree driven by the load test: a supervisor routing to {@code children} child agents, or a
+ * single agent when there are no children.
+ *
+ * <p>The prompts are shaped like real prompts (the supervisor lists its agents), so prompt
+ * rendering and request sizes are part of the measurement.
+ *
+ * <h2>Configuration Properties</h2>
+ *
+ * <ul>
+ *   <li><b>loadtest.agents.children</b> — Number of child agents of the supervisor; {@code 0} runs
+ *       a single agent (default {@code 4})
+ *   <li><b>loadtest.agents.model</b> — Model sent in the requests (default {@code gpt-4o-mini})
+ * </ul>
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@Component
+public class LoadTestAgents {
+
+  private static final String SUPERVISOR_PROMPT =
+      """
+      You are $name.
+      Goal: $goal
+
+      Available agents:
+      #foreach($agent in $agents)
+       - $agent.getName(): $agent.getGoal()
+      #end
+
+      Route the request to the agent that best fulfills it. Once the agent has finished, verify the
+      result and produce the final answer for the user.
+      """;
+
+  private static final String AGENT_PROMPT =
+      """
+      You are $name.
+      Goal: $goal
+
+      Ask the user for any missing information. Use the available tools to look up and update the
+      customer data, then record the outcome of the request.
+      """;
+
+  private final LoadTestAgent root;
+  private final List<String> childNames;
+
+  /**
+   * Creates the agent tree.
+   *
+   * @param children number of child agents of the supervisor
+   * @param model model sent in the requests
+   * @throws IllegalArgumentException if {@code children} is negative
+   */
+  public LoadTestAgents(
+      @Value("${loadtest.agents.children:4}") int children,
+      @Value("${loadtest.agents.model:gpt-4o-mini}") String model) {
+    Assert.isTrue(children >= 0, "children must not be negative");
+    if (children == 0) {
+      root =
+          new LoadTestAgent("agent", "Assistant", "Handle customer requests", AGENT_PROMPT, model);
+    } else {
+      root =
+          new LoadTestAgent(
+              "supervisor", "Supervisor", "Route customer requests", SUPERVISOR_PROMPT, model);
+      for (int c = 0; c < children; c++) {
+        root.addAgent(
+            new LoadTestAgent(
+                "agent-" + c,
+                "Agent " + c,
+                "Handle customer request type " + c,
+                AGENT_PROMPT,
+                model));
+      }
+    }
+    childNames = root.getAgents().stream().map(agent -> agent.getName()).toList();
+  }
+
+  /**
+   * Returns the root agent, receiving the user input.
+   *
+   * @return root agent
+   */
+  public LoadTestAgent getRoot() {
+    return root;
+  }
+
+  /**
+   * Returns the names of the child agents the root agent routes to.
+   *
+   * @return child agent names (empty when the root agent has no children)
+   */
+  public List<String> getChildNames() {
+    return childNames;
+  }
+}
@@ -0,0 +1,315 @@
+package com.ducks.synaptra.loadtest.driver;
+
+import com.ducks.synaptra.loadtest.LoadTestApplication;
+import com.ducks.synaptra.loadtest.replay.RecordedTraffic;
+import com.ducks.synaptra.loadtest.stub.StubOpenAIServer;
+import com.ducks.synaptra.orchestration.admission.AdmissionRejectedException;
+import com.ducks.synaptra.orchestration.event.answer.contract.AnswerResponseEvent;
+import com.ducks.synaptra.publisher.UserInputPublisher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+/**
+ * Drives the load test: runs concurrent sessions of user turns through the {@link
+ * UserInputPublisher} and reports throughput, latencies, executor saturation and heap usage.
+ *
+ * <p>Sessions are planned by the {@link WorkloadPlanner}, from the synthetic workload or recorded
+ * traffic. Each session sends its turns one after the other: a turn ends with its final answer (see
+ * {@link TurnTracker}), or is abandoned after the turn timeout, and the next turn follows after its
+ * delay. Meanwhile, the orchestration gauges (see {@link
+ * com.ducks.synaptra.metrics.OrchestrationMetrics}) and the heap are sampled to record their peaks.
+ *
+ * <p>The report is logged and, when {@code loadtest.report-file} is set, written as JSON (see
+ * {@link LoadTestReport}).
+ *
+ * <h2>Configuration Properties</h2>
+ *
+ * <ul>
+ *   <li><b>loadtest.turn-timeout-ms</b> — Time after which a turn without final answer is abandoned
+ *       (default {@code 60000})
+ *   <li><b>loadtest.sample-interval-ms</b> — Sampling interval of the gauges and heap (default
+ *       {@code 500})
+ *   <li><b>loadtest.report-file</b> — JSON report file (default none)
+ * </ul>
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@Component
+@Profile("!" + LoadTestApplication.SIMULATION_PROFILE)
+public class LoadTestDriver implements ApplicationRunner {
+
+  private static final Logger logger = LogManager.getLogger(LoadTestDriver.class);
+
+  private static final double MB = 1024 * 1024;
+
+  /** Gauges whose peaks are reported. */
+  private static final String[] SAMPLED_GAUGES = {
+    "synaptra.executor.active",
+    "synaptra.executor.pending",
+    "synaptra.bus.backlog",
+    "synaptra.mailbox.busy-sessions",
+    "synaptra.admission.sessions"
+  };
+
+  private final UserInputPublisher userInputPublisher;
+  private final WorkloadPlanner planner;
+  private final TurnTracker turnTracker;
+  private final ScriptedToolExecutor toolExecutor;
+  private final StubOpenAIServer stub;
+  private final RecordedTraffic traffic;
+  private final MeterRegistry registry;
+  private final ObjectMapper mapper;
+  private final long turnTimeoutMillis;
+  private final long sampleIntervalMillis;
+  private final String reportFile;
+
+  private final Timer turnLatency;
+  private final Map<String, Double> peaks = new ConcurrentHashMap<>();
+  private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+  private final LongAdder completed = new LongAdder();
+  private final LongAdder timedOut = new LongAdder();
+  private final LongAdder shed = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+
+  /**
+   * Creates the driver.
+   *
+   * @param userInputPublisher the publisher receiving the user turns
+   * @param planner the planner of the sessions
+   * @param turnTracker the tracker of the turns in flight
+   * @param toolExecutor the executor of the external tool calls
+   * @param stub the stub OpenAI server
+   * @param traffic the recorded traffic, whose replay counters are reported
+   * @param registry the registry holding the orchestration meters
+   * @param mapper the mapper writing the JSON report
+   * @param turnTimeoutMillis time after which a turn without final answer is abandoned
+   * @param sampleIntervalMillis sampling interval of the gauges and heap
+   * @param reportFile JSON report file (empty for none)
+   * @throws IllegalArgumentException if a duration is not positive
+   */
+  public LoadTestDriver(
+      UserInputPublisher userInputPublisher,
+      WorkloadPlanner planner,
+      TurnTracker turnTracker,
+      ScriptedToolExecutor toolExecutor,
+      StubOpenAIServer stub,
+      RecordedTraffic traffic,
+      MeterRegistry registry,
+      ObjectMapper mapper,
+      @Value("${loadtest.turn-timeout-ms:60000}") long turnTimeoutMillis,
+      @Value("${loadtest.sample-interval-ms:500}") long sampleIntervalMillis,
+      @Value("${loadtest.report-file:}") String reportFile) {
+    Assert.isTrue(turnTimeoutMillis > 0, "turnTimeoutMillis must be positive");
+    Assert.isTrue(sampleIntervalMillis > 0, "sampleIntervalMillis must be positive");
+    this.userInputPublisher = userInputPublisher;
+    this.planner = planner;
+    this.turnTracker = turnTracker;
+    this.toolExecutor = toolExecutor;
+    this.stub = stub;
+    this.traffic = traffic;
+    this.registry = registry;
+    this.mapper = mapper;
+    this.turnTimeoutMillis = turnTimeoutMillis;
+    this.sampleIntervalMillis = sampleIntervalMillis;
+    this.reportFile = reportFile;
+    this.turnLatency =
+        Timer.builder("loadtest.turn.latency")
+            .description("Time from the user input of a turn to its final answer")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(registry);
+  }
+
+  @Override
+  public void run(ApplicationArguments args) throws InterruptedException, IOException {
+    List<SessionPlan> plans = planner.plan();
+    int plannedTurns = plans.stream().mapToInt(plan -> plan.turns().size()).sum();
+    logger.info(
+        "[LOADTEST_STARTED] mode={}, sessions={}, turns={}, stubPort={}",
+        planner.mode(),
+        plans.size(),
+        plannedTurns,
+        stub.getPort());
+
+    ScheduledExecutorService scheduler =
+        Executors.newScheduledThreadPool(
+            2, Thread.ofPlatform().name("loadtest-driver-", 0).daemon().factory());
+    CountDownLatch done = new CountDownLatch(plans.size());
+    long[] gcBaseline = gcTotals();
+    long startedAt = System.nanoTime();
+    try {
+      scheduler.scheduleAtFixedRate(this::sample, 0, sampleIntervalMillis, TimeUnit.MILLISECONDS);
+      for (SessionPlan plan : plans) {
+        scheduler.schedule(
+            () -> startTurn(scheduler, done, plan, 0),
+            plan.startOffsetMillis(),
+            TimeUnit.MILLISECONDS);
+      }
+      done.await();
+    } finally {
+      scheduler.shutdownNow();
+    }
+    long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+    sample();
+
+    LoadTestReport report = report(plans.size(), plannedTurns, durationMillis, gcBaseline);
+    logger.info("[LOADTEST_REPORT]{}{}", System.lineSeparator(), report.render());
+    if (!reportFile.isBlank()) {
+      mapper.writerWithDefaultPrettyPrinter().writeValue(new File(reportFile), report);
+      logger.info("[LOADTEST_REPORT_WRITTEN] file={}", reportFile);
+    }
+  }
+
+  private void startTurn(
+      ScheduledExecutorService scheduler, CountDownLatch done, SessionPlan plan, int index) {
+    String sessionId = plan.sessionId();
+    CompletableFuture<AnswerResponseEvent> turn = turnTracker.expect(sessionId);
+    long startedAt = System.nanoTime();
+    try {
+      userInputPublisher.publishEvent(sessionId, plan.root(), plan.turns().get(index).input());
+    } catch (AdmissionRejectedException e) {
+      turnTracker.abandon(sessionId, turn);
+      shed.increment();
+      done.countDown();
+      return;
+    } catch (RuntimeException e) {
+      logger.warn("[LOADTEST_TURN_FAILED] sessionId={}, reason={}", sessionId, e.getMessage());
+      turnTracker.abandon(sessionId, turn);
+      failed.increment();
+      done.countDown();
+      return;
+    }
+
+    turn.orTimeout(turnTimeoutMillis, TimeUnit.MILLISECONDS)
+        .whenComplete(
+            (answer, error) -> {
+              if (error != null) {
+                turnTracker.abandon(sessionId, turn);
+                timedOut.increment();
+              } else {
+                turnLatency.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                completed.increment();
+              }
+              if (index + 1 < plan.turns().size()) {
+                scheduler.schedule(
+                    () -> startTurn(scheduler, done, plan, index + 1),
+                    plan.turns().get(index + 1).delayMillis(),
+                    TimeUnit.MILLISECONDS);
+              } else {
+                done.countDown();
+              }
+            });
+  }
+
+  /** Records the peaks of the sampled gauges and of the used heap. */
+  private void sample() {
+    for (String name : SAMPLED_GAUGES) {
+      for (Gauge gauge : registry.find(name).gauges()) {
+        String key =
+            gauge.getId().getTags().isEmpty()
+                ? name
+                : name + "{" + gauge.getId().getTags().getFirst().getValue() + "}";
+        peaks.merge(key, gauge.value(), Math::max);
+      }
+    }
+    peaks.merge("heap.used.mb", memory.getHeapMemoryUsage().getUsed() / MB, Math::max);
+  }
+
+  private LoadTestReport report(
+      int plannedSessions, int plannedTurns, long durationMillis, long[] gcBaseline) {
+    double seconds = Math.max(durationMillis, 1) / 1000.0;
+
+    Map<String, LoadTestReport.Latency> llmCalls = new TreeMap<>();
+    long llmCallCount = 0;
+    for (Timer timer : registry.find("synaptra.llm.call").timers()) {
+      llmCalls.put(
+          timer.getId().getTag("agent") + "/" + timer.getId().getTag("outcome"),
+          LoadTestReport.Latency.of(timer));
+      llmCallCount += timer.count();
+    }
+
+    Map<String, Double> rejected = new TreeMap<>();
+    for (FunctionCounter counter : registry.find("synaptra.executor.rejected").functionCounters()) {
+      rejected.put(counter.getId().getTag("executor"), counter.count());
+    }
+
+    DistributionSummary hops = registry.find("synaptra.turn.hops").summary();
+    Map<String, Double> executorPeaks = new TreeMap<>(peaks);
+    Double peakHeap = executorPeaks.remove("heap.used.mb");
+    long[] gc = gcTotals();
+
+    return new LoadTestReport(
+        planner.mode(),
+        plannedSessions,
+        plannedTurns,
+        durationMillis,
+        completed.sum(),
+        timedOut.sum(),
+        shed.sum(),
+        failed.sum(),
+        completed.sum() / seconds,
+        llmCallCount / seconds,
+        hops != null ? hops.mean() : 0,
+        LoadTestReport.Latency.of(turnLatency),
+        LoadTestReport.Latency.of(registry.find("synaptra.turn.time-to-first-answer").timer()),
+        LoadTestReport.Latency.of(stub.getHopGap()),
+        llmCalls,
+        executorPeaks,
+        rejected,
+        new LoadTestReport.Heap(
+            peakHeap != null ? peakHeap : 0,
+            memory.getHeapMemoryUsage().getUsed() / MB,
+            memory.getHeapMemoryUsage().getMax() / MB,
+            gc[0] - gcBaseline[0],
+            gc[1] - gcBaseline[1]),
+        new LoadTestReport.Stub(
+            stub.getRequests(),
+            traffic.getReplayed(),
+            traffic.getMisses(),
+            stub.getErrors(),
+            stub.getThrottled(),
+            stub.getTimeouts(),
+            toolExecutor.getExecutions(),
+            turnTracker.getInterimAnswers(),
+            turnTracker.getLateAnswers()));
+  }
+
+  /** Returns the total collection count and time (ms) of all garbage collectors. */
+  private static long[] gcTotals() {
+    long count = 0;
+    long millis = 0;
+    for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+      count += Math.max(collector.getCollectionCount(), 0);
+      millis += Math.max(collector.getCollectionTime(), 0);
+    }
+    return new long[] {count, millis};
+  }
+}
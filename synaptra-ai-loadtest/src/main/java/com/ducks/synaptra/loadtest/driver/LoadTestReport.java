@@ -0,0 +1,187 @@
+package com.ducks.synaptra.loadtest.driver;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Results of a load test run, rendered as text by {@link #render()} and written as JSON by the
+ * {@link LoadTestDriver}.
+ *
+ * <p>Latencies are in milliseconds, sizes in megabytes.
+ *
+ * @param mode {@code script} for the synthetic workload, {@code replay} for recorded traffic
+ * @param sessions the number of sessions driven
+ * @param turns the number of user turns driven, over all sessions
+ * @param durationMillis the duration of the run
+ * @param turnsCompleted the turns that received their final answer
+ * @param turnsTimedOut the turns abandoned after the turn timeout
+ * @param turnsShed the turns rejected by the admission control
+ * @param turnsFailed the turns whose user input could not be published
+ * @param turnsPerSecond the completed turns per second
+ * @param llmCallsPerSecond the LLM calls per second
+ * @param hopsPerTurn the mean number of hops per completed turn
+ * @param turnLatency the latency of completed turns, from user input to final answer
+ * @param timeToFirstAnswer the time from user input to the first answer delivered
+ * @param hopGap the orchestration time between an LLM answer and the next LLM request
+ * @param llmCalls the LLM call latency by {@code agent/outcome}
+ * @param executorPeaks the peak of the orchestration gauges (executor active and pending tasks, bus
+ *     backlog, busy sessions, admitted and queued sessions), by gauge
+ * @param executorRejected the tasks rejected by executor
+ * @param heap the heap usage
+ * @param stub the stub and tool counters
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+public record LoadTestReport(
+    String mode,
+    int sessions,
+    int turns,
+    long durationMillis,
+    long turnsCompleted,
+    long turnsTimedOut,
+    long turnsShed,
+    long turnsFailed,
+    double turnsPerSecond,
+    double llmCallsPerSecond,
+    double hopsPerTurn,
+    Latency turnLatency,
+    Latency timeToFirstAnswer,
+    Latency hopGap,
+    Map<String, Latency> llmCalls,
+    Map<String, Double> executorPeaks,
+    Map<String, Double> executorRejected,
+    Heap heap,
+    Stub stub) {
+
+  /**
+   * Renders the report as text.
+   *
+   * @return the rendered report
+   */
+  public String render() {
+    StringBuilder text = new StringBuilder();
+    text.append(
+        String.format(
+            "mode=%s, sessions=%d, turns=%d, duration=%.1fs%n",
+            mode, sessions, turns, durationMillis / 1000.0));
+    text.append(
+        String.format(
+            "turns: completed=%d, timedOut=%d, shed=%d, failed=%d%n",
+            turnsCompleted, turnsTimedOut, turnsShed, turnsFailed));
+    text.append(
+        String.format(
+            "throughput: %.1f turns/s, %.1f LLM calls/s, %.2f hops/turn%n",
+            turnsPerSecond, llmCallsPerSecond, hopsPerTurn));
+    text.append("latency (ms):").append(System.lineSeparator());
+    text.append(turnLatency.render("  turn")).append(System.lineSeparator());
+    text.append(timeToFirstAnswer.render("  first answer")).append(System.lineSeparator());
+    text.append(hopGap.render("  hop gap")).append(System.lineSeparator());
+    llmCalls.forEach(
+        (key, latency) ->
+            text.append(latency.render("  llm " + key)).append(System.lineSeparator()));
+    text.append("peaks: ").append(executorPeaks).append(System.lineSeparator());
+    text.append("rejected: ").append(executorRejected).append(System.lineSeparator());
+    text.append(
+        String.format(
+            "heap: peak=%.1fMB, end=%.1fMB, max=%.1fMB, gc=%d collections / %dms%n",
+            heap.peakUsedMb(), heap.endUsedMb(), heap.maxMb(), heap.gcCount(), heap.gcMillis()));
+    text.append(
+        String.format(
+            "stub: requests=%d, replayed=%d, replayMisses=%d, errors=%d, throttled=%d, timeouts=%d,"
+                + " tools=%d, interim=%d, late=%d",
+            stub.requests(),
+            stub.replayed(),
+            stub.replayMisses(),
+            stub.errors(),
+            stub.throttled(),
+            stub.timeouts(),
+            stub.toolExecutions(),
+            stub.interimAnswers(),
+            stub.lateAnswers()));
+    return text.toString();
+  }
+
+  /**
+   * Latency percentiles, in milliseconds.
+   *
+   * @param count the number of samples
+   * @param p50 the median
+   * @param p95 the 95th percentile
+   * @param p99 the 99th percentile
+   * @param max the maximum
+   */
+  public record Latency(long count, double p50, double p95, double p99, double max) {
+
+    /**
+     * Reads the latency of a timer publishing the 50th, 95th and 99th percentiles.
+     *
+     * @param timer the timer, or {@code null} if it was never registered
+     * @return the latency (all zero without timer)
+     */
+    public static Latency of(Timer timer) {
+      if (timer == null) {
+        return new Latency(0, 0, 0, 0, 0);
+      }
+      HistogramSnapshot snapshot = timer.takeSnapshot();
+      return new Latency(
+          snapshot.count(),
+          percentile(snapshot, 0.5),
+          percentile(snapshot, 0.95),
+          percentile(snapshot, 0.99),
+          snapshot.max(TimeUnit.MILLISECONDS));
+    }
+
+    private static double percentile(HistogramSnapshot snapshot, double percentile) {
+      for (ValueAtPercentile value : snapshot.percentileValues()) {
+        if (value.percentile() == percentile) {
+          return value.value(TimeUnit.MILLISECONDS);
+        }
+      }
+      return Double.NaN;
+    }
+
+    private String render(String name) {
+      return String.format(
+          "%s: n=%d, p50=%.1f, p95=%.1f, p99=%.1f, max=%.1f", name, count, p50, p95, p99, max);
+    }
+  }
+
+  /**
+   * Heap usage.
+   *
+   * @param peakUsedMb the peak used heap, as sampled
+   * @param endUsedMb the used heap at the end of the run
+   * @param maxMb the maximum heap
+   * @param gcCount the garbage collections during the run
+   * @param gcMillis the garbage collection time during the run
+   */
+  public record Heap(
+      double peakUsedMb, double endUsedMb, double maxMb, long gcCount, long gcMillis) {}
+
+  /**
+   * Stub and tool counters.
+   *
+   * @param requests the requests received by the stub
+   * @param replayed the requests answered from recorded traffic
+   * @param replayMisses the requests of a replay without recorded answer
+   * @param errors the requests answered with HTTP 500
+   * @param throttled the requests answered with HTTP 429
+   * @param timeouts the requests never answered
+   * @param toolExecutions the external tool calls executed
+   * @param interimAnswers the interim answers delivered
+   * @param lateAnswers the final answers delivered after their turn timed out
+   */
+  public record Stub(
+      long requests,
+      long replayed,
+      long replayMisses,
+      long errors,
+      long throttled,
+      long timeouts,
+      long toolExecutions,
+      long interimAnswers,
+      long lateAnswers) {}
+}
@@ -0,0 +1,126 @@
+package com.ducks.synaptra.loadtest.driver;
+
+import com.ducks.synaptra.client.openai.data.Message;
+import com.ducks.synaptra.loadtest.simulation.VirtualClock;
+import com.ducks.synaptra.loadtest.stub.ResponseScript;
+import com.ducks.synaptra.orchestration.bus.OrchestrationEventBus;
+import com.ducks.synaptra.orchestration.cancellation.CancellationToken;
+import com.ducks.synaptra.orchestration.event.agent.contract.AgentRequestEvent;
+import com.ducks.synaptra.orchestration.event.record.RecordExecutionEvent;
+import com.ducks.synaptra.orchestration.event.record.contract.RecordRequestEvent;
+import com.ducks.synaptra.orchestration.event.tool.ToolExecutionListener;
+import com.ducks.synaptra.orchestration.event.tool.contract.ToolResponseEvent;
+import com.ducks.synaptra.publisher.contract.RecordEvent;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+/**
+ * Executes the external tool calls of the load test, like a host application would.
+ *
+ * <p>Each call completes after the configured latency, without blocking the tool stage: it records
+ * {@code FINISHED_TOOL_EXECUTION} for the calling agent and calls the agent again with the tool
+ * result as context (see {@link ResponseScript#TOOL_RESULT_PREFIX}). The continuation runs with the
+ * cancellation token of the turn, so superseded turns stop there.
+ *
+ * <p>In a simulation, the calls complete on the {@link VirtualClock} instead of a scheduler thread.
+ *
+ * <h2>Configuration Properties</h2>
+ *
+ * <ul>
+ *   <li><b>loadtest.tool.latency-ms</b> — Execution time of an external tool (default {@code 50})
+ * </ul>
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@Component
+public class ScriptedToolExecutor implements ToolExecutionListener, DisposableBean {
+
+  private final OrchestrationEventBus eventBus;
+  private final long latencyMillis;
+  private final VirtualClock clock;
+  private final ScheduledExecutorService scheduler =
+      Executors.newSingleThreadScheduledExecutor(
+          Thread.ofPlatform().name("loadtest-tool").daemon().factory());
+
+  private final LongAdder executions = new LongAdder();
+
+  /**
+   * Creates the executor.
+   *
+   * @param eventBus the bus the tool results are published to
+   * @param clock the clock of the simulation, if any
+   * @param latencyMillis execution time of an external tool
+   * @throws IllegalArgumentException if the latency is negative
+   */
+  public ScriptedToolExecutor(
+      OrchestrationEventBus eventBus,
+      ObjectProvider<VirtualClock> clock,
+      @Value("${loadtest.tool.latency-ms:50}") long latencyMillis) {
+    Assert.isTrue(latencyMillis >= 0, "latencyMillis must not be negative");
+    this.eventBus = eventBus;
+    this.clock = clock.getIfAvailable();
+    this.latencyMillis = latencyMillis;
+  }
+
+  @Override
+  public void onToolExecutionResponseEvent(ToolResponseEvent toolResponseEvent) {
+    CancellationToken token = CancellationToken.current();
+    Runnable completion = () -> CancellationToken.runWith(token, () -> complete(toolResponseEvent));
+    if (clock != null) {
+      clock.schedule(TimeUnit.MILLISECONDS.toNanos(latencyMillis), completion);
+      return;
+    }
+    scheduler.schedule(completion, latencyMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Returns the number of external tool calls executed.
+   *
+   * @return executed tool calls
+   */
+  public long getExecutions() {
+    return executions.sum();
+  }
+
+  /** Stops the tool scheduler. */
+  @Override
+  public void destroy() {
+    scheduler.shutdownNow();
+  }
+
+  private void complete(ToolResponseEvent toolResponseEvent) {
+    executions.increment();
+    String toolName = toolResponseEvent.toolCall().function().name();
+    eventBus.publish(
+        new RecordRequestEvent(
+            toolResponseEvent.sessionId(),
+            toolResponseEvent.agent(),
+            toolResponseEvent.user(),
+            new RecordEvent(
+                "Tool " + toolName + " executed.", RecordExecutionEvent.FINISHED_TOOL_EXECUTION)));
+    eventBus.publish(
+        new AgentRequestEvent(
+            toolResponseEvent.sessionId(),
+            toolResponseEvent.agent(),
+            new Message(
+                "system",
+                ResponseScript.TOOL_RESULT_PREFIX
+                    + " "
+                    + toolName
+                    + " returned {\"status\":\"ok\"} for the call "
+                    + toolResponseEvent.toolCall().id()
+                    + ".",
+                null,
+                null,
+                null),
+            toolResponseEvent.user()));
+  }
+}
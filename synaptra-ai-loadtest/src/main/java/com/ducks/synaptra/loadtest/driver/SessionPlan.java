@@ -0,0 +1,26 @@
+package com.ducks.synaptra.loadtest.driver;
+
+import com.ducks.synaptra.agent.Agent;
+import java.util.List;
+
+/**
+ * A session driven by the {@link LoadTestDriver}: the user turns it sends and when.
+ *
+ * @param sessionId the session identifier
+ * @param root the agent receiving the user input
+ * @param startOffsetMillis the delay of the first turn, from the start of the run
+ * @param turns the user turns, in order
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+public record SessionPlan(
+    String sessionId, Agent root, long startOffsetMillis, List<PlannedTurn> turns) {
+
+  /**
+   * A user turn.
+   *
+   * @param input the user input
+   * @param delayMillis the pause after the previous turn ended (ignored for the first turn)
+   */
+  public record PlannedTurn(String input, long delayMillis) {}
+}
@@ -0,0 +1,82 @@
+package com.ducks.synaptra.loadtest.driver;
+
+import com.ducks.synaptra.orchestration.event.answer.AnswerExecutionListener;
+import com.ducks.synaptra.orchestration.event.answer.contract.AnswerResponseEvent;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tracks the turns in flight: completes a turn when the orchestration delivers its final answer.
+ *
+ * <p>Interim answers (e.g. routing messages) are counted but do not complete the turn. A final
+ * answer arriving after its turn was abandoned (e.g. timed out) is counted as late.
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@Component
+public class TurnTracker implements AnswerExecutionListener {
+
+  private final Map<String, CompletableFuture<AnswerResponseEvent>> turns =
+      new ConcurrentHashMap<>();
+
+  private final LongAdder interimAnswers = new LongAdder();
+  private final LongAdder lateAnswers = new LongAdder();
+
+  /**
+   * Registers a new turn of a session; must be called before its user input is published.
+   *
+   * @param sessionId the session identifier
+   * @return completed with the final answer of the turn
+   */
+  public CompletableFuture<AnswerResponseEvent> expect(String sessionId) {
+    CompletableFuture<AnswerResponseEvent> turn = new CompletableFuture<>();
+    turns.put(sessionId, turn);
+    return turn;
+  }
+
+  /**
+   * Abandons the turn of a session, e.g. once it timed out.
+   *
+   * @param sessionId the session identifier
+   * @param turn the abandoned turn
+   */
+  public void abandon(String sessionId, CompletableFuture<AnswerResponseEvent> turn) {
+    turns.remove(sessionId, turn);
+  }
+
+  @Override
+  public void onAnswerExecutionResponseEvent(AnswerResponseEvent answerResponseEvent) {
+    if (!answerResponseEvent.isFinal()) {
+      interimAnswers.increment();
+      return;
+    }
+    CompletableFuture<AnswerResponseEvent> turn = turns.remove(answerResponseEvent.sessionId());
+    if (turn == null) {
+      lateAnswers.increment();
+      return;
+    }
+    turn.complete(answerResponseEvent);
+  }
+
+  /**
+   * Returns the number of interim answers delivered.
+   *
+   * @return interim answers
+   */
+  public long getInterimAnswers() {
+    return interimAnswers.sum();
+  }
+
+  /**
+   * Returns the number of final answers delivered after their turn was abandoned.
+   *
+   * @return late answers
+   */
+  public long getLateAnswers() {
+    return lateAnswers.sum();
+  }
+}
@@ -0,0 +1,117 @@
+package com.ducks.synaptra.loadtest.driver;
+
+import com.ducks.synaptra.loadtest.agent.LoadTestAgents;
+import com.ducks.synaptra.loadtest.replay.RecordedTraffic;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+/**
+ * Plans the sessions of a run as {@link SessionPlan}s.
+ *
+ * <p>The synthetic workload starts its sessions evenly over the ramp-up period, each sending the
+ * configured number of turns separated by the think time. When {@link RecordedTraffic} is replayed,
+ * the recorded sessions are planned instead, with their recorded start offsets, user messages and
+ * think times.
+ *
+ * <h2>Configuration Properties</h2>
+ *
+ * <ul>
+ *   <li><b>loadtest.sessions</b> — Number of synthetic sessions (default {@code 1000})
+ *   <li><b>loadtest.turns</b> — Number of user turns per synthetic session (default {@code 3})
+ *   <li><b>loadtest.think-time-ms</b> — Pause between the turns of a synthetic session (default
+ *       {@code 1000})
+ *   <li><b>loadtest.ramp-up-ms</b> — Period over which the synthetic sessions start (default {@code
+ *       10000})
+ * </ul>
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@Component
+public class WorkloadPlanner {
+
+  /** Mode driving the synthetic workload. */
+  public static final String SCRIPT_MODE = "script";
+
+  /** Mode driving recorded traffic. */
+  public static final String REPLAY_MODE = "replay";
+
+  private final LoadTestAgents agents;
+  private final RecordedTraffic traffic;
+  private final int sessions;
+  private final int turns;
+  private final long thinkTimeMillis;
+  private final long rampUpMillis;
+
+  /**
+   * Creates the planner.
+   *
+   * @param agents the agent tree of the synthetic workload
+   * @param traffic the recorded traffic, replacing the synthetic workload when replayed
+   * @param sessions number of synthetic sessions
+   * @param turns number of user turns per synthetic session
+   * @param thinkTimeMillis pause between the turns of a synthetic session
+   * @param rampUpMillis period over which the synthetic sessions start
+   * @throws IllegalArgumentException if a count is not positive or a duration is negative
+   */
+  public WorkloadPlanner(
+      LoadTestAgents agents,
+      RecordedTraffic traffic,
+      @Value("${loadtest.sessions:1000}") int sessions,
+      @Value("${loadtest.turns:3}") int turns,
+      @Value("${loadtest.think-time-ms:1000}") long thinkTimeMillis,
+      @Value("${loadtest.ramp-up-ms:10000}") long rampUpMillis) {
+    Assert.isTrue(sessions > 0, "sessions must be positive");
+    Assert.isTrue(turns > 0, "turns must be positive");
+    Assert.isTrue(thinkTimeMillis >= 0, "thinkTimeMillis must not be negative");
+    Assert.isTrue(rampUpMillis >= 0, "rampUpMillis must not be negative");
+    this.agents = agents;
+    this.traffic = traffic;
+    this.sessions = sessions;
+    this.turns = turns;
+    this.thinkTimeMillis = thinkTimeMillis;
+    this.rampUpMillis = rampUpMillis;
+  }
+
+  /**
+   * Returns the mode of the run.
+   *
+   * @return {@code script} or {@code replay}
+   */
+  public String mode() {
+    return traffic.isEnabled() ? REPLAY_MODE : SCRIPT_MODE;
+  }
+
+  /**
+   * Plans the sessions of the run.
+   *
+   * @return the planned sessions
+   */
+  public List<SessionPlan> plan() {
+    if (traffic.isEnabled()) {
+      return traffic.getSessions();
+    }
+    List<SessionPlan> plans = new ArrayList<>(sessions);
+    for (int s = 0; s < sessions; s++) {
+      String sessionId = "loadtest-" + s;
+      List<SessionPlan.PlannedTurn> plannedTurns = new ArrayList<>(turns);
+      for (int t = 0; t < turns; t++) {
+        // The turn number keeps user messages unique, which the stub relies on to tell turns apart.
+        plannedTurns.add(
+            new SessionPlan.PlannedTurn(
+                "["
+                    + sessionId
+                    + ", turn "
+                    + (t + 1)
+                    + "] I want to change the delivery address of my last order.",
+                thinkTimeMillis));
+      }
+      plans.add(
+          new SessionPlan(sessionId, agents.getRoot(), rampUpMillis * s / sessions, plannedTurns));
+    }
+    return plans;
+  }
+}
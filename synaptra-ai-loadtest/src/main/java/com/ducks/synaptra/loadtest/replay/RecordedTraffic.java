@@ -0,0 +1,366 @@
+package com.ducks.synaptra.loadtest.replay;
+
+import com.ducks.synaptra.client.openai.recording.ExchangeLog;
+import com.ducks.synaptra.client.openai.recording.RecordedExchange;
+import com.ducks.synaptra.loadtest.agent.LoadTestAgent;
+import com.ducks.synaptra.loadtest.driver.SessionPlan;
+import com.ducks.synaptra.loadtest.stub.ResponseScript;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+/**
+ * Traffic recorded by the library {@link
+ * com.ducks.synaptra.client.openai.recording.ExchangeRecorder} and replayed by the load test.
+ *
+ * <p>The exchange log is turned into everything a replay needs:
+ *
+ * <ul>
+ *   <li><b>Sessions</b>: the exchanges of a request identifier form a session, and its distinct
+ *       user messages form its turns. Sessions start at their recorded offset from the first
+ *       exchange, and each turn follows the previous one after the recorded think time
+ *   <li><b>Agents</b>: every distinct system prompt becomes an agent sending that prompt as is. An
+ *       agent whose answer routes to another agent is that agent's parent, the routing target
+ *       naming the agent of the next request of the session
+ *   <li><b>Answers</b>: the stub serves the recorded responses by (system prompt, user message), in
+ *       recording order, after the recorded latency; failed calls are answered with HTTP 500
+ * </ul>
+ *
+ * <p>Times are divided by the replay speed, so traffic can be replayed at an accelerated pace.
+ * Cancelled calls are not replayed, since their superseding turn is replayed instead. A request
+ * without recorded answer left is a miss: the stub then finishes its agent (see {@link
+ * ResponseScript#finish}).
+ *
+ * <h2>Configuration Properties</h2>
+ *
+ * <ul>
+ *   <li><b>loadtest.replay.file</b> — Exchange log to replay; when empty (default) the load test
+ *       runs its synthetic workload
+ *   <li><b>loadtest.replay.speed</b> — Replay pace, {@code 2} replaying twice as fast as recorded
+ *       (default {@code 1})
+ * </ul>
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@Component
+public class RecordedTraffic {
+
+  private static final Logger logger = LogManager.getLogger(RecordedTraffic.class);
+
+  private final ObjectMapper mapper;
+  private final double speed;
+  private final List<SessionPlan> sessions = new ArrayList<>();
+  private final Map<String, Deque<Replay>> replays = new ConcurrentHashMap<>();
+  private final Map<String, AgentNode> agents = new LinkedHashMap<>();
+
+  private final LongAdder replayed = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  /**
+   * Loads the recorded traffic, if any.
+   *
+   * @param mapper the mapper reading the recorded JSON
+   * @param file the exchange log to replay (empty for none)
+   * @param speed the replay pace
+   * @throws IllegalArgumentException if the speed is not positive
+   * @throws UncheckedIOException if the exchange log cannot be read
+   */
+  public RecordedTraffic(
+      ObjectMapper mapper,
+      @Value("${loadtest.replay.file:}") String file,
+      @Value("${loadtest.replay.speed:1}") double speed) {
+    Assert.isTrue(speed > 0, "speed must be positive");
+    this.mapper = mapper;
+    this.speed = speed;
+    if (file.isBlank()) {
+      return;
+    }
+    try {
+      load(ExchangeLog.readAll(Path.of(file)));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to read recorded traffic: " + file, e);
+    }
+    logger.info(
+        "[REPLAY_LOADED] file={}, sessions={}, agents={}, speed={}",
+        file,
+        sessions.size(),
+        agents.size(),
+        speed);
+  }
+
+  /**
+   * Returns whether recorded traffic is replayed.
+   *
+   * @return {@code true} if a recording was loaded
+   */
+  public boolean isEnabled() {
+    return !sessions.isEmpty();
+  }
+
+  /**
+   * Returns the recorded sessions, with their timing scaled by the replay speed.
+   *
+   * @return recorded sessions
+   */
+  public List<SessionPlan> getSessions() {
+    return sessions;
+  }
+
+  /**
+   * Takes the next recorded answer to a request.
+   *
+   * @param request the request JSON
+   * @return the recorded answer, or {@code null} on a miss
+   */
+  public Replay next(JsonNode request) {
+    Deque<Replay> queue = replays.get(key(systemPrompt(request), userMessage(request)));
+    Replay replay = queue != null ? queue.pollFirst() : null;
+    if (replay == null) {
+      misses.increment();
+    } else {
+      replayed.increment();
+    }
+    return replay;
+  }
+
+  /**
+   * Returns the number of requests answered from the recording.
+   *
+   * @return replayed answers
+   */
+  public long getReplayed() {
+    return replayed.sum();
+  }
+
+  /**
+   * Returns the number of requests without recorded answer.
+   *
+   * @return replay misses
+   */
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  private void load(List<RecordedExchange> exchanges) throws IOException {
+    Map<String, List<RecordedExchange>> bySession = new LinkedHashMap<>();
+    long origin = Long.MAX_VALUE;
+    for (RecordedExchange exchange : exchanges) {
+      if (RecordedExchange.CANCELLED.equals(exchange.outcome())) {
+        continue;
+      }
+      bySession.computeIfAbsent(exchange.requestId(), key -> new ArrayList<>()).add(exchange);
+      origin = Math.min(origin, exchange.startedAtMillis());
+    }
+
+    List<SessionDraft> drafts = new ArrayList<>();
+    for (Map.Entry<String, List<RecordedExchange>> session : bySession.entrySet()) {
+      List<RecordedExchange> recorded = session.getValue();
+      recorded.sort(Comparator.comparingLong(RecordedExchange::startedAtMillis));
+      SessionDraft draft = loadSession(session.getKey(), recorded, origin);
+      if (draft != null) {
+        drafts.add(draft);
+      }
+    }
+
+    // Agents are only created once every routing target is known.
+    int index = 0;
+    for (AgentNode node : agents.values()) {
+      String name = node.name != null ? node.name : "Agent " + index;
+      node.agent =
+          LoadTestAgent.ofSystemPrompt(
+              "replay-" + index++, name, node.prompt, node.model, node.interim);
+    }
+    for (AgentNode node : agents.values()) {
+      if (node.parent != null) {
+        node.parent.agent.addAgent(node.agent);
+      }
+    }
+    for (SessionDraft draft : drafts) {
+      sessions.add(
+          new SessionPlan(draft.sessionId, draft.root.agent, draft.startOffsetMillis, draft.turns));
+    }
+  }
+
+  private SessionDraft loadSession(String sessionId, List<RecordedExchange> recorded, long origin)
+      throws IOException {
+    SessionDraft draft = null;
+    String turnUser = null;
+    long turnEndedAt = 0;
+    Replay lastReplay = null;
+    String lastKey = null;
+    AgentNode router = null;
+    String routedName = null;
+
+    for (RecordedExchange exchange : recorded) {
+      JsonNode request = mapper.readTree(exchange.request());
+      String prompt = systemPrompt(request);
+      String user = userMessage(request);
+      if (prompt == null || user == null) {
+        continue;
+      }
+      AgentNode node = agents.computeIfAbsent(prompt, AgentNode::new);
+      node.model = request.path("model").asText(null);
+      node.interim |= offersInterim(request);
+      if (router != null && node.parent == null && node.name == null && !isAncestor(node, router)) {
+        node.parent = router;
+        node.name = routedName;
+      }
+
+      if (!user.equals(turnUser)) {
+        if (lastReplay != null) {
+          endTurn(lastKey, lastReplay);
+        }
+        if (draft == null) {
+          draft = new SessionDraft(sessionId, node, scale(exchange.startedAtMillis() - origin));
+          draft.turns.add(new SessionPlan.PlannedTurn(user, 0));
+        } else {
+          draft.turns.add(
+              new SessionPlan.PlannedTurn(
+                  user, scale(Math.max(exchange.startedAtMillis() - turnEndedAt, 0))));
+        }
+        turnUser = user;
+      }
+
+      Replay replay =
+          new Replay(
+              Math.round(exchange.latencyNanos() / speed),
+              exchange.response() != null
+                  ? exchange.response().getBytes(StandardCharsets.UTF_8)
+                  : null,
+              false);
+      lastKey = key(prompt, user);
+      lastReplay = replay;
+      replays.computeIfAbsent(lastKey, key -> new ConcurrentLinkedDeque<>()).add(replay);
+      turnEndedAt =
+          Math.max(turnEndedAt, exchange.startedAtMillis() + exchange.latencyNanos() / 1_000_000);
+
+      routedName = routedAgent(exchange.response());
+      router = routedName != null ? node : null;
+    }
+    if (lastReplay != null) {
+      endTurn(lastKey, lastReplay);
+    }
+    return draft;
+  }
+
+  /** Tells whether {@code node} is {@code other} or one of its ancestors. */
+  private static boolean isAncestor(AgentNode node, AgentNode other) {
+    for (AgentNode ancestor = other; ancestor != null; ancestor = ancestor.parent) {
+      if (ancestor == node) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Marks the last recorded answer of a turn as ending it. */
+  private void endTurn(String key, Replay last) {
+    Deque<Replay> queue = replays.get(key);
+    if (queue.removeLastOccurrence(last)) {
+      queue.add(new Replay(last.latencyNanos(), last.body(), true));
+    }
+  }
+
+  private long scale(long millis) {
+    return Math.round(millis / speed);
+  }
+
+  /** Returns the routing target of a recorded response, or {@code null} if it does not route. */
+  private String routedAgent(String response) throws IOException {
+    if (response == null) {
+      return null;
+    }
+    for (JsonNode choice : mapper.readTree(response).path("choices")) {
+      for (JsonNode toolCall : choice.path("message").path("tool_calls")) {
+        JsonNode function = toolCall.path("function");
+        if ("route_to_agent".equals(function.path("name").asText())) {
+          return mapper
+              .readTree(function.path("arguments").asText("{}"))
+              .path("agent")
+              .asText(null);
+        }
+      }
+    }
+    return null;
+  }
+
+  private static boolean offersInterim(JsonNode request) {
+    for (JsonNode tool : request.path("tools")) {
+      JsonNode function = tool.path("function");
+      if ("route_to_agent".equals(function.path("name").asText())) {
+        return function.path("parameters").path("properties").has("response");
+      }
+    }
+    return false;
+  }
+
+  private static String systemPrompt(JsonNode request) {
+    JsonNode first = request.path("messages").path(0);
+    return "system".equals(first.path("role").asText()) ? first.path("content").asText(null) : null;
+  }
+
+  private static String userMessage(JsonNode request) {
+    return ResponseScript.userMessage(request);
+  }
+
+  private static String key(String prompt, String user) {
+    return prompt + '\u0000' + user;
+  }
+
+  /**
+   * A recorded answer.
+   *
+   * @param latencyNanos the recorded latency, scaled by the replay speed
+   * @param body the recorded response JSON, or {@code null} if the call failed
+   * @param endsTurn whether the answer was the last of its turn
+   */
+  public record Replay(long latencyNanos, byte[] body, boolean endsTurn) {}
+
+  /** An agent of the rebuilt tree, keyed by system prompt. */
+  private static final class AgentNode {
+
+    private final String prompt;
+    private String name;
+    private String model;
+    private boolean interim;
+    private AgentNode parent;
+    private LoadTestAgent agent;
+
+    private AgentNode(String prompt) {
+      this.prompt = prompt;
+    }
+  }
+
+  /** A session whose agents are not created yet. */
+  private static final class SessionDraft {
+
+    private final String sessionId;
+    private final AgentNode root;
+    private final long startOffsetMillis;
+    private final List<SessionPlan.PlannedTurn> turns = new ArrayList<>();
+
+    private SessionDraft(String sessionId, AgentNode root, long startOffsetMillis) {
+      this.sessionId = sessionId;
+      this.root = root;
+      this.startOffsetMillis = startOffsetMillis;
+    }
+  }
+}
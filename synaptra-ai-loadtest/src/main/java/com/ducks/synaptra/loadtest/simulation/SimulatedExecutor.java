@@ -0,0 +1,200 @@
+package com.ducks.synaptra.loadtest.simulation;
+
+import com.ducks.synaptra.config.DiscardableTask;
+import com.ducks.synaptra.config.ExecutorSaturation;
+import com.ducks.synaptra.config.RejectionPolicy;
+import com.ducks.synaptra.config.SaturationAwareExecutor;
+import com.ducks.synaptra.loadtest.driver.LoadTestReport;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.core.task.TaskRejectedException;
+
+/**
+ * Stage executor of the simulation: a queue in front of a pool of slots, on the {@link
+ * VirtualClock}.
+ *
+ * <p>Tasks are admitted like a {@link java.util.concurrent.ThreadPoolExecutor} admits them: a task
+ * starts right away while fewer than {@code coreSize} slots are busy, waits in the queue while it
+ * has room, starts on an extra slot up to {@code maxSize} once the queue is full, and is rejected
+ * according to the {@link RejectionPolicy} above that. A task holds its slot for the configured
+ * task cost plus its simulated work (see {@link VirtualClock#hold(long)}).
+ *
+ * <p>Tasks submitted from a running task are admitted at the virtual time of the submission, once
+ * the events due before it have run. Tasks rejected there cannot fail their submitter anymore:
+ * under the {@code abort} and {@code discard} policies they are discarded (see {@link
+ * DiscardableTask}), under {@code caller-runs} they run right away, outside of the slots.
+ *
+ * <p>Queue waits and slot holds are recorded as {@code loadtest.simulation.queue-wait} and {@code
+ * loadtest.simulation.service} timers, tagged by executor.
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+public class SimulatedExecutor implements SaturationAwareExecutor {
+
+  /** Mode reported by {@link #saturation()}. */
+  public static final String SIMULATED_MODE = "simulated";
+
+  private static final Logger logger = LogManager.getLogger(SimulatedExecutor.class);
+
+  private final VirtualClock clock;
+  private final String executorName;
+  private final String configuredMode;
+  private final int coreSize;
+  private final int maxSize;
+  private final int queueCapacity;
+  private final RejectionPolicy rejectionPolicy;
+  private final long taskCostNanos;
+  private final Timer queueWait;
+  private final Timer service;
+
+  private final Queue<Waiting> queue = new ArrayDeque<>();
+  private int busy;
+  private int peakBusy;
+  private int peakQueued;
+  private long busyNanos;
+  private long completed;
+  private long rejected;
+
+  /**
+   * Creates an executor.
+   *
+   * @param clock the clock the tasks run on
+   * @param registry the registry of the queue wait and service timers
+   * @param executorName the name of the executor (bean name of the stage executor)
+   * @param configuredMode the mode of the simulated executor ({@code platform} or {@code virtual})
+   * @param coreSize slots started before tasks are queued
+   * @param maxSize slots started once the queue is full
+   * @param queueCapacity maximum number of queued tasks; negative for unbounded
+   * @param rejectionPolicy the policy applied to tasks rejected at submission
+   * @param taskCostNanos fixed slot time of a task, besides its simulated work
+   */
+  public SimulatedExecutor(
+      VirtualClock clock,
+      MeterRegistry registry,
+      String executorName,
+      String configuredMode,
+      int coreSize,
+      int maxSize,
+      int queueCapacity,
+      RejectionPolicy rejectionPolicy,
+      long taskCostNanos) {
+    this.clock = clock;
+    this.executorName = executorName;
+    this.configuredMode = configuredMode;
+    this.coreSize = coreSize;
+    this.maxSize = Math.max(maxSize, coreSize);
+    this.queueCapacity = queueCapacity;
+    this.rejectionPolicy = rejectionPolicy;
+    this.taskCostNanos = taskCostNanos;
+    this.queueWait =
+        Timer.builder("loadtest.simulation.queue-wait")
+            .description("Virtual time a task waits in the queue of a stage executor")
+            .tag("executor", executorName)
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(registry);
+    this.service =
+        Timer.builder("loadtest.simulation.service")
+            .description("Virtual time a task holds a slot of a stage executor")
+            .tag("executor", executorName)
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(registry);
+  }
+
+  @Override
+  public void execute(Runnable task) {
+    if (clock.isTaskRunning()) {
+      // Admitted at the submission time, once the events due before it have run.
+      clock.schedule(0, () -> admit(task, false));
+      return;
+    }
+    admit(task, true);
+  }
+
+  @Override
+  public ExecutorSaturation saturation() {
+    return new ExecutorSaturation(
+        executorName, SIMULATED_MODE, busy, maxSize, queue.size(), queueCapacity, rejected);
+  }
+
+  /**
+   * Returns the summary of the executor over a run.
+   *
+   * @param durationNanos the virtual duration of the run
+   * @return the summary
+   */
+  public SimulationReport.Stage summary(long durationNanos) {
+    return new SimulationReport.Stage(
+        configuredMode,
+        coreSize,
+        maxSize,
+        queueCapacity,
+        rejectionPolicy.name().toLowerCase().replace('_', '-'),
+        completed,
+        rejected,
+        peakBusy,
+        peakQueued,
+        durationNanos > 0 ? (double) busyNanos / ((double) maxSize * durationNanos) : 0,
+        LoadTestReport.Latency.of(queueWait),
+        LoadTestReport.Latency.of(service));
+  }
+
+  private void admit(Runnable task, boolean callerWaits) {
+    boolean queueFull = queueCapacity >= 0 && queue.size() >= queueCapacity;
+    if (busy < coreSize || (queueFull && busy < maxSize)) {
+      start(task, clock.now());
+    } else if (!queueFull) {
+      queue.add(new Waiting(task, clock.now()));
+      peakQueued = Math.max(peakQueued, queue.size());
+    } else {
+      reject(task, callerWaits);
+    }
+  }
+
+  private void reject(Runnable task, boolean callerWaits) {
+    rejected++;
+    switch (rejectionPolicy) {
+      case CALLER_RUNS -> clock.runTask(task, taskCostNanos);
+      case ABORT -> {
+        if (callerWaits) {
+          throw new TaskRejectedException("Executor " + executorName + " is saturated");
+        }
+        discard(task);
+      }
+      case DISCARD -> discard(task);
+    }
+  }
+
+  private void discard(Runnable task) {
+    logger.debug("[EXECUTOR_SATURATED] executor={} task discarded", executorName);
+    if (task instanceof DiscardableTask discardable) {
+      discardable.onDiscard();
+    }
+  }
+
+  private void start(Runnable task, long queuedAt) {
+    busy++;
+    peakBusy = Math.max(peakBusy, busy);
+    queueWait.record(clock.now() - queuedAt, TimeUnit.NANOSECONDS);
+    long duration = clock.runTask(task, taskCostNanos);
+    clock.schedule(duration, () -> finish(duration));
+  }
+
+  private void finish(long duration) {
+    busy--;
+    busyNanos += duration;
+    completed++;
+    service.record(duration, TimeUnit.NANOSECONDS);
+    Waiting next = queue.poll();
+    if (next != null) {
+      start(next.task(), next.queuedAt());
+    }
+  }
+
+  private record Waiting(Runnable task, long queuedAt) {}
+}
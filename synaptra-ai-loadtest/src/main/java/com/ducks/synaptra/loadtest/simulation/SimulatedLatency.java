@@ -0,0 +1,102 @@
+package com.ducks.synaptra.loadtest.simulation;
+
+import com.ducks.synaptra.client.openai.recording.ExchangeLog;
+import com.ducks.synaptra.client.openai.recording.RecordedExchange;
+import com.ducks.synaptra.loadtest.LoadTestApplication;
+import com.ducks.synaptra.loadtest.stub.LatencyDistribution;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+/**
+ * Latency of the simulated LLM calls.
+ *
+ * <p>When an exchange log is given, latencies are drawn from the latencies of its successful calls
+ * (an empirical distribution, see {@link com.ducks.synaptra.client.openai.recording}); otherwise
+ * from the {@link LatencyDistribution} configured for the stub.
+ *
+ * <h2>Configuration Properties</h2>
+ *
+ * <ul>
+ *   <li><b>loadtest.simulation.latency-file</b> — Exchange log whose latencies are sampled; when
+ *       empty (default) the {@code loadtest.stub.latency.*} distribution is sampled
+ * </ul>
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@Component
+@Profile(LoadTestApplication.SIMULATION_PROFILE)
+public class SimulatedLatency {
+
+  private final long[] recorded;
+  private final LatencyDistribution distribution;
+  private final String source;
+
+  /**
+   * Creates the latency model.
+   *
+   * @param latencyFile the exchange log whose latencies are sampled (empty for none)
+   * @param latencyType the latency distribution type used without exchange log
+   * @param medianMillis the median latency, in milliseconds
+   * @param spread the spread of the latency distribution
+   * @param maxMillis the upper bound of the latency, in milliseconds
+   * @throws IllegalArgumentException if the exchange log has no successful call
+   * @throws UncheckedIOException if the exchange log cannot be read
+   */
+  public SimulatedLatency(
+      @Value("${loadtest.simulation.latency-file:}") String latencyFile,
+      @Value("${loadtest.stub.latency.type:lognormal}") String latencyType,
+      @Value("${loadtest.stub.latency.median-ms:800}") double medianMillis,
+      @Value("${loadtest.stub.latency.spread:0.5}") double spread,
+      @Value("${loadtest.stub.latency.max-ms:10000}") double maxMillis) {
+    if (latencyFile.isBlank()) {
+      this.recorded = null;
+      this.distribution = new LatencyDistribution(latencyType, medianMillis, spread, maxMillis);
+      this.source = distribution.toString();
+      return;
+    }
+    try {
+      this.recorded =
+          ExchangeLog.readAll(Path.of(latencyFile)).stream()
+              .filter(exchange -> RecordedExchange.SUCCESS.equals(exchange.outcome()))
+              .mapToLong(RecordedExchange::latencyNanos)
+              .sorted()
+              .toArray();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to read recorded latencies: " + latencyFile, e);
+    }
+    Assert.isTrue(recorded.length > 0, "No successful call recorded in " + latencyFile);
+    this.distribution = null;
+    this.source =
+        "recorded(n="
+            + recorded.length
+            + ", median="
+            + recorded[recorded.length / 2] / 1_000_000
+            + "ms, max="
+            + recorded[recorded.length - 1] / 1_000_000
+            + "ms)";
+  }
+
+  /**
+   * Draws a latency.
+   *
+   * @return the latency, in nanoseconds
+   */
+  public long sampleNanos() {
+    if (recorded == null) {
+      return distribution.sampleNanos();
+    }
+    return recorded[ThreadLocalRandom.current().nextInt(recorded.length)];
+  }
+
+  @Override
+  public String toString() {
+    return source;
+  }
+}
@@ -0,0 +1,102 @@
+package com.ducks.synaptra.loadtest.simulation;
+
+import com.ducks.synaptra.client.openai.OpenAIClient;
+import com.ducks.synaptra.client.openai.data.ChatCompletionRequest;
+import com.ducks.synaptra.client.openai.data.ChatCompletionResponse;
+import com.ducks.synaptra.loadtest.replay.RecordedTraffic;
+import com.ducks.synaptra.loadtest.stub.ResponseScript;
+import com.ducks.synaptra.orchestration.cancellation.CancellationToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link OpenAIClient} of the simulation: answers without any I/O, holding the calling task for a
+ * simulated latency (see {@link VirtualClock#hold(long)}).
+ *
+ * <p>Requests are answered like the stub answers them: with the recorded responses and latencies
+ * when {@link RecordedTraffic} is replayed (a miss finishes the agent, see {@link
+ * ResponseScript#finish}), otherwise with the {@link ResponseScript} after a {@link
+ * SimulatedLatency}. A recorded failure returns {@code null}, like a failed call.
+ *
+ * <p>The simulated latencies are recorded as the {@code loadtest.simulation.llm} timer.
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+public class SimulatedOpenAIClient extends OpenAIClient {
+
+  private final VirtualClock clock;
+  private final ObjectMapper mapper;
+  private final ResponseScript script;
+  private final RecordedTraffic traffic;
+  private final SimulatedLatency latency;
+  private final Timer llmLatency;
+
+  /**
+   * Creates the client.
+   *
+   * @param clock the clock holding the calling task
+   * @param mapper the mapper reading the requests and the recorded responses
+   * @param script the script answering the requests
+   * @param traffic the recorded traffic, answering the requests when replayed
+   * @param latency the latency of the scripted answers
+   * @param registry the registry of the simulated latency timer
+   */
+  public SimulatedOpenAIClient(
+      VirtualClock clock,
+      ObjectMapper mapper,
+      ResponseScript script,
+      RecordedTraffic traffic,
+      SimulatedLatency latency,
+      MeterRegistry registry) {
+    super(1000, 1000, 1000, 1000);
+    this.clock = clock;
+    this.mapper = mapper;
+    this.script = script;
+    this.traffic = traffic;
+    this.latency = latency;
+    this.llmLatency =
+        Timer.builder("loadtest.simulation.llm")
+            .description("Simulated latency of the LLM calls")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(registry);
+  }
+
+  @Override
+  public ChatCompletionResponse call(
+      String requestId, ChatCompletionRequest request, CancellationToken token) {
+    JsonNode json = mapper.valueToTree(request);
+    int requestChars = json.toString().length();
+
+    if (traffic.isEnabled()) {
+      RecordedTraffic.Replay replay = traffic.next(json);
+      if (replay != null) {
+        hold(replay.latencyNanos());
+        return replay.body() != null ? read(replay.body()) : null;
+      }
+      hold(latency.sampleNanos());
+      return script.finish(json, requestChars).response();
+    }
+
+    hold(latency.sampleNanos());
+    return script.answer(json, requestChars).response();
+  }
+
+  private void hold(long nanos) {
+    clock.hold(nanos);
+    llmLatency.record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  private ChatCompletionResponse read(byte[] body) {
+    try {
+      return mapper.readValue(body, ChatCompletionResponse.class);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Malformed recorded response", e);
+    }
+  }
+}
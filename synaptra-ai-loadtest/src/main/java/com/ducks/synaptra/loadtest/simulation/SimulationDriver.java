@@ -0,0 +1,256 @@
+package com.ducks.synaptra.loadtest.simulation;
+
+import com.ducks.synaptra.loadtest.LoadTestApplication;
+import com.ducks.synaptra.loadtest.driver.LoadTestReport;
+import com.ducks.synaptra.loadtest.driver.SessionPlan;
+import com.ducks.synaptra.loadtest.driver.TurnTracker;
+import com.ducks.synaptra.loadtest.driver.WorkloadPlanner;
+import com.ducks.synaptra.orchestration.admission.AdmissionRejectedException;
+import com.ducks.synaptra.orchestration.event.answer.contract.AnswerResponseEvent;
+import com.ducks.synaptra.publisher.UserInputPublisher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+/**
+ * Drives a simulation: runs the planned sessions through the {@link UserInputPublisher} on the
+ * {@link VirtualClock} and reports throughput, latencies and the queueing of every stage executor.
+ *
+ * <p>Sessions are planned by the {@link WorkloadPlanner}, like for a load test, and their turns are
+ * scheduled in virtual time: a turn starts at its planned offset or delay, ends with its final
+ * answer (see {@link TurnTracker}) or is abandoned after the turn timeout. The orchestration code
+ * is the real one; only the stage executors, the LLM calls and the external tools are simulated
+ * (see {@link SimulationWiring}). Components measuring wall-clock time (e.g. the admission control
+ * and the library metrics) keep doing so, so their time-based limits do not apply to virtual time.
+ *
+ * <p>The report is logged and, when {@code loadtest.report-file} is set, written as JSON (see
+ * {@link SimulationReport}).
+ *
+ * <h2>Configuration Properties</h2>
+ *
+ * <ul>
+ *   <li><b>loadtest.turn-timeout-ms</b> — Virtual time after which a turn without final answer is
+ *       abandoned (default {@code 60000})
+ *   <li><b>loadtest.report-file</b> — JSON report file (default none)
+ *   <li><b>loadtest.simulation.configuration</b> — Properties of the run, as {@code k=v,k=v},
+ *       copied into the report (set by {@link SimulationSweep})
+ * </ul>
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@Component
+@Profile(LoadTestApplication.SIMULATION_PROFILE)
+public class SimulationDriver implements ApplicationRunner {
+
+  private static final Logger logger = LogManager.getLogger(SimulationDriver.class);
+
+  private final UserInputPublisher userInputPublisher;
+  private final WorkloadPlanner planner;
+  private final TurnTracker turnTracker;
+  private final VirtualClock clock;
+  private final SimulationWiring wiring;
+  private final MeterRegistry registry;
+  private final ObjectMapper mapper;
+  private final long turnTimeoutNanos;
+  private final String reportFile;
+  private final Map<String, String> configuration;
+
+  private final Timer turnLatency;
+
+  private int activeSessions;
+  private long finishedAt;
+  private long completed;
+  private long timedOut;
+  private long shed;
+  private long failed;
+
+  private SimulationReport report;
+
+  /**
+   * Creates the driver.
+   *
+   * @param userInputPublisher the publisher receiving the user turns
+   * @param planner the planner of the sessions
+   * @param turnTracker the tracker of the turns in flight
+   * @param clock the clock of the simulation
+   * @param wiring the wiring holding the simulated executors
+   * @param registry the registry of the simulation timers
+   * @param mapper the mapper writing the JSON report
+   * @param turnTimeoutMillis virtual time after which a turn without final answer is abandoned
+   * @param reportFile JSON report file (empty for none)
+   * @param configuration properties of the run, as {@code k=v,k=v} (empty for none)
+   * @throws IllegalArgumentException if the turn timeout is not positive
+   */
+  public SimulationDriver(
+      UserInputPublisher userInputPublisher,
+      WorkloadPlanner planner,
+      TurnTracker turnTracker,
+      VirtualClock clock,
+      SimulationWiring wiring,
+      MeterRegistry registry,
+      ObjectMapper mapper,
+      @Value("${loadtest.turn-timeout-ms:60000}") long turnTimeoutMillis,
+      @Value("${loadtest.report-file:}") String reportFile,
+      @Value("${loadtest.simulation.configuration:}") String configuration) {
+    Assert.isTrue(turnTimeoutMillis > 0, "turnTimeoutMillis must be positive");
+    this.userInputPublisher = userInputPublisher;
+    this.planner = planner;
+    this.turnTracker = turnTracker;
+    this.clock = clock;
+    this.wiring = wiring;
+    this.registry = registry;
+    this.mapper = mapper;
+    this.turnTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(turnTimeoutMillis);
+    this.reportFile = reportFile;
+    this.configuration = parseConfiguration(configuration);
+    this.turnLatency =
+        Timer.builder("loadtest.simulation.turn")
+            .description("Virtual time from the user input of a turn to its final answer")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(registry);
+  }
+
+  @Override
+  public void run(ApplicationArguments args) throws IOException {
+    List<SessionPlan> plans = planner.plan();
+    int plannedTurns = plans.stream().mapToInt(plan -> plan.turns().size()).sum();
+    logger.info(
+        "[SIMULATION_STARTED] mode={}, sessions={}, turns={}, configuration={}",
+        planner.mode(),
+        plans.size(),
+        plannedTurns,
+        configuration);
+
+    activeSessions = plans.size();
+    for (SessionPlan plan : plans) {
+      clock.schedule(
+          TimeUnit.MILLISECONDS.toNanos(plan.startOffsetMillis()), () -> startTurn(plan, 0));
+    }
+    long startedAt = System.nanoTime();
+    long events = clock.run();
+    long wallMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+    report = report(plans.size(), plannedTurns, events, wallMillis);
+    logger.info("[SIMULATION_REPORT]{}{}", System.lineSeparator(), report.render());
+    if (!reportFile.isBlank()) {
+      mapper.writerWithDefaultPrettyPrinter().writeValue(new File(reportFile), report);
+      logger.info("[SIMULATION_REPORT_WRITTEN] file={}", reportFile);
+    }
+  }
+
+  /**
+   * Returns the report of the simulation.
+   *
+   * @return the report, or {@code null} before the simulation has run
+   */
+  public SimulationReport getReport() {
+    return report;
+  }
+
+  private void startTurn(SessionPlan plan, int index) {
+    String sessionId = plan.sessionId();
+    CompletableFuture<AnswerResponseEvent> turn = turnTracker.expect(sessionId);
+    long startedAt = clock.now();
+    try {
+      userInputPublisher.publishEvent(sessionId, plan.root(), plan.turns().get(index).input());
+    } catch (AdmissionRejectedException e) {
+      turnTracker.abandon(sessionId, turn);
+      shed++;
+      endSession();
+      return;
+    } catch (RuntimeException e) {
+      logger.warn("[SIMULATION_TURN_FAILED] sessionId={}, reason={}", sessionId, e.getMessage());
+      turnTracker.abandon(sessionId, turn);
+      failed++;
+      endSession();
+      return;
+    }
+
+    clock.schedule(turnTimeoutNanos, () -> turn.completeExceptionally(new TimeoutException()));
+    turn.whenComplete(
+        (answer, error) -> {
+          if (error != null) {
+            turnTracker.abandon(sessionId, turn);
+            timedOut++;
+          } else {
+            turnLatency.record(clock.now() - startedAt, TimeUnit.NANOSECONDS);
+            completed++;
+          }
+          if (index + 1 < plan.turns().size()) {
+            clock.schedule(
+                TimeUnit.MILLISECONDS.toNanos(plan.turns().get(index + 1).delayMillis()),
+                () -> startTurn(plan, index + 1));
+          } else {
+            endSession();
+          }
+        });
+  }
+
+  /** Counts a finished session; the last one ends the measured virtual time. */
+  private void endSession() {
+    if (--activeSessions == 0) {
+      finishedAt = clock.now();
+    }
+  }
+
+  private SimulationReport report(
+      int plannedSessions, int plannedTurns, long events, long wallMillis) {
+    long virtualMillis = TimeUnit.NANOSECONDS.toMillis(finishedAt);
+    double seconds = Math.max(virtualMillis, 1) / 1000.0;
+    Timer llmLatency = registry.find("loadtest.simulation.llm").timer();
+
+    Map<String, SimulationReport.Stage> stages = new TreeMap<>();
+    wiring
+        .getExecutors()
+        .forEach((name, executor) -> stages.put(name, executor.summary(finishedAt)));
+
+    return new SimulationReport(
+        configuration,
+        planner.mode(),
+        plannedSessions,
+        plannedTurns,
+        virtualMillis,
+        wallMillis,
+        events,
+        completed,
+        timedOut,
+        shed,
+        failed,
+        completed / seconds,
+        (llmLatency != null ? llmLatency.count() : 0) / seconds,
+        LoadTestReport.Latency.of(turnLatency),
+        LoadTestReport.Latency.of(llmLatency),
+        stages);
+  }
+
+  /** Parses {@code k=v,k=v} into an ordered map. */
+  static Map<String, String> parseConfiguration(String configuration) {
+    Map<String, String> properties = new LinkedHashMap<>();
+    for (String property : configuration.split(",")) {
+      int separator = property.indexOf('=');
+      if (separator > 0) {
+        properties.put(
+            property.substring(0, separator).trim(), property.substring(separator + 1).trim());
+      }
+    }
+    return properties;
+  }
+}
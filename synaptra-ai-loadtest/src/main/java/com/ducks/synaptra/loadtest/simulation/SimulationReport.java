@@ -0,0 +1,178 @@
+package com.ducks.synaptra.loadtest.simulation;
+
+import com.ducks.synaptra.loadtest.driver.LoadTestReport.Latency;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Results of a simulation run, rendered as text by {@link #render()} and written as JSON by the
+ * {@link SimulationDriver}.
+ *
+ * <p>Latencies are in milliseconds of virtual time, rates per virtual second.
+ *
+ * @param configuration the properties set for this run (empty unless part of a sweep)
+ * @param mode {@code script} for the synthetic workload, {@code replay} for recorded traffic
+ * @param sessions the number of sessions simulated
+ * @param turns the number of user turns simulated, over all sessions
+ * @param virtualMillis the virtual duration of the run
+ * @param wallMillis the wall-clock duration of the run
+ * @param events the number of events run
+ * @param turnsCompleted the turns that received their final answer
+ * @param turnsTimedOut the turns abandoned after the turn timeout
+ * @param turnsShed the turns rejected by the admission control
+ * @param turnsFailed the turns whose user input could not be published
+ * @param turnsPerSecond the completed turns per virtual second
+ * @param llmCallsPerSecond the LLM calls per virtual second
+ * @param turnLatency the latency of completed turns, from user input to final answer
+ * @param llmLatency the simulated latency of the LLM calls
+ * @param stages the stage executors, by executor name
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+public record SimulationReport(
+    Map<String, String> configuration,
+    String mode,
+    int sessions,
+    int turns,
+    long virtualMillis,
+    long wallMillis,
+    long events,
+    long turnsCompleted,
+    long turnsTimedOut,
+    long turnsShed,
+    long turnsFailed,
+    double turnsPerSecond,
+    double llmCallsPerSecond,
+    Latency turnLatency,
+    Latency llmLatency,
+    Map<String, Stage> stages) {
+
+  /**
+   * Renders the report as text.
+   *
+   * @return the rendered report
+   */
+  public String render() {
+    StringBuilder text = new StringBuilder();
+    if (!configuration.isEmpty()) {
+      text.append("configuration: ").append(configuration).append(System.lineSeparator());
+    }
+    text.append(
+        String.format(
+            "mode=%s, sessions=%d, turns=%d, virtual=%.1fs, wall=%.1fs (x%.0f), events=%d%n",
+            mode,
+            sessions,
+            turns,
+            virtualMillis / 1000.0,
+            wallMillis / 1000.0,
+            (double) virtualMillis / Math.max(wallMillis, 1),
+            events));
+    text.append(
+        String.format(
+            "turns: completed=%d, timedOut=%d, shed=%d, failed=%d%n",
+            turnsCompleted, turnsTimedOut, turnsShed, turnsFailed));
+    text.append(
+        String.format(
+            "throughput: %.1f turns/s, %.1f LLM calls/s%n", turnsPerSecond, llmCallsPerSecond));
+    text.append("latency (ms):").append(System.lineSeparator());
+    text.append(render("  turn", turnLatency)).append(System.lineSeparator());
+    text.append(render("  llm", llmLatency)).append(System.lineSeparator());
+    text.append("executors:");
+    stages.forEach(
+        (name, stage) ->
+            text.append(System.lineSeparator())
+                .append(
+                    String.format(
+                        "  %s (%s, core=%d, max=%d, queue=%d, %s): tasks=%d, rejected=%d,"
+                            + " peakBusy=%d, peakQueued=%d, utilization=%.0f%%",
+                        name,
+                        stage.mode(),
+                        stage.coreSize(),
+                        stage.maxSize(),
+                        stage.queueCapacity(),
+                        stage.rejectionPolicy(),
+                        stage.completed(),
+                        stage.rejected(),
+                        stage.peakBusy(),
+                        stage.peakQueued(),
+                        stage.utilization() * 100))
+                .append(System.lineSeparator())
+                .append(render("    queue wait", stage.queueWait()))
+                .append(System.lineSeparator())
+                .append(render("    service", stage.service())));
+    return text.toString();
+  }
+
+  /**
+   * Renders the reports of a sweep as a comparison table, one line per run.
+   *
+   * @param reports the reports of the sweep, in run order
+   * @return the rendered table
+   */
+  public static String renderSweep(List<SimulationReport> reports) {
+    StringBuilder text = new StringBuilder();
+    text.append(
+        String.format(
+            "%-8s %9s %9s %9s %9s %9s %12s  %s%n",
+            "run",
+            "turns/s",
+            "p50 ms",
+            "p95 ms",
+            "p99 ms",
+            "timedOut",
+            "rejected",
+            "configuration"));
+    for (int r = 0; r < reports.size(); r++) {
+      SimulationReport report = reports.get(r);
+      long rejected = report.stages().values().stream().mapToLong(Stage::rejected).sum();
+      text.append(
+          String.format(
+              "%-8d %9.1f %9.1f %9.1f %9.1f %9d %12d  %s%n",
+              r + 1,
+              report.turnsPerSecond(),
+              report.turnLatency().p50(),
+              report.turnLatency().p95(),
+              report.turnLatency().p99(),
+              report.turnsTimedOut(),
+              rejected,
+              report.configuration()));
+    }
+    return text.toString();
+  }
+
+  private static String render(String name, Latency latency) {
+    return String.format(
+        "%s: n=%d, p50=%.1f, p95=%.1f, p99=%.1f, max=%.1f",
+        name, latency.count(), latency.p50(), latency.p95(), latency.p99(), latency.max());
+  }
+
+  /**
+   * A simulated stage executor.
+   *
+   * @param mode the mode of the simulated executor ({@code platform} or {@code virtual})
+   * @param coreSize slots started before tasks are queued
+   * @param maxSize slots started once the queue is full
+   * @param queueCapacity maximum number of queued tasks ({@code -1} for unbounded)
+   * @param rejectionPolicy the policy applied to rejected tasks
+   * @param completed the tasks completed
+   * @param rejected the tasks rejected
+   * @param peakBusy the peak number of busy slots
+   * @param peakQueued the peak number of queued tasks
+   * @param utilization the busy share of the {@code maxSize} slots over the run
+   * @param queueWait the time tasks waited in the queue
+   * @param service the time tasks held a slot
+   */
+  public record Stage(
+      String mode,
+      int coreSize,
+      int maxSize,
+      int queueCapacity,
+      String rejectionPolicy,
+      long completed,
+      long rejected,
+      int peakBusy,
+      int peakQueued,
+      double utilization,
+      Latency queueWait,
+      Latency service) {}
+}
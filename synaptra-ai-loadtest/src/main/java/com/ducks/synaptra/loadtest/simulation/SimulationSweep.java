@@ -0,0 +1,115 @@
+package com.ducks.synaptra.loadtest.simulation;
+
+import com.ducks.synaptra.loadtest.LoadTestApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Runs one simulation per configuration variant and compares them, e.g. to size the stage executors
+ * for a target load.
+ *
+ * <p>Each variant is a set of properties added to the command line of its run; every run starts a
+ * fresh application context with the {@value LoadTestApplication#SIMULATION_PROFILE} profile, so
+ * the variants only differ by their properties. The reports are logged side by side (see {@link
+ * SimulationReport#renderSweep(List)}) and, when {@code loadtest.report-file} is set, written as a
+ * JSON array.
+ *
+ * <h2>Configuration Properties</h2>
+ *
+ * <ul>
+ *   <li><b>loadtest.simulation.sweep</b> — Variants separated by {@code ;}, each a list of {@code
+ *       k=v} properties separated by {@code ,}, e.g. {@code
+ *       ai.agentics.executor.agent.max-size=8;ai.agentics.executor.agent.max-size=32}
+ *   <li><b>loadtest.report-file</b> — JSON file of the sweep reports (default none)
+ * </ul>
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+public final class SimulationSweep {
+
+  private static final Logger logger = LogManager.getLogger(SimulationSweep.class);
+
+  private static final String SWEEP_ARGUMENT = "--loadtest.simulation.sweep=";
+  private static final String REPORT_FILE_ARGUMENT = "--loadtest.report-file=";
+
+  private SimulationSweep() {}
+
+  /**
+   * Returns whether the command line requests a sweep.
+   *
+   * @param args the command line
+   * @return {@code true} if {@code loadtest.simulation.sweep} is set
+   */
+  public static boolean isRequested(String[] args) {
+    for (String arg : args) {
+      if (arg.startsWith(SWEEP_ARGUMENT)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Runs the sweep requested by the command line.
+   *
+   * @param args the command line, holding {@code loadtest.simulation.sweep} and the properties
+   *     common to all runs
+   * @throws UncheckedIOException if the reports cannot be written
+   */
+  public static void run(String[] args) {
+    List<String> common = new ArrayList<>();
+    List<String> variants = new ArrayList<>();
+    String reportFile = "";
+    for (String arg : args) {
+      if (arg.startsWith(SWEEP_ARGUMENT)) {
+        for (String variant : arg.substring(SWEEP_ARGUMENT.length()).split(";")) {
+          if (!variant.isBlank()) {
+            variants.add(variant.trim());
+          }
+        }
+      } else if (arg.startsWith(REPORT_FILE_ARGUMENT)) {
+        reportFile = arg.substring(REPORT_FILE_ARGUMENT.length());
+      } else {
+        common.add(arg);
+      }
+    }
+
+    List<SimulationReport> reports = new ArrayList<>();
+    for (String variant : variants) {
+      List<String> runArgs = new ArrayList<>(common);
+      runArgs.add("--spring.profiles.active=" + LoadTestApplication.SIMULATION_PROFILE);
+      runArgs.add("--loadtest.simulation.configuration=" + variant);
+      for (Map.Entry<String, String> property :
+          SimulationDriver.parseConfiguration(variant).entrySet()) {
+        runArgs.add("--" + property.getKey() + "=" + property.getValue());
+      }
+      try (ConfigurableApplicationContext context =
+          SpringApplication.run(LoadTestApplication.class, runArgs.toArray(String[]::new))) {
+        reports.add(context.getBean(SimulationDriver.class).getReport());
+      }
+    }
+
+    logger.info(
+        "[SIMULATION_SWEEP]{}{}", System.lineSeparator(), SimulationReport.renderSweep(reports));
+    if (!reportFile.isBlank()) {
+      try {
+        new ObjectMapper()
+            .writerWithDefaultPrettyPrinter()
+            .writeValue(new File(reportFile), reports);
+      } catch (IOException e) {
+        throw new UncheckedIOException("Cannot write the sweep reports to " + reportFile, e);
+      }
+      logger.info("[SIMULATION_REPORT_WRITTEN] file={}", reportFile);
+    }
+  }
+}
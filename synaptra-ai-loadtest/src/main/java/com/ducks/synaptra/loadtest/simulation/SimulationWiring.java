@@ -0,0 +1,146 @@
+package com.ducks.synaptra.loadtest.simulation;
+
+import com.ducks.synaptra.client.openai.OpenAIClient;
+import com.ducks.synaptra.config.ExecutionStage;
+import com.ducks.synaptra.config.ExecutorSaturation;
+import com.ducks.synaptra.config.RejectionPolicy;
+import com.ducks.synaptra.config.SaturationAwareExecutor;
+import com.ducks.synaptra.config.StageThreadPoolTaskExecutor;
+import com.ducks.synaptra.config.ThreadPoolTaskExecutorConfig;
+import com.ducks.synaptra.loadtest.LoadTestApplication;
+import com.ducks.synaptra.loadtest.replay.RecordedTraffic;
+import com.ducks.synaptra.loadtest.stub.ResponseScript;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Puts the library on the {@link VirtualClock}: replaces its stage executors with {@link
+ * SimulatedExecutor}s and its OpenAI client with the {@link SimulatedOpenAIClient}.
+ *
+ * <p>Every simulated executor is sized like the executor it replaces, so the pools are configured
+ * with the usual {@code ai.agentics.executor.*} properties: a {@code platform} executor keeps its
+ * core size, maximum size and queue capacity; a {@code virtual} executor becomes {@code
+ * max-concurrency} slots in front of a {@code max-waiting} queue. The rejection policy is read from
+ * the same properties.
+ *
+ * <h2>Configuration Properties</h2>
+ *
+ * <ul>
+ *   <li><b>loadtest.simulation.task-cost-us</b> — Slot time of every orchestration task besides its
+ *       simulated work, i.e. the CPU time of the orchestration code (default {@code 200})
+ * </ul>
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@Component
+@Profile(LoadTestApplication.SIMULATION_PROFILE)
+public class SimulationWiring implements BeanPostProcessor {
+
+  private static final String EXECUTOR_PREFIX = "ai.agentics.executor.";
+
+  private final ObjectProvider<VirtualClock> clock;
+  private final ObjectProvider<MeterRegistry> registry;
+  private final ObjectProvider<ObjectMapper> mapper;
+  private final ObjectProvider<ResponseScript> script;
+  private final ObjectProvider<RecordedTraffic> traffic;
+  private final ObjectProvider<SimulatedLatency> latency;
+  private final Environment environment;
+
+  private final Map<String, SimulatedExecutor> executors = new TreeMap<>();
+
+  /**
+   * Creates the wiring; its dependencies are resolved when the replaced beans are created.
+   *
+   * @param clock the clock of the simulation
+   * @param registry the registry of the simulation timers
+   * @param mapper the mapper of the simulated client
+   * @param script the script answering the simulated calls
+   * @param traffic the recorded traffic, answering the simulated calls when replayed
+   * @param latency the latency of the scripted answers
+   * @param environment the environment holding the executor properties
+   */
+  public SimulationWiring(
+      ObjectProvider<VirtualClock> clock,
+      ObjectProvider<MeterRegistry> registry,
+      ObjectProvider<ObjectMapper> mapper,
+      ObjectProvider<ResponseScript> script,
+      ObjectProvider<RecordedTraffic> traffic,
+      ObjectProvider<SimulatedLatency> latency,
+      Environment environment) {
+    this.clock = clock;
+    this.registry = registry;
+    this.mapper = mapper;
+    this.script = script;
+    this.traffic = traffic;
+    this.latency = latency;
+    this.environment = environment;
+  }
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String beanName) {
+    if (bean instanceof SaturationAwareExecutor executor && !(bean instanceof SimulatedExecutor)) {
+      for (ExecutionStage stage : ExecutionStage.values()) {
+        if (stage.beanName().equals(beanName)) {
+          SimulatedExecutor simulated = simulate(stage, executor);
+          executors.put(beanName, simulated);
+          return simulated;
+        }
+      }
+    }
+    if (bean instanceof OpenAIClient && !(bean instanceof SimulatedOpenAIClient)) {
+      return new SimulatedOpenAIClient(
+          clock.getObject(),
+          mapper.getObject(),
+          script.getObject(),
+          traffic.getObject(),
+          latency.getObject(),
+          registry.getObject());
+    }
+    return bean;
+  }
+
+  /**
+   * Returns the simulated stage executors.
+   *
+   * @return simulated executors by bean name
+   */
+  public Map<String, SimulatedExecutor> getExecutors() {
+    return Collections.unmodifiableMap(executors);
+  }
+
+  private SimulatedExecutor simulate(ExecutionStage stage, SaturationAwareExecutor executor) {
+    ExecutorSaturation saturation = executor.saturation();
+    int coreSize = saturation.maxConcurrency();
+    if (executor instanceof StageThreadPoolTaskExecutor platform) {
+      coreSize = platform.getCorePoolSize();
+    }
+    RejectionPolicy rejectionPolicy =
+        RejectionPolicy.fromProperty(
+            environment.getProperty(
+                EXECUTOR_PREFIX + stage.key() + ".rejection-policy",
+                stage.defaultRejectionPolicy().name().toLowerCase().replace('_', '-')));
+    long taskCostNanos =
+        environment.getProperty("loadtest.simulation.task-cost-us", Long.class, 200L) * 1000;
+    return new SimulatedExecutor(
+        clock.getObject(),
+        registry.getObject(),
+        stage.beanName(),
+        ThreadPoolTaskExecutorConfig.PLATFORM_MODE.equals(saturation.mode())
+            ? ThreadPoolTaskExecutorConfig.PLATFORM_MODE
+            : ThreadPoolTaskExecutorConfig.VIRTUAL_MODE,
+        coreSize,
+        saturation.maxConcurrency(),
+        saturation.pendingCapacity(),
+        rejectionPolicy,
+        taskCostNanos);
+  }
+}
@@ -0,0 +1,132 @@
+package com.ducks.synaptra.loadtest.simulation;
+
+import com.ducks.synaptra.loadtest.LoadTestApplication;
+import java.util.PriorityQueue;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+/**
+ * Discrete-event loop of the simulation: a virtual clock and the events scheduled on it.
+ *
+ * <p>Events run one at a time, on the thread calling {@link #run()}, in time order (and in
+ * scheduling order for equal times). Virtual time only moves from one event to the next, so hours
+ * of traffic run as fast as the orchestration code itself.
+ *
+ * <p>A task run by a {@link SimulatedExecutor} occupies its executor slot from the time it starts;
+ * while it runs, {@link #hold(long)} extends it by simulated work (e.g. an LLM call), and {@link
+ * #now()} is its start time plus the work done so far. Everything the task schedules is therefore
+ * scheduled from the point of the task it was done at: an event published after an LLM call is
+ * handled after the call completes.
+ *
+ * <p>Not thread-safe: the clock must only be used from the events it runs.
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@Component
+@Profile(LoadTestApplication.SIMULATION_PROFILE)
+public class VirtualClock {
+
+  private static final Logger logger = LogManager.getLogger(VirtualClock.class);
+
+  private final PriorityQueue<Event> events = new PriorityQueue<>();
+
+  private long time;
+  private long sequence;
+  private long processed;
+
+  /** Simulated work of the running task, or {@code -1} when no task runs. */
+  private long held = -1;
+
+  /**
+   * Returns the current virtual time.
+   *
+   * @return nanoseconds since the start of the simulation
+   */
+  public long now() {
+    return time + Math.max(held, 0);
+  }
+
+  /**
+   * Schedules an event.
+   *
+   * @param delayNanos the delay from {@link #now()}
+   * @param action the event
+   */
+  public void schedule(long delayNanos, Runnable action) {
+    Assert.isTrue(delayNanos >= 0, "delayNanos must not be negative");
+    events.add(new Event(now() + delayNanos, sequence++, action));
+  }
+
+  /**
+   * Extends the running task by simulated work.
+   *
+   * @param nanos the duration of the work
+   * @throws IllegalStateException if no task runs
+   */
+  public void hold(long nanos) {
+    Assert.state(held >= 0, "No simulated task is running");
+    held += Math.max(nanos, 0);
+  }
+
+  /**
+   * Returns whether a task runs, i.e. whether {@link #now()} is ahead of the event time.
+   *
+   * @return {@code true} while a task runs
+   */
+  public boolean isTaskRunning() {
+    return held >= 0;
+  }
+
+  /**
+   * Runs the events until none is left.
+   *
+   * @return the number of events run
+   */
+  public long run() {
+    long start = processed;
+    Event event;
+    while ((event = events.poll()) != null) {
+      time = event.time();
+      processed++;
+      try {
+        event.action().run();
+      } catch (RuntimeException e) {
+        logger.warn("[SIMULATION_EVENT_FAILED] time={}, reason={}", time, e.toString());
+      }
+    }
+    return processed - start;
+  }
+
+  /**
+   * Runs a task occupying an executor slot.
+   *
+   * @param task the task
+   * @param costNanos the fixed cost of the task, before any simulated work
+   * @return the duration of the task: its cost plus its simulated work
+   */
+  long runTask(Runnable task, long costNanos) {
+    Assert.state(held < 0, "A simulated task is already running");
+    held = costNanos;
+    try {
+      task.run();
+    } catch (RuntimeException e) {
+      logger.warn("[SIMULATION_TASK_FAILED] time={}, reason={}", time, e.toString());
+    }
+    long duration = held;
+    held = -1;
+    return duration;
+  }
+
+  private record Event(long time, long sequence, Runnable action) implements Comparable<Event> {
+
+    @Override
+    public int compareTo(Event other) {
+      int byTime = Long.compare(time, other.time);
+      return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+    }
+  }
+}
@@ -0,0 +1,103 @@
+package com.ducks.synaptra.loadtest.stub;
+
+import java.util.concurrent.ThreadLocalRandom;
+import org.springframework.util.Assert;
+
+/**
+ * Distribution of the latencies injected by the {@link StubOpenAIServer}.
+ *
+ * <p>Every distribution is described by its median and a spread:
+ *
+ * <ul>
+ *   <li>{@code fixed}: always the median; the spread is ignored
+ *   <li>{@code uniform}: uniform within {@code median * (1 ± spread)}
+ *   <li>{@code exponential}: exponential with the given median; the spread is ignored
+ *   <li>{@code lognormal}: log-normal with the given median and {@code spread} as sigma, the
+ *       long-tailed shape of real completion latencies
+ * </ul>
+ *
+ * <p>Samples are capped at {@code maxMillis}.
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+public final class LatencyDistribution {
+
+  /** Distribution always returning the median. */
+  public static final String FIXED = "fixed";
+
+  /** Uniform distribution around the median. */
+  public static final String UNIFORM = "uniform";
+
+  /** Exponential distribution. */
+  public static final String EXPONENTIAL = "exponential";
+
+  /** Log-normal distribution. */
+  public static final String LOGNORMAL = "lognormal";
+
+  private final String type;
+  private final double medianMillis;
+  private final double spread;
+  private final double maxMillis;
+
+  /**
+   * Creates a distribution.
+   *
+   * @param type {@code fixed}, {@code uniform}, {@code exponential} or {@code lognormal}
+   * @param medianMillis median latency, in milliseconds
+   * @param spread relative half-width ({@code uniform}) or sigma ({@code lognormal})
+   * @param maxMillis upper bound of the samples, in milliseconds
+   * @throws IllegalArgumentException if the type is unknown or a value is out of range
+   */
+  public LatencyDistribution(String type, double medianMillis, double spread, double maxMillis) {
+    String normalizedType = type.trim().toLowerCase();
+    Assert.isTrue(
+        FIXED.equals(normalizedType)
+            || UNIFORM.equals(normalizedType)
+            || EXPONENTIAL.equals(normalizedType)
+            || LOGNORMAL.equals(normalizedType),
+        "Unknown latency distribution '"
+            + type
+            + "' (expected '"
+            + FIXED
+            + "', '"
+            + UNIFORM
+            + "', '"
+            + EXPONENTIAL
+            + "' or '"
+            + LOGNORMAL
+            + "')");
+    Assert.isTrue(medianMillis >= 0, "medianMillis must not be negative");
+    Assert.isTrue(spread >= 0, "spread must not be negative");
+    Assert.isTrue(
+        !UNIFORM.equals(normalizedType) || spread <= 1, "spread of 'uniform' must not exceed 1");
+    Assert.isTrue(maxMillis >= medianMillis, "maxMillis must not be lower than medianMillis");
+    this.type = normalizedType;
+    this.medianMillis = medianMillis;
+    this.spread = spread;
+    this.maxMillis = maxMillis;
+  }
+
+  /**
+   * Draws a latency.
+   *
+   * @return the latency, in nanoseconds
+   */
+  public long sampleNanos() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    double millis =
+        switch (type) {
+          case UNIFORM -> medianMillis * (1 + spread * (2 * random.nextDouble() - 1));
+          // The median of an exponential distribution is its mean times ln 2.
+          case EXPONENTIAL -> -medianMillis / Math.log(2) * Math.log(1 - random.nextDouble());
+          case LOGNORMAL -> medianMillis * Math.exp(spread * random.nextGaussian());
+          default -> medianMillis;
+        };
+    return (long) (Math.min(millis, maxMillis) * 1_000_000);
+  }
+
+  @Override
+  public String toString() {
+    return type + "(median=" + medianMillis + "ms, spread=" + spread + ", max=" + maxMillis + "ms)";
+  }
+}
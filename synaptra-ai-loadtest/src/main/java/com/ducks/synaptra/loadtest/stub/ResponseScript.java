@@ -0,0 +1,270 @@
+package com.ducks.synaptra.loadtest.stub;
+
+import com.ducks.synaptra.client.openai.data.ChatCompletionResponse;
+import com.ducks.synaptra.client.openai.data.Choice;
+import com.ducks.synaptra.client.openai.data.FunctionCall;
+import com.ducks.synaptra.client.openai.data.Message;
+import com.ducks.synaptra.client.openai.data.ToolCall;
+import com.ducks.synaptra.client.openai.data.Usage;
+import com.ducks.synaptra.loadtest.agent.LoadTestAgents;
+import com.ducks.synaptra.orchestration.event.record.RecordExecutionEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * Scripted answers of the {@link StubOpenAIServer} (and of the simulated client, see {@link
+ * com.ducks.synaptra.loadtest.simulation.SimulatedOpenAIClient}), shaped like the answers of a real
+ * model driving the orchestration.
+ *
+ * <p>The step of the conversation is inferred from the request, like a model would:
+ *
+ * <ul>
+ *   <li>A request offering {@code route_to_agent} comes from a supervisor. On a new turn, it routes
+ *       to a random child with probability {@code routeRatio}; when resumed after a child finished
+ *       (an {@code Execution update} system message), it records the outcome
+ *   <li>Any other request comes from an agent. On a new step, it calls an external tool with
+ *       probability {@code toolRatio}; once the tool result is provided (a system message starting
+ *       with {@link #TOOL_RESULT_PREFIX}), it records the outcome
+ * </ul>
+ *
+ * <p>Recording the outcome is a {@code record_event} tool call: {@code WAIT_USER_INPUT} with
+ * probability {@code askRatio}, {@code FINISHED} otherwise. With probability {@code interimRatio},
+ * an answer also carries content besides its tool call, delivered as an interim answer.
+ *
+ * <p>Token usage is estimated from the request and answer sizes (four characters per token).
+ *
+ * <h2>Configuration Properties</h2>
+ *
+ * <ul>
+ *   <li><b>loadtest.script.route-ratio</b> — Probability of a supervisor routing a new turn
+ *       (default {@code 0.9})
+ *   <li><b>loadtest.script.tool-ratio</b> — Probability of an agent calling an external tool
+ *       (default {@code 0.5})
+ *   <li><b>loadtest.script.ask-ratio</b> — Probability of an outcome asking the user for input
+ *       (default {@code 0.2})
+ *   <li><b>loadtest.script.interim-ratio</b> — Probability of an answer carrying interim content
+ *       (default {@code 0.3})
+ *   <li><b>loadtest.script.content-chars</b> — Length of the generated contents (default {@code
+ *       400})
+ *   <li><b>loadtest.script.tools</b> — Comma-separated names of the external tools (default {@code
+ *       lookup_order,update_address})
+ * </ul>
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@Component
+public class ResponseScript {
+
+  /** Prefix of the system message carrying the result of an external tool call. */
+  public static final String TOOL_RESULT_PREFIX = "Tool result:";
+
+  private static final String RESUME_PREFIX = "Execution update:";
+
+  private static final String FILLER =
+      "Your request has been processed. The order was located, the customer data was verified and"
+          + " the requested change was applied. A confirmation will be sent by e-mail shortly. ";
+
+  private final ObjectMapper mapper;
+  private final List<String> childNames;
+  private final List<String> toolNames;
+  private final double routeRatio;
+  private final double toolRatio;
+  private final double askRatio;
+  private final double interimRatio;
+  private final String content;
+  private final AtomicLong ids = new AtomicLong();
+
+  /**
+   * Creates a script.
+   *
+   * @param mapper the mapper serializing tool call arguments
+   * @param agents the agent tree, providing the agents a supervisor routes to
+   * @param routeRatio probability of a supervisor routing a new turn
+   * @param toolRatio probability of an agent calling an external tool on a new step
+   * @param askRatio probability of an outcome asking the user for more input
+   * @param interimRatio probability of an answer carrying interim content
+   * @param contentChars length of the generated contents
+   * @param tools the comma-separated names of the external tools an agent calls
+   * @throws IllegalArgumentException if a probability is out of {@code [0, 1]} or no tool name is
+   *     given
+   */
+  public ResponseScript(
+      ObjectMapper mapper,
+      LoadTestAgents agents,
+      @Value("${loadtest.script.route-ratio:0.9}") double routeRatio,
+      @Value("${loadtest.script.tool-ratio:0.5}") double toolRatio,
+      @Value("${loadtest.script.ask-ratio:0.2}") double askRatio,
+      @Value("${loadtest.script.interim-ratio:0.3}") double interimRatio,
+      @Value("${loadtest.script.content-chars:400}") int contentChars,
+      @Value("${loadtest.script.tools:lookup_order,update_address}") String tools) {
+    List<String> toolNames =
+        Arrays.asList(StringUtils.commaDelimitedListToStringArray(tools.replace(" ", "")));
+    assertRatio(routeRatio, "routeRatio");
+    assertRatio(toolRatio, "toolRatio");
+    assertRatio(askRatio, "askRatio");
+    assertRatio(interimRatio, "interimRatio");
+    Assert.notEmpty(toolNames, "toolNames must not be empty");
+    Assert.isTrue(contentChars > 0, "contentChars must be positive");
+    this.mapper = mapper;
+    this.childNames = agents.getChildNames();
+    this.toolNames = List.copyOf(toolNames);
+    this.routeRatio = routeRatio;
+    this.toolRatio = toolRatio;
+    this.askRatio = askRatio;
+    this.interimRatio = interimRatio;
+    this.content = FILLER.repeat(contentChars / FILLER.length() + 1).substring(0, contentChars);
+  }
+
+  /**
+   * Answers a chat-completion request.
+   *
+   * @param request the request JSON
+   * @param requestChars the size of the request body, used to estimate the prompt tokens
+   * @return the scripted answer
+   */
+  public Answer answer(JsonNode request, int requestChars) {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    boolean supervisor = offersTool(request, "route_to_agent");
+
+    ToolCall toolCall;
+    boolean endsTurn = false;
+    if (supervisor
+        && !hasSystemMessage(request, RESUME_PREFIX)
+        && random.nextDouble() < routeRatio) {
+      toolCall = routeToAgent(request, random);
+    } else if (!supervisor
+        && !hasSystemMessage(request, TOOL_RESULT_PREFIX)
+        && random.nextDouble() < toolRatio) {
+      toolCall = externalTool(random);
+    } else {
+      boolean ask = random.nextDouble() < askRatio;
+      toolCall =
+          recordEvent(ask ? RecordExecutionEvent.WAIT_USER_INPUT : RecordExecutionEvent.FINISHED);
+      // Asking the user ends the turn; finishing ends it when no parent is resumed.
+      endsTurn = ask || supervisor || childNames.isEmpty();
+    }
+
+    String interim = random.nextDouble() < interimRatio ? content : null;
+    return new Answer(
+        response(request, requestChars, toolCall, interim), toolCall.function().name(), endsTurn);
+  }
+
+  /**
+   * Answers a chat-completion request by recording a {@code FINISHED} outcome, whatever the step of
+   * the conversation; used when a replay has no recorded answer to a request.
+   *
+   * @param request the request JSON
+   * @param requestChars the size of the request body, used to estimate the prompt tokens
+   * @return the answer
+   */
+  public Answer finish(JsonNode request, int requestChars) {
+    ToolCall toolCall = recordEvent(RecordExecutionEvent.FINISHED);
+    return new Answer(
+        response(request, requestChars, toolCall, null), toolCall.function().name(), false);
+  }
+
+  private ChatCompletionResponse response(
+      JsonNode request, int requestChars, ToolCall toolCall, String interim) {
+    int completionChars =
+        toolCall.function().arguments().length() + (interim != null ? interim.length() : 0);
+    return new ChatCompletionResponse(
+        "chatcmpl-stub-" + ids.incrementAndGet(),
+        "chat.completion",
+        System.currentTimeMillis() / 1000,
+        request.path("model").asText(),
+        List.of(
+            new Choice(
+                0,
+                new Message("assistant", interim, null, null, List.of(toolCall)),
+                "tool_calls",
+                null)),
+        new Usage(requestChars / 4, completionChars / 4, requestChars / 4 + completionChars / 4));
+  }
+
+  /**
+   * Returns the content of the last user message of a request, identifying the turn.
+   *
+   * @param request the request JSON
+   * @return the user message content, or {@code null} if there is none
+   */
+  public static String userMessage(JsonNode request) {
+    String user = null;
+    for (JsonNode message : request.path("messages")) {
+      if ("user".equals(message.path("role").asText())) {
+        user = message.path("content").asText(null);
+      }
+    }
+    return user;
+  }
+
+  private ToolCall routeToAgent(JsonNode request, ThreadLocalRandom random) {
+    ObjectNode arguments = mapper.createObjectNode();
+    arguments.put("agent", childNames.get(random.nextInt(childNames.size())));
+    arguments.put("objective", "Handle the customer request.");
+    arguments.put("input", StringUtils.truncate(String.valueOf(userMessage(request)), 512));
+    arguments.put("response", "Let me forward your request to the right team.");
+    return toolCall("route_to_agent", arguments);
+  }
+
+  private ToolCall externalTool(ThreadLocalRandom random) {
+    ObjectNode arguments = mapper.createObjectNode();
+    arguments.put("orderId", String.valueOf(random.nextInt(1_000_000)));
+    return toolCall(toolNames.get(random.nextInt(toolNames.size())), arguments);
+  }
+
+  private ToolCall recordEvent(String status) {
+    ObjectNode arguments = mapper.createObjectNode();
+    arguments.put("status", status);
+    arguments.put("content", content);
+    return toolCall("record_event", arguments);
+  }
+
+  private ToolCall toolCall(String name, ObjectNode arguments) {
+    return new ToolCall(
+        "call_stub_" + ids.incrementAndGet(),
+        "function",
+        new FunctionCall(name, arguments.toString()));
+  }
+
+  private static boolean offersTool(JsonNode request, String name) {
+    for (JsonNode tool : request.path("tools")) {
+      if (name.equals(tool.path("function").path("name").asText())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean hasSystemMessage(JsonNode request, String prefix) {
+    for (JsonNode message : request.path("messages")) {
+      if ("system".equals(message.path("role").asText())
+          && message.path("content").asText("").startsWith(prefix)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static void assertRatio(double ratio, String name) {
+    Assert.isTrue(ratio >= 0 && ratio <= 1, name + " must be within [0, 1]");
+  }
+
+  /**
+   * A scripted answer.
+   *
+   * @param response the chat-completion response
+   * @param toolName the tool called by the response
+   * @param endsTurn whether the response ends the user turn
+   */
+  public record Answer(ChatCompletionResponse response, String toolName, boolean endsTurn) {}
+}
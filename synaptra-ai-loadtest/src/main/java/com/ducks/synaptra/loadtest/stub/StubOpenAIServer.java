@@ -0,0 +1,309 @@
+package com.ducks.synaptra.loadtest.stub;
+
+import com.ducks.synaptra.loadtest.LoadTestApplication;
+import com.ducks.synaptra.loadtest.replay.RecordedTraffic;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+/**
+ * Embedded Reactor Netty stub of the OpenAI {@code /v1/chat/completions} endpoint.
+ *
+ * <p>Requests are answered by a {@link ResponseScript} after a latency drawn from a {@link
+ * LatencyDistribution}, so the orchestration runs its real code paths (routing, external tool
+ * calls, records, interim answers) without paying for completions. When {@link RecordedTraffic} is
+ * replayed, requests are answered with the recorded responses after the recorded latency instead;
+ * the script only finishes the agents of the requests without recorded answer. Faults are injected
+ * at configurable rates:
+ *
+ * <ul>
+ *   <li><b>error</b>: an HTTP 500 answer
+ *   <li><b>throttle</b>: an HTTP 429 answer, like a rate-limited account
+ *   <li><b>timeout</b>: no answer at all, until the client gives up
+ * </ul>
+ *
+ * <p>The stub also measures the orchestration <b>hop gap</b> ({@code loadtest.stub.hop-gap}): the
+ * time between an answer and the next request of the same turn, i.e. the time the orchestration
+ * spends between two LLM calls. Turns are told apart by their user message.
+ *
+ * <h2>Configuration Properties</h2>
+ *
+ * <ul>
+ *   <li><b>loadtest.stub.port</b> — Port the stub listens on (default {@code 18080})
+ *   <li><b>loadtest.stub.latency.type</b> — {@code fixed}, {@code uniform}, {@code exponential} or
+ *       {@code lognormal} (default {@code lognormal})
+ *   <li><b>loadtest.stub.latency.median-ms</b> — Median latency (default {@code 800})
+ *   <li><b>loadtest.stub.latency.spread</b> — Relative half-width of {@code uniform}, sigma of
+ *       {@code lognormal} (default {@code 0.5})
+ *   <li><b>loadtest.stub.latency.max-ms</b> — Upper bound of the latency (default {@code 10000})
+ *   <li><b>loadtest.stub.error-rate</b> — Share of requests answered with HTTP 500 (default {@code
+ *       0})
+ *   <li><b>loadtest.stub.throttle-rate</b> — Share of requests answered with HTTP 429 (default
+ *       {@code 0})
+ *   <li><b>loadtest.stub.timeout-rate</b> — Share of requests never answered (default {@code 0})
+ * </ul>
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@Component
+@Profile("!" + LoadTestApplication.SIMULATION_PROFILE)
+public class StubOpenAIServer implements DisposableBean {
+
+  private static final Logger logger = LogManager.getLogger(StubOpenAIServer.class);
+
+  private static final String CHAT_COMPLETIONS = "/v1/chat/completions";
+
+  private final ObjectMapper mapper;
+  private final ResponseScript script;
+  private final RecordedTraffic traffic;
+  private final LatencyDistribution latency;
+  private final double errorRate;
+  private final double throttleRate;
+  private final double timeoutRate;
+  private final Timer hopGap;
+  private final DisposableServer server;
+
+  /** Time of the last answer by turn (user message), to measure the hop gap. */
+  private final Map<String, Long> lastAnswers = new ConcurrentHashMap<>();
+
+  private final LongAdder requests = new LongAdder();
+  private final LongAdder errors = new LongAdder();
+  private final LongAdder throttled = new LongAdder();
+  private final LongAdder timeouts = new LongAdder();
+
+  /**
+   * Creates the stub and starts listening.
+   *
+   * @param mapper the mapper reading requests and writing answers
+   * @param registry the registry of the hop gap timer
+   * @param script the script answering the requests
+   * @param traffic the recorded traffic, answering requests when replayed
+   * @param port the port to listen on
+   * @param latencyType the latency distribution type
+   * @param medianMillis the median latency, in milliseconds
+   * @param spread the spread of the latency distribution
+   * @param maxMillis the upper bound of the latency, in milliseconds
+   * @param errorRate the share of requests answered with HTTP 500
+   * @param throttleRate the share of requests answered with HTTP 429
+   * @param timeoutRate the share of requests never answered
+   * @throws IllegalArgumentException if a rate is out of {@code [0, 1]}
+   */
+  public StubOpenAIServer(
+      ObjectMapper mapper,
+      MeterRegistry registry,
+      ResponseScript script,
+      RecordedTraffic traffic,
+      @Value("${loadtest.stub.port:18080}") int port,
+      @Value("${loadtest.stub.latency.type:lognormal}") String latencyType,
+      @Value("${loadtest.stub.latency.median-ms:800}") double medianMillis,
+      @Value("${loadtest.stub.latency.spread:0.5}") double spread,
+      @Value("${loadtest.stub.latency.max-ms:10000}") double maxMillis,
+      @Value("${loadtest.stub.error-rate:0}") double errorRate,
+      @Value("${loadtest.stub.throttle-rate:0}") double throttleRate,
+      @Value("${loadtest.stub.timeout-rate:0}") double timeoutRate) {
+    Assert.isTrue(
+        errorRate >= 0 && throttleRate >= 0 && timeoutRate >= 0,
+        "fault rates must not be negative");
+    Assert.isTrue(errorRate + throttleRate + timeoutRate <= 1, "fault rates must not exceed 1");
+    this.mapper = mapper;
+    this.script = script;
+    this.traffic = traffic;
+    this.latency = new LatencyDistribution(latencyType, medianMillis, spread, maxMillis);
+    this.errorRate = errorRate;
+    this.throttleRate = throttleRate;
+    this.timeoutRate = timeoutRate;
+    this.hopGap =
+        Timer.builder("loadtest.stub.hop-gap")
+            .description("Time between an LLM answer and the next LLM request of the same turn")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(registry);
+    this.server =
+        HttpServer.create()
+            .host("localhost")
+            .port(port)
+            .route(routes -> routes.post(CHAT_COMPLETIONS, this::handle))
+            .bindNow();
+    logger.info(
+        "[STUB_OPENAI_STARTED] port={}, latency={}, errorRate={}, throttleRate={}, timeoutRate={}",
+        server.port(),
+        latency,
+        errorRate,
+        throttleRate,
+        timeoutRate);
+  }
+
+  /**
+   * Returns the port the stub listens on.
+   *
+   * @return listening port
+   */
+  public int getPort() {
+    return server.port();
+  }
+
+  /**
+   * Returns the number of requests received.
+   *
+   * @return received requests
+   */
+  public long getRequests() {
+    return requests.sum();
+  }
+
+  /**
+   * Returns the number of requests answered with HTTP 500.
+   *
+   * @return injected errors
+   */
+  public long getErrors() {
+    return errors.sum();
+  }
+
+  /**
+   * Returns the number of requests answered with HTTP 429.
+   *
+   * @return injected throttles
+   */
+  public long getThrottled() {
+    return throttled.sum();
+  }
+
+  /**
+   * Returns the number of requests never answered.
+   *
+   * @return injected timeouts
+   */
+  public long getTimeouts() {
+    return timeouts.sum();
+  }
+
+  /**
+   * Returns the timer of the orchestration hop gap.
+   *
+   * @return hop gap timer
+   */
+  public Timer getHopGap() {
+    return hopGap;
+  }
+
+  /** Stops listening. */
+  @Override
+  public void destroy() {
+    server.disposeNow();
+  }
+
+  private Mono<Void> handle(HttpServerRequest request, HttpServerResponse response) {
+    return request
+        .receive()
+        .aggregate()
+        .asByteArray()
+        .flatMap(this::reply)
+        .flatMap(
+            reply ->
+                response
+                    .status(reply.status())
+                    .header("Content-Type", "application/json")
+                    .sendByteArray(Mono.just(reply.body()))
+                    .then());
+  }
+
+  private Mono<Reply> reply(byte[] body) {
+    long receivedAt = System.nanoTime();
+    requests.increment();
+
+    JsonNode request;
+    try {
+      request = mapper.readTree(body);
+    } catch (IOException e) {
+      return Mono.just(error(400, "invalid_request_error", e.getMessage()));
+    }
+    String turn = ResponseScript.userMessage(request);
+    Long answeredAt = turn != null ? lastAnswers.remove(turn) : null;
+    if (answeredAt != null) {
+      hopGap.record(receivedAt - answeredAt, TimeUnit.NANOSECONDS);
+    }
+
+    double fault = ThreadLocalRandom.current().nextDouble();
+    if (fault < timeoutRate) {
+      timeouts.increment();
+      return Mono.never();
+    }
+    Duration delay = Duration.ofNanos(latency.sampleNanos());
+    if (fault < timeoutRate + errorRate) {
+      errors.increment();
+      return Mono.delay(delay).thenReturn(error(500, "server_error", "Injected error"));
+    }
+    if (fault < timeoutRate + errorRate + throttleRate) {
+      throttled.increment();
+      return Mono.just(error(429, "rate_limit_exceeded", "Injected rate limit"));
+    }
+
+    RecordedTraffic.Replay replay = traffic.isEnabled() ? traffic.next(request) : null;
+    if (replay != null) {
+      Duration recorded = Duration.ofNanos(replay.latencyNanos());
+      if (replay.body() == null) {
+        return Mono.delay(recorded).thenReturn(error(500, "server_error", "Recorded error"));
+      }
+      return answer(recorded, turn, replay.body(), replay.endsTurn());
+    }
+
+    // A replay miss finishes the agent: routing or calling tools of the script could target
+    // agents and steps the recorded tree does not have.
+    ResponseScript.Answer answer =
+        traffic.isEnabled()
+            ? script.finish(request, body.length)
+            : script.answer(request, body.length);
+    byte[] json;
+    try {
+      json = mapper.writeValueAsBytes(answer.response());
+    } catch (JsonProcessingException e) {
+      return Mono.just(error(500, "server_error", e.getMessage()));
+    }
+    return answer(delay, turn, json, answer.endsTurn());
+  }
+
+  private Mono<Reply> answer(Duration delay, String turn, byte[] json, boolean endsTurn) {
+    return Mono.delay(delay)
+        .map(
+            ignored -> {
+              if (turn != null && !endsTurn) {
+                lastAnswers.put(turn, System.nanoTime());
+              }
+              return new Reply(200, json);
+            });
+  }
+
+  private Reply error(int status, String type, String message) {
+    String json =
+        mapper
+            .createObjectNode()
+            .set("error", mapper.createObjectNode().put("message", message).put("type", type))
+            .toString();
+    return new Reply(status, json.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private record Reply(int status, byte[] body) {}
+}
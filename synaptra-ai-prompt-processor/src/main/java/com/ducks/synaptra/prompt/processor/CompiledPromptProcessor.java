@@ -0,0 +1,165 @@
+package com.ducks.synaptra.prompt.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+/**
+ * Annotation processor compiling {@code @PromptTemplate} methods of {@code @CompiledPrompts}
+ * interfaces into plain Java renderers.
+ *
+ * <p>For an interface {@code com.acme.SupervisorPrompts} it generates {@code
+ * com.acme.SupervisorPromptsCompiled} (nested interfaces are flattened as {@code
+ * Outer_InnerCompiled}). Template syntax errors, unknown variables and unresolvable properties are
+ * reported as compilation errors on the offending method, with the line and column inside the
+ * template.
+ *
+ * <p>The processor depends on no library type at compile time: annotations are matched by name so
+ * it can be placed on the annotation processor path of any project depending on {@code
+ * synaptra-ai-lib}.
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+@SupportedAnnotationTypes(CompiledPromptProcessor.COMPILED_PROMPTS)
+public final class CompiledPromptProcessor extends AbstractProcessor {
+
+  static final String COMPILED_PROMPTS = "com.ducks.synaptra.prompt.CompiledPrompts";
+  static final String PROMPT_TEMPLATE = "com.ducks.synaptra.prompt.PromptTemplate";
+
+  private static final String SUFFIX = "Compiled";
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    for (TypeElement annotation : annotations) {
+      for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+        if (element.getKind() != ElementKind.INTERFACE) {
+          error("@CompiledPrompts can only annotate interfaces", element, null);
+          continue;
+        }
+        generate((TypeElement) element);
+      }
+    }
+    return true;
+  }
+
+  private void generate(TypeElement contract) {
+    if (!contract.getTypeParameters().isEmpty()) {
+      error("@CompiledPrompts interfaces cannot declare type parameters", contract, null);
+      return;
+    }
+
+    String className = className(contract);
+    RendererGenerator generator =
+        new RendererGenerator(
+            processingEnv.getElementUtils(), processingEnv.getTypeUtils(), contract, className);
+
+    boolean valid = true;
+    List<ExecutableElement> methods =
+        ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(contract));
+    for (ExecutableElement method : methods) {
+      if (method.getModifiers().contains(Modifier.ABSTRACT)) {
+        valid &= addMethod(generator, method);
+      }
+    }
+    if (!valid) {
+      return;
+    }
+
+    String packageName =
+        processingEnv.getElementUtils().getPackageOf(contract).getQualifiedName().toString();
+    String qualifiedName = packageName.isEmpty() ? className : packageName + "." + className;
+    try (Writer writer =
+        processingEnv.getFiler().createSourceFile(qualifiedName, contract).openWriter()) {
+      writer.write(generator.build());
+    } catch (IOException e) {
+      error("Failed to write " + qualifiedName + ": " + e.getMessage(), contract, null);
+    }
+  }
+
+  private boolean addMethod(RendererGenerator generator, ExecutableElement method) {
+    AnnotationMirror mirror = templateAnnotation(method);
+    if (mirror == null) {
+      error(
+          "abstract methods of @CompiledPrompts interfaces require @PromptTemplate", method, null);
+      return false;
+    }
+    if (!processingEnv
+        .getTypeUtils()
+        .isSameType(
+            method.getReturnType(),
+            processingEnv.getElementUtils().getTypeElement("java.lang.String").asType())) {
+      error("@PromptTemplate methods must return String", method, mirror);
+      return false;
+    }
+    if (!method.getTypeParameters().isEmpty()) {
+      error("@PromptTemplate methods cannot declare type parameters", method, mirror);
+      return false;
+    }
+
+    String template = templateValue(mirror);
+    try {
+      generator.addMethod(method, TemplateParser.parse(template));
+      return true;
+    } catch (TemplateException e) {
+      error("Invalid prompt template, " + e.describe(template), method, mirror);
+      return false;
+    }
+  }
+
+  private static AnnotationMirror templateAnnotation(ExecutableElement method) {
+    for (AnnotationMirror mirror : method.getAnnotationMirrors()) {
+      TypeElement type = (TypeElement) mirror.getAnnotationType().asElement();
+      if (type.getQualifiedName().contentEquals(PROMPT_TEMPLATE)) {
+        return mirror;
+      }
+    }
+    return null;
+  }
+
+  private static String templateValue(AnnotationMirror mirror) {
+    for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry :
+        mirror.getElementValues().entrySet()) {
+      if (entry.getKey().getSimpleName().contentEquals("value")) {
+        return (String) entry.getValue().getValue();
+      }
+    }
+    return "";
+  }
+
+  private static String className(TypeElement contract) {
+    Deque<String> names = new ArrayDeque<>();
+    Element current = contract;
+    while (current instanceof TypeElement type) {
+      names.push(type.getSimpleName().toString());
+      current = type.getEnclosingElement();
+    }
+    return String.join("_", names) + SUFFIX;
+  }
+
+  private void error(String message, Element element, AnnotationMirror mirror) {
+    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element, mirror);
+  }
+}
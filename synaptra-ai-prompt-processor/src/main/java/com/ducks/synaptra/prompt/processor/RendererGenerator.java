@@ -0,0 +1,642 @@
+package com.ducks.synaptra.prompt.processor;
+
+import com.ducks.synaptra.prompt.processor.TemplateNode.Branch;
+import com.ducks.synaptra.prompt.processor.TemplateNode.Foreach;
+import com.ducks.synaptra.prompt.processor.TemplateNode.If;
+import com.ducks.synaptra.prompt.processor.TemplateNode.Reference;
+import com.ducks.synaptra.prompt.processor.TemplateNode.Segment;
+import com.ducks.synaptra.prompt.processor.TemplateNode.Text;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.IntersectionType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.TypeVariable;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+/**
+ * Generates the Java source of a {@code @CompiledPrompts} implementation.
+ *
+ * <p>Each template method becomes a straight-line renderer appending literal text and typed
+ * accessor calls to a {@link StringBuilder}. References, properties and methods are resolved
+ * against the declared parameter types while generating, so the produced code contains no
+ * reflection. Null handling and {@code #if} truthiness are delegated to {@code PromptRuntime} to
+ * match Velocity.
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+final class RendererGenerator {
+
+  private static final String RUNTIME = "com.ducks.synaptra.prompt.PromptRuntime";
+  private static final String OUT = "$out";
+  private static final String FOREACH = "foreach";
+
+  private record Binding(String expression, TypeMirror type) {}
+
+  private record Loop(String iterator, String index) {}
+
+  private final Elements elements;
+  private final Types types;
+  private final TypeElement contract;
+  private final String className;
+  private final StringBuilder methods = new StringBuilder();
+
+  private final Deque<Map<String, Binding>> scopes = new ArrayDeque<>();
+  private final Deque<Loop> loops = new ArrayDeque<>();
+  private StringBuilder code;
+  private int indent;
+  private int names;
+
+  /**
+   * Creates a generator for one {@code @CompiledPrompts} interface.
+   *
+   * @param elements element utilities of the processing environment
+   * @param types type utilities of the processing environment
+   * @param contract the annotated interface
+   * @param className the simple name of the generated class
+   */
+  RendererGenerator(Elements elements, Types types, TypeElement contract, String className) {
+    this.elements = elements;
+    this.types = types;
+    this.contract = contract;
+    this.className = className;
+  }
+
+  /**
+   * Adds the renderer of a template method.
+   *
+   * @param method the template method
+   * @param template the parsed template
+   * @throws TemplateException if a reference cannot be resolved against the method parameters
+   */
+  void addMethod(ExecutableElement method, List<TemplateNode> template) {
+    code = new StringBuilder();
+    indent = 2;
+    names = 0;
+    scopes.clear();
+    loops.clear();
+
+    Map<String, Binding> parameters = new HashMap<>();
+    for (VariableElement parameter : method.getParameters()) {
+      String name = parameter.getSimpleName().toString();
+      parameters.put(name, new Binding(name, parameter.asType()));
+    }
+    scopes.push(parameters);
+
+    if (template.stream().allMatch(Text.class::isInstance)) {
+      renderConstant(template);
+    } else {
+      line("StringBuilder " + OUT + " = new StringBuilder(" + capacity(template) + ");");
+      render(template);
+      line("return " + OUT + ".toString();");
+    }
+
+    methods.append('\n');
+    methods.append("  @Override\n");
+    methods.append("  public String ").append(method.getSimpleName()).append('(');
+    List<? extends VariableElement> declared = method.getParameters();
+    for (int index = 0; index < declared.size(); index++) {
+      if (index > 0) {
+        methods.append(", ");
+      }
+      methods.append(
+          parameterType(
+              declared.get(index).asType(), method.isVarArgs() && index == declared.size() - 1));
+      methods.append(' ').append(declared.get(index).getSimpleName());
+    }
+    methods.append(") {\n");
+    methods.append(code);
+    methods.append("  }\n");
+  }
+
+  /**
+   * Returns the source of the generated class.
+   *
+   * @return the Java source
+   */
+  String build() {
+    StringBuilder source = new StringBuilder();
+    String packageName = elements.getPackageOf(contract).getQualifiedName().toString();
+    if (!packageName.isEmpty()) {
+      source.append("package ").append(packageName).append(";\n\n");
+    }
+    source
+        .append("/** Renderers compiled from the {@link ")
+        .append(contract.getQualifiedName())
+        .append("} prompt templates. */\n");
+    source
+        .append("@javax.annotation.processing.Generated(\"")
+        .append(CompiledPromptProcessor.class.getName())
+        .append("\")\n");
+    source.append("public final class ").append(className);
+    source.append(" implements ").append(contract.getQualifiedName()).append(" {\n");
+    source.append(methods);
+    source.append("}\n");
+    return source.toString();
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // Nodes
+  // ---------------------------------------------------------------------------------------------
+
+  private void render(List<TemplateNode> nodes) {
+    for (TemplateNode node : nodes) {
+      switch (node) {
+        case Text text -> renderText(text.text());
+        case Reference reference -> renderReference(reference);
+        case If conditional -> renderIf(conditional.branches(), 0, conditional.otherwise());
+        case Foreach foreach -> renderForeach(foreach);
+      }
+    }
+  }
+
+  private void renderConstant(List<TemplateNode> template) {
+    StringBuilder text = new StringBuilder();
+    template.forEach(node -> text.append(((Text) node).text()));
+    List<String> lines = lines(text.toString());
+    if (lines.isEmpty()) {
+      line("return \"\";");
+      return;
+    }
+    line("return " + literal(lines.getFirst()) + (lines.size() == 1 ? ";" : ""));
+    for (int index = 1; index < lines.size(); index++) {
+      line("    + " + literal(lines.get(index)) + (index == lines.size() - 1 ? ";" : ""));
+    }
+  }
+
+  private void renderText(String text) {
+    for (String part : lines(text)) {
+      line(OUT + ".append(" + literal(part) + ");");
+    }
+  }
+
+  private void renderReference(Reference reference) {
+    String fallback = literal(reference.silent() ? "" : reference.source());
+    if (reference.segments().isEmpty() && !isLoopReference(reference)) {
+      line(
+          RUNTIME
+              + ".append("
+              + OUT
+              + ", "
+              + lookup(reference).expression()
+              + ", "
+              + fallback
+              + ");");
+      return;
+    }
+    String value = evaluate(reference);
+    line(RUNTIME + ".append(" + OUT + ", " + value + ", " + fallback + ");");
+  }
+
+  private void renderIf(List<Branch> branches, int from, List<TemplateNode> otherwise) {
+    Branch branch = branches.get(from);
+    Reference condition = branch.condition();
+    String value =
+        condition.segments().isEmpty() && !isLoopReference(condition)
+            ? lookup(condition).expression()
+            : evaluate(condition);
+
+    open("if (" + (branch.negated() ? "!" : "") + RUNTIME + ".isTrue(" + value + "))");
+    render(branch.body());
+
+    if (from + 1 < branches.size()) {
+      reopen("} else {");
+      renderIf(branches, from + 1, otherwise);
+    } else if (otherwise != null) {
+      reopen("} else {");
+      render(otherwise);
+    }
+    close();
+  }
+
+  private void renderForeach(Foreach foreach) {
+    chain(
+        foreach.iterable(),
+        (iterable, type) -> {
+          boolean nullable = !type.getKind().isPrimitive();
+          if (nullable) {
+            open("if (" + iterable + " != null)");
+          }
+
+          String iterator = name("$it");
+          line("var " + iterator + " = " + iteratorOf(iterable, type, foreach) + ";");
+          TypeMirror element = returnType(iteratorType(type, foreach), "next");
+
+          boolean indexed = usesLoop(foreach.body());
+          String index = indexed ? name("$i") : null;
+          if (indexed) {
+            line("int " + index + " = 0;");
+          }
+
+          open("while (" + iterator + ".hasNext())");
+          String variable = name("$" + foreach.variable());
+          line("var " + variable + " = " + iterator + ".next();");
+
+          scopes.push(Map.of(foreach.variable(), new Binding(variable, element)));
+          loops.push(new Loop(iterator, index));
+          render(foreach.body());
+          loops.pop();
+          scopes.pop();
+
+          if (indexed) {
+            line(index + "++;");
+          }
+          close();
+
+          if (nullable) {
+            close();
+          }
+        });
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // References
+  // ---------------------------------------------------------------------------------------------
+
+  /** Evaluates a reference into a new {@code Object} local, {@code null} if any step is null. */
+  private String evaluate(Reference reference) {
+    String value = name("$v");
+    if (isLoopReference(reference)) {
+      line("Object " + value + " = " + loopProperty(reference) + ";");
+      return value;
+    }
+    line("Object " + value + " = null;");
+    chain(reference, (expression, type) -> line(value + " = " + expression + ";"));
+    return value;
+  }
+
+  /**
+   * Emits the null-checked accessor chain of a reference and runs {@code body} with the final
+   * expression and type inside the innermost check.
+   */
+  private void chain(Reference reference, BiConsumer<String, TypeMirror> body) {
+    Binding root = lookup(reference);
+    String current = root.expression();
+    TypeMirror type = root.type();
+    int opened = 0;
+
+    for (Segment segment : reference.segments()) {
+      if (type.getKind().isPrimitive()) {
+        throw new TemplateException(
+            "cannot resolve ." + segment.name() + " on primitive " + type, reference.offset());
+      }
+      Binding access = access(current, type, segment, reference);
+      open("if (" + current + " != null)");
+      opened++;
+      String next = name("$r");
+      line("var " + next + " = " + access.expression() + ";");
+      current = next;
+      type = access.type();
+    }
+
+    body.accept(current, type);
+    for (int index = 0; index < opened; index++) {
+      close();
+    }
+  }
+
+  private Binding lookup(Reference reference) {
+    for (Map<String, Binding> scope : scopes) {
+      Binding binding = scope.get(reference.root());
+      if (binding != null) {
+        return binding;
+      }
+    }
+    throw new TemplateException("unknown variable $" + reference.root(), reference.offset());
+  }
+
+  private boolean isLoopReference(Reference reference) {
+    if (!reference.root().equals(FOREACH) || loops.isEmpty()) {
+      return false;
+    }
+    for (Map<String, Binding> scope : scopes) {
+      if (scope.containsKey(FOREACH)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private String loopProperty(Reference reference) {
+    Loop loop = loops.peek();
+    List<Segment> segments = reference.segments();
+    if (segments.size() != 1) {
+      throw new TemplateException(
+          "$foreach supports exactly one of index, count, hasNext, first, last",
+          reference.offset());
+    }
+    Segment segment = segments.getFirst();
+    String property = segment.method() ? methodProperty(segment.name()) : segment.name();
+    return switch (property == null ? "" : property) {
+      case "index" -> loop.index();
+      case "count" -> "(" + loop.index() + " + 1)";
+      case "hasNext" -> loop.iterator() + ".hasNext()";
+      case "first" -> "(" + loop.index() + " == 0)";
+      case "last" -> "!" + loop.iterator() + ".hasNext()";
+      default ->
+          throw new TemplateException(
+              "$foreach supports exactly one of index, count, hasNext, first, last",
+              reference.offset());
+    };
+  }
+
+  private static String methodProperty(String method) {
+    return switch (method) {
+      case "getIndex" -> "index";
+      case "getCount" -> "count";
+      case "hasNext" -> "hasNext";
+      case "isFirst" -> "first";
+      case "isLast" -> "last";
+      default -> null;
+    };
+  }
+
+  /**
+   * Resolves a segment the way Velocity does: methods by name, properties through {@code getX()},
+   * {@code Map.get("x")} and finally boolean {@code isX()}.
+   */
+  private Binding access(String target, TypeMirror type, Segment segment, Reference reference) {
+    DeclaredType owner = declared(type, segment, reference);
+    String name = segment.name();
+
+    if (segment.method()) {
+      ExecutableElement method = findMethod(owner, name, 0);
+      if (method != null) {
+        return call(target, owner, method);
+      }
+      throw new TemplateException(
+          "no public method " + name + "() on " + owner, reference.offset());
+    }
+
+    String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    for (String getter : List.of("get" + name, "get" + capitalized)) {
+      ExecutableElement method = findMethod(owner, getter, 0);
+      if (method != null) {
+        return call(target, owner, method);
+      }
+    }
+
+    TypeElement map = elements.getTypeElement("java.util.Map");
+    if (types.isAssignable(types.erasure(owner), types.erasure(map.asType()))) {
+      ExecutableElement get = findMethod(owner, "get", 1);
+      TypeMirror value = ((ExecutableType) types.asMemberOf(owner, get)).getReturnType();
+      return new Binding(target + ".get(" + literal(name) + ")", value);
+    }
+
+    for (String predicate : List.of("is" + name, "is" + capitalized)) {
+      ExecutableElement method = findMethod(owner, predicate, 0);
+      if (method != null && isBoolean(method.getReturnType())) {
+        return call(target, owner, method);
+      }
+    }
+
+    throw new TemplateException(
+        "no property '" + name + "' (getter, Map key or boolean is-method) on " + owner,
+        reference.offset());
+  }
+
+  private Binding call(String target, DeclaredType owner, ExecutableElement method) {
+    TypeMirror result = ((ExecutableType) types.asMemberOf(owner, method)).getReturnType();
+    return new Binding(target + "." + method.getSimpleName() + "()", result);
+  }
+
+  private ExecutableElement findMethod(DeclaredType owner, String name, int parameters) {
+    TypeElement element = (TypeElement) owner.asElement();
+    ExecutableElement method = findMethod(element, name, parameters);
+    if (method == null && element.getKind() == ElementKind.INTERFACE) {
+      method = findMethod(elements.getTypeElement("java.lang.Object"), name, parameters);
+    }
+    return method;
+  }
+
+  private ExecutableElement findMethod(TypeElement element, String name, int parameters) {
+    for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(element))) {
+      if (method.getSimpleName().contentEquals(name)
+          && method.getParameters().size() == parameters
+          && method.getModifiers().contains(Modifier.PUBLIC)
+          && !method.getModifiers().contains(Modifier.STATIC)
+          && method.getTypeParameters().isEmpty()
+          && method.getReturnType().getKind() != TypeKind.VOID) {
+        return method;
+      }
+    }
+    return null;
+  }
+
+  private DeclaredType declared(TypeMirror type, Segment segment, Reference reference) {
+    TypeMirror bound = upperBound(type);
+    if (bound instanceof DeclaredType declared) {
+      return declared;
+    }
+    throw new TemplateException(
+        "cannot resolve ." + segment.name() + " on " + type, reference.offset());
+  }
+
+  private TypeMirror upperBound(TypeMirror type) {
+    return switch (type) {
+      case TypeVariable variable -> upperBound(variable.getUpperBound());
+      case IntersectionType intersection -> upperBound(intersection.getBounds().getFirst());
+      case WildcardType wildcard ->
+          wildcard.getExtendsBound() == null
+              ? elements.getTypeElement("java.lang.Object").asType()
+              : upperBound(wildcard.getExtendsBound());
+      default -> type;
+    };
+  }
+
+  private boolean isBoolean(TypeMirror type) {
+    return type.getKind() == TypeKind.BOOLEAN
+        || types.isSameType(type, elements.getTypeElement("java.lang.Boolean").asType());
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // Iteration
+  // ---------------------------------------------------------------------------------------------
+
+  private String iteratorOf(String iterable, TypeMirror type, Foreach foreach) {
+    TypeMirror bound = upperBound(type);
+    if (bound instanceof ArrayType array) {
+      if (array.getComponentType().getKind().isPrimitive()) {
+        throw new TemplateException(
+            "primitive arrays cannot be iterated", foreach.iterable().offset());
+      }
+      return "java.util.Arrays.asList(" + iterable + ").iterator()";
+    }
+    return switch (iterableKind(bound, foreach)) {
+      case "iterator" -> iterable;
+      case "map" -> iterable + ".values().iterator()";
+      default -> iterable + ".iterator()";
+    };
+  }
+
+  private TypeMirror iteratorType(TypeMirror type, Foreach foreach) {
+    TypeMirror bound = upperBound(type);
+    if (bound instanceof ArrayType array) {
+      return types.getDeclaredType(
+          elements.getTypeElement("java.util.Iterator"), array.getComponentType());
+    }
+    DeclaredType owner = (DeclaredType) bound;
+    return switch (iterableKind(bound, foreach)) {
+      case "iterator" -> owner;
+      case "map" -> returnType(returnType(owner, "values"), "iterator");
+      default -> returnType(owner, "iterator");
+    };
+  }
+
+  private String iterableKind(TypeMirror type, Foreach foreach) {
+    if (isSubtype(type, "java.lang.Iterable")) {
+      return "iterable";
+    }
+    if (isSubtype(type, "java.util.Iterator")) {
+      return "iterator";
+    }
+    if (isSubtype(type, "java.util.Map")) {
+      return "map";
+    }
+    throw new TemplateException(
+        "cannot iterate over " + type + " (expected Iterable, Iterator, Map or array)",
+        foreach.iterable().offset());
+  }
+
+  private boolean isSubtype(TypeMirror type, String name) {
+    return type instanceof DeclaredType
+        && types.isAssignable(
+            types.erasure(type), types.erasure(elements.getTypeElement(name).asType()));
+  }
+
+  private TypeMirror returnType(TypeMirror type, String method) {
+    DeclaredType owner = (DeclaredType) upperBound(type);
+    return ((ExecutableType) types.asMemberOf(owner, findMethod(owner, method, 0))).getReturnType();
+  }
+
+  /** Returns whether the body reads {@code $foreach}, ignoring nested loops that shadow it. */
+  private static boolean usesLoop(List<TemplateNode> nodes) {
+    for (TemplateNode node : nodes) {
+      boolean uses =
+          switch (node) {
+            case Text text -> false;
+            case Reference reference -> reference.root().equals(FOREACH);
+            case Foreach foreach -> foreach.iterable().root().equals(FOREACH);
+            case If conditional ->
+                conditional.branches().stream()
+                        .anyMatch(
+                            branch ->
+                                branch.condition().root().equals(FOREACH)
+                                    || usesLoop(branch.body()))
+                    || (conditional.otherwise() != null && usesLoop(conditional.otherwise()));
+          };
+      if (uses) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // Source helpers
+  // ---------------------------------------------------------------------------------------------
+
+  private static String parameterType(TypeMirror type, boolean varargs) {
+    String name = type.toString();
+    if (varargs && name.endsWith("[]")) {
+      return name.substring(0, name.length() - 2) + "...";
+    }
+    return name;
+  }
+
+  private static int capacity(List<TemplateNode> nodes) {
+    int length = 16;
+    for (TemplateNode node : nodes) {
+      length +=
+          switch (node) {
+            case Text text -> text.text().length();
+            case Reference reference -> 16;
+            case If conditional -> 16;
+            case Foreach foreach -> 64;
+          };
+    }
+    return length;
+  }
+
+  /** Splits text after each newline so generated appends mirror the template lines. */
+  private static List<String> lines(String text) {
+    List<String> lines = new ArrayList<>();
+    int start = 0;
+    for (int index = 0; index < text.length(); index++) {
+      if (text.charAt(index) == '\n') {
+        lines.add(text.substring(start, index + 1));
+        start = index + 1;
+      }
+    }
+    if (start < text.length()) {
+      lines.add(text.substring(start));
+    }
+    return lines;
+  }
+
+  /**
+   * Returns a Java string literal for {@code text}, escaping everything outside printable ASCII.
+   */
+  static String literal(String text) {
+    StringBuilder literal = new StringBuilder(text.length() + 2).append('"');
+    for (int index = 0; index < text.length(); index++) {
+      char c = text.charAt(index);
+      switch (c) {
+        case '"' -> literal.append("\\\"");
+        case '\\' -> literal.append("\\\\");
+        case '\n' -> literal.append("\\n");
+        case '\r' -> literal.append("\\r");
+        case '\t' -> literal.append("\\t");
+        default -> {
+          if (c < 0x20 || c > 0x7e) {
+            literal.append(String.format("\\u%04x", (int) c));
+          } else {
+            literal.append(c);
+          }
+        }
+      }
+    }
+    return literal.append('"').toString();
+  }
+
+  private String name(String prefix) {
+    return prefix + (++names);
+  }
+
+  private void line(String text) {
+    code.append("  ".repeat(indent)).append(text).append('\n');
+  }
+
+  private void open(String header) {
+    line(header + " {");
+    indent++;
+  }
+
+  private void reopen(String header) {
+    indent--;
+    line(header);
+    indent++;
+  }
+
+  private void close() {
+    indent--;
+    line("}");
+  }
+}
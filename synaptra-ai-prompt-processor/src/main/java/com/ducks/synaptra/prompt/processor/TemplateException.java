@@ -0,0 +1,39 @@
+package com.ducks.synaptra.prompt.processor;
+
+/**
+ * Signals an invalid or unsupported prompt template.
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+final class TemplateException extends RuntimeException {
+
+  private static final long serialVersionUID = 1L;
+
+  private final int offset;
+
+  TemplateException(String message, int offset) {
+    super(message);
+    this.offset = offset;
+  }
+
+  /**
+   * Formats the error with the line and column of its offset in the template.
+   *
+   * @param template the template source
+   * @return the message prefixed with its location
+   */
+  String describe(String template) {
+    int line = 1;
+    int column = 1;
+    for (int index = 0; index < Math.min(offset, template.length()); index++) {
+      if (template.charAt(index) == '\n') {
+        line++;
+        column = 1;
+      } else {
+        column++;
+      }
+    }
+    return "line " + line + ", column " + column + ": " + getMessage();
+  }
+}
@@ -0,0 +1,67 @@
+package com.ducks.synaptra.prompt.processor;
+
+import java.util.List;
+
+/**
+ * Node of a parsed prompt template.
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+sealed interface TemplateNode {
+
+  /**
+   * Literal text, already stripped of gobbled whitespace and comments.
+   *
+   * @param text the text
+   */
+  record Text(String text) implements TemplateNode {}
+
+  /**
+   * A reference such as {@code $agent.getName()}.
+   *
+   * @param source the reference source text, rendered when the value is {@code null}
+   * @param silent whether the reference is quiet ({@code $!}), rendering nothing for {@code null}
+   * @param root the root variable name
+   * @param segments the property and method segments following the root
+   * @param offset the offset of the reference in the template
+   */
+  record Reference(String source, boolean silent, String root, List<Segment> segments, int offset)
+      implements TemplateNode {}
+
+  /**
+   * A property ({@code .goal}) or no-argument method ({@code .getGoal()}) segment of a reference.
+   *
+   * @param name the property or method name
+   * @param method whether the segment is a method call
+   */
+  record Segment(String name, boolean method) {}
+
+  /**
+   * A {@code #foreach($variable in $iterable)} block.
+   *
+   * @param variable the loop variable name
+   * @param iterable the iterated reference
+   * @param body the loop body
+   * @param offset the offset of the directive in the template
+   */
+  record Foreach(String variable, Reference iterable, List<TemplateNode> body, int offset)
+      implements TemplateNode {}
+
+  /**
+   * An {@code #if} block with its {@code #elseif} branches and optional {@code #else}.
+   *
+   * @param branches the conditional branches, in order
+   * @param otherwise the {@code #else} body, or {@code null} if there is none
+   */
+  record If(List<Branch> branches, List<TemplateNode> otherwise) implements TemplateNode {}
+
+  /**
+   * A conditional branch of an {@link If}.
+   *
+   * @param negated whether the condition is negated ({@code !$reference})
+   * @param condition the evaluated reference
+   * @param body the branch body
+   */
+  record Branch(boolean negated, Reference condition, List<TemplateNode> body) {}
+}
@@ -0,0 +1,470 @@
+package com.ducks.synaptra.prompt.processor;
+
+import com.ducks.synaptra.prompt.processor.TemplateNode.Branch;
+import com.ducks.synaptra.prompt.processor.TemplateNode.Foreach;
+import com.ducks.synaptra.prompt.processor.TemplateNode.If;
+import com.ducks.synaptra.prompt.processor.TemplateNode.Reference;
+import com.ducks.synaptra.prompt.processor.TemplateNode.Segment;
+import com.ducks.synaptra.prompt.processor.TemplateNode.Text;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Parses the Velocity subset supported by compiled prompts into {@link TemplateNode}s.
+ *
+ * <p>Whitespace handling follows Velocity's default {@code lines} space gobbling:
+ *
+ * <ul>
+ *   <li>Whitespace before a block directive ({@code #if}, {@code #foreach}, {@code #elseif}, {@code
+ *       #else}, {@code #end}) is dropped when nothing else precedes it on its line
+ *   <li>Trailing whitespace and the newline right after {@code #if(...)}, {@code #foreach(...)},
+ *       {@code #elseif(...)} and {@code #else} are dropped
+ *   <li>Trailing whitespace and the newline right after {@code #end} are dropped when the opening
+ *       directive of the block started its line
+ *   <li>{@code ##} comments are removed up to and including the end of line; {@code #* *#} comments
+ *       are removed alone
+ * </ul>
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+final class TemplateParser {
+
+  private static final Set<String> UNSUPPORTED_DIRECTIVES =
+      Set.of("set", "macro", "include", "parse", "break", "stop", "evaluate", "define");
+
+  private enum Terminator {
+    END,
+    ELSE,
+    ELSEIF,
+    EOF
+  }
+
+  private record Block(List<TemplateNode> nodes, Terminator terminator, int offset) {}
+
+  private final String source;
+  private final StringBuilder text = new StringBuilder();
+  private int pos;
+  private boolean lineHasContent;
+
+  /** Condition parsed by the last {@code #elseif} terminator. */
+  private Branch pendingElseIf;
+
+  private TemplateParser(String source) {
+    this.source = source;
+  }
+
+  /**
+   * Parses a template.
+   *
+   * @param source the template source
+   * @return the top-level nodes
+   * @throws TemplateException if the template is invalid or uses unsupported syntax
+   */
+  static List<TemplateNode> parse(String source) {
+    TemplateParser parser = new TemplateParser(source);
+    Block block = parser.parseBlock();
+    if (block.terminator() != Terminator.EOF) {
+      throw new TemplateException(
+          "#" + keyword(block.terminator()) + " without block", block.offset());
+    }
+    return block.nodes();
+  }
+
+  private Block parseBlock() {
+    List<TemplateNode> nodes = new ArrayList<>();
+    while (pos < source.length()) {
+      char c = source.charAt(pos);
+
+      if (c == '\\' && (peek(1) == '$' || peek(1) == '#')) {
+        throw new TemplateException("escaped references and directives are not supported", pos);
+      }
+
+      if (c == '$') {
+        Reference reference = parseReference();
+        if (reference == null) {
+          appendText(c);
+          pos++;
+        } else {
+          flushText(nodes);
+          nodes.add(reference);
+          lineHasContent = true;
+        }
+        continue;
+      }
+
+      if (c == '#') {
+        if (peek(1) == '#') {
+          skipLineComment();
+          continue;
+        }
+        if (peek(1) == '*') {
+          skipBlockComment();
+          continue;
+        }
+
+        int start = pos;
+        String name = directiveName();
+        if (name == null) {
+          appendText(c);
+          pos++;
+          continue;
+        }
+        if (UNSUPPORTED_DIRECTIVES.contains(name)) {
+          throw new TemplateException("#" + name + " is not supported by compiled prompts", start);
+        }
+
+        switch (name) {
+          case "foreach" -> {
+            nodes.add(parseForeach(start, nodes));
+            continue;
+          }
+          case "if" -> {
+            nodes.add(parseIf(start, nodes));
+            continue;
+          }
+          case "end", "else", "elseif" -> {
+            return terminate(name, start, nodes);
+          }
+          default -> {
+            appendText(c);
+            pos++;
+            continue;
+          }
+        }
+      }
+
+      appendText(c);
+      pos++;
+    }
+
+    flushText(nodes);
+    return new Block(nodes, Terminator.EOF, pos);
+  }
+
+  private Foreach parseForeach(int start, List<TemplateNode> nodes) {
+    boolean lineStart = openDirective(nodes);
+
+    openArguments();
+    if (peek(0) != '$' || !isIdentifierStart(peek(1))) {
+      throw new TemplateException("expected loop variable in #foreach", pos);
+    }
+    pos++;
+    String variable = identifier();
+    skipBlanks();
+    if (!source.startsWith("in", pos) || isIdentifierPart(peek(2))) {
+      throw new TemplateException("expected 'in' in #foreach", pos);
+    }
+    pos += 2;
+    skipBlanks();
+    Reference iterable = requireReference();
+    if (iterable.silent()) {
+      throw new TemplateException("quiet references cannot be iterated", iterable.offset());
+    }
+    closeArguments();
+    gobbleNewline();
+
+    Block body = parseBlock();
+    if (body.terminator() != Terminator.END) {
+      throw unterminated("#foreach", start, body);
+    }
+    closeBlock(lineStart);
+    return new Foreach(variable, iterable, body.nodes(), start);
+  }
+
+  private If parseIf(int start, List<TemplateNode> nodes) {
+    boolean lineStart = openDirective(nodes);
+
+    List<Branch> branches = new ArrayList<>();
+    List<TemplateNode> otherwise = null;
+
+    Branch condition = parseCondition();
+    gobbleNewline();
+
+    while (true) {
+      Block body = parseBlock();
+      branches.add(new Branch(condition.negated(), condition.condition(), body.nodes()));
+
+      if (body.terminator() == Terminator.ELSEIF) {
+        condition = pendingElseIf;
+        continue;
+      }
+      if (body.terminator() == Terminator.ELSE) {
+        Block elseBody = parseBlock();
+        if (elseBody.terminator() != Terminator.END) {
+          throw unterminated("#else", start, elseBody);
+        }
+        otherwise = elseBody.nodes();
+      } else if (body.terminator() != Terminator.END) {
+        throw unterminated("#if", start, body);
+      }
+      break;
+    }
+
+    closeBlock(lineStart);
+    return new If(branches, otherwise);
+  }
+
+  private Block terminate(String name, int start, List<TemplateNode> nodes) {
+    if (!lineHasContent) {
+      trimLineWhitespace();
+    }
+    flushText(nodes);
+
+    Terminator terminator =
+        switch (name) {
+          case "end" -> Terminator.END;
+          case "else" -> Terminator.ELSE;
+          default -> Terminator.ELSEIF;
+        };
+
+    if (terminator == Terminator.ELSEIF) {
+      pendingElseIf = parseCondition();
+    }
+    if (terminator != Terminator.END) {
+      gobbleNewline();
+    }
+    return new Block(nodes, terminator, start);
+  }
+
+  /** Handles the whitespace before an opening directive; returns whether it started its line. */
+  private boolean openDirective(List<TemplateNode> nodes) {
+    boolean lineStart = !lineHasContent;
+    if (lineStart) {
+      trimLineWhitespace();
+    }
+    flushText(nodes);
+    return lineStart;
+  }
+
+  private void closeBlock(boolean lineStart) {
+    if (lineStart) {
+      gobbleNewline();
+    }
+  }
+
+  private Branch parseCondition() {
+    openArguments();
+    boolean negated = false;
+    if (peek(0) == '!') {
+      negated = true;
+      pos++;
+      skipBlanks();
+    }
+    Reference reference = requireReference();
+    closeArguments();
+    return new Branch(negated, reference, List.of());
+  }
+
+  private void openArguments() {
+    skipBlanks();
+    if (peek(0) != '(') {
+      throw new TemplateException("expected '('", pos);
+    }
+    pos++;
+    skipBlanks();
+  }
+
+  private void closeArguments() {
+    skipBlanks();
+    if (peek(0) != ')') {
+      throw new TemplateException(
+          "only a single reference is supported here (operators and literals are not)", pos);
+    }
+    pos++;
+  }
+
+  private Reference requireReference() {
+    Reference reference = peek(0) == '$' ? parseReference() : null;
+    if (reference == null) {
+      throw new TemplateException("expected a reference", pos);
+    }
+    return reference;
+  }
+
+  /** Parses a reference at {@code pos}, or returns {@code null} if the text is not one. */
+  private Reference parseReference() {
+    int start = pos;
+    int p = pos + 1;
+    boolean silent = false;
+    if (charAt(p) == '!') {
+      silent = true;
+      p++;
+    }
+    boolean formal = false;
+    if (charAt(p) == '{') {
+      formal = true;
+      p++;
+    }
+    if (!isIdentifierStart(charAt(p))) {
+      return null;
+    }
+
+    pos = p;
+    String root = identifier();
+    List<Segment> segments = new ArrayList<>();
+    while (peek(0) == '.' && isIdentifierStart(peek(1))) {
+      pos++;
+      String name = identifier();
+      if (peek(0) == '(') {
+        pos++;
+        skipBlanks();
+        if (peek(0) != ')') {
+          throw new TemplateException("method arguments are not supported", pos);
+        }
+        pos++;
+        segments.add(new Segment(name, true));
+      } else {
+        segments.add(new Segment(name, false));
+      }
+    }
+
+    if (formal) {
+      if (peek(0) != '}') {
+        throw new TemplateException("expected '}'", pos);
+      }
+      pos++;
+    } else if (peek(0) == '[') {
+      throw new TemplateException("index notation is not supported", pos);
+    }
+
+    return new Reference(source.substring(start, pos), silent, root, List.copyOf(segments), start);
+  }
+
+  /** Reads a directive name at {@code pos} (on '#'), or returns {@code null} if there is none. */
+  private String directiveName() {
+    int p = pos + 1;
+    boolean formal = charAt(p) == '{';
+    if (formal) {
+      p++;
+    }
+    if (!isIdentifierStart(charAt(p))) {
+      return null;
+    }
+    int nameStart = p;
+    while (isIdentifierPart(charAt(p))) {
+      p++;
+    }
+    String name = source.substring(nameStart, p);
+    if (formal) {
+      if (charAt(p) != '}') {
+        return null;
+      }
+      p++;
+    }
+    if (!isDirective(name)) {
+      return null;
+    }
+    pos = p;
+    return name;
+  }
+
+  private static boolean isDirective(String name) {
+    return switch (name) {
+      case "foreach", "if", "elseif", "else", "end" -> true;
+      default -> UNSUPPORTED_DIRECTIVES.contains(name);
+    };
+  }
+
+  private void skipLineComment() {
+    int end = source.indexOf('\n', pos);
+    if (end < 0) {
+      pos = source.length();
+    } else {
+      pos = end + 1;
+      lineHasContent = false;
+    }
+  }
+
+  private void skipBlockComment() {
+    int end = source.indexOf("*#", pos + 2);
+    if (end < 0) {
+      throw new TemplateException("unterminated #* comment", pos);
+    }
+    pos = end + 2;
+  }
+
+  /** Consumes trailing blanks and a newline after a directive, if the line ends there. */
+  private void gobbleNewline() {
+    int p = pos;
+    while (charAt(p) == ' ' || charAt(p) == '\t') {
+      p++;
+    }
+    if (charAt(p) == '\n') {
+      pos = p + 1;
+      lineHasContent = false;
+    }
+  }
+
+  private void trimLineWhitespace() {
+    int length = text.length();
+    while (length > 0 && (text.charAt(length - 1) == ' ' || text.charAt(length - 1) == '\t')) {
+      length--;
+    }
+    text.setLength(length);
+  }
+
+  private void appendText(char c) {
+    text.append(c);
+    if (c == '\n') {
+      lineHasContent = false;
+    } else if (c != ' ' && c != '\t') {
+      lineHasContent = true;
+    }
+  }
+
+  private void flushText(List<TemplateNode> nodes) {
+    if (!text.isEmpty()) {
+      nodes.add(new Text(text.toString()));
+      text.setLength(0);
+    }
+  }
+
+  private void skipBlanks() {
+    while (Character.isWhitespace(peek(0))) {
+      pos++;
+    }
+  }
+
+  private String identifier() {
+    int start = pos;
+    while (isIdentifierPart(peek(0))) {
+      pos++;
+    }
+    return source.substring(start, pos);
+  }
+
+  private TemplateException unterminated(String directive, int start, Block block) {
+    if (block.terminator() == Terminator.EOF) {
+      return new TemplateException(directive + " without #end", start);
+    }
+    return new TemplateException(
+        "unexpected #" + keyword(block.terminator()) + " in " + directive, block.offset());
+  }
+
+  private static String keyword(Terminator terminator) {
+    return switch (terminator) {
+      case END -> "end";
+      case ELSE -> "else";
+      case ELSEIF -> "elseif";
+      case EOF -> "EOF";
+    };
+  }
+
+  private char peek(int offset) {
+    return charAt(pos + offset);
+  }
+
+  private char charAt(int index) {
+    return index < source.length() ? source.charAt(index) : '\0';
+  }
+
+  private static boolean isIdentifierStart(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+  }
+
+  private static boolean isIdentifierPart(char c) {
+    return isIdentifierStart(c) || (c >= '0' && c <= '9');
+  }
+}
@@ -0,0 +1,321 @@
+package com.ducks.synaptra.prompt.processor;
+
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static com.google.testing.compile.Compiler.javac;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.ducks.synaptra.agent.Agent;
+import com.ducks.synaptra.config.VelocityConfiguration;
+import com.ducks.synaptra.publisher.contract.RecordEvent;
+import com.ducks.synaptra.velocity.VelocityTemplateService;
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.JavaFileObjects;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.tools.JavaFileObject;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compiles the built-in prompt templates with {@link CompiledPromptProcessor} and checks that every
+ * generated renderer produces the same output as {@link VelocityTemplateService}, including {@code
+ * null} references, {@code #if} and {@code #foreach}.
+ *
+ * @author Leandro Marques
+ * @since 1.0.0
+ */
+class CompiledPromptProcessorTest {
+
+  private static final String PROMPTS = "fixtures.BuiltInTemplates";
+
+  /** Templates by method name, with the parameter declarations of the method. */
+  private static final Map<String, Fixture> FIXTURES = new LinkedHashMap<>();
+
+  static {
+    FIXTURES.put(
+        "handoff",
+        new Fixture(
+            "Object objective",
+            """
+            HANDOFF
+            Objective: $objective
+
+            Constraints:
+             - Do not assume missing data.
+            """));
+    FIXTURES.put(
+        "episodicContext",
+        new Fixture(
+            "List<RecordEvent> records",
+            """
+            EPISODIC_MEMORY_CONTEXT
+            Purpose:
+            This section summarizes what has already happened in the current session.
+            It exists to ensure continuity and avoid repetition.
+
+            The last events:
+            #foreach($record in $records)
+             # Event - status: $record.status(), content: $record.content()
+            #end
+
+            Constraints:
+            - Do not repeat previously asked questions.
+            - Do not redo completed steps.
+            - Resume execution from the last known state.
+            """));
+    FIXTURES.put(
+        "childCompletion",
+        new Fixture(
+            "Agent agent, Object content",
+            """
+            Child completion:
+            - The agent '$agent.getName()' has finished. Summary: $content
+            """));
+    FIXTURES.put(
+        "supervisor",
+        new Fixture(
+            "String name, String goal, List<Agent> agents",
+            """
+            You are $name.
+            Goal: $goal
+
+            Available agents:
+            #foreach($agent in $agents)
+             - $agent.getName(): $agent.getGoal()
+            #end
+
+            Route the request to the agent that best fulfills it.
+            """));
+    FIXTURES.put(
+        "routing",
+        new Fixture(
+            "String objective, List<Agent> agents",
+            """
+            Route: $!objective
+            #if($objective)
+            Objective: $objective
+            #elseif($agents)
+            Candidates: #foreach($agent in $agents)$agent.getName()#if($foreach.hasNext), #end#end
+
+            #else
+            Nothing to route.
+            #end
+            ## Numbered list of the candidates.
+            #foreach($agent in $agents)
+            $foreach.count. ${agent.name}#if($foreach.last) (last)#end
+
+            #end
+            """));
+  }
+
+  private static Object prompts;
+  private static VelocityTemplateService velocity;
+
+  @BeforeAll
+  static void compile() throws Exception {
+    Compilation compilation =
+        javac()
+            .withProcessors(new CompiledPromptProcessor())
+            .compile(JavaFileObjects.forSourceString(PROMPTS, source()));
+    assertThat(compilation).succeededWithoutWarnings();
+    assertThat(compilation).generatedSourceFile(PROMPTS + "Compiled");
+
+    Map<String, byte[]> classes = new HashMap<>();
+    for (JavaFileObject file : compilation.generatedFiles()) {
+      if (file.getKind() == JavaFileObject.Kind.CLASS) {
+        try (InputStream in = file.openInputStream()) {
+          classes.put(className(file), in.readAllBytes());
+        }
+      }
+    }
+    ClassLoader loader =
+        new GeneratedClassLoader(classes, CompiledPromptProcessorTest.class.getClassLoader());
+    prompts = loader.loadClass(PROMPTS + "Compiled").getDeclaredConstructor().newInstance();
+    velocity = new VelocityTemplateService(new VelocityConfiguration().velocityEngine(), 256);
+  }
+
+  @Test
+  void handoffRendersLikeVelocity() {
+    assertRendersLikeVelocity("handoff", "Refund order 42 to the original payment method.");
+    assertRendersLikeVelocity("handoff", "Pay $5 #now");
+    assertRendersLikeVelocity("handoff", "");
+    assertRendersLikeVelocity("handoff", (Object) null);
+  }
+
+  @Test
+  void episodicContextRendersLikeVelocity() {
+    assertRendersLikeVelocity(
+        "episodicContext",
+        List.of(
+            new RecordEvent("Which order?", "WAIT_USER_INPUT"),
+            new RecordEvent(null, "FINISHED_TOOL_EXECUTION"),
+            new RecordEvent("Refunded", null)));
+    assertRendersLikeVelocity("episodicContext", List.of());
+    assertRendersLikeVelocity("episodicContext", (Object) null);
+  }
+
+  @Test
+  void childCompletionRendersLikeVelocity() {
+    assertRendersLikeVelocity("childCompletion", agent("Refunds", "Refund orders"), "Done.");
+    assertRendersLikeVelocity("childCompletion", agent(null, null), "Done.");
+    assertRendersLikeVelocity("childCompletion", null, null);
+  }
+
+  @Test
+  void supervisorRendersLikeVelocity() {
+    List<Agent> agents =
+        List.of(
+            agent("Refunds", "Refund orders"),
+            agent("Shipping", null),
+            agent("Billing", "Explain invoices"));
+    assertRendersLikeVelocity("supervisor", "Support", "Route support requests", agents);
+    assertRendersLikeVelocity("supervisor", "Support", null, List.of(agents.get(0)));
+    assertRendersLikeVelocity("supervisor", null, null, List.of());
+    assertRendersLikeVelocity("supervisor", "Support", "Route", null);
+  }
+
+  @Test
+  void routingRendersLikeVelocity() {
+    List<Agent> agents = List.of(agent("Refunds", "Refund orders"), agent("Shipping", null));
+    assertRendersLikeVelocity("routing", "Refund order 42", agents);
+    assertRendersLikeVelocity("routing", "", agents);
+    assertRendersLikeVelocity("routing", null, List.of(agents.get(1)));
+    assertRendersLikeVelocity("routing", null, List.of());
+    assertRendersLikeVelocity("routing", null, null);
+  }
+
+  @Test
+  void unknownVariableFailsCompilation() {
+    Compilation compilation =
+        javac()
+            .withProcessors(new CompiledPromptProcessor())
+            .compile(
+                JavaFileObjects.forSourceString(
+                    "fixtures.BrokenTemplates",
+                    """
+                    package fixtures;
+
+                    import com.ducks.synaptra.prompt.CompiledPrompts;
+                    import com.ducks.synaptra.prompt.PromptTemplate;
+
+                    @CompiledPrompts
+                    public interface BrokenTemplates {
+
+                      @PromptTemplate("Objective: $objective")
+                      String handoff(String goal);
+                    }
+                    """));
+    assertThat(compilation).failed();
+    assertThat(compilation).hadErrorContaining("Invalid prompt template");
+  }
+
+  private static void assertRendersLikeVelocity(String method, Object... args) {
+    Fixture fixture = FIXTURES.get(method);
+    String[] parameters = fixture.parameters().split(",");
+    Map<String, Object> model = new HashMap<>();
+    for (int i = 0; i < parameters.length; i++) {
+      String parameter = parameters[i].trim();
+      model.put(parameter.substring(parameter.lastIndexOf(' ') + 1), args[i]);
+    }
+
+    String expected = velocity.render(fixture.template(), model);
+    assertEquals(expected, render(method, args), method + " with " + Arrays.toString(args));
+  }
+
+  private static String render(String method, Object... args) {
+    for (Method candidate : prompts.getClass().getMethods()) {
+      if (candidate.getName().equals(method)) {
+        try {
+          return (String) candidate.invoke(prompts, args);
+        } catch (ReflectiveOperationException e) {
+          throw new AssertionError("Failed to render " + method, e);
+        }
+      }
+    }
+    throw new AssertionError("No generated method " + method);
+  }
+
+  /** Returns an agent exposing only a name and a goal, enough for the templates. */
+  private static Agent agent(String name, String goal) {
+    return (Agent)
+        Proxy.newProxyInstance(
+            Agent.class.getClassLoader(),
+            new Class<?>[] {Agent.class},
+            (proxy, method, args) ->
+                switch (method.getName()) {
+                  case "getName" -> name;
+                  case "getGoal" -> goal;
+                  case "toString" -> "Agent[" + name + "]";
+                  case "hashCode" -> System.identityHashCode(proxy);
+                  case "equals" -> proxy == args[0];
+                  default -> throw new UnsupportedOperationException(method.getName());
+                });
+  }
+
+  private static String source() {
+    StringBuilder source =
+        new StringBuilder(
+            """
+            package fixtures;
+
+            import com.ducks.synaptra.agent.Agent;
+            import com.ducks.synaptra.prompt.CompiledPrompts;
+            import com.ducks.synaptra.prompt.PromptTemplate;
+            import com.ducks.synaptra.publisher.contract.RecordEvent;
+            import java.util.List;
+
+            @CompiledPrompts
+            public interface BuiltInTemplates {
+            """);
+    FIXTURES.forEach(
+        (method, fixture) ->
+            source
+                .append("\n  @PromptTemplate(")
+                .append(literal(fixture.template()))
+                .append(")\n  String ")
+                .append(method)
+                .append('(')
+                .append(fixture.parameters())
+                .append(");\n"));
+    return source.append("}\n").toString();
+  }
+
+  private static String literal(String text) {
+    return '"' + text.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n") + '"';
+  }
+
+  private static String className(JavaFileObject file) throws IOException {
+    String path = file.toUri().getPath();
+    String name = path.substring(path.indexOf("/CLASS_OUTPUT/") + "/CLASS_OUTPUT/".length());
+    return name.substring(0, name.length() - ".class".length()).replace('/', '.');
+  }
+
+  private record Fixture(String parameters, String template) {}
+
+  /** Loads the classes produced by an in-memory compilation. */
+  private static final class GeneratedClassLoader extends ClassLoader {
+
+    private final Map<String, byte[]> classes;
+
+    private GeneratedClassLoader(Map<String, byte[]> classes, ClassLoader parent) {
+      super(parent);
+      this.classes = classes;
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+      byte[] bytes = classes.get(name);
+      if (bytes == null) {
+        throw new ClassNotFoundException(name);
+      }
+      return defineClass(name, bytes, 0, bytes.length);
+    }
+  }
+}